@@ -0,0 +1,93 @@
+package org.surkov.hranalyzer.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Конфигурация пользователей API.
+ * Каждый пользователь соответствует команде-потребителю (арендатору) и имеет вес
+ * и квоты на вызовы GigaChat, используемые справедливой очередью вызовов.
+ * Значения загружаются из свойств приложения с префиксом "api".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "api")
+@Validated
+public class ApiUsersConfig {
+
+    /**
+     * Пользователи API.
+     */
+    @Valid
+    @NotEmpty
+    private List<User> users = new ArrayList<>();
+
+    /**
+     * Находит пользователя по имени.
+     *
+     * @param username Имя пользователя.
+     * @return Пользователь, если он настроен.
+     */
+    public Optional<User> find(final String username) {
+        return users.stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findFirst();
+    }
+
+    /**
+     * Пользователь API.
+     */
+    @Data
+    public static class User {
+
+        /**
+         * Имя пользователя.
+         */
+        @NotBlank
+        private String username;
+
+        /**
+         * Пароль пользователя.
+         */
+        @NotBlank
+        private String password;
+
+        /**
+         * Вес пользователя в справедливой очереди вызовов GigaChat.
+         * Пользователь с весом 3 при конкуренции получает втрое больше вызовов, чем пользователь с весом 1.
+         * Значение по умолчанию: 1.
+         */
+        @Min(1)
+        private int weight = 1;
+
+        /**
+         * Максимальное количество одновременных вызовов одной модели от пользователя.
+         * Значение по умолчанию: 0 (без ограничения сверх общего лимита модели).
+         */
+        @Min(0)
+        private int maxConcurrentCalls = 0;
+
+        /**
+         * Максимальное количество вызовов одной модели, ожидающих в очереди от пользователя.
+         * Значение по умолчанию: 32.
+         */
+        @Min(0)
+        private int maxQueuedCalls = 32;
+
+        /**
+         * Доступ к административному API (запись Java Flight Recorder).
+         * Значение по умолчанию: {@code false}.
+         */
+        private boolean admin = false;
+    }
+}
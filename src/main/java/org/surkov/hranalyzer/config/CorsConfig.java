@@ -36,8 +36,9 @@ public class CorsConfig {
                 registry
                         .addMapping("/api/**")
                         .allowedOrigins(allowedOrigin)
-                        .allowedMethods("POST", "OPTIONS")
+                        .allowedMethods("GET", "POST", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag", "Content-Location", "Retry-After")
                         .allowCredentials(true);
             }
         };
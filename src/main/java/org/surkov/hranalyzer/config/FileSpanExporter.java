@@ -0,0 +1,125 @@
+package org.surkov.hranalyzer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Экспорт span-ов трассировки в локальный файл, по одному JSON-объекту на строку.
+ * <p>
+ * Включается свойством {@code tracing.file.enabled} и работает вместе с экспортом по OTLP.
+ * Подходит для разбора медленных запросов без сборщика трассировок: span-ы одного запроса
+ * находятся по {@code traceId}, который также выводится в журнал приложения.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+public class FileSpanExporter implements SpanExporter {
+
+    /**
+     * Объект для сериализации span-ов в JSON.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Поток записи в файл.
+     */
+    private final Writer writer;
+
+    /**
+     * Конструктор.
+     *
+     * @param path         Путь к файлу span-ов. Файл дополняется.
+     * @param objectMapper Объект для сериализации span-ов в JSON.
+     * @throws IOException не удалось открыть файл.
+     */
+    public FileSpanExporter(
+            @Value("${tracing.file.path:traces.jsonl}") final Path path,
+            final ObjectMapper objectMapper
+    ) throws IOException {
+        this.objectMapper = objectMapper;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(
+                path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND
+        );
+        log.info("Span-ы трассировки записываются в файл {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(final Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJson(span)));
+                writer.write('\n');
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Не удалось записать span-ы трассировки: {}", e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Преобразует span в структуру для сериализации.
+     *
+     * @param span Span.
+     * @return Поля span-а.
+     */
+    private static Map<String, Object> toJson(final SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        json.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startEpochMicros", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()));
+        json.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        json.put("status", span.getStatus().getStatusCode().name());
+        json.put("attributes", attributes);
+        return json;
+    }
+}
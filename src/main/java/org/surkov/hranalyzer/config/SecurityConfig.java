@@ -1,6 +1,7 @@
 package org.surkov.hranalyzer.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -14,27 +15,22 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.List;
+
 /**
  * Конфигурация безопасности приложения.
  * Настраивает базовую HTTP-аутентификацию и правила доступа к ресурсам.
  */
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
     /**
-     * Имя пользователя для доступа к API.
-     * Загружается из конфигурации приложения.
-     */
-    @Value("${api.user.username}")
-    private String username;
-
-    /**
-     * Пароль пользователя для доступа к API.
-     * Загружается из конфигурации приложения.
+     * Пользователи API.
+     * Загружаются из конфигурации приложения.
      */
-    @Value("${api.user.password}")
-    private String password;
+    private final ApiUsersConfig apiUsersConfig;
 
     /**
      * Настраивает цепочку фильтров безопасности.
@@ -51,6 +47,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Разрешаем доступ к документации Swagger без аутентификации
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Пробы живучести и готовности опрашиваются оркестратором без учетных данных
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        // Административное API доступно только администраторам
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // Асинхронная выдача ответа относится к уже аутентифицированному запросу
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Для всех остальных запросов требуем аутентификацию
                         .anyRequest().authenticated()
                 )
@@ -61,19 +63,22 @@ public class SecurityConfig {
 
     /**
      * Создает сервис для работы с данными пользователей.
-     * Настраивает одного пользователя с учетными данными из конфигурации.
+     * Настраивает пользователей с учетными данными из конфигурации.
      *
      * @return сервис для работы с данными пользователей
      */
     @Bean
     public UserDetailsService userDetailsService() {
-        UserDetails user = User.builder()
-                .username(username)
-                .password(passwordEncoder().encode(password))
-                .roles("API_USER")
-                .build();
+        PasswordEncoder encoder = passwordEncoder();
+        List<UserDetails> users = apiUsersConfig.getUsers().stream()
+                .map(user -> User.builder()
+                        .username(user.getUsername())
+                        .password(encoder.encode(user.getPassword()))
+                        .roles(user.isAdmin() ? new String[]{"API_USER", "ADMIN"} : new String[]{"API_USER"})
+                        .build())
+                .toList();
 
-        return new InMemoryUserDetailsManager(user);
+        return new InMemoryUserDetailsManager(users);
     }
 
     /**
@@ -6,6 +6,7 @@
  *     <li>Конфигурация CORS (Cross-Origin Resource Sharing) для управления доступом к API из разных источников.</li>
  *     <li>Конфигурация безопасности, включая настройку аутентификации и авторизации.</li>
  *     <li>Конфигурация Swagger/OpenAPI для автоматической генерации документации API.</li>
+ *     <li>Экспорт span-ов трассировки в локальный файл.</li>
  * </ul>
  * <p>
  * Все классы в этом пакете аннотированы {@link org.springframework.context.annotation.Configuration} и предоставляют
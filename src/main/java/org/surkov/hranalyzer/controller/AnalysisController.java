@@ -2,20 +2,49 @@ package org.surkov.hranalyzer.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.surkov.hranalyzer.controller.api.AnalysisApi;
 import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
 import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.exception.IdempotencyKeyInProgressException;
+import org.surkov.hranalyzer.exception.IdempotencyKeyMismatchException;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
 import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
-import org.surkov.hranalyzer.giga_chat.utils.GigaModel;
-import org.surkov.hranalyzer.giga_chat.utils.SystemPrompt;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.service.analysis.ReactiveResumeAnalysisService;
 import org.surkov.hranalyzer.service.analysis.ResumeAnalysisService;
+import org.surkov.hranalyzer.service.analysis.dto.AnalysisOutcome;
+import org.surkov.hranalyzer.service.analysis.dto.PromptAnalysisItem;
+import org.surkov.hranalyzer.service.analysis.dto.ResumeAnalysisItem;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+import org.surkov.hranalyzer.service.cache.AnalysisResultStore;
 import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.FileTypeDetector;
+import org.surkov.hranalyzer.service.idempotency.IdempotencyStore;
+import org.surkov.hranalyzer.service.prescreen.PrescreenService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Контроллер для обработки запросов, связанных с анализом резюме.
@@ -27,24 +56,66 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class AnalysisController implements AnalysisApi {
 
+    /**
+     * Путь для получения результата анализа по идентификатору.
+     */
+    private static final String RESULTS_PATH = "/api/analysis/results/";
+
     /**
      * Сервис для анализа резюме.
      */
     private final ResumeAnalysisService resumeAnalysisService;
 
+    /**
+     * Сервис неблокирующего анализа резюме.
+     */
+    private final ReactiveResumeAnalysisService reactiveResumeAnalysisService;
+
+    /**
+     * Определитель типа загруженного файла.
+     */
+    private final FileTypeDetector fileTypeDetector;
+
+    /**
+     * Хранилище выданных результатов анализа.
+     */
+    private final AnalysisResultStore resultStore;
+
+    /**
+     * Сервис предварительного отбора резюме.
+     */
+    private final PrescreenService prescreenService;
+
+    /**
+     * Хранилище запросов с ключом идемпотентности.
+     */
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Время, в течение которого клиент может использовать результат без повторной проверки (в секундах).
+     */
+    @Value("${analysis.results.max-age-seconds:0}")
+    private long resultMaxAgeSeconds;
+
     /**
      * Анализ резюме.
      *
-     * @param file          Резюме формата PDF, RTF, DOCX, TXT.
-     * @param promptType    Тип системного промпта для анализа резюме.
-     * @param modelType Модель для анализа.
+     * @param file                Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа.
+     * @param vacancy             Вакансия, к которой относится резюме.
+     * @param acceptNearDuplicate Принять результат резюме с почти совпадающим текстом.
+     * @param idempotencyKey      Ключ идемпотентности для безопасного повтора запроса.
      * @return Текст анализа резюме.
      */
     @Override
     public ResponseEntity<String> analyzeResume(
             final MultipartFile file,
             final PromptType promptType,
-            final GigaModelType modelType) {
+            final GigaModelType modelType,
+            final String vacancy,
+            final boolean acceptNearDuplicate,
+            final String idempotencyKey) {
 
         if (file.isEmpty()) {
             return ResponseEntity
@@ -60,20 +131,14 @@ public class AnalysisController implements AnalysisApi {
                         .body("Невозможно определить имя файла.");
             }
 
-            String fileExtension = "";
-            int i = originalFilename.lastIndexOf('.');
-            if (i > 0) {
-                fileExtension = originalFilename.substring(i);
-            }
-
-            FileType.fromExtension(fileExtension);
-            String analysisResult = resumeAnalysisService.analyzeResume(
-                    file.getInputStream(),
-                    fileExtension,
-                    getSystemPrompt(promptType),
-                    getGigaModel(modelType)
-            );
-            return ResponseEntity.ok(analysisResult);
+            AnalysisOutcome outcome = idempotencyKey == null || idempotencyKey.isBlank()
+                    ? analyze(file, originalFilename, promptType, modelType, vacancy, acceptNearDuplicate)
+                    : idempotencyStore.execute(
+                            currentUser() + ':' + idempotencyKey,
+                            fingerprintOf(file, promptType, modelType, vacancy, acceptNearDuplicate),
+                            () -> analyze(file, originalFilename, promptType, modelType, vacancy, acceptNearDuplicate)
+                    );
+            return okWithResultId(outcome);
         } catch (IOException e) {
             log.error("Ошибка при обработке файла: {}", e.getMessage());
             return ResponseEntity
@@ -88,37 +153,355 @@ public class AnalysisController implements AnalysisApi {
             return ResponseEntity
                     .badRequest()
                     .body("Ошибка: " + e.getMessage());
+        } catch (IdempotencyKeyMismatchException e) {
+            return ResponseEntity
+                    .unprocessableEntity()
+                    .body("Ошибка: " + e.getMessage());
+        } catch (IdempotencyKeyInProgressException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body("Ошибка: " + e.getMessage());
+        } catch (GigaChatUnavailableException e) {
+            log.warn("GigaChat недоступен: {}", e.getMessage());
+            return serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds());
+        } catch (ServiceOverloadedException e) {
+            return serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds());
+        }
+    }
+
+    /**
+     * Определяет тип файла и анализирует резюме.
+     *
+     * @param file                Резюме.
+     * @param originalFilename    Имя загруженного файла.
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа.
+     * @param vacancy             Вакансия, к которой относится резюме.
+     * @param acceptNearDuplicate Принять результат резюме с почти совпадающим текстом.
+     * @return Результат анализа резюме и его источник.
+     * @throws IOException ошибка при чтении файла.
+     */
+    private AnalysisOutcome analyze(
+            final MultipartFile file,
+            final String originalFilename,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String vacancy,
+            final boolean acceptNearDuplicate
+    ) throws IOException {
+        FileType fileType;
+        try (InputStream content = file.getInputStream()) {
+            fileType = fileTypeDetector.detect(originalFilename, content);
+        }
+
+        try (InputStream resume = file.getInputStream()) {
+            return resumeAnalysisService.analyzeResume(
+                    resume,
+                    fileType,
+                    file.getSize(),
+                    promptType,
+                    modelType,
+                    vacancy,
+                    acceptNearDuplicate
+            );
+        }
+    }
+
+    /**
+     * Анализ резюме несколькими промптами и моделями.
+     *
+     * @param file        Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptTypes Типы системных промптов для анализа резюме.
+     * @param modelTypes  Модели для анализа.
+     * @return Результаты анализа для каждого сочетания промпта и модели.
+     */
+    @Override
+    public ResponseEntity<?> analyzeResumeMulti(
+            final MultipartFile file,
+            final Set<PromptType> promptTypes,
+            final Set<GigaModelType> modelTypes) {
+
+        if (file.isEmpty()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Файл не должен быть пустым.");
+        }
+
+        try {
+            FileType fileType;
+            try (InputStream content = file.getInputStream()) {
+                fileType = fileTypeDetector.detect(file.getOriginalFilename(), content);
+            }
+
+            try (InputStream resume = file.getInputStream()) {
+                List<PromptAnalysisItem> results = resumeAnalysisService.analyzeResume(
+                        resume,
+                        fileType,
+                        file.getSize(),
+                        promptTypes,
+                        modelTypes
+                );
+                return ResponseEntity.ok(results);
+            }
+        } catch (IOException e) {
+            log.error("Ошибка при обработке файла: {}", e.getMessage());
+            return ResponseEntity
+                    .internalServerError()
+                    .body("Ошибка при обработке файла: " + e.getMessage());
+        } catch (UnsupportedFileTypeException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Ошибка: " + e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds());
+        }
+    }
+
+    /**
+     * Предварительный отбор резюме по словарю технологий.
+     *
+     * @param file Резюме формата PDF, RTF, DOCX, TXT.
+     * @return Результат предварительного отбора.
+     */
+    @Override
+    public ResponseEntity<?> prescreenResume(final MultipartFile file) {
+
+        if (file.isEmpty()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Файл не должен быть пустым.");
+        }
+
+        try {
+            FileType fileType;
+            try (InputStream content = file.getInputStream()) {
+                fileType = fileTypeDetector.detect(file.getOriginalFilename(), content);
+            }
+
+            try (InputStream resume = file.getInputStream()) {
+                return ResponseEntity.ok(prescreenService.prescreen(resume, fileType, file.getSize()));
+            }
+        } catch (IOException e) {
+            log.error("Ошибка при обработке файла: {}", e.getMessage());
+            return ResponseEntity
+                    .internalServerError()
+                    .body("Ошибка при обработке файла: " + e.getMessage());
+        } catch (UnsupportedFileTypeException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Ошибка: " + e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds());
         }
     }
 
     /**
-     * Возвращает системный промпт на основе указанного типа.
+     * Неблокирующий анализ резюме.
+     *
+     * @param file       Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа.
+     * @return Текст анализа резюме.
+     */
+    @Override
+    public Mono<ResponseEntity<String>> analyzeResumeReactive(
+            final MultipartFile file,
+            final PromptType promptType,
+            final GigaModelType modelType) {
+
+        return reactiveResumeAnalysisService.analyzeResume(file, promptType, modelType)
+                .map(this::okWithResultId)
+                .onErrorResume(UnsupportedFileTypeException.class, e -> Mono.just(ResponseEntity
+                        .badRequest()
+                        .body("Ошибка: " + e.getMessage())))
+                .onErrorResume(IOException.class, e -> {
+                    log.error("Ошибка при обработке файла: {}", e.getMessage());
+                    return Mono.just(ResponseEntity
+                            .internalServerError()
+                            .body("Ошибка при обработке файла: " + e.getMessage()));
+                })
+                .onErrorResume(GigaChatUnavailableException.class, e -> {
+                    log.warn("GigaChat недоступен: {}", e.getMessage());
+                    return Mono.just(serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds()));
+                })
+                .onErrorResume(ServiceOverloadedException.class, e ->
+                        Mono.just(serviceUnavailable(e.getMessage(), e.getRetryAfterSeconds())));
+    }
+
+    /**
+     * Пакетный анализ резюме.
      *
+     * @param files      Резюме формата PDF, RTF, DOCX, TXT.
      * @param promptType Тип системного промпта для анализа резюме.
-     * @return строка с системным промптом
-     * @throws IllegalArgumentException тип промпта не поддерживается
-     */
-    private String getSystemPrompt(final PromptType promptType) {
-        return switch (promptType) {
-            case BASE_ANALYSIS -> SystemPrompt.BASE_ANALYSIS_PROMPT;
-            case JUNIOR_ANALYSIS -> SystemPrompt.JUNIOR_ANALYSIS_PROMPT;
-            case MIDDLE_ANALYSIS -> SystemPrompt.MIDDLE_ANALYSIS_PROMPT;
-            case SENIOR_ANALYSIS -> SystemPrompt.SENIOR_ANALYSIS_PROMPT;
-        };
+     * @param modelType  Модель для анализа.
+     * @return Поток результатов анализа.
+     */
+    @Override
+    public Flux<ResumeAnalysisItem> analyzeResumeBatch(
+            final List<MultipartFile> files,
+            final PromptType promptType,
+            final GigaModelType modelType) {
+
+        return reactiveResumeAnalysisService.analyzeBatch(files, promptType, modelType);
     }
 
     /**
-     * Возвращает модель GigaChat на основе указанного типа.
+     * Получение ранее выданного результата анализа.
      *
-     * @param modelType Модель для анализа.
-     * @return строка с наименованием модели
-     * @throws IllegalArgumentException тип модели не поддерживается
-     */
-    private String getGigaModel(final GigaModelType modelType) {
-        return switch (modelType) {
-            case GIGA_MODEL_LITE -> GigaModel.GIGA_MODEL_LITE;
-            case GIGA_MODEL_PRO -> GigaModel.GIGA_MODEL_PRO;
-            case GIGA_MODEL_MAX -> GigaModel.GIGA_MODEL_MAX;
-        };
+     * @param id          Идентификатор результата.
+     * @param ifNoneMatch Значение заголовка {@code If-None-Match}.
+     * @return Текст анализа резюме.
+     */
+    @Override
+    public ResponseEntity<String> getResult(final String id, final String ifNoneMatch) {
+        String eTag = eTagOf(id);
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(resultCacheControl())
+                    .build();
+        }
+
+        return resultStore.get(id)
+                .map(result -> ResponseEntity
+                        .ok()
+                        .eTag(eTag)
+                        .cacheControl(resultCacheControl())
+                        .body(result))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .body("Ошибка: " + RESULT_NOT_FOUND));
+    }
+
+    /**
+     * Сохраняет результат анализа и формирует ответ 200 с его идентификатором и источником.
+     * Для почти дубликата добавляется заголовок {@value #ANALYSIS_SIMILARITY_HEADER}.
+     * Отчет об отклонении предварительным отбором не сохраняется и возвращается
+     * только с заголовком {@value #ANALYSIS_SOURCE_HEADER}.
+     *
+     * @param outcome Результат анализа и его источник.
+     * @return Ответ с заголовками {@code ETag}, {@code Content-Location} и {@value #ANALYSIS_SOURCE_HEADER}.
+     */
+    private ResponseEntity<String> okWithResultId(final AnalysisOutcome outcome) {
+        if (outcome.getSource() == AnalysisSource.PRESCREEN_REJECTED) {
+            return ResponseEntity
+                    .ok()
+                    .header(ANALYSIS_SOURCE_HEADER, outcome.getSource().name())
+                    .body(outcome.getResult());
+        }
+        String id = resultStore.put(outcome.getResult());
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .ok()
+                .eTag(eTagOf(id))
+                .header(HttpHeaders.CONTENT_LOCATION, RESULTS_PATH + id)
+                .header(ANALYSIS_SOURCE_HEADER, outcome.getSource().name());
+        if (outcome.getSimilarity() != null) {
+            response.header(ANALYSIS_SIMILARITY_HEADER, String.valueOf(outcome.getSimilarity()));
+        }
+        return response.body(outcome.getResult());
+    }
+
+    /**
+     * Вычисляет отпечаток параметров запроса анализа: SHA-256 от содержимого файла,
+     * промпта, модели, вакансии и согласия принять почти дубликат.
+     *
+     * @param file                Резюме.
+     * @param promptType          Тип системного промпта.
+     * @param modelType           Модель.
+     * @param vacancy             Вакансия.
+     * @param acceptNearDuplicate Принять результат резюме с почти совпадающим текстом.
+     * @return Шестнадцатеричное представление отпечатка.
+     * @throws IOException ошибка при чтении файла.
+     */
+    private static String fingerprintOf(
+            final MultipartFile file,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String vacancy,
+            final boolean acceptNearDuplicate
+    ) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+                content.transferTo(OutputStream.nullOutputStream());
+            }
+            digest.update((promptType + ":" + modelType + ":" + vacancy + ":" + acceptNearDuplicate)
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Возвращает имя текущего пользователя для разделения ключей идемпотентности.
+     *
+     * @return Имя пользователя.
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    /**
+     * Формирует строгий ETag по идентификатору результата.
+     *
+     * @param id Идентификатор результата.
+     * @return Значение ETag в кавычках.
+     */
+    private static String eTagOf(final String id) {
+        return "\"" + id + "\"";
+    }
+
+    /**
+     * Проверяет, содержит ли заголовок {@code If-None-Match} указанный ETag.
+     * Для {@code If-None-Match} применяется слабое сравнение, поэтому префикс {@code W/} игнорируется.
+     *
+     * @param ifNoneMatch Значение заголовка или {@code null}.
+     * @param eTag        ETag результата.
+     * @return {@code true}, если клиент уже имеет актуальный результат.
+     */
+    private static boolean matches(final String ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Формирует заголовок Cache-Control для результатов анализа.
+     * Результаты доступны только аутентифицированному пользователю, поэтому кэш частный.
+     *
+     * @return Значение Cache-Control.
+     */
+    private CacheControl resultCacheControl() {
+        return resultMaxAgeSeconds > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(resultMaxAgeSeconds)).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Формирует ответ 503 с заголовком Retry-After.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Рекомендуемая задержка перед повторным запросом (в секундах).
+     * @return Ответ с кодом 503.
+     */
+    private ResponseEntity<String> serviceUnavailable(final String message, final long retryAfterSeconds) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Ошибка: " + message);
     }
 }
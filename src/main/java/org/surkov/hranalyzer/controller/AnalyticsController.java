@@ -0,0 +1,43 @@
+package org.surkov.hranalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.surkov.hranalyzer.controller.api.AnalyticsApi;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analytics.AnalysisColumnStore;
+import org.surkov.hranalyzer.service.analytics.dto.AnalyticsSummary;
+
+/**
+ * Контроллер сводной статистики по результатам анализа резюме.
+ * Реализует интерфейс {@link AnalyticsApi}.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController implements AnalyticsApi {
+
+    /**
+     * Колоночное хранилище результатов анализа.
+     */
+    private final AnalysisColumnStore analyticsStore;
+
+    /**
+     * Сводная статистика по результатам анализа.
+     *
+     * @param vacancy    Вакансия.
+     * @param promptType Тип системного промпта.
+     * @param modelType  Модель.
+     * @return Сводная статистика.
+     */
+    @Override
+    public ResponseEntity<AnalyticsSummary> getSummary(
+            final String vacancy,
+            final PromptType promptType,
+            final GigaModelType modelType) {
+
+        return ResponseEntity.ok(analyticsStore.summarize(vacancy, promptType, modelType));
+    }
+}
@@ -0,0 +1,140 @@
+package org.surkov.hranalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.surkov.hranalyzer.controller.api.MatchingApi;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.FileTypeDetector;
+import org.surkov.hranalyzer.service.matching.CandidateMatchingService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Контроллер подбора кандидатов под вакансию.
+ * Реализует интерфейс {@link MatchingApi}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/matching")
+@RequiredArgsConstructor
+public class MatchingController implements MatchingApi {
+
+    /**
+     * Сервис подбора кандидатов.
+     */
+    private final CandidateMatchingService candidateMatchingService;
+
+    /**
+     * Определитель типа загруженного файла.
+     */
+    private final FileTypeDetector fileTypeDetector;
+
+    /**
+     * Добавление резюме в индекс подбора.
+     *
+     * @param file Резюме формата PDF, RTF, DOCX, TXT.
+     * @return Добавленный кандидат.
+     */
+    @Override
+    public ResponseEntity<?> addCandidate(final MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Файл не должен быть пустым.");
+        }
+
+        try {
+            FileType fileType;
+            try (InputStream content = file.getInputStream()) {
+                fileType = fileTypeDetector.detect(file.getOriginalFilename(), content);
+            }
+
+            try (InputStream resume = file.getInputStream()) {
+                return ResponseEntity.ok(candidateMatchingService.addCandidate(
+                        resume,
+                        fileType,
+                        file.getSize(),
+                        file.getOriginalFilename()
+                ));
+            }
+        } catch (IOException e) {
+            log.error("Ошибка при обработке файла: {}", e.getMessage());
+            return ResponseEntity
+                    .internalServerError()
+                    .body("Ошибка при обработке файла: " + e.getMessage());
+        } catch (UnsupportedFileTypeException | IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Ошибка: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body("Ошибка: " + e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body("Ошибка: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Подбор кандидатов под вакансию.
+     *
+     * @param vacancy    Описание вакансии.
+     * @param topK       Количество кандидатов.
+     * @param promptType Тип системного промпта для анализа шорт-листа.
+     * @param modelType  Модель для анализа шорт-листа.
+     * @return Кандидаты в порядке убывания близости к вакансии.
+     */
+    @Override
+    public ResponseEntity<?> rankCandidates(
+            final String vacancy,
+            final int topK,
+            final PromptType promptType,
+            final GigaModelType modelType) {
+
+        if (vacancy.isBlank()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Описание вакансии не должно быть пустым.");
+        }
+        if ((promptType == null) != (modelType == null)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Для анализа шорт-листа укажите и тип промпта, и модель.");
+        }
+
+        try {
+            return ResponseEntity.ok(promptType == null
+                    ? candidateMatchingService.findTopCandidates(vacancy, topK)
+                    : candidateMatchingService.shortlist(vacancy, topK, promptType, modelType));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Ошибка: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Удаление всех кандидатов из индекса подбора.
+     *
+     * @return Пустой ответ.
+     */
+    @Override
+    public ResponseEntity<Void> clearCandidates() {
+        candidateMatchingService.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,106 @@
+package org.surkov.hranalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.surkov.hranalyzer.controller.api.RecordingApi;
+import org.surkov.hranalyzer.exception.RecordingInProgressException;
+import org.surkov.hranalyzer.service.recording.FlightRecordingService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Контроллер административного API записи Java Flight Recorder.
+ * Реализует интерфейс {@link RecordingApi}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/recording")
+@RequiredArgsConstructor
+public class RecordingController implements RecordingApi {
+
+    /**
+     * Сервис записи JFR.
+     */
+    private final FlightRecordingService recordingService;
+
+    /**
+     * Начинает запись JFR.
+     *
+     * @param durationSeconds Длительность записи (в секундах).
+     * @return Состояние начатой записи.
+     */
+    @Override
+    public ResponseEntity<?> startRecording(final Long durationSeconds) {
+        try {
+            return ResponseEntity.ok(recordingService.start(durationSeconds));
+        } catch (RecordingInProgressException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body("Ошибка: " + e.getMessage());
+        } catch (IOException e) {
+            log.error("Не удалось начать запись JFR: {}", e.getMessage());
+            return ResponseEntity
+                    .internalServerError()
+                    .body("Не удалось начать запись: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Состояние последней записи JFR.
+     *
+     * @return Состояние записи.
+     */
+    @Override
+    public ResponseEntity<?> getRecording() {
+        return recordingService.status()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(RECORDING_NOT_FOUND));
+    }
+
+    /**
+     * Выгружает данные последней записи JFR.
+     * Временный файл удаляется при закрытии потока после передачи.
+     *
+     * @return Файл записи .jfr.
+     */
+    @Override
+    public ResponseEntity<?> dumpRecording() {
+        try {
+            Optional<Path> dump = recordingService.dump();
+            if (dump.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(RECORDING_NOT_FOUND);
+            }
+
+            Path file = dump.get();
+            long size = Files.size(file);
+            InputStream content = Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(file.getFileName().toString())
+                            .build()
+                            .toString())
+                    .body(new InputStreamResource(content));
+        } catch (IOException e) {
+            log.error("Не удалось выгрузить запись JFR: {}", e.getMessage());
+            return ResponseEntity
+                    .internalServerError()
+                    .body("Не удалось выгрузить запись: " + e.getMessage());
+        }
+    }
+}
@@ -2,17 +2,30 @@ package org.surkov.hranalyzer.controller.api;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
 import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analysis.dto.PromptAnalysisItem;
+import org.surkov.hranalyzer.service.analysis.dto.ResumeAnalysisItem;
+import org.surkov.hranalyzer.service.prescreen.dto.PrescreenResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * Интерфейс, определяющий API для анализа резюме.
@@ -20,6 +33,18 @@ import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
  */
 public interface AnalysisApi {
 
+    /**
+     * Заголовок ответа с источником результата анализа
+     * ({@code GIGA_CHAT}, {@code NEAR_DUPLICATE}, {@code PRESCREEN_REJECTED}).
+     */
+    String ANALYSIS_SOURCE_HEADER = "X-Analysis-Source";
+
+    /**
+     * Заголовок ответа со сходством текста резюме с текстом переиспользованного результата (от 0 до 1).
+     * Передается только для источника {@code NEAR_DUPLICATE}.
+     */
+    String ANALYSIS_SIMILARITY_HEADER = "X-Analysis-Similarity";
+
     /**
      * Сообщение об успешном анализе резюме.
      */
@@ -36,17 +61,239 @@ public interface AnalysisApi {
      */
     String INTERNAL_SERVER_ERROR = "Внутренняя ошибка сервера";
 
+    /**
+     * Сообщение о временной недоступности сервиса.
+     */
+    String SERVICE_UNAVAILABLE = "Сервис временно недоступен, повторите запрос позже";
+
+    /**
+     * Сообщение об отсутствии результата анализа.
+     */
+    String RESULT_NOT_FOUND = "Результат анализа не найден или вытеснен из хранилища";
+
+    /**
+     * Сообщение о выполняющемся запросе с тем же ключом идемпотентности.
+     */
+    String IDEMPOTENCY_KEY_IN_PROGRESS = "Запрос с этим ключом идемпотентности еще выполняется";
+
+    /**
+     * Сообщение о повторном использовании ключа идемпотентности для другого запроса.
+     */
+    String IDEMPOTENCY_KEY_MISMATCH = "Ключ идемпотентности уже использован для другого запроса";
+
     /**
      * Анализ резюме.
      *
+     * @param file                Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа.
+     * @param vacancy             Вакансия, к которой относится резюме.
+     * @param acceptNearDuplicate Принять результат ранее проанализированного резюме с почти совпадающим текстом.
+     * @param idempotencyKey      Ключ идемпотентности для безопасного повтора запроса.
+     * @return Текст анализа резюме с заголовками {@code ETag}, {@code Content-Location}
+     *         и {@value #ANALYSIS_SOURCE_HEADER}.
+     */
+    @Operation(
+            summary = "Анализ резюме",
+            description = "Загрузите файл резюме для анализа. Заголовок Content-Location содержит адрес "
+                    + "результата для повторного получения, ETag - его идентификатор. "
+                    + "Повтор с тем же заголовком Idempotency-Key получает результат исходного запроса. "
+                    + "Заголовок " + ANALYSIS_SOURCE_HEADER + " равен NEAR_DUPLICATE, если переиспользован "
+                    + "результат ранее проанализированного резюме с тем же текстом или, при "
+                    + "acceptNearDuplicate=true, с почти совпадающим текстом; сходство текстов передается "
+                    + "в заголовке " + ANALYSIS_SIMILARITY_HEADER + ". Значение PRESCREEN_REJECTED "
+                    + "означает, что резюме отклонено предварительным отбором: тело содержит отчет об отклонении, "
+                    + "результат не сохраняется и заголовков ETag и Content-Location нет."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = RESUME_ANALYZED_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = String.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = UNSUPPORTED_FILE_OR_PROMPT_TYPE,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = IDEMPOTENCY_KEY_IN_PROGRESS,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = IDEMPOTENCY_KEY_MISMATCH,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = INTERNAL_SERVER_ERROR,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = SERVICE_UNAVAILABLE,
+                    content = @Content
+            )}
+    )
+    @PostMapping(
+            value = "/resume",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    ResponseEntity<String> analyzeResume(
+            @Parameter(
+                    description = "Файл резюме для анализа",
+                    required = true
+            ) @RequestParam("file")
+            MultipartFile file,
+            @Parameter(
+                    description = "Тип системного промпта для анализа",
+                    required = true,
+                    schema = @Schema(implementation = PromptType.class)
+            )
+            @RequestParam("promptType") PromptType promptType,
+            @Parameter(
+                    description = "Модель GigaChat",
+                    required = true,
+                    schema = @Schema(implementation = GigaModelType.class)
+            )
+            @RequestParam("gigaModelType") GigaModelType modelType,
+            @Parameter(
+                    description = "Вакансия, к которой относится резюме, для сводной статистики"
+            )
+            @RequestParam(value = "vacancy", required = false) String vacancy,
+            @Parameter(
+                    description = "Принять результат ранее проанализированного резюме с почти совпадающим "
+                            + "текстом вместо нового анализа"
+            )
+            @RequestParam(value = "acceptNearDuplicate", defaultValue = "false") boolean acceptNearDuplicate,
+            @Parameter(description = "Ключ идемпотентности, например UUID")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey);
+
+    /**
+     * Анализ резюме несколькими промптами и моделями.
+     *
+     * @param file        Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptTypes Типы системных промптов для анализа резюме.
+     * @param modelTypes  Модели для анализа.
+     * @return Результаты анализа для каждого сочетания промпта и модели.
+     */
+    @Operation(
+            summary = "Анализ резюме несколькими промптами и моделями",
+            description = "Загрузите файл резюме один раз и получите анализ для каждого сочетания "
+                    + "выбранных промптов и моделей. Запросы к GigaChat выполняются параллельно."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = RESUME_ANALYZED_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PromptAnalysisItem.class)))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = UNSUPPORTED_FILE_OR_PROMPT_TYPE,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = INTERNAL_SERVER_ERROR,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = SERVICE_UNAVAILABLE,
+                    content = @Content
+            )}
+    )
+    @PostMapping(
+            value = "/resume/multi",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    ResponseEntity<?> analyzeResumeMulti(
+            @Parameter(
+                    description = "Файл резюме для анализа",
+                    required = true
+            ) @RequestParam("file")
+            MultipartFile file,
+            @Parameter(
+                    description = "Типы системных промптов для анализа",
+                    required = true,
+                    array = @ArraySchema(schema = @Schema(implementation = PromptType.class))
+            )
+            @RequestParam("promptTypes") Set<PromptType> promptTypes,
+            @Parameter(
+                    description = "Модели GigaChat",
+                    required = true,
+                    array = @ArraySchema(schema = @Schema(implementation = GigaModelType.class))
+            )
+            @RequestParam("gigaModelTypes") Set<GigaModelType> modelTypes);
+
+    /**
+     * Предварительный отбор резюме по словарю технологий.
+     *
+     * @param file Резюме формата PDF, RTF, DOCX, TXT.
+     * @return Оценка релевантности, найденные технологии и предполагаемый уровень.
+     */
+    @Operation(
+            summary = "Предварительный отбор резюме",
+            description = "Загрузите файл резюме и мгновенно получите оценку релевантности по словарю технологий "
+                    + "и предполагаемый уровень кандидата. GigaChat не вызывается."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Предварительный отбор выполнен",
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PrescreenResult.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = UNSUPPORTED_FILE_OR_PROMPT_TYPE,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = INTERNAL_SERVER_ERROR,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = SERVICE_UNAVAILABLE,
+                    content = @Content
+            )}
+    )
+    @PostMapping(
+            value = "/prescreen",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    ResponseEntity<?> prescreenResume(
+            @Parameter(
+                    description = "Файл резюме для отбора",
+                    required = true
+            ) @RequestParam("file")
+            MultipartFile file);
+
+    /**
+     * Неблокирующий анализ резюме.
+     * Поток обработки запроса не занят на время извлечения текста и ожидания ответа GigaChat.
+     *
      * @param file       Резюме формата PDF, RTF, DOCX, TXT.
      * @param promptType Тип системного промпта для анализа резюме.
      * @param modelType  Модель для анализа.
      * @return Текст анализа резюме.
      */
     @Operation(
-            summary = "Анализ резюме",
-            description = "Загрузите файл резюме для анализа."
+            summary = "Неблокирующий анализ резюме",
+            description = "Загрузите файл резюме для анализа. Ответ формируется асинхронно."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -66,13 +313,18 @@ public interface AnalysisApi {
                     responseCode = "500",
                     description = INTERNAL_SERVER_ERROR,
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = SERVICE_UNAVAILABLE,
+                    content = @Content
             )}
     )
     @PostMapping(
-            value = "/resume",
+            value = "/resume/reactive",
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE
     )
-    ResponseEntity<String> analyzeResume(
+    Mono<ResponseEntity<String>> analyzeResumeReactive(
             @Parameter(
                     description = "Файл резюме для анализа",
                     required = true
@@ -90,4 +342,101 @@ public interface AnalysisApi {
                     schema = @Schema(implementation = GigaModelType.class)
             )
             @RequestParam("gigaModelType") GigaModelType modelType);
+
+    /**
+     * Пакетный анализ резюме.
+     * Результаты передаются потоком NDJSON по мере готовности,
+     * следующий файл берется в работу по мере записи результатов клиенту.
+     *
+     * @param files      Резюме формата PDF, RTF, DOCX, TXT.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа.
+     * @return Поток результатов анализа.
+     */
+    @Operation(
+            summary = "Пакетный анализ резюме",
+            description = "Загрузите несколько файлов резюме. Результаты возвращаются по мере готовности."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = RESUME_ANALYZED_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ResumeAnalysisItem.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = UNSUPPORTED_FILE_OR_PROMPT_TYPE,
+                    content = @Content
+            )}
+    )
+    @PostMapping(
+            value = "/resume/batch",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    Flux<ResumeAnalysisItem> analyzeResumeBatch(
+            @Parameter(
+                    description = "Файлы резюме для анализа",
+                    required = true
+            ) @RequestParam("files")
+            List<MultipartFile> files,
+            @Parameter(
+                    description = "Тип системного промпта для анализа",
+                    required = true,
+                    schema = @Schema(implementation = PromptType.class)
+            )
+            @RequestParam("promptType") PromptType promptType,
+            @Parameter(
+                    description = "Модель GigaChat",
+                    required = true,
+                    schema = @Schema(implementation = GigaModelType.class)
+            )
+            @RequestParam("gigaModelType") GigaModelType modelType);
+
+    /**
+     * Получение ранее выданного результата анализа.
+     * Если заголовок {@code If-None-Match} совпадает с идентификатором результата,
+     * возвращается 304 без обращения к хранилищу.
+     *
+     * @param id          Идентификатор результата.
+     * @param ifNoneMatch Значение заголовка {@code If-None-Match}.
+     * @return Текст анализа резюме.
+     */
+    @Operation(
+            summary = "Получение результата анализа",
+            description = "Возвращает результат по идентификатору из Content-Location ответа на анализ. "
+                    + "Поддерживает условный запрос с заголовком If-None-Match."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = RESUME_ANALYZED_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = String.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Результат не изменился",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = RESULT_NOT_FOUND,
+                    content = @Content
+            )}
+    )
+    @GetMapping("/results/{id}")
+    ResponseEntity<String> getResult(
+            @Parameter(
+                    description = "Идентификатор результата анализа",
+                    required = true
+            )
+            @PathVariable("id") String id,
+            @Parameter(description = "ETag ранее полученного результата")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
 }
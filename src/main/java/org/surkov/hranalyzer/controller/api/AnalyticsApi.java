@@ -0,0 +1,56 @@
+package org.surkov.hranalyzer.controller.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analytics.dto.AnalyticsSummary;
+
+/**
+ * Интерфейс, определяющий API сводной статистики по результатам анализа резюме.
+ * Содержит Swagger-аннотации для автоматической генерации документации.
+ */
+public interface AnalyticsApi {
+
+    /**
+     * Сводная статистика по результатам анализа.
+     *
+     * @param vacancy    Вакансия.
+     * @param promptType Тип системного промпта.
+     * @param modelType  Модель.
+     * @return Сводная статистика.
+     */
+    @Operation(
+            summary = "Сводная статистика по результатам анализа",
+            description = "Распределение уровней, рекомендаций и признаков риска. "
+                    + "Все параметры необязательны и сужают выборку."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Статистика рассчитана",
+            content = {@Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = AnalyticsSummary.class))
+            }
+    )
+    @GetMapping("/summary")
+    ResponseEntity<AnalyticsSummary> getSummary(
+            @Parameter(description = "Вакансия")
+            @RequestParam(value = "vacancy", required = false) String vacancy,
+            @Parameter(
+                    description = "Тип системного промпта",
+                    schema = @Schema(implementation = PromptType.class)
+            )
+            @RequestParam(value = "promptType", required = false) PromptType promptType,
+            @Parameter(
+                    description = "Модель GigaChat",
+                    schema = @Schema(implementation = GigaModelType.class)
+            )
+            @RequestParam(value = "gigaModelType", required = false) GigaModelType modelType);
+}
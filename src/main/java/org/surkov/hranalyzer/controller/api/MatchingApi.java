@@ -0,0 +1,155 @@
+package org.surkov.hranalyzer.controller.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.matching.dto.CandidateInfo;
+import org.surkov.hranalyzer.service.matching.dto.CandidateMatch;
+
+/**
+ * Интерфейс, определяющий API подбора кандидатов под вакансию.
+ * Содержит Swagger-аннотации для автоматической генерации документации.
+ */
+public interface MatchingApi {
+
+    /**
+     * Сообщение об успешном добавлении кандидата.
+     */
+    String CANDIDATE_ADDED_SUCCESSFULLY = "Кандидат добавлен в индекс подбора";
+
+    /**
+     * Сообщение об успешном подборе кандидатов.
+     */
+    String CANDIDATES_FOUND_SUCCESSFULLY = "Кандидаты подобраны";
+
+    /**
+     * Сообщение о некорректном запросе.
+     */
+    String BAD_REQUEST = "Неподдерживаемый тип файла или некорректные параметры запроса";
+
+    /**
+     * Сообщение о заполненном индексе.
+     */
+    String INDEX_FULL = "Индекс кандидатов заполнен";
+
+    /**
+     * Добавление резюме в индекс подбора.
+     *
+     * @param file Резюме формата PDF, RTF, DOCX, TXT.
+     * @return Добавленный кандидат.
+     */
+    @Operation(
+            summary = "Добавление кандидата",
+            description = "Загрузите файл резюме, чтобы добавить кандидата в индекс подбора под вакансии. "
+                    + "У каждого пользователя API свой индекс."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = CANDIDATE_ADDED_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CandidateInfo.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = BAD_REQUEST,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = INDEX_FULL,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = AnalysisApi.SERVICE_UNAVAILABLE,
+                    content = @Content
+            )}
+    )
+    @PostMapping(
+            value = "/candidates",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    ResponseEntity<?> addCandidate(
+            @Parameter(
+                    description = "Файл резюме",
+                    required = true
+            ) @RequestParam("file")
+            MultipartFile file);
+
+    /**
+     * Подбор кандидатов под вакансию.
+     * Если указаны промпт и модель, шорт-лист дополнительно проходит полный анализ.
+     *
+     * @param vacancy    Описание вакансии.
+     * @param topK       Количество кандидатов.
+     * @param promptType Тип системного промпта для анализа шорт-листа.
+     * @param modelType  Модель для анализа шорт-листа.
+     * @return Кандидаты в порядке убывания близости к вакансии.
+     */
+    @Operation(
+            summary = "Подбор кандидатов под вакансию",
+            description = "Находит резюме, наиболее близкие к описанию вакансии. "
+                    + "Если указаны промпт и модель, найденные резюме анализируются GigaChat."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = CANDIDATES_FOUND_SUCCESSFULLY,
+                    content = {@Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CandidateMatch.class)))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = BAD_REQUEST,
+                    content = @Content
+            )}
+    )
+    @PostMapping("/rank")
+    ResponseEntity<?> rankCandidates(
+            @Parameter(
+                    description = "Описание вакансии",
+                    required = true
+            ) @RequestParam("vacancy")
+            String vacancy,
+            @Parameter(
+                    description = "Количество кандидатов"
+            ) @RequestParam(value = "topK", defaultValue = "10")
+            int topK,
+            @Parameter(
+                    description = "Тип системного промпта для анализа шорт-листа",
+                    schema = @Schema(implementation = PromptType.class)
+            )
+            @RequestParam(value = "promptType", required = false) PromptType promptType,
+            @Parameter(
+                    description = "Модель GigaChat для анализа шорт-листа",
+                    schema = @Schema(implementation = GigaModelType.class)
+            )
+            @RequestParam(value = "gigaModelType", required = false) GigaModelType modelType);
+
+    /**
+     * Удаление всех кандидатов из индекса подбора текущего пользователя.
+     *
+     * @return Пустой ответ.
+     */
+    @Operation(summary = "Очистка индекса кандидатов", description = "Очищается только индекс текущего пользователя.")
+    @ApiResponse(responseCode = "204", description = "Индекс очищен")
+    @DeleteMapping("/candidates")
+    ResponseEntity<Void> clearCandidates();
+}
@@ -0,0 +1,117 @@
+package org.surkov.hranalyzer.controller.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.surkov.hranalyzer.service.recording.dto.RecordingStatus;
+
+/**
+ * Интерфейс, определяющий административное API записи Java Flight Recorder.
+ * Доступен только пользователям с признаком администратора.
+ * Содержит Swagger-аннотации для автоматической генерации документации.
+ */
+public interface RecordingApi {
+
+    /**
+     * Сообщение об отсутствии записи.
+     */
+    String RECORDING_NOT_FOUND = "Запись еще не выполнялась";
+
+    /**
+     * Начинает запись JFR.
+     *
+     * @param durationSeconds Длительность записи (в секундах).
+     * @return Состояние начатой записи.
+     */
+    @Operation(
+            summary = "Начать запись JFR",
+            description = "Начинает запись Java Flight Recorder с событиями JVM и приложения: извлечение текста, "
+                    + "обновление токена и вызовы GigaChat. Запись ограничена по длительности и объему "
+                    + "и останавливается сама."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Запись начата",
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = RecordingStatus.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Предыдущая запись еще выполняется",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = AnalysisApi.INTERNAL_SERVER_ERROR,
+                    content = @Content
+            )}
+    )
+    @PostMapping
+    ResponseEntity<?> startRecording(
+            @Parameter(description = "Длительность записи в секундах")
+            @RequestParam(value = "durationSeconds", required = false) Long durationSeconds);
+
+    /**
+     * Состояние последней записи JFR.
+     *
+     * @return Состояние записи.
+     */
+    @Operation(summary = "Состояние записи JFR")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Состояние последней записи",
+                    content = {@Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = RecordingStatus.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = RECORDING_NOT_FOUND,
+                    content = @Content
+            )}
+    )
+    @GetMapping
+    ResponseEntity<?> getRecording();
+
+    /**
+     * Выгружает данные последней записи JFR.
+     *
+     * @return Файл записи .jfr.
+     */
+    @Operation(
+            summary = "Выгрузить запись JFR",
+            description = "Возвращает файл .jfr с данными последней записи. Выполняющаяся запись не прерывается. "
+                    + "Файл открывается в JDK Mission Control или командой jfr print."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Файл записи",
+                    content = @Content(mediaType = "application/octet-stream")
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = RECORDING_NOT_FOUND,
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = AnalysisApi.INTERNAL_SERVER_ERROR,
+                    content = @Content
+            )}
+    )
+    @GetMapping("/dump")
+    ResponseEntity<?> dumpRecording();
+}
@@ -0,0 +1,27 @@
+package org.surkov.hranalyzer.exception;
+
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое, когда запрос с тем же ключом идемпотентности
+ * не завершился за время ожидания. Запрос следует повторить с тем же ключом.
+ */
+@Getter
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    /**
+     * Рекомендуемая задержка (в секундах) перед повторной попыткой.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор с сообщением и рекомендуемой задержкой.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Рекомендуемая задержка перед повторной попыткой (в секундах).
+     */
+    public IdempotencyKeyInProgressException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package org.surkov.hranalyzer.exception;
+
+/**
+ * Исключение, выбрасываемое, когда ключ идемпотентности уже использован
+ * для запроса с другими параметрами или другим файлом.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Конструктор с сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     */
+    public IdempotencyKeyMismatchException(final String message) {
+        super(message);
+    }
+}
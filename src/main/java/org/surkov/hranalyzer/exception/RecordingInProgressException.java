@@ -0,0 +1,26 @@
+package org.surkov.hranalyzer.exception;
+
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое при попытке начать запись JFR, когда предыдущая запись еще выполняется.
+ */
+@Getter
+public class RecordingInProgressException extends RuntimeException {
+
+    /**
+     * Время (в секундах) до окончания текущей записи.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор с сообщением и временем до окончания текущей записи.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Время до окончания текущей записи (в секундах).
+     */
+    public RecordingInProgressException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
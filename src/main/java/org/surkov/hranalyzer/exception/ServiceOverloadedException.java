@@ -0,0 +1,27 @@
+package org.surkov.hranalyzer.exception;
+
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое, когда сервис перегружен и не может принять запрос.
+ * Запрос следует повторить через указанное время.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Рекомендуемая задержка (в секундах) перед повторной попыткой.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор с сообщением и рекомендуемой задержкой.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Рекомендуемая задержка перед повторной попыткой (в секундах).
+     */
+    public ServiceOverloadedException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
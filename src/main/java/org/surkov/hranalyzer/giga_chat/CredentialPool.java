@@ -0,0 +1,217 @@
+package org.surkov.hranalyzer.giga_chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
+import org.surkov.hranalyzer.giga_chat.exception.AuthenticationException;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.giga_chat.exception.RateLimitedException;
+import org.surkov.hranalyzer.giga_chat.utils.SecurityUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул учетных записей GigaChat API.
+ * <p>
+ * Каждый вызов API выполняется через учетную запись с наименьшим количеством выполняющихся
+ * вызовов (least-in-flight), при равенстве учетные записи перебираются по кругу. Учетная запись,
+ * получившая ответ 429 или ошибку аутентификации, временно исключается из пула: на время из
+ * заголовка Retry-After или на {@code giga-chat.credential-cooldown-ms}. Пропускная способность
+ * растет пропорционально количеству учетных записей, так как лимит частоты запросов GigaChat
+ * действует на каждую учетную запись отдельно.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CredentialPool {
+
+    /**
+     * Учетные записи пула.
+     */
+    private final List<PooledCredential> credentials;
+
+    /**
+     * Менеджер токенов доступа.
+     */
+    private final TokenManager tokenManager;
+
+    /**
+     * Время исключения учетной записи из пула по умолчанию (в миллисекундах).
+     */
+    private final long cooldownMs;
+
+    /**
+     * Позиция начала перебора для распределения вызовов по кругу при равной загрузке.
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * Конструктор.
+     *
+     * @param config       Конфигурация GigaChat API.
+     * @param tokenManager Менеджер токенов доступа.
+     */
+    public CredentialPool(final GigaChatConfig config, final TokenManager tokenManager) {
+        this.credentials = config.getEffectiveCredentials().stream()
+                .map(PooledCredential::new)
+                .toList();
+        this.tokenManager = tokenManager;
+        this.cooldownMs = config.getCredentialCooldownMs();
+    }
+
+    /**
+     * Выбирает учетную запись для вызова.
+     * Полученная аренда обязательно завершается вызовом {@link Lease#release()} или {@link Lease#fail(Throwable)}.
+     *
+     * @return Аренда учетной записи.
+     * @throws GigaChatUnavailableException все учетные записи исключены из пула или достигли своего лимита вызовов.
+     */
+    public Lease acquire() {
+        while (true) {
+            long now = System.currentTimeMillis();
+            int start = Math.floorMod(nextIndex.getAndIncrement(), credentials.size());
+            PooledCredential best = null;
+            int bestInFlight = Integer.MAX_VALUE;
+            long earliestReturn = Long.MAX_VALUE;
+            for (int i = 0; i < credentials.size(); i++) {
+                PooledCredential candidate = credentials.get((start + i) % credentials.size());
+                if (candidate.cooldownUntil > now) {
+                    earliestReturn = Math.min(earliestReturn, candidate.cooldownUntil);
+                    continue;
+                }
+                int inFlight = candidate.inFlight.get();
+                if (candidate.hasCapacity(inFlight) && inFlight < bestInFlight) {
+                    best = candidate;
+                    bestInFlight = inFlight;
+                }
+            }
+
+            if (best == null) {
+                long retryAfterSeconds = earliestReturn == Long.MAX_VALUE
+                        ? 1
+                        : Math.max(1, TimeUnit.MILLISECONDS.toSeconds(earliestReturn - now));
+                throw new GigaChatUnavailableException("Нет доступных учетных записей GigaChat", retryAfterSeconds);
+            }
+            if (best.inFlight.compareAndSet(bestInFlight, bestInFlight + 1)) {
+                return new Lease(best);
+            }
+        }
+    }
+
+    /**
+     * Возвращает учетные записи пула.
+     *
+     * @return Учетные записи.
+     */
+    public List<GigaChatConfig.Credential> getCredentials() {
+        return credentials.stream()
+                .map(PooledCredential::getCredential)
+                .toList();
+    }
+
+    /**
+     * Исключает учетную запись из пула, если ошибка вызвана ограничением частоты запросов
+     * или аутентификацией.
+     *
+     * @param pooled Учетная запись.
+     * @param error  Ошибка вызова.
+     */
+    private void onFailure(final PooledCredential pooled, final Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RateLimitedException rateLimited) {
+                long duration = rateLimited.getRetryAfterSeconds() > 0
+                        ? TimeUnit.SECONDS.toMillis(rateLimited.getRetryAfterSeconds())
+                        : cooldownMs;
+                cooldown(pooled, duration, "ограничение частоты запросов");
+                return;
+            }
+            if (cause instanceof AuthenticationException) {
+                tokenManager.invalidate(pooled.credential);
+                cooldown(pooled, cooldownMs, "ошибка аутентификации");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Исключает учетную запись из пула на указанное время.
+     *
+     * @param pooled     Учетная запись.
+     * @param durationMs Время исключения (в миллисекундах).
+     * @param reason     Причина исключения для лога.
+     */
+    private void cooldown(final PooledCredential pooled, final long durationMs, final String reason) {
+        pooled.cooldownUntil = Math.max(pooled.cooldownUntil, System.currentTimeMillis() + durationMs);
+        log.warn("Учетная запись {} исключена из пула на {} мс: {}",
+                SecurityUtils.maskSensitiveData(pooled.credential.getClientId()), durationMs, reason);
+    }
+
+    /**
+     * Учетная запись пула с текущей загрузкой.
+     */
+    private static final class PooledCredential {
+
+        private final GigaChatConfig.Credential credential;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long cooldownUntil;
+
+        private PooledCredential(final GigaChatConfig.Credential credential) {
+            this.credential = credential;
+        }
+
+        private GigaChatConfig.Credential getCredential() {
+            return credential;
+        }
+
+        private boolean hasCapacity(final int inFlightCalls) {
+            return credential.getMaxConcurrentCalls() <= 0 || inFlightCalls < credential.getMaxConcurrentCalls();
+        }
+    }
+
+    /**
+     * Аренда учетной записи на один вызов API.
+     */
+    public final class Lease {
+
+        private final PooledCredential pooled;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(final PooledCredential pooled) {
+            this.pooled = pooled;
+        }
+
+        /**
+         * Возвращает арендованную учетную запись.
+         *
+         * @return Учетная запись.
+         */
+        public GigaChatConfig.Credential getCredential() {
+            return pooled.credential;
+        }
+
+        /**
+         * Возвращает учетную запись в пул после успешного вызова. Повторные вызовы игнорируются.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                pooled.inFlight.decrementAndGet();
+            }
+        }
+
+        /**
+         * Возвращает учетную запись в пул после неуспешного вызова, при необходимости
+         * временно исключая ее. Повторные вызовы игнорируются.
+         *
+         * @param error Ошибка вызова.
+         */
+        public void fail(final Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                pooled.inFlight.decrementAndGet();
+                onFailure(pooled, error);
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package org.surkov.hranalyzer.giga_chat;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.MediaType;
@@ -11,14 +15,21 @@ import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
 import org.surkov.hranalyzer.giga_chat.dto.GigaChatMessage;
 import org.surkov.hranalyzer.giga_chat.dto.GigaChatRequest;
 import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Клиент для выполнения запросов к GigaChat API.
  * Отвечает за отправку сообщений в API и получение ответов.
+ * Каждый вызов API выполняется в span-е {@value #OBSERVATION_NAME} с моделью и идентификатором
+ * запроса {@code RqUID}, по которому вызов можно найти в журналах GigaChat.
  *
  * @author surkov
  */
@@ -27,6 +38,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GigaChatApiClient {
 
+    /**
+     * Имя наблюдения (span-а) вызова API.
+     */
+    private static final String OBSERVATION_NAME = "gigachat.request";
+
     /**
      * Конфигурация GigaChat API, содержащая URL и другие параметры.
      */
@@ -37,6 +53,11 @@ public class GigaChatApiClient {
      */
     private final TokenManager tokenManager;
 
+    /**
+     * Пул учетных записей, через которые выполняются вызовы API.
+     */
+    private final CredentialPool credentialPool;
+
     /**
      * Обертка над HTTP-клиентом для выполнения запросов к API.
      */
@@ -47,6 +68,11 @@ public class GigaChatApiClient {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * Реестр наблюдений для трассировки вызовов API.
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Выполняет запрос к GigaChat API
      * для получения ответа на основе переданных данных.
@@ -55,63 +81,284 @@ public class GigaChatApiClient {
      * @param text         Текст резюме для анализа.
      * @param model    Модель для анализа резюме.
      * @return Ответ от API в виде строки.
-     * @throws ApiRequestException ошибка при выполнении запроса к API.
+     * @throws ApiRequestException          ошибка при выполнении запроса к API.
+     * @throws GigaChatUnavailableException нет доступных учетных записей.
      */
     public String getResponse(
             final String systemPrompt,
             final String text,
             final String model
     ) {
-        try {
-            GigaChatMessage systemMessage = new GigaChatMessage();
-            systemMessage.setRole("system");
-            systemMessage.setContent(systemPrompt);
+        String rqUid = UUID.randomUUID().toString();
+        return observation("chat", model, rqUid).observe(() -> {
+            CredentialPool.Lease lease = credentialPool.acquire();
+            try {
+                String response = httpClientWrapper.executeRequestForString(
+                        buildRequest(systemPrompt, text, model,
+                                tokenManager.getAccessToken(lease.getCredential()), rqUid),
+                        "Ошибка запроса к GigaChat API"
+                );
+                lease.release();
+                return response;
+            } catch (Exception e) {
+                lease.fail(e);
+                log.error("Ошибка при обработке запроса {} к GigaChat API", rqUid, e);
+                throw new ApiRequestException(
+                        "Ошибка при обработке запроса к GigaChat API", e
+                );
+            }
+        });
+    }
 
-            GigaChatMessage userMessage = new GigaChatMessage();
-            userMessage.setRole("user");
-            userMessage.setContent(text);
+    /**
+     * Выполняет запрос к GigaChat API асинхронно, не блокируя вызывающий поток.
+     * Если токен необходимо обновить, он обновляется в пуле {@link TokenManager} и запрос
+     * ставится в очередь OkHttp по его получении. Учетная запись возвращается в пул
+     * по завершении результата, отмена результата отменяет HTTP-вызов.
+     *
+     * @param systemPrompt Системный промпт, задающий контекст для анализа.
+     * @param text         Текст резюме для анализа.
+     * @param model        Модель для анализа резюме.
+     * @return Ответ от API в виде строки. Завершается с {@link ApiRequestException} при ошибке.
+     */
+    public CompletableFuture<String> getResponseAsync(
+            final String systemPrompt,
+            final String text,
+            final String model
+    ) {
+        String rqUid = UUID.randomUUID().toString();
+        Observation observation = observation("chat", model, rqUid).start();
+        CredentialPool.Lease lease;
+        try (Observation.Scope scope = observation.openScope()) {
+            lease = credentialPool.acquire();
+        } catch (RuntimeException e) {
+            observation.error(e);
+            observation.stop();
+            return CompletableFuture.failedFuture(e);
+        }
 
-            List<GigaChatMessage> messages = new ArrayList<>();
-            messages.add(systemMessage);
-            messages.add(userMessage);
+        CompletableFuture<String> response = new CompletableFuture<>();
+        response.whenComplete((result, e) -> {
+            if (e == null) {
+                lease.release();
+            } else {
+                lease.fail(e);
+                observation.error(e);
+            }
+            observation.stop();
+        });
+        tokenManager.getAccessTokenAsync(lease.getCredential()).whenComplete((accessToken, tokenError) -> {
+            if (response.isDone()) {
+                return;
+            }
+            CompletableFuture<String> call;
+            try (Observation.Scope scope = observation.openScope()) {
+                if (tokenError != null) {
+                    throw tokenError instanceof CompletionException && tokenError.getCause() != null
+                            ? tokenError.getCause()
+                            : tokenError;
+                }
+                call = httpClientWrapper.executeRequestForStringAsync(
+                        buildRequest(systemPrompt, text, model, accessToken, rqUid),
+                        "Ошибка запроса к GigaChat API"
+                );
+            } catch (Throwable e) {
+                log.error("Ошибка при обработке запроса {} к GigaChat API", rqUid, e);
+                response.completeExceptionally(new ApiRequestException(
+                        "Ошибка при обработке запроса к GigaChat API", e
+                ));
+                return;
+            }
+            response.whenComplete((result, e) -> {
+                if (response.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            call.whenComplete((result, e) -> {
+                if (e == null) {
+                    response.complete(result);
+                } else {
+                    response.completeExceptionally(e);
+                }
+            });
+        });
+        return response;
+    }
 
-            GigaChatRequest payload = new GigaChatRequest();
-            payload.setModel(model);
-            payload.setMessages(messages);
-            payload.setStream(false);
+    /**
+     * Получает векторные представления текстов от GigaChat API.
+     *
+     * @param texts Тексты.
+     * @param model Модель векторизации.
+     * @return Векторы в порядке текстов.
+     * @throws ApiRequestException ошибка при выполнении запроса к API.
+     */
+    public List<float[]> getEmbeddings(final List<String> texts, final String model) {
+        String rqUid = UUID.randomUUID().toString();
+        return observation("embeddings", model, rqUid).observe(() -> requestEmbeddings(texts, model, rqUid));
+    }
 
-            String jsonPayload = objectMapper.writeValueAsString(payload);
+    /**
+     * Выполняет запрос векторизации к GigaChat API.
+     *
+     * @param texts Тексты.
+     * @param model Модель векторизации.
+     * @param rqUid Идентификатор запроса.
+     * @return Векторы в порядке текстов.
+     * @throws ApiRequestException ошибка при выполнении запроса к API.
+     */
+    private List<float[]> requestEmbeddings(final List<String> texts, final String model, final String rqUid) {
+        CredentialPool.Lease lease = credentialPool.acquire();
+        try {
+            Map<String, Object> payload = Map.of("model", model, "input", texts);
             RequestBody body = RequestBody.create(
-                    jsonPayload,
+                    objectMapper.writeValueAsString(payload),
                     MediaType.get("application/json; charset=utf-8")
             );
-
             Request request = new Request.Builder()
-                    .url(config.getApiUrl())
+                    .url(config.getEmbeddingsUrl())
                     .post(body)
                     .addHeader(
                             "Authorization",
-                            "Bearer " + tokenManager.getAccessToken()
-                    )
-                    .addHeader(
-                            "Content-Type",
-                            "application/json"
+                            "Bearer " + tokenManager.getAccessToken(lease.getCredential())
                     )
                     .addHeader(
                             "RqUID",
-                            UUID.randomUUID().toString()
+                            rqUid
                     )
+                    .tag(GigaChatCallRecorder.Tag.class, new GigaChatCallRecorder.Tag("embeddings", model, rqUid))
                     .build();
 
-            return httpClientWrapper.executeRequestForString(
+            JsonNode data = httpClientWrapper.executeRequest(
                     request,
-                    "Ошибка запроса к GigaChat API"
-            );
+                    "Ошибка запроса векторизации к GigaChat API"
+            ).path("data");
+            List<float[]> embeddings = toEmbeddings(data, texts.size());
+            lease.release();
+            return embeddings;
         } catch (Exception e) {
-            log.error("Ошибка при обработке запроса к GigaChat API", e);
+            lease.fail(e);
+            log.error("Ошибка при обработке запроса векторизации {} к GigaChat API", rqUid, e);
             throw new ApiRequestException(
-                    "Ошибка при обработке запроса к GigaChat API", e
+                    "Ошибка при обработке запроса векторизации к GigaChat API", e
             );
         }
     }
+
+    /**
+     * Разбирает векторы из ответа API векторизации.
+     * Вектор помещается на позицию из поля {@code index}, а если поля нет - на позицию в массиве ответа.
+     *
+     * @param data  Массив {@code data} ответа.
+     * @param count Количество текстов в запросе.
+     * @return Векторы в порядке текстов.
+     * @throws ApiRequestException количество векторов не совпадает с количеством текстов,
+     *                             индекс не является числом, выходит за границы или повторяется.
+     */
+    static List<float[]> toEmbeddings(final JsonNode data, final int count) {
+        if (data.size() != count) {
+            throw new ApiRequestException("Количество векторов не совпадает с количеством текстов");
+        }
+
+        List<float[]> embeddings = new ArrayList<>(Collections.nCopies(count, null));
+        for (int position = 0; position < count; position++) {
+            JsonNode item = data.get(position);
+            JsonNode indexNode = item.path("index");
+            if (!indexNode.isMissingNode() && !(indexNode.isIntegralNumber() && indexNode.canConvertToInt())) {
+                throw new ApiRequestException("Некорректный индекс вектора: " + indexNode);
+            }
+            int index = indexNode.isMissingNode() ? position : indexNode.intValue();
+            if (index < 0 || index >= count) {
+                throw new ApiRequestException("Индекс вектора " + index + " вне диапазона 0.." + (count - 1));
+            }
+            if (embeddings.get(index) != null) {
+                throw new ApiRequestException("Индекс вектора " + index + " повторяется в ответе");
+            }
+
+            JsonNode values = item.path("embedding");
+            float[] embedding = new float[values.size()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = (float) values.get(i).asDouble();
+            }
+            embeddings.set(index, embedding);
+        }
+        return embeddings;
+    }
+
+    /**
+     * Формирует HTTP-запрос к GigaChat API.
+     *
+     * @param systemPrompt Системный промпт, задающий контекст для анализа.
+     * @param text         Текст резюме для анализа.
+     * @param model        Модель для анализа резюме.
+     * @param accessToken  Токен доступа учетной записи.
+     * @param rqUid        Идентификатор запроса.
+     * @return HTTP-запрос.
+     * @throws JsonProcessingException ошибка сериализации запроса.
+     */
+    private Request buildRequest(
+            final String systemPrompt,
+            final String text,
+            final String model,
+            final String accessToken,
+            final String rqUid
+    ) throws JsonProcessingException {
+        GigaChatMessage systemMessage = new GigaChatMessage();
+        systemMessage.setRole("system");
+        systemMessage.setContent(systemPrompt);
+
+        GigaChatMessage userMessage = new GigaChatMessage();
+        userMessage.setRole("user");
+        userMessage.setContent(text);
+
+        List<GigaChatMessage> messages = new ArrayList<>();
+        messages.add(systemMessage);
+        messages.add(userMessage);
+
+        GigaChatRequest payload = new GigaChatRequest();
+        payload.setModel(model);
+        payload.setMessages(messages);
+        payload.setStream(false);
+
+        String jsonPayload = objectMapper.writeValueAsString(payload);
+        RequestBody body = RequestBody.create(
+                jsonPayload,
+                MediaType.get("application/json; charset=utf-8")
+        );
+
+        return new Request.Builder()
+                .url(config.getApiUrl())
+                .post(body)
+                .addHeader(
+                        "Authorization",
+                        "Bearer " + accessToken
+                )
+                .addHeader(
+                        "Content-Type",
+                        "application/json"
+                )
+                .addHeader(
+                        "RqUID",
+                        rqUid
+                )
+                .tag(GigaChatCallRecorder.Tag.class, new GigaChatCallRecorder.Tag("chat", model, rqUid))
+                .build();
+    }
+
+    /**
+     * Создает наблюдение (span) вызова API.
+     *
+     * @param operation Операция API: {@code chat} или {@code embeddings}.
+     * @param model     Модель.
+     * @param rqUid     Идентификатор запроса.
+     * @return Незапущенное наблюдение.
+     */
+    private Observation observation(final String operation, final String model, final String rqUid) {
+        log.debug("Запрос {} к GigaChat API: {}, модель {}", rqUid, operation, model);
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("gigachat " + operation)
+                .lowCardinalityKeyValue("gigachat.operation", operation)
+                .lowCardinalityKeyValue("gigachat.model", model)
+                .highCardinalityKeyValue("gigachat.rq_uid", rqUid);
+    }
 }
@@ -0,0 +1,75 @@
+package org.surkov.hranalyzer.giga_chat;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.surkov.hranalyzer.service.recording.event.GigaChatCallEvent;
+
+import java.io.IOException;
+
+/**
+ * Перехватчик HTTP-клиента, записывающий каждый вызов GigaChat API в событие JFR {@link GigaChatCallEvent}.
+ * Операция, модель и {@code RqUID} берутся из метки запроса {@link Tag}.
+ * Если запись JFR не ведется, перехватчик не создает накладных расходов, кроме проверки включенности события.
+ */
+public class GigaChatCallRecorder implements Interceptor {
+
+    /**
+     * Метка запроса к GigaChat API для записи события.
+     *
+     * @param operation Операция API: {@code chat}, {@code embeddings} или {@code token}.
+     * @param model     Модель или {@code null}.
+     * @param rqUid     Идентификатор запроса.
+     */
+    public record Tag(String operation, String model, String rqUid) {
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        GigaChatCallEvent event = new GigaChatCallEvent();
+        if (!event.isEnabled()) {
+            return chain.proceed(chain.request());
+        }
+
+        Request request = chain.request();
+        event.responseBytes = -1;
+        event.begin();
+        try {
+            Response response = chain.proceed(request);
+            event.status = response.code();
+            event.responseBytes = contentLength(response.networkResponse());
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Tag tag = request.tag(Tag.class);
+                if (tag != null) {
+                    event.operation = tag.operation();
+                    event.model = tag.model();
+                    event.rqUid = tag.rqUid();
+                }
+                event.requestBytes = request.body() == null ? 0 : request.body().contentLength();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Возвращает размер тела ответа, переданного по сети, из заголовка Content-Length.
+     * Ответ, распакованный клиентом, этот заголовок уже не содержит.
+     *
+     * @param networkResponse Ответ сети или {@code null}.
+     * @return Размер тела (в байтах) или -1, если он неизвестен.
+     */
+    private static long contentLength(final Response networkResponse) {
+        String header = networkResponse == null ? null : networkResponse.header("Content-Length");
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
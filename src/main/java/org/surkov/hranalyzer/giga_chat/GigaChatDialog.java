@@ -1,15 +1,22 @@
 package org.surkov.hranalyzer.giga_chat;
 
+import io.micrometer.context.ContextSnapshot;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.giga_chat.resilience.GigaChatGuard;
+import org.surkov.hranalyzer.util.TraceContext;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Фасад для взаимодействия с GigaChat API.
- * Отвечает за инициализацию компонента,
- * валидацию конфигурации и выполнение запросов к API.
+ * Отвечает за валидацию конфигурации и выполнение запросов к API.
+ * Первый токен доступа запрашивается асинхронно в {@link GigaChatStartup}.
  */
 @Slf4j
 @Component
@@ -22,31 +29,24 @@ public class GigaChatDialog {
     private final GigaChatConfig config;
 
     /**
-     * Менеджер токенов, предоставляющий токен доступа для аутентификации в API.
+     * Клиент для выполнения запросов к GigaChat API.
      */
-    private final TokenManager tokenManager;
+    private final GigaChatApiClient apiClient;
 
     /**
-     * Клиент для выполнения запросов к GigaChat API.
+     * Защита вызовов API: автоматические выключатели и лимиты параллельных вызовов по моделям.
      */
-    private final GigaChatApiClient apiClient;
+    private final GigaChatGuard guard;
 
     /**
      * Инициализирует компонент.
-     * Проверяет конфигурацию и получает начальный токен доступа.
+     * Проверяет конфигурацию, не обращаясь к сети.
      *
      * @throws IllegalStateException конфигурация некорректна
-     *                               или не удалось получить токен доступа
      */
     @PostConstruct
     public void init() {
         validateConfig();
-        try {
-            tokenManager.fetchAccessToken();
-        } catch (Exception e) {
-            log.error("Не удалось инициализировать GigaChatDialog", e);
-            throw new IllegalStateException("Не удалось инициализировать GigaChatDialog", e);
-        }
     }
 
     /**
@@ -67,12 +67,70 @@ public class GigaChatDialog {
      * @param text         Текст резюме для анализа.
      * @param model        Модель для анализа резюме.
      * @return Ответ от API в виде строки.
+     * @throws GigaChatUnavailableException модель временно недоступна или перегружена.
      */
     public String getResponse(
             final String systemPrompt,
             final String text,
             final String model
     ) {
-        return apiClient.getResponse(systemPrompt, text, model);
+        return guard.execute(
+                GigaModelType.fromModelName(model),
+                () -> apiClient.getResponse(systemPrompt, text, model)
+        );
+    }
+
+    /**
+     * Выполняет запрос к GigaChat API асинхронно под защитой выключателя и лимита модели.
+     * Если свободного слота лимита нет, запрос ожидает в справедливой очереди текущего пользователя,
+     * не занимая поток. HTTP-вызов выполняется в контексте трассировки вызывающего потока.
+     * Отмена результата удаляет запрос из очереди или прерывает HTTP-вызов.
+     *
+     * @param systemPrompt Системный промпт, задающий контекст для анализа.
+     * @param text         Текст резюме для анализа.
+     * @param model        Модель для анализа резюме.
+     * @return Ответ от API в виде строки. Завершается с {@link GigaChatUnavailableException},
+     * если модель временно недоступна или перегружена.
+     */
+    public CompletableFuture<String> getResponseAsync(
+            final String systemPrompt,
+            final String text,
+            final String model
+    ) {
+        ContextSnapshot trace = TraceContext.capture();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<GigaChatGuard.Permit> acquisition = guard.acquireAsync(GigaModelType.fromModelName(model));
+        acquisition.whenComplete((permit, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (result.isDone()) {
+                permit.cancel();
+                return;
+            }
+            CompletableFuture<String> response = TraceContext.supplyIn(
+                    trace, () -> apiClient.getResponseAsync(systemPrompt, text, model)
+            );
+            response.whenComplete((body, error) -> {
+                permit.complete(response.isCancelled() ? null : error);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(body);
+                }
+            });
+            result.whenComplete((body, error) -> {
+                if (result.isCancelled()) {
+                    response.cancel(true);
+                }
+            });
+        });
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                acquisition.cancel(false);
+            }
+        });
+        return result;
     }
 }
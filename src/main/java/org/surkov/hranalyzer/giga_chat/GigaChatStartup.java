@@ -0,0 +1,158 @@
+package org.surkov.hranalyzer.giga_chat;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
+import org.surkov.hranalyzer.giga_chat.utils.SecurityUtils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронная фаза запуска интеграции с GigaChat.
+ * <p>
+ * После старта контекста в отдельном потоке получает токены доступа всех учетных записей,
+ * тем самым устанавливая TLS-соединение с сервером аутентификации. Готовность наступает
+ * после получения первого токена, остальные учетные записи продолжают получать токены
+ * в фоне. При ошибке попытка повторяется
+ * с экспоненциально растущей задержкой, ограниченной {@code giga-chat.startup-retry-max-delay-ms},
+ * пока токен не будет получен. Запуск приложения при этом не блокируется, а готовность
+ * к приему трафика сообщается через {@link org.surkov.hranalyzer.giga_chat.health.GigaChatHealthIndicator}.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GigaChatStartup {
+
+    /**
+     * Конфигурация GigaChat API.
+     */
+    private final GigaChatConfig config;
+
+    /**
+     * Менеджер токенов доступа.
+     */
+    private final TokenManager tokenManager;
+
+    /**
+     * Поток для попыток получения первого токена.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "gigachat-startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Количество неудачных попыток получения первого токена.
+     */
+    private final AtomicInteger failedAttempts = new AtomicInteger();
+
+    /**
+     * Признак того, что первый токен получен.
+     */
+    private volatile boolean tokenAvailable;
+
+    /**
+     * Сообщение последней ошибки получения токена.
+     */
+    private volatile String lastError;
+
+    /**
+     * Запускает получение первого токена после старта контекста.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        scheduler.execute(this::fetchToken);
+    }
+
+    /**
+     * Останавливает попытки получения токена при закрытии контекста.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Проверяет, получен ли первый токен доступа.
+     *
+     * @return {@code true}, если токен получен.
+     */
+    public boolean isTokenAvailable() {
+        return tokenAvailable;
+    }
+
+    /**
+     * Возвращает количество неудачных попыток получения первого токена.
+     *
+     * @return Количество попыток.
+     */
+    public int getFailedAttempts() {
+        return failedAttempts.get();
+    }
+
+    /**
+     * Возвращает сообщение последней ошибки получения токена.
+     *
+     * @return Сообщение или {@code null}, если ошибок не было.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Получает токены учетных записей, у которых их еще нет, и при ошибке планирует следующую попытку.
+     */
+    private void fetchToken() {
+        boolean failed = false;
+        for (GigaChatConfig.Credential credential : config.getEffectiveCredentials()) {
+            if (tokenManager.hasValidToken(credential)) {
+                continue;
+            }
+            try {
+                tokenManager.fetchAccessToken(credential);
+                if (!tokenAvailable) {
+                    tokenAvailable = true;
+                    log.info("GigaChat готов к работе, токен доступа получен");
+                }
+            } catch (Exception e) {
+                failed = true;
+                lastError = e.getMessage();
+                log.warn("Не удалось получить токен GigaChat для учетной записи {}",
+                        SecurityUtils.maskSensitiveData(credential.getClientId()));
+            }
+        }
+
+        if (!failed) {
+            lastError = null;
+            scheduler.shutdown();
+            return;
+        }
+        int attempt = failedAttempts.incrementAndGet();
+        long delayMs = retryDelayMs(attempt);
+        log.warn("Не удалось получить токены GigaChat (попытка {}), повтор через {} мс", attempt, delayMs);
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::fetchToken, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Рассчитывает задержку перед следующей попыткой.
+     *
+     * @param attempt Номер неудачной попытки, начиная с 1.
+     * @return Задержка (в миллисекундах).
+     */
+    private long retryDelayMs(final int attempt) {
+        double delay = config.getRetryInitialDelayMs()
+                * Math.pow(Math.max(1, config.getRetryDelayMultiplier()), attempt - 1);
+        return (long) Math.min(delay, config.getStartupRetryMaxDelayMs());
+    }
+}
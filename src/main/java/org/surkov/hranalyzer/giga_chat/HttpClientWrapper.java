@@ -4,15 +4,19 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
 import org.surkov.hranalyzer.giga_chat.exception.AuthenticationException;
+import org.surkov.hranalyzer.giga_chat.exception.RateLimitedException;
 import org.surkov.hranalyzer.giga_chat.utils.SecurityUtils;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Обертка над HTTP-клиентом для выполнения запросов к API.
@@ -69,6 +73,52 @@ public class HttpClientWrapper {
         }
     }
 
+    /**
+     * Выполняет HTTP-запрос асинхронно, не занимая вызывающий поток на время ожидания ответа.
+     * Ответ обрабатывается в потоке диспетчера OkHttp. Отмена возвращенного результата отменяет запрос.
+     *
+     * @param request      HTTP-запрос, который необходимо выполнить.
+     * @param errorMessage Сообщение об ошибке для логирования и исключения.
+     * @return Тело ответа в виде строки. Завершается с {@link ApiRequestException}
+     * или {@link AuthenticationException} при ошибке.
+     */
+    public CompletableFuture<String> executeRequestForStringAsync(final Request request, final String errorMessage) {
+        Call call = client.newCall(request);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(final Call failedCall, final IOException e) {
+                if (!result.isCancelled()) {
+                    log.error("{} Ошибка при выполнении запроса", errorMessage, e);
+                }
+                result.completeExceptionally(
+                        new ApiRequestException(errorMessage + ". Ошибка при выполнении запроса", e)
+                );
+            }
+
+            @Override
+            public void onResponse(final Call completedCall, final Response response) {
+                try (response) {
+                    result.complete(handleResponse(response, errorMessage));
+                } catch (IOException e) {
+                    log.error("{} Ошибка при чтении ответа", errorMessage, e);
+                    result.completeExceptionally(
+                            new ApiRequestException(errorMessage + ". Ошибка при выполнении запроса", e)
+                    );
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
+    }
+
     /**
      * Обрабатывает HTTP-ответ, проверяет его успешность и возвращает тело ответа в виде строки.
      * Если ответ неуспешен или тело отсутствует, логирует ошибку и выбрасывает соответствующее исключение.
@@ -78,6 +128,7 @@ public class HttpClientWrapper {
      * @return Тело ответа в виде строки.
      * @throws ApiRequestException     запрос завершился с ошибкой или произошла ошибка ввода-вывода.
      * @throws AuthenticationException ошибка связана с аутентификацией (коды ответа 401 или 403).
+     * @throws RateLimitedException    превышена частота запросов учетной записи (код ответа 429).
      * @throws IOException             ошибка при чтении тела ответа.
      */
     private String handleResponse(final Response response, final String errorMessage) throws IOException {
@@ -92,7 +143,12 @@ public class HttpClientWrapper {
             if (response.code() == 401 || response.code() == 403) {
                 throw new AuthenticationException(errorMessage + ". Код ответа: " + response.code());
             }
-            throw new ApiRequestException(errorMessage + ". Код ответа: " + response.code());
+            if (response.code() == 429) {
+                throw new RateLimitedException(
+                        errorMessage + ". Код ответа: 429", parseRetryAfter(response.header("Retry-After"))
+                );
+            }
+            throw new ApiRequestException(errorMessage + ". Код ответа: " + response.code(), response.code());
         }
 
         String responseBody = response.body() != null ? response.body().string() : null;
@@ -103,4 +159,21 @@ public class HttpClientWrapper {
 
         return responseBody;
     }
+
+    /**
+     * Разбирает заголовок Retry-After, заданный в секундах.
+     *
+     * @param retryAfter Значение заголовка или {@code null}.
+     * @return Задержка (в секундах) или 0, если заголовок отсутствует или задан датой.
+     */
+    private static long parseRetryAfter(final String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
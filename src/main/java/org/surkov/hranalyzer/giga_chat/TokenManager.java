@@ -1,6 +1,10 @@
 package org.surkov.hranalyzer.giga_chat;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.FormBody;
@@ -11,10 +15,21 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
 import org.surkov.hranalyzer.giga_chat.exception.AuthenticationException;
+import org.surkov.hranalyzer.giga_chat.utils.SecurityUtils;
+import org.surkov.hranalyzer.service.cluster.SharedTokenStore;
+import org.surkov.hranalyzer.service.cluster.enumiration.TokenLease;
+import org.surkov.hranalyzer.service.recording.event.TokenRefreshEvent;
+import org.surkov.hranalyzer.util.TraceContext;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -24,7 +39,14 @@ import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Менеджер токенов для работы с GigaChat API.
- * Отвечает за получение, обновление и хранение токена доступа, обеспечивая потокобезопасность.
+ * Отвечает за получение, обновление и хранение токенов доступа, обеспечивая потокобезопасность.
+ * Для каждой учетной записи {@link GigaChatConfig.Credential} хранится свой токен со своим сроком действия.
+ * При включенном {@code cluster.enabled} токен разделяется между экземплярами приложения через
+ * {@link SharedTokenStore}: новый токен у сервера аутентификации запрашивает только экземпляр,
+ * захвативший право обновления, остальные получают его из общего хранилища.
+ * Обновление токена при запросе к API выполняется в span-е {@value #OBSERVATION_NAME}.
+ * Для асинхронных вызовов токен обновляется в отдельном пуле {@code gigachat-token}: обновление
+ * и ожидание общего хранилища блокируют поток и не должны занимать потоки OkHttp или вызывающего кода.
  */
 @Slf4j
 @Component
@@ -42,76 +64,183 @@ public class TokenManager {
     private final HttpClientWrapper httpClientWrapper;
 
     /**
-     * Токен доступа для аутентификации в API.
-     * Хранится в атомарной ссылке для обеспечения потокобезопасности.
+     * Общее хранилище токенов, если оно включено.
      */
-    private final AtomicReference<String> accessToken = new AtomicReference<>("");
+    private final Optional<SharedTokenStore> sharedTokens;
 
     /**
-     * Время истечения срока действия токена доступа (в миллисекундах).
-     * Хранится в атомарном объекте для обеспечения потокобезопасности.
+     * Реестр наблюдений для трассировки обновления токенов.
      */
-    private final AtomicLong tokenExpirationTime = new AtomicLong(0);
+    private final ObservationRegistry observationRegistry;
 
     /**
-     * Флаг, указывающий, обновляется ли токен в данный момент.
-     * Используется для предотвращения одновременного обновления токена несколькими потоками.
+     * Токены по идентификатору клиента учетной записи.
      */
-    private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
 
     /**
-     * Блокировка для синхронизации потоков при обновлении токена.
+     * Пул асинхронного обновления токенов. Обновления одной учетной записи объединяются,
+     * поэтому потоков не больше, чем учетных записей с истекающим токеном.
      */
-    private final Lock lock = new ReentrantLock();
+    private final ExecutorService refreshExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gigachat-token");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
-     * Условие для ожидания завершения обновления токена.
+     * Множитель для перевода секунд в миллисекунды.
      */
-    private final Condition tokenRefreshed = lock.newCondition();
+    private static final int SECONDS_TO_MILLISECONDS = 1000;
 
     /**
-     * Множитель для перевода секунд в миллисекунды.
+     * Имя наблюдения (span-а) обновления токена.
      */
-    private static final int SECONDS_TO_MILLISECONDS = 1000;
+    private static final String OBSERVATION_NAME = "gigachat.token";
 
     /**
-     * Получает текущий токен доступа, обновляя его, если это необходимо.
+     * Максимальное количество периодов аренды, в течение которых ожидается токен от другого экземпляра.
+     */
+    private static final int MAX_LEASE_WAITS = 3;
+
+    /**
+     * Получает текущий токен доступа учетной записи, обновляя его, если это необходимо.
      *
+     * @param credential Учетная запись.
      * @return Токен доступа в виде строки.
      */
-    public String getAccessToken() {
-        if (isTokenExpiredOrExpiringSoon()) {
-            refreshToken();
+    public String getAccessToken(final GigaChatConfig.Credential credential) {
+        Token token = tokenOf(credential);
+        if (isTokenExpiredOrExpiringSoon(token)) {
+            Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                    .contextualName("gigachat token")
+                    .observe(() -> refreshToken(credential, token));
+        }
+        return token.accessToken.get();
+    }
+
+    /**
+     * Получает текущий токен доступа учетной записи, не блокируя вызывающий поток.
+     * Действующий токен возвращается сразу, иначе токен обновляется в пуле {@code gigachat-token};
+     * одновременные вызовы для одной учетной записи ожидают одно и то же обновление.
+     *
+     * @param credential Учетная запись.
+     * @return Токен доступа. Завершается с {@link AuthenticationException}, если токен получить не удалось.
+     */
+    public CompletableFuture<String> getAccessTokenAsync(final GigaChatConfig.Credential credential) {
+        Token token = tokenOf(credential);
+        if (!isTokenExpiredOrExpiringSoon(token)) {
+            return CompletableFuture.completedFuture(token.accessToken.get());
+        }
+        ContextSnapshot trace = TraceContext.capture();
+        while (true) {
+            CompletableFuture<String> pending = token.pendingRefresh.get();
+            if (pending != null) {
+                return pending.copy();
+            }
+            CompletableFuture<String> refresh = new CompletableFuture<>();
+            if (token.pendingRefresh.compareAndSet(null, refresh)) {
+                refresh.whenComplete((accessToken, e) -> token.pendingRefresh.compareAndSet(refresh, null));
+                try {
+                    refreshExecutor.execute(() -> {
+                        try {
+                            refresh.complete(TraceContext.supplyIn(trace, () -> getAccessToken(credential)));
+                        } catch (RuntimeException e) {
+                            refresh.completeExceptionally(e);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    refresh.completeExceptionally(e);
+                }
+                // Отмена вызывающим кодом не должна отменять обновление, которое ожидают другие вызовы
+                return refresh.copy();
+            }
         }
-        return accessToken.get();
+    }
+
+    /**
+     * Останавливает пул асинхронного обновления токенов.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Проверяет, есть ли у учетной записи действующий токен.
+     *
+     * @param credential Учетная запись.
+     * @return {@code true}, если токен получен и не истекает в ближайшее время.
+     */
+    public boolean hasValidToken(final GigaChatConfig.Credential credential) {
+        return !isTokenExpiredOrExpiringSoon(tokenOf(credential));
+    }
+
+    /**
+     * Помечает токен учетной записи как недействительный, чтобы следующий запрос получил новый.
+     * Вызывается, когда API отклонил запрос с действующим, по нашим данным, токеном.
+     *
+     * @param credential Учетная запись.
+     */
+    public void invalidate(final GigaChatConfig.Credential credential) {
+        Token token = tokenOf(credential);
+        token.expirationTime.set(0);
+        sharedTokens.ifPresent(store -> store.invalidate(credential.getClientId(), token.accessToken.get()));
+    }
+
+    /**
+     * Возвращает состояние токена учетной записи.
+     *
+     * @param credential Учетная запись.
+     * @return Состояние токена.
+     */
+    private Token tokenOf(final GigaChatConfig.Credential credential) {
+        return tokens.computeIfAbsent(credential.getClientId(), clientId -> new Token());
     }
 
     /**
      * Проверяет, истек ли токен или скоро истечет.
      *
+     * @param token Состояние токена.
      * @return {@code true}, если токен истек или скоро истечет, иначе {@code false}.
      */
-    private boolean isTokenExpiredOrExpiringSoon() {
-        long tokenExpirationThreshold = tokenExpirationTime.get() - config.getTokenRefreshBufferMs();
+    private boolean isTokenExpiredOrExpiringSoon(final Token token) {
+        long tokenExpirationThreshold = token.expirationTime.get() - config.getTokenRefreshBufferMs();
         return System.currentTimeMillis() >= tokenExpirationThreshold;
     }
 
     /**
      * Обновляет токен доступа, если он не обновляется в данный момент.
      * Если обновление уже выполняется другим потоком, текущий поток ожидает завершения обновления.
+     * Обновление и ожидание записываются в событие JFR {@link TokenRefreshEvent}.
+     *
+     * @param credential Учетная запись.
+     * @param token      Состояние токена.
      */
-    private void refreshToken() {
-        if (isRefreshing.compareAndSet(false, true)) {
-            lock.lock();
-            try {
-                fetchAccessToken();
-                tokenRefreshed.signalAll();
-            } finally {
-                isRefreshing.set(false);
-                lock.unlock();
+    private void refreshToken(final GigaChatConfig.Credential credential, final Token token) {
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
+        try {
+            if (token.isRefreshing.compareAndSet(false, true)) {
+                token.lock.lock();
+                try {
+                    fetchAccessToken(credential);
+                    token.refreshed.signalAll();
+                } finally {
+                    token.isRefreshing.set(false);
+                    token.lock.unlock();
+                }
+            } else {
+                event.waited = true;
+                waitForTokenRefresh(token);
+            }
+            event.success = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.client = SecurityUtils.maskSensitiveData(credential.getClientId());
+                event.commit();
             }
-        } else {
-            waitForTokenRefresh();
         }
     }
 
@@ -119,28 +248,37 @@ public class TokenManager {
      * Ожидает завершения обновления токена другим потоком.
      * Использует механизм блокировки и условия для эффективного ожидания без активного ожидания.
      *
+     * @param token Состояние токена.
      * @throws AuthenticationException ожидание обновления токена было прервано.
      */
-    private void waitForTokenRefresh() {
-        lock.lock();
+    private void waitForTokenRefresh(final Token token) {
+        token.lock.lock();
         try {
-            while (isRefreshing.get()) {
+            while (token.isRefreshing.get()) {
                 try {
-                    tokenRefreshed.await();
+                    token.refreshed.await();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     throw new AuthenticationException("Прервано ожидание обновления токена", e);
                 }
             }
         } finally {
-            lock.unlock();
+            token.lock.unlock();
         }
     }
 
     /**
-     * Получает новый токен доступа от GigaChat API.
+     * Получает новый токен доступа учетной записи.
+     * При включенном общем хранилище сначала используется токен, опубликованный другим экземпляром;
+     * если его нет, токен у GigaChat API запрашивает только экземпляр, захвативший право обновления.
+     * Остальные экземпляры поочередно пытаются захватить право и ожидают публикации токена, пока
+     * токен не появится или право не освободится. Без права обновления токен запрашивается
+     * только при явной деградации, которая записывается в журнал: общее хранилище недоступно
+     * или другой экземпляр не опубликовал токен за {@value #MAX_LEASE_WAITS} периода аренды.
+     * Такой токен не публикуется, чтобы не снять чужую аренду.
      * Метод выполняется с механизмом повторных попыток в случае ошибок аутентификации.
      *
+     * @param credential Учетная запись.
      * @throws AuthenticationException не удалось получить токен доступа.
      */
     @Retryable(
@@ -150,9 +288,66 @@ public class TokenManager {
                     multiplierExpression = "#{@gigaChatConfig.retryDelayMultiplier}"
             )
     )
-    public void fetchAccessToken() {
+    public void fetchAccessToken(final GigaChatConfig.Credential credential) {
+        Token token = tokenOf(credential);
+        if (sharedTokens.isEmpty()) {
+            requestAccessToken(credential, token);
+            return;
+        }
+
+        SharedTokenStore store = sharedTokens.get();
+        String clientId = credential.getClientId();
+        long minExpiresAt = System.currentTimeMillis() + config.getTokenRefreshBufferMs();
+        Optional<SharedTokenStore.SharedToken> shared = store.find(clientId)
+                .filter(candidate -> candidate.expiresAt() > minExpiresAt);
+        for (int waits = 0; shared.isEmpty(); waits++) {
+            TokenLease lease = store.tryAcquireLease(clientId);
+            if (lease == TokenLease.ACQUIRED) {
+                try {
+                    requestAccessToken(credential, token);
+                } catch (AuthenticationException e) {
+                    store.releaseLease(clientId);
+                    throw e;
+                }
+                store.publish(clientId, token.accessToken.get(), token.expirationTime.get());
+                return;
+            }
+            if (lease == TokenLease.UNAVAILABLE || waits == MAX_LEASE_WAITS) {
+                log.warn("Токен доступа для {} запрашивается без права обновления: {}",
+                        SecurityUtils.maskSensitiveData(clientId),
+                        lease == TokenLease.UNAVAILABLE
+                                ? "общее хранилище недоступно"
+                                : "другой экземпляр не опубликовал токен за " + MAX_LEASE_WAITS + " периода аренды");
+                requestAccessToken(credential, token);
+                return;
+            }
+            shared = store.awaitToken(clientId, minExpiresAt);
+            if (shared.isEmpty() && Thread.currentThread().isInterrupted()) {
+                throw new AuthenticationException("Прервано ожидание токена из общего хранилища");
+            }
+        }
+
+        token.accessToken.set(shared.get().accessToken());
+        token.expirationTime.set(shared.get().expiresAt());
+        log.info("Токен доступа для {} получен из общего хранилища",
+                SecurityUtils.maskSensitiveData(clientId));
+    }
+
+    /**
+     * Запрашивает новый токен доступа учетной записи у GigaChat API.
+     *
+     * @param credential Учетная запись.
+     * @param token      Состояние токена, в которое сохраняется результат.
+     * @throws AuthenticationException не удалось получить токен доступа.
+     */
+    private void requestAccessToken(final GigaChatConfig.Credential credential, final Token token) {
+        String rqUid = UUID.randomUUID().toString();
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.highCardinalityKeyValue("gigachat.rq_uid", rqUid);
+        }
         try {
-            String credentials = config.getClientId() + ":" + config.getClientSecret();
+            String credentials = credential.getClientId() + ":" + credential.getClientSecret();
             String authKey = Base64.getEncoder().encodeToString(
                     credentials.getBytes(StandardCharsets.UTF_8)
             );
@@ -173,12 +368,13 @@ public class TokenManager {
                     )
                     .addHeader(
                             "RqUID",
-                            UUID.randomUUID().toString()
+                            rqUid
                     )
                     .addHeader(
                             "Authorization",
                             "Basic " + authKey
                     )
+                    .tag(GigaChatCallRecorder.Tag.class, new GigaChatCallRecorder.Tag("token", null, rqUid))
                     .build();
 
             JsonNode responseBody = httpClientWrapper.executeRequest(request, "Не удалось получить токен доступа");
@@ -187,13 +383,50 @@ public class TokenManager {
                 throw new AuthenticationException("Некорректный ответ токена");
             }
 
-            accessToken.set(responseBody.get("access_token").asText());
+            token.accessToken.set(responseBody.get("access_token").asText());
             long expiresAtSec = responseBody.get("expires_at").asLong();
-            tokenExpirationTime.set(expiresAtSec * SECONDS_TO_MILLISECONDS);
-            log.info("Токен доступа успешно получен, истекает: {}", tokenExpirationTime.get());
+            token.expirationTime.set(expiresAtSec * SECONDS_TO_MILLISECONDS);
+            log.info("Токен доступа для {} успешно получен (RqUID {}), истекает: {}",
+                    SecurityUtils.maskSensitiveData(credential.getClientId()), rqUid, token.expirationTime.get());
         } catch (Exception e) {
-            log.error("Ошибка при получении токена доступа", e);
+            log.error("Ошибка при получении токена доступа (RqUID {})", rqUid, e);
             throw new AuthenticationException("Ошибка при получении токена доступа", e);
         }
     }
+
+    /**
+     * Токен доступа одной учетной записи.
+     */
+    private static final class Token {
+
+        /**
+         * Токен доступа для аутентификации в API.
+         */
+        private final AtomicReference<String> accessToken = new AtomicReference<>("");
+
+        /**
+         * Время истечения срока действия токена доступа (в миллисекундах).
+         */
+        private final AtomicLong expirationTime = new AtomicLong(0);
+
+        /**
+         * Выполняющееся асинхронное обновление токена или {@code null}.
+         */
+        private final AtomicReference<CompletableFuture<String>> pendingRefresh = new AtomicReference<>();
+
+        /**
+         * Флаг, указывающий, обновляется ли токен в данный момент.
+         */
+        private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+
+        /**
+         * Блокировка для синхронизации потоков при обновлении токена.
+         */
+        private final Lock lock = new ReentrantLock();
+
+        /**
+         * Условие для ожидания завершения обновления токена.
+         */
+        private final Condition refreshed = lock.newCondition();
+    }
 }
@@ -1,14 +1,21 @@
 package org.surkov.hranalyzer.giga_chat.config;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 import org.surkov.hranalyzer.giga_chat.utils.SecurityUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Конфигурация для GigaChat API.
  * Содержит параметры подключения к API, учетные данные и настройки ретраев.
@@ -28,6 +35,13 @@ public class GigaChatConfig {
     @NotBlank
     private String apiUrl;
 
+    /**
+     * URL API GigaChat для получения векторных представлений текста.
+     * Не может быть пустым или {@code null}.
+     */
+    @NotBlank
+    private String embeddingsUrl = "https://gigachat.devices.sberbank.ru/api/v1/embeddings";
+
     /**
      * URL для аутентификации в GigaChat API (получение токена доступа).
      * Не может быть пустым или {@code null}.
@@ -37,6 +51,7 @@ public class GigaChatConfig {
 
     /**
      * Идентификатор клиента для аутентификации в GigaChat API.
+     * Используется, если список {@link #credentials} пуст.
      * Не может быть пустым или {@code null}.
      */
     @NotBlank
@@ -44,11 +59,27 @@ public class GigaChatConfig {
 
     /**
      * Секретный ключ клиента для аутентификации в GigaChat API.
+     * Используется, если список {@link #credentials} пуст.
      * Не может быть пустым или {@code null}.
      */
     @NotBlank
     private String clientSecret;
 
+    /**
+     * Учетные записи GigaChat API. Вызовы распределяются между ними,
+     * у каждой учетной записи свой токен доступа и свой лимит частоты запросов.
+     */
+    @Valid
+    private List<Credential> credentials = new ArrayList<>();
+
+    /**
+     * Время (в миллисекундах), на которое учетная запись исключается из пула после ошибки
+     * аутентификации или ответа 429 без заголовка Retry-After.
+     * Значение по умолчанию: 30_000 мс (30 секунд).
+     */
+    @Min(0)
+    private long credentialCooldownMs = 30_000;
+
     /**
      * Путь к файлу сертификата для настройки SSL/TLS.
      * Не может быть пустым или {@code null}.
@@ -77,6 +108,25 @@ public class GigaChatConfig {
      */
     private int retryDelayMultiplier = 2;
 
+    /**
+     * Максимальная задержка (в миллисекундах) между попытками
+     * получения первого токена при запуске приложения.
+     * Значение по умолчанию: 60_000 мс (60 секунд).
+     */
+    private int startupRetryMaxDelayMs = 60_000;
+
+    /**
+     * Возвращает учетные записи GigaChat API с учетом одиночной учетной записи
+     * {@link #clientId}/{@link #clientSecret}.
+     *
+     * @return Учетные записи.
+     */
+    public List<Credential> getEffectiveCredentials() {
+        return credentials.isEmpty()
+                ? List.of(new Credential(clientId, clientSecret, 0))
+                : credentials;
+    }
+
     /**
      * Логирует конфигурацию после инициализации.
      * Выполняется после создания бина для отображения
@@ -88,12 +138,42 @@ public class GigaChatConfig {
                 "GigaChatConfig loaded: "
                         + "apiUrl={}, "
                         + "authUrl={}, "
-                        + "clientId={}, "
+                        + "clientIds={}, "
                         + "certPath={}",
                 apiUrl,
                 authUrl,
-                SecurityUtils.maskSensitiveData(clientId),
+                getEffectiveCredentials().stream()
+                        .map(credential -> SecurityUtils.maskSensitiveData(credential.getClientId()))
+                        .toList(),
                 certPath
         );
     }
+
+    /**
+     * Учетная запись GigaChat API.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Credential {
+
+        /**
+         * Идентификатор клиента.
+         */
+        @NotBlank
+        private String clientId;
+
+        /**
+         * Секретный ключ клиента.
+         */
+        @NotBlank
+        private String clientSecret;
+
+        /**
+         * Максимальное количество одновременных вызовов через учетную запись.
+         * Значение по умолчанию: 0 (без ограничения).
+         */
+        @Min(0)
+        private int maxConcurrentCalls = 0;
+    }
 }
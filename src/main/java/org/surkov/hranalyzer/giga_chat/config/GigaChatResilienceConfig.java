@@ -0,0 +1,109 @@
+package org.surkov.hranalyzer.giga_chat.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Конфигурация отказоустойчивости вызовов GigaChat API.
+ * Содержит параметры автоматического выключателя (circuit breaker)
+ * и ограничения параллельных вызовов (bulkhead) для каждой модели.
+ * Значения загружаются из свойств приложения с префиксом "giga-chat.resilience".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "giga-chat.resilience")
+@Validated
+public class GigaChatResilienceConfig {
+
+    /**
+     * Размер скользящего окна (в вызовах), по которому считается доля ошибок и медленных вызовов.
+     * Значение по умолчанию: 20.
+     */
+    @Min(1)
+    private int slidingWindowSize = 20;
+
+    /**
+     * Минимальное количество вызовов в окне, после которого выключатель может разомкнуться.
+     * Значение по умолчанию: 10.
+     */
+    @Min(1)
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * Доля ошибок (в процентах), при которой выключатель размыкается.
+     * Значение по умолчанию: 50.
+     */
+    @Min(1)
+    @Max(100)
+    private int failureRateThreshold = 50;
+
+    /**
+     * Длительность вызова (в миллисекундах), начиная с которой он считается медленным.
+     * Значение по умолчанию: 20_000 мс (20 секунд).
+     */
+    private long slowCallDurationMs = 20_000;
+
+    /**
+     * Доля медленных вызовов (в процентах), при которой выключатель размыкается.
+     * Значение по умолчанию: 80.
+     */
+    @Min(1)
+    @Max(100)
+    private int slowCallRateThreshold = 80;
+
+    /**
+     * Время (в миллисекундах), в течение которого выключатель остается разомкнутым.
+     * Значение по умолчанию: 30_000 мс (30 секунд).
+     */
+    private long openStateDurationMs = 30_000;
+
+    /**
+     * Количество пробных вызовов в полуразомкнутом состоянии.
+     * Значение по умолчанию: 3.
+     */
+    @Min(1)
+    private int permittedCallsInHalfOpenState = 3;
+
+    /**
+     * Максимальное количество одновременных вызовов одной модели.
+     * Значение по умолчанию: 8.
+     */
+    @Min(1)
+    private int maxConcurrentCalls = 8;
+
+    /**
+     * Переопределение максимального количества одновременных вызовов для отдельных моделей.
+     */
+    private Map<GigaModelType, Integer> maxConcurrentCallsPerModel = new EnumMap<>(GigaModelType.class);
+
+    /**
+     * Максимальное время ожидания (в миллисекундах) свободного слота в справедливой очереди
+     * пользователя при исчерпании лимита вызовов.
+     * Значение по умолчанию: 0 (отказ без ожидания).
+     */
+    private long maxWaitMs = 0;
+
+    /**
+     * Возвращать ранее сохраненный результат анализа, если GigaChat недоступен.
+     * Значение по умолчанию: {@code true}.
+     */
+    private boolean fallbackToCache = true;
+
+    /**
+     * Возвращает максимальное количество одновременных вызовов для указанной модели.
+     *
+     * @param modelType Модель GigaChat.
+     * @return Максимальное количество одновременных вызовов.
+     */
+    public int getMaxConcurrentCalls(final GigaModelType modelType) {
+        return maxConcurrentCallsPerModel.getOrDefault(modelType, maxConcurrentCalls);
+    }
+}
@@ -1,9 +1,12 @@
 package org.surkov.hranalyzer.giga_chat.config;
 
 import lombok.RequiredArgsConstructor;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.surkov.hranalyzer.giga_chat.GigaChatCallRecorder;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
@@ -17,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Конфигурация для создания OkHttpClient с поддержкой SSL/TLS.
+ * Каждый вызов записывается в событие JFR перехватчиком {@link GigaChatCallRecorder}.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -24,6 +28,8 @@ public class OkHttpClientConfig {
 
     private final GigaChatConfig gigaChatConfig;
 
+    private final GigaChatResilienceConfig resilienceConfig;
+
     /**
      * Создает и настраивает OkHttpClient с SSL/TLS.
      *
@@ -50,12 +56,14 @@ public class OkHttpClientConfig {
                 sslContext.init(null, tmf.getTrustManagers(), null);
 
                 return new OkHttpClient.Builder()
+                        .dispatcher(createDispatcher())
                         .sslSocketFactory(
                                 sslContext.getSocketFactory(),
                                 (X509TrustManager) tmf.getTrustManagers()[0]
                         )
                         .connectTimeout(30, TimeUnit.SECONDS)
                         .readTimeout(30, TimeUnit.SECONDS)
+                        .addInterceptor(new GigaChatCallRecorder())
                         .build();
             }
         } catch (Exception e) {
@@ -63,6 +71,24 @@ public class OkHttpClientConfig {
         }
     }
 
+    /**
+     * Создает диспетчер асинхронных запросов.
+     * По умолчанию OkHttp выполняет не более 5 асинхронных запросов к одному хосту,
+     * поэтому лимит поднимается до суммы лимитов параллельных вызовов всех моделей.
+     *
+     * @return диспетчер асинхронных запросов
+     */
+    private Dispatcher createDispatcher() {
+        int maxRequests = 0;
+        for (GigaModelType modelType : GigaModelType.values()) {
+            maxRequests += resilienceConfig.getMaxConcurrentCalls(modelType);
+        }
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxRequests));
+        dispatcher.setMaxRequestsPerHost(Math.max(dispatcher.getMaxRequestsPerHost(), maxRequests));
+        return dispatcher;
+    }
+
     /**
      * Проверяет наличие сертификата и его читаемость.
      * Если файл не найден или отсутствует, выбрасывается исключение {@code IllegalStateException}
@@ -1,22 +1,59 @@
 package org.surkov.hranalyzer.giga_chat.enumiration;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.surkov.hranalyzer.giga_chat.utils.GigaModel;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Модели для генерации.
  */
+@Getter
+@RequiredArgsConstructor
 public enum GigaModelType {
     /**
      * Легкая модель для простых задач,
      * требующих максимальной скорости работы.
      */
-    GIGA_MODEL_LITE,
+    GIGA_MODEL_LITE(GigaModel.GIGA_MODEL_LITE),
     /**
      * Продвинутая модель для сложных задач,
      * требующих креативности и лучшего следования инструкциям.
      */
-    GIGA_MODEL_PRO,
+    GIGA_MODEL_PRO(GigaModel.GIGA_MODEL_PRO),
     /**
      * Продвинутая модель для сложных задач,
      * требующих высокого уровня креативности и качества работы.
      */
-    GIGA_MODEL_MAX
+    GIGA_MODEL_MAX(GigaModel.GIGA_MODEL_MAX);
+
+    /**
+     * Отображение наименования модели в GigaChat API на тип модели.
+     */
+    private static final Map<String, GigaModelType> BY_MODEL_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(GigaModelType::getModelName, Function.identity()));
+
+    /**
+     * Наименование модели в GigaChat API.
+     */
+    private final String modelName;
+
+    /**
+     * Получает тип модели по её наименованию в GigaChat API.
+     *
+     * @param modelName Наименование модели (например, "GigaChat-Pro").
+     * @return Тип модели.
+     * @throws IllegalArgumentException модель не поддерживается.
+     */
+    public static GigaModelType fromModelName(final String modelName) {
+        GigaModelType type = BY_MODEL_NAME.get(modelName);
+        if (type == null) {
+            throw new IllegalArgumentException("Unsupported model: " + modelName);
+        }
+        return type;
+    }
 }
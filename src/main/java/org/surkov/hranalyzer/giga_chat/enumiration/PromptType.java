@@ -1,11 +1,40 @@
 package org.surkov.hranalyzer.giga_chat.enumiration;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.surkov.hranalyzer.giga_chat.utils.SystemPrompt;
+
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Перечисление типов системных промптов для анализа резюме.
  */
+@Getter
+@RequiredArgsConstructor
 public enum PromptType {
-    BASE_ANALYSIS,
-    JUNIOR_ANALYSIS,
-    MIDDLE_ANALYSIS,
-    SENIOR_ANALYSIS
+    BASE_ANALYSIS(SystemPrompt.BASE_ANALYSIS_PROMPT, EnumSet.of(
+            ResumeSection.EXPERIENCE, ResumeSection.EDUCATION, ResumeSection.SKILLS, ResumeSection.OTHER
+    )),
+    JUNIOR_ANALYSIS(SystemPrompt.JUNIOR_ANALYSIS_PROMPT, EnumSet.of(
+            ResumeSection.EXPERIENCE, ResumeSection.EDUCATION, ResumeSection.SKILLS
+    )),
+    MIDDLE_ANALYSIS(SystemPrompt.MIDDLE_ANALYSIS_PROMPT, EnumSet.of(
+            ResumeSection.EXPERIENCE, ResumeSection.EDUCATION, ResumeSection.SKILLS
+    )),
+    SENIOR_ANALYSIS(SystemPrompt.SENIOR_ANALYSIS_PROMPT, EnumSet.of(
+            ResumeSection.EXPERIENCE, ResumeSection.EDUCATION, ResumeSection.SKILLS
+    ));
+
+    /**
+     * Системный промпт для анализа резюме.
+     */
+    private final String systemPrompt;
+
+    /**
+     * Разделы резюме, которые нужны промпту. Шапка резюме передается всегда.
+     * Общий анализ определяет уровень по всему резюме, поэтому получает и прочие разделы,
+     * промпты уровней оценивают только опыт, образование и навыки.
+     */
+    private final Set<ResumeSection> sections;
 }
@@ -0,0 +1,47 @@
+package org.surkov.hranalyzer.giga_chat.enumiration;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Разделы резюме, на которые делится извлеченный текст.
+ * Раздел определяется по заголовку на русском или английском языке в нижнем регистре.
+ */
+@Getter
+public enum ResumeSection {
+    EXPERIENCE("опыт работы",
+            "опыт работы", "опыт", "места работы", "трудовая деятельность", "карьера", "проекты", "коммерческие проекты",
+            "work experience", "experience", "professional experience", "employment history", "employment",
+            "projects"),
+    EDUCATION("образование",
+            "образование", "высшее образование", "основное образование", "повышение квалификации",
+            "повышение квалификации, курсы", "курсы", "сертификаты", "электронные сертификаты",
+            "education", "courses", "certifications", "certificates", "training"),
+    SKILLS("навыки",
+            "навыки", "ключевые навыки", "профессиональные навыки", "технические навыки", "технологии",
+            "стек технологий", "стек", "skills", "key skills", "technical skills", "technologies", "tech stack"),
+    CONTACTS("контакты",
+            "контакты", "контактная информация", "контактные данные",
+            "contacts", "contact", "contact information", "contact details"),
+    OTHER("прочее",
+            "о себе", "обо мне", "дополнительная информация", "знание языков", "языки", "хобби",
+            "рекомендации", "гражданство, время в пути до работы", "тесты, экзамены",
+            "about me", "summary", "profile", "additional information", "languages", "hobbies",
+            "interests", "references");
+
+    /**
+     * Название раздела для пояснения модели.
+     */
+    private final String title;
+
+    /**
+     * Заголовки раздела в нижнем регистре.
+     */
+    private final List<String> headings;
+
+    ResumeSection(final String title, final String... headings) {
+        this.title = title;
+        this.headings = List.of(headings);
+    }
+}
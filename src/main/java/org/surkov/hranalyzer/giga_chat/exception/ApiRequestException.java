@@ -1,17 +1,36 @@
 package org.surkov.hranalyzer.giga_chat.exception;
 
+import lombok.Getter;
+
 /**
  * Исключение, выбрасываемое при ошибке запроса к GigaChat API.
  */
+@Getter
 public class ApiRequestException extends RuntimeException {
 
+    /**
+     * Код HTTP-ответа API или 0, если ответ не получен.
+     */
+    private final int statusCode;
+
     /**
      * Конструктор с сообщением об ошибке.
      *
      * @param message Сообщение об ошибке.
      */
     public ApiRequestException(final String message) {
+        this(message, 0);
+    }
+
+    /**
+     * Конструктор с сообщением об ошибке и кодом HTTP-ответа.
+     *
+     * @param message    Сообщение об ошибке.
+     * @param statusCode Код HTTP-ответа API.
+     */
+    public ApiRequestException(final String message, final int statusCode) {
         super(message);
+        this.statusCode = statusCode;
     }
 
     /**
@@ -22,5 +41,6 @@ public class ApiRequestException extends RuntimeException {
      */
     public ApiRequestException(final String message, final Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
     }
 }
@@ -0,0 +1,27 @@
+package org.surkov.hranalyzer.giga_chat.exception;
+
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое, когда вызов GigaChat API отклонен без обращения к API:
+ * автоматический выключатель модели разомкнут или исчерпан лимит параллельных вызовов.
+ */
+@Getter
+public class GigaChatUnavailableException extends ApiRequestException {
+
+    /**
+     * Рекомендуемая задержка (в секундах) перед повторной попыткой.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор с сообщением об ошибке и рекомендуемой задержкой.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Рекомендуемая задержка перед повторной попыткой (в секундах).
+     */
+    public GigaChatUnavailableException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package org.surkov.hranalyzer.giga_chat.exception;
+
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое, когда GigaChat API ограничил частоту запросов учетной записи (код ответа 429).
+ */
+@Getter
+public class RateLimitedException extends ApiRequestException {
+
+    /**
+     * Задержка (в секундах) из заголовка Retry-After или 0, если заголовок отсутствует.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор с сообщением об ошибке и задержкой.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Задержка из заголовка Retry-After или 0.
+     */
+    public RateLimitedException(final String message, final long retryAfterSeconds) {
+        super(message, 429);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,40 @@
+package org.surkov.hranalyzer.giga_chat.health;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.GigaChatStartup;
+
+/**
+ * Индикатор готовности интеграции с GigaChat.
+ * Сообщает {@code UP}, когда получен первый токен доступа. Включен в группу
+ * {@code readiness}, поэтому до получения токена проба готовности не пропускает трафик.
+ */
+@Component("gigaChatHealthIndicator")
+@RequiredArgsConstructor
+public class GigaChatHealthIndicator implements HealthIndicator {
+
+    /**
+     * Асинхронная фаза запуска интеграции с GigaChat.
+     */
+    private final GigaChatStartup startup;
+
+    /**
+     * Возвращает состояние интеграции.
+     *
+     * @return {@code UP}, если токен получен, иначе {@code OUT_OF_SERVICE}.
+     */
+    @Override
+    public Health health() {
+        if (startup.isTokenAvailable()) {
+            return Health.up().build();
+        }
+        Health.Builder health = Health.outOfService()
+                .withDetail("failedAttempts", startup.getFailedAttempts());
+        if (startup.getLastError() != null) {
+            health.withDetail("lastError", startup.getLastError());
+        }
+        return health.build();
+    }
+}
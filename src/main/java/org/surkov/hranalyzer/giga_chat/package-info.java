@@ -9,7 +9,9 @@
  *     <li>{@link org.surkov.hranalyzer.giga_chat.GigaChatDialog} - главный компонент для взаимодействия с GigaChat.</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.GigaChatApiClient} - клиент для отправки запросов к API.</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.TokenManager} - менеджер для получения и обновления токенов доступа.</li>
+ *     <li>{@link org.surkov.hranalyzer.giga_chat.CredentialPool} - пул учетных записей с распределением вызовов между ними.</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.HttpClientWrapper} - обертка над HTTP-клиентом.</li>
+ *     <li>{@link org.surkov.hranalyzer.giga_chat.GigaChatCallRecorder} - запись вызовов API в события JFR.</li>
  * </ul>
  *
  * <p>Подпакеты:</p>
@@ -18,6 +20,7 @@
  *     <li>{@link org.surkov.hranalyzer.giga_chat.dto} - Data Transfer Objects (DTO).</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.enumiration} - перечисления.</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.exception} - исключения.</li>
+ *     <li>{@link org.surkov.hranalyzer.giga_chat.resilience} - автоматические выключатели и лимиты вызовов.</li>
  *     <li>{@link org.surkov.hranalyzer.giga_chat.utils} - утилитарные классы.</li>
  * </ul>
  *
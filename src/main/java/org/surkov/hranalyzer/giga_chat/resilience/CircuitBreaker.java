@@ -0,0 +1,243 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+
+/**
+ * Автоматический выключатель (circuit breaker) со скользящим окном по количеству вызовов.
+ * <p>
+ * В замкнутом состоянии пропускает все вызовы и учитывает их результаты в окне.
+ * Когда доля ошибок или медленных вызовов превышает порог, выключатель размыкается
+ * и в течение заданного времени отклоняет вызовы без обращения к API. После этого
+ * он переходит в полуразомкнутое состояние и пропускает несколько пробных вызовов:
+ * если все они успешны, выключатель замыкается, иначе снова размыкается.
+ * </p>
+ * Все методы потокобезопасны.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * Состояние выключателя.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Имя выключателя для логирования.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Параметры выключателя.
+     */
+    private final GigaChatResilienceConfig config;
+
+    /**
+     * Кольцевой буфер признаков ошибок в скользящем окне.
+     */
+    private final boolean[] failedCalls;
+
+    /**
+     * Кольцевой буфер признаков медленных вызовов в скользящем окне.
+     */
+    private final boolean[] slowCalls;
+
+    /**
+     * Позиция следующей записи в кольцевых буферах.
+     */
+    private int position;
+
+    /**
+     * Количество вызовов в окне.
+     */
+    private int recordedCalls;
+
+    /**
+     * Количество ошибок в окне.
+     */
+    private int failureCount;
+
+    /**
+     * Количество медленных вызовов в окне.
+     */
+    private int slowCount;
+
+    /**
+     * Текущее состояние выключателя.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * Момент размыкания выключателя (в миллисекундах).
+     */
+    private long openedAt;
+
+    /**
+     * Количество выданных пробных вызовов в полуразомкнутом состоянии.
+     */
+    private int halfOpenAcquired;
+
+    /**
+     * Количество успешно завершенных пробных вызовов в полуразомкнутом состоянии.
+     */
+    private int halfOpenSucceeded;
+
+    /**
+     * Конструктор.
+     *
+     * @param name   Имя выключателя.
+     * @param config Параметры выключателя.
+     */
+    public CircuitBreaker(final String name, final GigaChatResilienceConfig config) {
+        this.name = name;
+        this.config = config;
+        this.failedCalls = new boolean[config.getSlidingWindowSize()];
+        this.slowCalls = new boolean[config.getSlidingWindowSize()];
+    }
+
+    /**
+     * Пытается получить разрешение на вызов.
+     *
+     * @return {@code true}, если вызов разрешен, иначе {@code false}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < config.getOpenStateDurationMs()) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenAcquired >= config.getPermittedCallsInHalfOpenState()) {
+                return false;
+            }
+            halfOpenAcquired++;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает разрешение, полученное для вызова, который так и не был выполнен.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenAcquired > 0) {
+            halfOpenAcquired--;
+        }
+    }
+
+    /**
+     * Учитывает результат выполненного вызова.
+     *
+     * @param durationMs Длительность вызова (в миллисекундах).
+     * @param failed     {@code true}, если вызов завершился ошибкой.
+     */
+    public synchronized void onResult(final long durationMs, final boolean failed) {
+        boolean slow = durationMs >= config.getSlowCallDurationMs();
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed || slow) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSucceeded >= config.getPermittedCallsInHalfOpenState()) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                record(failed, slow);
+                if (recordedCalls >= config.getMinimumNumberOfCalls() && isThresholdExceeded()) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            default -> {
+                // Результат запоздавшего вызова после размыкания не учитывается
+            }
+        }
+    }
+
+    /**
+     * Возвращает текущее состояние выключателя.
+     *
+     * @return Состояние выключателя.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Возвращает оставшееся время (в миллисекундах) до перехода в полуразомкнутое состояние.
+     *
+     * @return Оставшееся время или 0, если выключатель не разомкнут.
+     */
+    public synchronized long getRemainingOpenMs() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, config.getOpenStateDurationMs() - (System.currentTimeMillis() - openedAt));
+    }
+
+    /**
+     * Записывает результат вызова в скользящее окно, вытесняя самый старый.
+     *
+     * @param failed {@code true}, если вызов завершился ошибкой.
+     * @param slow   {@code true}, если вызов был медленным.
+     */
+    private void record(final boolean failed, final boolean slow) {
+        if (recordedCalls == failedCalls.length) {
+            if (failedCalls[position]) {
+                failureCount--;
+            }
+            if (slowCalls[position]) {
+                slowCount--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[position] = failed;
+        slowCalls[position] = slow;
+        if (failed) {
+            failureCount++;
+        }
+        if (slow) {
+            slowCount++;
+        }
+        position = (position + 1) % failedCalls.length;
+    }
+
+    /**
+     * Проверяет, превышен ли порог доли ошибок или медленных вызовов.
+     *
+     * @return {@code true}, если порог превышен.
+     */
+    private boolean isThresholdExceeded() {
+        int failureRate = failureCount * 100 / recordedCalls;
+        int slowRate = slowCount * 100 / recordedCalls;
+        return failureRate >= config.getFailureRateThreshold()
+                || slowRate >= config.getSlowCallRateThreshold();
+    }
+
+    /**
+     * Переводит выключатель в новое состояние и сбрасывает связанные счетчики.
+     *
+     * @param newState Новое состояние.
+     */
+    private void transitionTo(final State newState) {
+        log.warn("Автоматический выключатель {}: {} -> {}", name, state, newState);
+        state = newState;
+        halfOpenAcquired = 0;
+        halfOpenSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (newState == State.CLOSED) {
+            position = 0;
+            recordedCalls = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+    }
+}
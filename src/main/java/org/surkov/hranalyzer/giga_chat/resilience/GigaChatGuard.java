@@ -0,0 +1,291 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.config.ApiUsersConfig;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.util.TenantContext;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Защита вызовов GigaChat API.
+ * Для каждой модели {@link GigaModelType} держит отдельный автоматический выключатель
+ * и отдельный лимит параллельных вызовов, чтобы деградация одной модели
+ * не занимала все потоки приложения и не влияла на остальные модели.
+ * Слоты лимита распределяются между пользователями API справедливой очередью
+ * ({@link WeightedFairBulkhead}) с учетом их весов и квот из {@link ApiUsersConfig}.
+ */
+@Slf4j
+@Component
+public class GigaChatGuard {
+
+    /**
+     * Количество миллисекунд в секунде.
+     */
+    private static final long MILLISECONDS_IN_SECOND = 1000;
+
+    /**
+     * Код ответа при превышении частоты запросов.
+     */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Наименьший код ответа об ошибке сервера.
+     */
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    /**
+     * Параметры отказоустойчивости.
+     */
+    private final GigaChatResilienceConfig config;
+
+    /**
+     * Автоматические выключатели по моделям.
+     */
+    private final Map<GigaModelType, CircuitBreaker> circuitBreakers = new EnumMap<>(GigaModelType.class);
+
+    /**
+     * Вес и квоты пользователей, не описанных в конфигурации (например, системных вызовов).
+     */
+    private static final WeightedFairBulkhead.Quota DEFAULT_QUOTA = new WeightedFairBulkhead.Quota(1, 0, 32);
+
+    /**
+     * Лимиты параллельных вызовов по моделям.
+     */
+    private final Map<GigaModelType, WeightedFairBulkhead> bulkheads = new EnumMap<>(GigaModelType.class);
+
+    /**
+     * Пользователи API с весами и квотами.
+     */
+    private final ApiUsersConfig apiUsersConfig;
+
+    /**
+     * Конструктор, создающий выключатели и лимиты для всех моделей.
+     *
+     * @param config         Параметры отказоустойчивости.
+     * @param apiUsersConfig Пользователи API с весами и квотами.
+     */
+    public GigaChatGuard(final GigaChatResilienceConfig config, final ApiUsersConfig apiUsersConfig) {
+        this.config = config;
+        this.apiUsersConfig = apiUsersConfig;
+        for (GigaModelType modelType : GigaModelType.values()) {
+            circuitBreakers.put(modelType, new CircuitBreaker(modelType.name(), config));
+            bulkheads.put(modelType, new WeightedFairBulkhead(modelType.name(), config.getMaxConcurrentCalls(modelType)));
+        }
+    }
+
+    /**
+     * Выполняет вызов под защитой выключателя и лимита параллельных вызовов модели.
+     *
+     * @param modelType Модель GigaChat.
+     * @param call      Вызов GigaChat API.
+     * @param <T>       Тип результата вызова.
+     * @return Результат вызова.
+     * @throws GigaChatUnavailableException выключатель разомкнут или лимит вызовов исчерпан.
+     */
+    public <T> T execute(final GigaModelType modelType, final Supplier<T> call) {
+        Permit permit = acquire(modelType);
+        try {
+            T result = call.get();
+            permit.complete(null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            permit.complete(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Получает разрешение на вызов модели, при необходимости ожидая своей очереди.
+     * Полученное разрешение обязательно завершается вызовом {@link Permit#complete(Throwable)}.
+     *
+     * @param modelType Модель GigaChat.
+     * @return Разрешение на вызов.
+     * @throws GigaChatUnavailableException выключатель разомкнут, очередь пользователя заполнена
+     *                                      или время ожидания истекло.
+     */
+    public Permit acquire(final GigaModelType modelType) {
+        CompletableFuture<Permit> permit = acquireAsync(modelType);
+        try {
+            return permit.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GigaChatUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new IllegalStateException("Ошибка получения разрешения на вызов модели " + modelType, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                permit.join().cancel();
+            }
+            throw new GigaChatUnavailableException("Ожидание вызова модели " + modelType + " прервано", 1);
+        }
+    }
+
+    /**
+     * Получает разрешение на вызов модели, не блокируя вызывающий поток.
+     * Вызов ставится в очередь текущего пользователя ({@link TenantContext#current()}).
+     * Разрешение выключателя запрашивается только после получения слота лимита, чтобы в
+     * полуразомкнутом состоянии пробные вызовы не занимали вызовы, ожидающие в очереди.
+     * Разомкнутый выключатель отклоняет вызов сразу, не ставя его в очередь.
+     * Отмена результата до получения разрешения удаляет вызов из очереди.
+     *
+     * @param modelType Модель GigaChat.
+     * @return Разрешение на вызов. Завершается с {@link GigaChatUnavailableException}, если
+     * выключатель разомкнут, очередь пользователя заполнена или время ожидания истекло.
+     */
+    public CompletableFuture<Permit> acquireAsync(final GigaModelType modelType) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(modelType);
+        if (circuitBreaker.getRemainingOpenMs() > 0) {
+            return CompletableFuture.failedFuture(unavailable(modelType, circuitBreaker));
+        }
+
+        String tenant = TenantContext.current();
+        WeightedFairBulkhead bulkhead = bulkheads.get(modelType);
+        CompletableFuture<Void> slot = bulkhead.acquire(tenant, quotaOf(tenant), config.getMaxWaitMs());
+
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        slot.whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.warn("Вызов модели {} от пользователя {} не допущен: {}", modelType, tenant, e.getMessage());
+                permit.completeExceptionally(e);
+                return;
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.release(tenant);
+                permit.completeExceptionally(unavailable(modelType, circuitBreaker));
+                return;
+            }
+            Permit granted = new Permit(circuitBreaker, bulkhead, tenant);
+            if (!permit.complete(granted)) {
+                granted.cancel();
+            }
+        });
+        permit.whenComplete((ignored, e) -> {
+            if (permit.isCancelled()) {
+                slot.cancel(false);
+            }
+        });
+        return permit;
+    }
+
+    /**
+     * Возвращает состояние выключателя модели.
+     *
+     * @param modelType Модель GigaChat.
+     * @return Состояние выключателя.
+     */
+    public CircuitBreaker.State getState(final GigaModelType modelType) {
+        return circuitBreakers.get(modelType).getState();
+    }
+
+    /**
+     * Проверяет, говорит ли ошибка вызова о сбое модели, а не о некорректном запросе:
+     * сбоем считаются ошибки ввода-вывода (включая тайм-ауты), ответы 429 и 5xx.
+     * Ошибки клиента (400, 413 и другие 4xx), аутентификации и отказы без обращения к API
+     * выключатель не учитывает, чтобы один пользователь с некорректными данными
+     * не размыкал выключатель модели для всех.
+     *
+     * @param error Ошибка вызова.
+     * @return {@code true}, если ошибка учитывается выключателем.
+     */
+    static boolean isServiceFailure(final Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+            if (cause instanceof ApiRequestException apiError
+                    && (apiError.getStatusCode() == HTTP_TOO_MANY_REQUESTS
+                    || apiError.getStatusCode() >= HTTP_SERVER_ERROR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Создает исключение о недоступности модели при разомкнутом выключателе.
+     *
+     * @param modelType      Модель GigaChat.
+     * @param circuitBreaker Выключатель модели.
+     * @return Исключение.
+     */
+    private static GigaChatUnavailableException unavailable(
+            final GigaModelType modelType,
+            final CircuitBreaker circuitBreaker
+    ) {
+        long retryAfterSeconds = Math.max(1, circuitBreaker.getRemainingOpenMs() / MILLISECONDS_IN_SECOND);
+        return new GigaChatUnavailableException("Модель " + modelType + " временно недоступна", retryAfterSeconds);
+    }
+
+    /**
+     * Возвращает вес и квоты пользователя.
+     *
+     * @param tenant Имя пользователя.
+     * @return Вес и квоты.
+     */
+    private WeightedFairBulkhead.Quota quotaOf(final String tenant) {
+        return apiUsersConfig.find(tenant)
+                .map(user -> new WeightedFairBulkhead.Quota(
+                        user.getWeight(), user.getMaxConcurrentCalls(), user.getMaxQueuedCalls()
+                ))
+                .orElse(DEFAULT_QUOTA);
+    }
+
+    /**
+     * Разрешение на один вызов модели.
+     * Освобождает слот лимита и передает результат вызова выключателю.
+     * Ошибка вызова классифицируется {@link #isServiceFailure(Throwable)}.
+     */
+    public static final class Permit {
+
+        private final CircuitBreaker circuitBreaker;
+        private final WeightedFairBulkhead bulkhead;
+        private final String tenant;
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+
+        private Permit(final CircuitBreaker circuitBreaker, final WeightedFairBulkhead bulkhead, final String tenant) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.tenant = tenant;
+        }
+
+        /**
+         * Завершает вызов. Повторные вызовы игнорируются.
+         * Результат передается выключателю до освобождения слота, чтобы вызов из очереди
+         * получал разрешение уже с учетом этого результата.
+         *
+         * @param error Ошибка вызова или {@code null}, если вызов успешен.
+         */
+        public void complete(final Throwable error) {
+            if (completed.compareAndSet(false, true)) {
+                circuitBreaker.onResult(
+                        System.currentTimeMillis() - startedAt, error != null && isServiceFailure(error)
+                );
+                bulkhead.release(tenant);
+            }
+        }
+
+        /**
+         * Возвращает неиспользованное разрешение, не передавая результат выключателю.
+         * Повторные вызовы игнорируются.
+         */
+        public void cancel() {
+            if (completed.compareAndSet(false, true)) {
+                circuitBreaker.releasePermission();
+                bulkhead.release(tenant);
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лимит параллельных вызовов модели со справедливой очередью по арендаторам.
+ * <p>
+ * Когда свободных слотов нет, вызовы ожидают в отдельной очереди своего арендатора.
+ * Освободившийся слот получает вызов с наименьшей стартовой меткой
+ * (start-time fair queuing): метка вызова равна максимуму из текущего виртуального времени
+ * и метки завершения предыдущего вызова арендатора, а каждый вызов сдвигает метку завершения
+ * арендатора на {@code 1 / вес}. Поэтому при конкуренции арендаторы получают слоты пропорционально
+ * весам, а арендатор с длинной очередью пакетных вызовов не задерживает интерактивные вызовы
+ * других арендаторов дольше, чем на один слот. Арендатор, достигший своей квоты одновременных
+ * вызовов, пропускается до завершения одного из них.
+ * </p>
+ * <p>
+ * Вызов, покинувший очередь без слота (отмена или истечение ожидания), возвращает свою долю:
+ * метки следующих вызовов арендатора и его метка завершения пересчитываются, поэтому пакет
+ * вызовов, не дождавшихся слота, не снижает долю арендатора в дальнейшем. Арендатор без
+ * ожидающих и выполняющихся вызовов удаляется.
+ * </p>
+ */
+final class WeightedFairBulkhead {
+
+    /**
+     * Название защищаемого ресурса для сообщений об ошибках.
+     */
+    private final String name;
+
+    /**
+     * Общее количество слотов.
+     */
+    private final int capacity;
+
+    /**
+     * Блокировка состояния очереди.
+     */
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Состояние арендаторов по имени.
+     */
+    private final Map<String, Tenant> tenants = new HashMap<>();
+
+    /**
+     * Количество занятых слотов.
+     */
+    private int inUse;
+
+    /**
+     * Виртуальное время: стартовая метка последнего допущенного вызова.
+     */
+    private double virtualTime;
+
+    /**
+     * Конструктор.
+     *
+     * @param name     Название защищаемого ресурса.
+     * @param capacity Общее количество слотов.
+     */
+    WeightedFairBulkhead(final String name, final int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Занимает слот от имени арендатора, при необходимости ставя вызов в его очередь.
+     * Отмена результата до получения слота удаляет вызов из очереди.
+     * Полученный слот обязательно освобождается вызовом {@link #release(String)}.
+     *
+     * @param tenantName Имя арендатора.
+     * @param quota      Вес и квоты арендатора.
+     * @param maxWaitMs  Максимальное время ожидания в очереди (в миллисекундах).
+     * @return Результат, завершающийся при получении слота. Завершается с
+     * {@link GigaChatUnavailableException}, если очередь арендатора заполнена или время ожидания истекло.
+     */
+    CompletableFuture<Void> acquire(final String tenantName, final Quota quota, final long maxWaitMs) {
+        Waiter waiter;
+        lock.lock();
+        try {
+            Tenant tenant = tenants.computeIfAbsent(tenantName, Tenant::new);
+            tenant.quota = quota;
+            if (inUse < capacity && tenant.canRun() && !hasRunnableWaiters()) {
+                grant(tenant, nextStartTag(tenant));
+                return CompletableFuture.completedFuture(null);
+            }
+            if (maxWaitMs <= 0) {
+                removeIfIdle(tenant);
+                return CompletableFuture.failedFuture(limitExceeded());
+            }
+            if (tenant.queue.size() >= quota.maxQueuedCalls()) {
+                removeIfIdle(tenant);
+                return CompletableFuture.failedFuture(new GigaChatUnavailableException(
+                        "Превышена квота очереди запросов пользователя " + tenantName + " к модели " + name, 1
+                ));
+            }
+            waiter = new Waiter(tenant, nextStartTag(tenant));
+            tenant.queue.addLast(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        waiter.future.whenComplete((ignored, e) -> {
+            if (e != null) {
+                remove(waiter);
+            }
+        });
+        CompletableFuture.delayedExecutor(maxWaitMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (remove(waiter)) {
+                waiter.future.completeExceptionally(limitExceeded());
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Освобождает слот арендатора и передает освободившиеся слоты ожидающим вызовам.
+     *
+     * @param tenantName Имя арендатора.
+     */
+    void release(final String tenantName) {
+        List<Waiter> granted;
+        lock.lock();
+        try {
+            inUse--;
+            Tenant tenant = tenants.get(tenantName);
+            tenant.running--;
+            granted = dispatch();
+            removeIfIdle(tenant);
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Вычисляет стартовую метку нового вызова арендатора и сдвигает его метку завершения.
+     * Вызывается под блокировкой.
+     *
+     * @param tenant Арендатор.
+     * @return Стартовая метка.
+     */
+    private double nextStartTag(final Tenant tenant) {
+        double startTag = Math.max(virtualTime, tenant.finishTag);
+        tenant.finishTag = startTag + 1.0 / tenant.quota.weight();
+        return startTag;
+    }
+
+    /**
+     * Занимает слот для арендатора. Вызывается под блокировкой.
+     *
+     * @param tenant   Арендатор.
+     * @param startTag Стартовая метка вызова.
+     */
+    private void grant(final Tenant tenant, final double startTag) {
+        inUse++;
+        tenant.running++;
+        virtualTime = Math.max(virtualTime, startTag);
+    }
+
+    /**
+     * Проверяет, есть ли ожидающие вызовы арендаторов, не достигших квоты.
+     * Вызывается под блокировкой.
+     *
+     * @return {@code true}, если такие вызовы есть.
+     */
+    private boolean hasRunnableWaiters() {
+        for (Tenant tenant : tenants.values()) {
+            if (!tenant.queue.isEmpty() && tenant.canRun()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Передает свободные слоты ожидающим вызовам в порядке стартовых меток.
+     * Вызывается под блокировкой.
+     *
+     * @return Вызовы, получившие слот.
+     */
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        while (inUse < capacity) {
+            Tenant next = null;
+            for (Tenant tenant : tenants.values()) {
+                if (!tenant.queue.isEmpty() && tenant.canRun()
+                        && (next == null || tenant.queue.peekFirst().startTag < next.queue.peekFirst().startTag)) {
+                    next = tenant;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.queue.pollFirst();
+            grant(next, waiter.startTag);
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    /**
+     * Сообщает вызовам о получении слота. Если вызов уже отменен или его время ожидания истекло,
+     * слот освобождается. Вызывается без блокировки, так как продолжения вызовов выполняются синхронно.
+     *
+     * @param granted Вызовы, получившие слот.
+     */
+    private void complete(final List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            if (!waiter.future.complete(null)) {
+                release(waiter.tenant.name);
+            }
+        }
+    }
+
+    /**
+     * Удаляет вызов из очереди арендатора, если он еще не получил слот, и возвращает его долю:
+     * следующие вызовы арендатора получают метки заново, начиная с метки удаленного вызова.
+     *
+     * @param waiter Вызов.
+     * @return {@code true}, если вызов был в очереди.
+     */
+    private boolean remove(final Waiter waiter) {
+        lock.lock();
+        try {
+            Tenant tenant = waiter.tenant;
+            if (!tenant.queue.remove(waiter)) {
+                return false;
+            }
+            double finishTag = waiter.startTag;
+            for (Waiter next : tenant.queue) {
+                if (next.startTag > waiter.startTag) {
+                    next.startTag = Math.max(virtualTime, finishTag);
+                    finishTag = next.startTag + 1.0 / tenant.quota.weight();
+                }
+            }
+            tenant.finishTag = finishTag;
+            removeIfIdle(tenant);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет арендатора без ожидающих и выполняющихся вызовов. Вызывается под блокировкой.
+     *
+     * @param tenant Арендатор.
+     */
+    private void removeIfIdle(final Tenant tenant) {
+        if (tenant.queue.isEmpty() && tenant.running == 0) {
+            tenants.remove(tenant.name);
+        }
+    }
+
+    /**
+     * Создает исключение об исчерпании лимита вызовов.
+     *
+     * @return Исключение.
+     */
+    private GigaChatUnavailableException limitExceeded() {
+        return new GigaChatUnavailableException("Превышен лимит параллельных запросов к модели " + name, 1);
+    }
+
+    /**
+     * Вес и квоты арендатора.
+     *
+     * @param weight             Вес арендатора.
+     * @param maxConcurrentCalls Максимальное количество одновременных вызовов (0 - без ограничения).
+     * @param maxQueuedCalls     Максимальное количество ожидающих вызовов.
+     */
+    record Quota(int weight, int maxConcurrentCalls, int maxQueuedCalls) {
+    }
+
+    /**
+     * Состояние арендатора.
+     */
+    private static final class Tenant {
+
+        private final String name;
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+        private Quota quota;
+        private int running;
+        private double finishTag;
+
+        private Tenant(final String name) {
+            this.name = name;
+        }
+
+        private boolean canRun() {
+            return quota.maxConcurrentCalls() <= 0 || running < quota.maxConcurrentCalls();
+        }
+    }
+
+    /**
+     * Ожидающий вызов.
+     */
+    private static final class Waiter {
+
+        private final Tenant tenant;
+        private double startTag;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Waiter(final Tenant tenant, final double startTag) {
+            this.tenant = tenant;
+            this.startTag = startTag;
+        }
+    }
+}
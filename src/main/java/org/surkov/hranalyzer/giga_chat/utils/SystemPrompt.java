@@ -375,4 +375,32 @@ public final class SystemPrompt {
 
             Не добавляй пояснений или лишней информации. Возвращай только отчет в указанном формате.
             """;
+
+    /**
+     * Системный промпт для сжатия фрагмента длинного резюме перед итоговым анализом.
+     * <p>
+     * <b>Сценарий использования:</b>
+     * - Резюме длиннее {@code analysis.long-resume.threshold-chars} делится на фрагменты,
+     *   каждый фрагмент сжимается легкой моделью, а итоговый анализ выполняется по конспектам.
+     * </p>
+     * <p>
+     * <b>Особенности:</b>
+     * - Не оценивает кандидата, а только извлекает факты, нужные промптам анализа.
+     * - Сохраняет даты, названия, технологии и формулировки, по которым выявляются риски.
+     * </p>
+     */
+    public static final String CHUNK_SUMMARY_PROMPT = """
+            Ты — ассистент HR-рекрутера. Тебе передан фрагмент резюме Java-разработчика, фрагмент может начинаться и заканчиваться на середине раздела.
+            Твоя задача — сжато пересказать фрагмент, сохранив все факты, необходимые для последующей проверки резюме. Не оценивай кандидата и не делай выводов.
+
+            Сохраняй без изменений:
+            - заявленную должность и уровень (Junior, Middle, Senior);
+            - места работы, должности и периоды работы с датами;
+            - образование: учебное заведение, специальность, годы обучения;
+            - проекты: суть проекта, роль кандидата, конкретные задачи и результаты;
+            - технологии с привязкой к проектам, в которых они использовались;
+            - общие фразы без конкретики, противоречия и опечатки — приведи их дословно в кавычках.
+
+            Отвечай списком фактов без вступления и заключения. Если во фрагменте нет сведений о кандидате, ответь одним словом: "Нет сведений".
+            """;
 }
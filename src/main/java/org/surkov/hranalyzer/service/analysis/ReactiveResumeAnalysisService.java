@@ -0,0 +1,172 @@
+package org.surkov.hranalyzer.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analysis.dto.AnalysisOutcome;
+import org.surkov.hranalyzer.service.analysis.dto.ResumeAnalysisItem;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.FileTypeDetector;
+import org.surkov.hranalyzer.util.TenantContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Неблокирующий анализ резюме.
+ * <p>
+ * Поток обработки запроса освобождается сразу после проверки файла: текст извлекается
+ * в ограниченном пуле извлечения, а ответ GigaChat ожидается диспетчером OkHttp,
+ * поэтому ожидающие ответа анализы не занимают потоки. Пакетная обработка запрашивает
+ * следующие файлы только по мере записи результатов клиенту и держит в работе
+ * не более {@code analysis.batch.concurrency} файлов одновременно.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ReactiveResumeAnalysisService {
+
+    /**
+     * Сервис для анализа резюме.
+     */
+    private final ResumeAnalysisService resumeAnalysisService;
+
+    /**
+     * Определитель типа загруженного файла.
+     */
+    private final FileTypeDetector fileTypeDetector;
+
+    /**
+     * Максимальное количество одновременно анализируемых файлов пакета.
+     */
+    private final int batchConcurrency;
+
+    /**
+     * Конструктор.
+     *
+     * @param resumeAnalysisService Сервис для анализа резюме.
+     * @param fileTypeDetector      Определитель типа загруженного файла.
+     * @param batchConcurrency      Максимальное количество одновременно анализируемых файлов пакета.
+     */
+    public ReactiveResumeAnalysisService(
+            final ResumeAnalysisService resumeAnalysisService,
+            final FileTypeDetector fileTypeDetector,
+            @Value("${analysis.batch.concurrency:4}") final int batchConcurrency
+    ) {
+        this.resumeAnalysisService = resumeAnalysisService;
+        this.fileTypeDetector = fileTypeDetector;
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    /**
+     * Анализирует резюме.
+     *
+     * @param file       Файл резюме.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @return Результат анализа резюме и его источник.
+     */
+    public Mono<AnalysisOutcome> analyzeResume(
+            final MultipartFile file,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        return analyzeResume(file, promptType, modelType, TenantContext.current());
+    }
+
+    /**
+     * Анализирует пакет резюме. Результаты выдаются по мере готовности,
+     * ошибка анализа одного файла не прерывает обработку остальных.
+     *
+     * @param files      Файлы резюме.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @return Результаты анализа файлов.
+     */
+    public Flux<ResumeAnalysisItem> analyzeBatch(
+            final List<MultipartFile> files,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        String tenant = TenantContext.current();
+        return Flux.fromIterable(files)
+                .flatMap(file -> analyzeResume(file, promptType, modelType, tenant)
+                                .map(outcome -> new ResumeAnalysisItem(
+                                        file.getOriginalFilename(), outcome.getResult(), outcome.getSource(), null
+                                ))
+                                .onErrorResume(e -> {
+                                    log.warn("Ошибка анализа файла {}: {}", file.getOriginalFilename(), e.getMessage());
+                                    return Mono.just(new ResumeAnalysisItem(
+                                            file.getOriginalFilename(), null, null, e.getMessage()
+                                    ));
+                                }),
+                        batchConcurrency);
+    }
+
+    /**
+     * Анализирует резюме от имени пользователя.
+     * Следующие файлы пакета запускаются из потоков завершения предыдущих,
+     * поэтому пользователь передается явно.
+     *
+     * @param file       Файл резюме.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @param tenant     Пользователь, от имени которого выполняются вызовы GigaChat.
+     * @return Результат анализа резюме и его источник.
+     */
+    private Mono<AnalysisOutcome> analyzeResume(
+            final MultipartFile file,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String tenant
+    ) {
+        return Mono.fromCallable(() -> detectFileType(file))
+                .flatMap(fileType -> Mono.using(
+                        file::getInputStream,
+                        resume -> Mono.fromFuture(() -> TenantContext.supplyAs(
+                                tenant,
+                                () -> resumeAnalysisService.analyzeResumeAsync(
+                                        resume, fileType, file.getSize(), promptType, modelType
+                                )
+                        )),
+                        this::closeQuietly
+                ));
+    }
+
+    /**
+     * Проверяет файл и определяет его тип.
+     *
+     * @param file Файл резюме.
+     * @return Тип файла.
+     * @throws UnsupportedFileTypeException файл пуст или его тип не поддерживается.
+     * @throws IOException                  ошибка чтения файла.
+     */
+    private FileType detectFileType(final MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new UnsupportedFileTypeException("Файл не должен быть пустым.");
+        }
+        try (InputStream content = file.getInputStream()) {
+            return fileTypeDetector.detect(file.getOriginalFilename(), content);
+        }
+    }
+
+    /**
+     * Закрывает поток ввода, игнорируя ошибки.
+     *
+     * @param inputStream Поток ввода.
+     */
+    private void closeQuietly(final InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.debug("Не удалось закрыть поток файла: {}", e.getMessage());
+        }
+    }
+}
@@ -1,40 +1,313 @@
 package org.surkov.hranalyzer.service.analysis;
 
+import io.micrometer.context.ContextSnapshot;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analysis.dto.AnalysisOutcome;
+import org.surkov.hranalyzer.service.analysis.dto.PromptAnalysisItem;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+import org.surkov.hranalyzer.service.analytics.AnalysisColumnStore;
+import org.surkov.hranalyzer.service.analytics.AnalysisReportParser;
+import org.surkov.hranalyzer.service.duplicate.NearDuplicateIndex;
 import org.surkov.hranalyzer.service.extraction.ExtractionService;
+import org.surkov.hranalyzer.service.extraction.FileType;
 import org.surkov.hranalyzer.service.gpt.GptService;
+import org.surkov.hranalyzer.service.prescreen.PrescreenService;
+import org.surkov.hranalyzer.service.segmentation.ResumeSegmenter;
+import org.surkov.hranalyzer.util.TenantContext;
+import org.surkov.hranalyzer.util.TraceContext;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Сервис для анализа резюме.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ResumeAnalysisService {
 
     private final ExtractionService extractionService;
     private final GptService gptService;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final AnalysisReportParser reportParser;
+    private final AnalysisColumnStore analyticsStore;
+    private final ResumeSegmenter segmenter;
+    private final PrescreenService prescreenService;
 
     /**
      * Анализирует резюме, полученное из потока ввода.
+     * Если ранее уже анализировалось резюме с тем же текстом, тем же промптом и моделью,
+     * возвращает сохраненный результат без обращения к GigaChat и помечает его
+     * источником {@link AnalysisSource#NEAR_DUPLICATE}. Результат резюме с почти совпадающим
+     * текстом переиспользуется так же, только если {@code acceptNearDuplicate} равен {@code true}:
+     * он возвращается со сходством текстов, иначе резюме анализируется заново.
+     * Структурированный результат анализа сохраняется в {@link AnalysisColumnStore}.
+     * Отчет об отклонении предварительным отбором ({@link AnalysisSource#PRESCREEN_REJECTED})
+     * в хранилище аналитики не попадает.
      *
-     * @param inputStream   Поток ввода, содержащий данные резюме.
-     * @param fileExtension Расширение файла резюме (например, ".pdf", ".docx").
-     * @param systemPrompt  Cистемный промпта для анализа резюме.
-     * @param model         Модель для анализа резюме.
-     * @return Результат анализа резюме в виде строки.
+     * @param inputStream         Поток ввода, содержащий данные резюме.
+     * @param fileType            Тип файла резюме.
+     * @param fileSize            Размер файла резюме (в байтах).
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа резюме.
+     * @param vacancy             Вакансия, к которой относится резюме, или {@code null}.
+     * @param acceptNearDuplicate Переиспользовать ли результат резюме с почти совпадающим текстом.
+     * @return Результат анализа резюме и его источник.
      * @throws IOException ошибка ввода-вывода при чтении данных из потока.
      */
-    public String analyzeResume(
+    public AnalysisOutcome analyzeResume(
             final InputStream inputStream,
-            final String fileExtension,
-            final String systemPrompt,
-            final String model
+            final FileType fileType,
+            final long fileSize,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String vacancy,
+            final boolean acceptNearDuplicate
     ) throws IOException {
-        String resumeText = extractionService.extractText(inputStream, fileExtension);
-        return gptService.analyzeResume(systemPrompt, resumeText, model);
+        String resumeText = extractionService.extractText(inputStream, fileType, fileSize);
+        AnalysisOutcome outcome = analyzeText(resumeText, promptType, modelType, acceptNearDuplicate);
+        record(outcome, promptType, modelType, vacancy);
+        return outcome;
+    }
+
+    /**
+     * Анализирует извлеченный текст резюме с учетом индекса почти дубликатов.
+     * В GigaChat передаются только разделы резюме, нужные промпту ({@link ResumeSegmenter}).
+     * Резюме, не прошедшее предварительный отбор ({@link PrescreenService}), в GigaChat не передается.
+     *
+     * @param resumeText          Текст резюме.
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа резюме.
+     * @param acceptNearDuplicate Переиспользовать ли результат резюме с почти совпадающим текстом.
+     * @return Результат анализа резюме и его источник.
+     * @throws IOException произошла ошибка при обработке ответа.
+     */
+    private AnalysisOutcome analyzeText(
+            final String resumeText,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final boolean acceptNearDuplicate
+    ) throws IOException {
+        Optional<String> rejection = prescreenService.reject(resumeText);
+        if (rejection.isPresent()) {
+            return new AnalysisOutcome(rejection.get(), AnalysisSource.PRESCREEN_REJECTED);
+        }
+        if (!nearDuplicateIndex.isEnabled()) {
+            return new AnalysisOutcome(gptService.analyzeResume(
+                    promptType.getSystemPrompt(), segmenter.select(resumeText, promptType), modelType.getModelName()
+            ), AnalysisSource.GIGA_CHAT);
+        }
+
+        NearDuplicateIndex.Fingerprint fingerprint = NearDuplicateIndex.Fingerprint.of(resumeText);
+        Optional<AnalysisOutcome> duplicate = findDuplicate(fingerprint, promptType, modelType, acceptNearDuplicate);
+        if (duplicate.isPresent()) {
+            return duplicate.get();
+        }
+
+        String result = gptService.analyzeResume(
+                promptType.getSystemPrompt(), segmenter.select(resumeText, promptType), modelType.getModelName()
+        );
+        nearDuplicateIndex.add(fingerprint, promptType, modelType, result);
+        return new AnalysisOutcome(result, AnalysisSource.GIGA_CHAT);
+    }
+
+    /**
+     * Ищет сохраненный результат анализа резюме с тем же или почти тем же текстом.
+     *
+     * @param fingerprint         Отпечаток текста резюме.
+     * @param promptType          Тип системного промпта для анализа резюме.
+     * @param modelType           Модель для анализа резюме.
+     * @param acceptNearDuplicate Переиспользовать ли результат резюме с почти совпадающим текстом.
+     * @return Переиспользованный результат с источником {@link AnalysisSource#NEAR_DUPLICATE}
+     * и сходством текстов.
+     */
+    private Optional<AnalysisOutcome> findDuplicate(
+            final NearDuplicateIndex.Fingerprint fingerprint,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final boolean acceptNearDuplicate
+    ) {
+        return nearDuplicateIndex.findSimilar(fingerprint, promptType, modelType)
+                .filter(match -> {
+                    if (!match.exact() && !acceptNearDuplicate) {
+                        log.debug("Найден почти дубликат резюме (сходство сигнатур {}), переиспользование "
+                                + "не разрешено вызывающим", match.similarity());
+                        return false;
+                    }
+                    return true;
+                })
+                .map(match -> {
+                    log.info("Найден {} резюме (сходство сигнатур {}, промпт {}, модель {}), "
+                                    + "результат {} переиспользован без обращения к GigaChat",
+                            match.exact() ? "дубликат" : "почти дубликат",
+                            match.similarity(), promptType, modelType, AnalysisSource.NEAR_DUPLICATE);
+                    return new AnalysisOutcome(match.result(), AnalysisSource.NEAR_DUPLICATE, match.similarity());
+                });
+    }
+
+    /**
+     * Анализирует резюме, не блокируя вызывающий поток: текст извлекается в пуле извлечения,
+     * а запрос к GigaChat выполняется асинхронно. Поток ввода должен оставаться открытым
+     * до завершения результата.
+     *
+     * @param inputStream Поток ввода, содержащий данные резюме.
+     * @param fileType    Тип файла резюме.
+     * @param fileSize    Размер файла резюме (в байтах).
+     * @param promptType  Тип системного промпта для анализа резюме.
+     * @param modelType   Модель для анализа резюме.
+     * @return Результат анализа резюме и его источник.
+     */
+    public CompletableFuture<AnalysisOutcome> analyzeResumeAsync(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        String tenant = TenantContext.current();
+        ContextSnapshot trace = TraceContext.capture();
+        return extractionService.extractTextAsync(inputStream, fileType, fileSize)
+                .thenCompose(resumeText -> TraceContext.supplyIn(trace, () -> TenantContext.supplyAs(
+                        tenant, () -> analyzeTextAsync(resumeText, promptType, modelType)
+                )));
+    }
+
+    /**
+     * Анализирует резюме сразу несколькими промптами и моделями.
+     * Текст извлекается один раз, запросы к GigaChat для всех сочетаний промпта и модели
+     * выполняются параллельно, поэтому общее время близко ко времени самого долгого запроса.
+     * Ошибка одного запроса не отменяет остальные и возвращается в его элементе результата.
+     *
+     * @param inputStream Поток ввода, содержащий данные резюме.
+     * @param fileType    Тип файла резюме.
+     * @param fileSize    Размер файла резюме (в байтах).
+     * @param promptTypes Типы системных промптов для анализа резюме.
+     * @param modelTypes  Модели для анализа резюме.
+     * @return Результаты анализа для каждого сочетания промпта и модели.
+     * @throws IOException ошибка ввода-вывода при чтении данных из потока.
+     */
+    public List<PromptAnalysisItem> analyzeResume(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize,
+            final Set<PromptType> promptTypes,
+            final Set<GigaModelType> modelTypes
+    ) throws IOException {
+        String resumeText = extractionService.extractText(inputStream, fileType, fileSize);
+
+        List<CompletableFuture<PromptAnalysisItem>> calls = new ArrayList<>();
+        for (PromptType promptType : promptTypes) {
+            for (GigaModelType modelType : modelTypes) {
+                calls.add(analyzeTextAsync(resumeText, promptType, modelType)
+                        .handle((outcome, e) -> {
+                            if (e == null) {
+                                return new PromptAnalysisItem(
+                                        promptType, modelType, outcome.getResult(), outcome.getSource(), null
+                                );
+                            }
+                            Throwable cause = e instanceof CompletionException && e.getCause() != null
+                                    ? e.getCause()
+                                    : e;
+                            log.warn("Ошибка анализа промптом {} моделью {}: {}",
+                                    promptType, modelType, cause.getMessage());
+                            return new PromptAnalysisItem(promptType, modelType, null, null, cause.getMessage());
+                        }));
+            }
+        }
+        return calls.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Анализирует извлеченный текст резюме асинхронно с учетом индекса почти дубликатов.
+     * Переиспользуется только результат резюме с тем же текстом.
+     *
+     * @param resumeText Текст резюме.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @return Результат анализа резюме и его источник.
+     */
+    public CompletableFuture<AnalysisOutcome> analyzeTextAsync(
+            final String resumeText,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        return analyzeTextWithIndexAsync(resumeText, promptType, modelType)
+                .thenApply(outcome -> {
+                    record(outcome, promptType, modelType, null);
+                    return outcome;
+                });
+    }
+
+    /**
+     * Анализирует извлеченный текст резюме асинхронно с учетом индекса почти дубликатов.
+     *
+     * @param resumeText Текст резюме.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @return Результат анализа резюме и его источник.
+     */
+    private CompletableFuture<AnalysisOutcome> analyzeTextWithIndexAsync(
+            final String resumeText,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        Optional<String> rejection = prescreenService.reject(resumeText);
+        if (rejection.isPresent()) {
+            return CompletableFuture.completedFuture(
+                    new AnalysisOutcome(rejection.get(), AnalysisSource.PRESCREEN_REJECTED));
+        }
+        if (!nearDuplicateIndex.isEnabled()) {
+            return gptService.analyzeResumeAsync(
+                    promptType.getSystemPrompt(), segmenter.select(resumeText, promptType), modelType.getModelName()
+            ).thenApply(result -> new AnalysisOutcome(result, AnalysisSource.GIGA_CHAT));
+        }
+
+        NearDuplicateIndex.Fingerprint fingerprint = NearDuplicateIndex.Fingerprint.of(resumeText);
+        Optional<AnalysisOutcome> duplicate = findDuplicate(fingerprint, promptType, modelType, false);
+        if (duplicate.isPresent()) {
+            return CompletableFuture.completedFuture(duplicate.get());
+        }
+
+        return gptService.analyzeResumeAsync(
+                        promptType.getSystemPrompt(), segmenter.select(resumeText, promptType), modelType.getModelName()
+                )
+                .thenApply(result -> {
+                    nearDuplicateIndex.add(fingerprint, promptType, modelType, result);
+                    return new AnalysisOutcome(result, AnalysisSource.GIGA_CHAT);
+                });
+    }
+
+    /**
+     * Разбирает результат анализа и сохраняет его в хранилище аналитики.
+     * Отчеты об отклонении предварительным отбором не сохраняются: это не анализ GigaChat.
+     *
+     * @param outcome    Результат анализа и его источник.
+     * @param promptType Тип системного промпта.
+     * @param modelType  Модель.
+     * @param vacancy    Вакансия или {@code null}.
+     */
+    private void record(
+            final AnalysisOutcome outcome,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String vacancy
+    ) {
+        if (outcome.getSource() == AnalysisSource.PRESCREEN_REJECTED) {
+            return;
+        }
+        analyticsStore.add(reportParser.parse(outcome.getResult()), promptType, modelType, vacancy);
     }
 }
@@ -0,0 +1,24 @@
+package org.surkov.hranalyzer.service.analysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+
+/**
+ * DTO результата анализа резюме с указанием его источника.
+ * Для результата почти дубликата {@code similarity} содержит сходство сигнатур текстов (от 0 до 1),
+ * для остальных источников - {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisOutcome {
+    private String result;
+    private AnalysisSource source;
+    private Double similarity;
+
+    public AnalysisOutcome(final String result, final AnalysisSource source) {
+        this(result, source, null);
+    }
+}
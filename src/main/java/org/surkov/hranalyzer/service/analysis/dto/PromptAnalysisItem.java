@@ -0,0 +1,23 @@
+package org.surkov.hranalyzer.service.analysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+
+/**
+ * DTO результата анализа резюме одним промптом и одной моделью.
+ * Заполняется либо {@code result} с источником {@code source}, либо {@code error}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptAnalysisItem {
+    private PromptType promptType;
+    private GigaModelType modelType;
+    private String result;
+    private AnalysisSource source;
+    private String error;
+}
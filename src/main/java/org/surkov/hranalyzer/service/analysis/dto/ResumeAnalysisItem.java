@@ -0,0 +1,20 @@
+package org.surkov.hranalyzer.service.analysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+
+/**
+ * DTO результата анализа одного резюме в пакетной обработке.
+ * Заполняется либо {@code result} с источником {@code source}, либо {@code error}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeAnalysisItem {
+    private String fileName;
+    private String result;
+    private AnalysisSource source;
+    private String error;
+}
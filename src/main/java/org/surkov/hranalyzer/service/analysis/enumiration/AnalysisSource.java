@@ -0,0 +1,15 @@
+package org.surkov.hranalyzer.service.analysis.enumiration;
+
+/**
+ * Источник результата анализа резюме.
+ * {@code GIGA_CHAT} - результат получен от GigaChat для этого резюме,
+ * {@code NEAR_DUPLICATE} - переиспользован результат ранее проанализированного резюме с тем же текстом
+ * или, если вызывающий это разрешил, с почти совпадающим текстом,
+ * {@code PRESCREEN_REJECTED} - резюме отклонено предварительным отбором, GigaChat не вызывался,
+ * результат - отчет об отклонении.
+ */
+public enum AnalysisSource {
+    GIGA_CHAT,
+    NEAR_DUPLICATE,
+    PRESCREEN_REJECTED
+}
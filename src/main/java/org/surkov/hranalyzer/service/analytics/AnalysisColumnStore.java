@@ -0,0 +1,280 @@
+package org.surkov.hranalyzer.service.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analytics.dto.AnalysisReport;
+import org.surkov.hranalyzer.service.analytics.dto.AnalyticsSummary;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+import org.surkov.hranalyzer.service.analytics.enumiration.RiskFlag;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Колоночное хранилище структурированных результатов анализа в памяти.
+ * <p>
+ * Каждое поле хранится в отдельном массиве примитивов фиксированной емкости:
+ * перечисления - порядковыми номерами в {@code byte[]}, признаки риска - битовой маской в {@code int[]},
+ * вакансии - кодами словаря в {@code int[]}. Агрегирующие запросы последовательно просматривают
+ * только нужные массивы без создания объектов на каждую строку. При заполнении новые строки
+ * перезаписывают самые старые.
+ * </p>
+ * <p>
+ * Словарь вакансий ограничен {@code analysis.analytics.max-vacancies} записями: код вакансии
+ * освобождается, когда перезаписана последняя строка с ней, и выдается следующей новой вакансии.
+ * Если словарь заполнен, результат сохраняется без вакансии.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AnalysisColumnStore {
+
+    /**
+     * Код словаря для результатов без вакансии.
+     */
+    private static final int NO_VACANCY = 0;
+
+    /**
+     * Емкость хранилища (в строках).
+     */
+    private final int capacity;
+
+    private final byte[] levels;
+    private final byte[] recommendations;
+    private final byte[] promptTypes;
+    private final byte[] modelTypes;
+    private final short[] highRiskCounts;
+    private final short[] riskCounts;
+    private final short[] suspiciousCounts;
+    private final int[] riskFlags;
+    private final int[] vacancies;
+
+    /**
+     * Словарь вакансий: название - код. Код {@link #NO_VACANCY} зарезервирован.
+     */
+    private final Map<String, Integer> vacancyCodes = new HashMap<>();
+
+    /**
+     * Названия вакансий по коду.
+     */
+    private final String[] vacancyNames;
+
+    /**
+     * Количество строк с каждым кодом вакансии.
+     */
+    private final int[] vacancyRows;
+
+    /**
+     * Освобожденные коды вакансий.
+     */
+    private final Deque<Integer> freeVacancyCodes = new ArrayDeque<>();
+
+    /**
+     * Следующий еще не выданный код вакансии.
+     */
+    private int nextVacancyCode = NO_VACANCY + 1;
+
+    /**
+     * Блокировка хранилища.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Общее количество добавленных строк.
+     */
+    private long written;
+
+    /**
+     * Конструктор.
+     *
+     * @param capacity     Емкость хранилища (в строках).
+     * @param maxVacancies Максимальное количество вакансий в словаре.
+     */
+    public AnalysisColumnStore(
+            @Value("${analysis.analytics.max-rows:100000}") final int capacity,
+            @Value("${analysis.analytics.max-vacancies:1000}") final int maxVacancies
+    ) {
+        this.capacity = capacity;
+        this.vacancyNames = new String[maxVacancies + 1];
+        this.vacancyRows = new int[maxVacancies + 1];
+        this.levels = new byte[capacity];
+        this.recommendations = new byte[capacity];
+        this.promptTypes = new byte[capacity];
+        this.modelTypes = new byte[capacity];
+        this.highRiskCounts = new short[capacity];
+        this.riskCounts = new short[capacity];
+        this.suspiciousCounts = new short[capacity];
+        this.riskFlags = new int[capacity];
+        this.vacancies = new int[capacity];
+    }
+
+    /**
+     * Добавляет результат анализа.
+     *
+     * @param report     Структурированный результат анализа.
+     * @param promptType Тип системного промпта.
+     * @param modelType  Модель.
+     * @param vacancy    Вакансия или {@code null}.
+     */
+    public void add(
+            final AnalysisReport report,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String vacancy
+    ) {
+        int flags = 0;
+        for (RiskFlag flag : report.getRiskFlags()) {
+            flags |= 1 << flag.ordinal();
+        }
+
+        lock.writeLock().lock();
+        try {
+            int row = (int) (written % capacity);
+            if (written++ >= capacity) {
+                releaseVacancy(vacancies[row]);
+            }
+            levels[row] = (byte) report.getLevel().ordinal();
+            recommendations[row] = (byte) report.getRecommendation().ordinal();
+            promptTypes[row] = (byte) promptType.ordinal();
+            modelTypes[row] = (byte) modelType.ordinal();
+            highRiskCounts[row] = toShort(report.getHighRiskCount());
+            riskCounts[row] = toShort(report.getRiskCount());
+            suspiciousCounts[row] = toShort(report.getSuspiciousCount());
+            riskFlags[row] = flags;
+            vacancies[row] = encodeVacancy(vacancy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Считает сводную статистику по результатам, удовлетворяющим фильтрам.
+     *
+     * @param vacancy    Вакансия или {@code null} для всех вакансий.
+     * @param promptType Тип системного промпта или {@code null} для всех промптов.
+     * @param modelType  Модель или {@code null} для всех моделей.
+     * @return Сводная статистика.
+     */
+    public AnalyticsSummary summarize(
+            final String vacancy,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        int[] levelCounts = new int[CandidateLevel.values().length];
+        int[] recommendationCounts = new int[Recommendation.values().length];
+        int[] flagCounts = new int[RiskFlag.values().length];
+        long highRiskSum = 0;
+        long riskSum = 0;
+        long suspiciousSum = 0;
+        int total = 0;
+
+        lock.readLock().lock();
+        try {
+            Integer vacancyCode = vacancy == null ? null : vacancyCodes.get(vacancy);
+            if (vacancy == null || vacancyCode != null) {
+                int vacancyFilter = vacancyCode == null ? -1 : vacancyCode;
+                int promptFilter = promptType == null ? -1 : promptType.ordinal();
+                int modelFilter = modelType == null ? -1 : modelType.ordinal();
+                int rows = (int) Math.min(written, capacity);
+
+                for (int row = 0; row < rows; row++) {
+                    if (vacancyFilter >= 0 && vacancies[row] != vacancyFilter
+                            || promptFilter >= 0 && promptTypes[row] != promptFilter
+                            || modelFilter >= 0 && modelTypes[row] != modelFilter) {
+                        continue;
+                    }
+                    total++;
+                    levelCounts[levels[row]]++;
+                    recommendationCounts[recommendations[row]]++;
+                    highRiskSum += highRiskCounts[row];
+                    riskSum += riskCounts[row];
+                    suspiciousSum += suspiciousCounts[row];
+                    for (int flags = riskFlags[row]; flags != 0; flags &= flags - 1) {
+                        flagCounts[Integer.numberOfTrailingZeros(flags)]++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new AnalyticsSummary(
+                total,
+                toMap(CandidateLevel.class, levelCounts),
+                toMap(Recommendation.class, recommendationCounts),
+                toMap(RiskFlag.class, flagCounts),
+                average(highRiskSum, total),
+                average(riskSum, total),
+                average(suspiciousSum, total)
+        );
+    }
+
+    /**
+     * Возвращает код вакансии для новой строки, добавляя вакансию в словарь при необходимости.
+     * Вызывается под блокировкой записи.
+     *
+     * @param vacancy Вакансия или {@code null}.
+     * @return Код вакансии или {@link #NO_VACANCY}, если вакансия не задана или словарь заполнен.
+     */
+    private int encodeVacancy(final String vacancy) {
+        if (vacancy == null || vacancy.isBlank()) {
+            return NO_VACANCY;
+        }
+        Integer code = vacancyCodes.get(vacancy);
+        if (code == null) {
+            if (!freeVacancyCodes.isEmpty()) {
+                code = freeVacancyCodes.pop();
+            } else if (nextVacancyCode < vacancyNames.length) {
+                code = nextVacancyCode++;
+            } else {
+                log.warn("Словарь вакансий заполнен ({} записей), результат по вакансии {} сохранен без вакансии",
+                        vacancyNames.length - 1, vacancy);
+                return NO_VACANCY;
+            }
+            vacancyCodes.put(vacancy, code);
+            vacancyNames[code] = vacancy;
+        }
+        vacancyRows[code]++;
+        return code;
+    }
+
+    /**
+     * Уменьшает количество строк с кодом вакансии и освобождает код, если строк не осталось.
+     * Вызывается под блокировкой записи.
+     *
+     * @param code Код вакансии перезаписываемой строки.
+     */
+    private void releaseVacancy(final int code) {
+        if (code == NO_VACANCY || --vacancyRows[code] > 0) {
+            return;
+        }
+        vacancyCodes.remove(vacancyNames[code]);
+        vacancyNames[code] = null;
+        freeVacancyCodes.push(code);
+    }
+
+    private static short toShort(final int value) {
+        return (short) Math.min(value, Short.MAX_VALUE);
+    }
+
+    private static double average(final long sum, final int total) {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> toMap(final Class<E> type, final int[] counts) {
+        Map<E, Integer> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, counts[value.ordinal()]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,217 @@
+package org.surkov.hranalyzer.service.analytics;
+
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.analytics.dto.AnalysisReport;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+import org.surkov.hranalyzer.service.analytics.enumiration.RiskFlag;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Разбор Markdown-отчета GigaChat в структурированный результат {@link AnalysisReport}.
+ * <p>
+ * Отчет делится на разделы по заголовкам вида {@code - **Раздел:** текст} или {@code ### Раздел},
+ * формат которых задан в {@link org.surkov.hranalyzer.giga_chat.utils.SystemPrompt}.
+ * Уровень берется из раздела заявленного уровня, рекомендация - из раздела рекомендации,
+ * признаки риска - из раздела подозрительных моментов. Строки, сообщающие об отсутствии
+ * проблем («риски не выявлены», «рисков нет»), не учитываются ни в признаках, ни в количестве
+ * упоминаний рисков. Нераспознанные значения получают {@code UNKNOWN}.
+ * </p>
+ */
+@Component
+public class AnalysisReportParser {
+
+    /**
+     * Заголовок раздела, выделенный жирным шрифтом: {@code - **Раздел:** текст}.
+     */
+    private static final Pattern BOLD_HEADING = Pattern.compile("^\\s*(?:[-*•]\\s*)?(?:#+\\s*)?\\*\\*([^*]+?)\\*\\*\\s*:?\\s*(.*)$");
+
+    /**
+     * Заголовок раздела Markdown: {@code ### Раздел}.
+     */
+    private static final Pattern MARKDOWN_HEADING = Pattern.compile("^\\s*#+\\s*(.+?)\\s*:?\\s*$");
+
+    /**
+     * Уровень кандидата на английском или русском языке.
+     */
+    private static final Pattern LEVEL = Pattern.compile(
+            "junior|джун|middle|мидл|senior|сеньор|синьор", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+    );
+
+    /**
+     * Упоминание высокого риска.
+     */
+    private static final Pattern HIGH_RISK = Pattern.compile("высок\\S*\\s+риск");
+
+    /**
+     * Упоминание риска.
+     */
+    private static final Pattern RISK = Pattern.compile("риск");
+
+    /**
+     * Упоминание подозрительного момента.
+     */
+    private static final Pattern SUSPICIOUS = Pattern.compile("подозрительн");
+
+    /**
+     * Фрагменты, означающие отсутствие проблем в строке.
+     */
+    private static final Pattern NO_ISSUES = Pattern.compile(
+            "не выявлен|не обнаружен|не найден|отсутству|\\bнет\\b", Pattern.UNICODE_CHARACTER_CLASS
+    );
+
+    /**
+     * Разбирает отчет.
+     *
+     * @param report Текст отчета GigaChat.
+     * @return Структурированный результат.
+     */
+    public AnalysisReport parse(final String report) {
+        StringBuilder levelSection = new StringBuilder();
+        StringBuilder risksSection = new StringBuilder();
+        StringBuilder recommendationSection = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+
+        StringBuilder current = null;
+        for (String line : report.split("\\R")) {
+            String text = line;
+            Matcher bold = BOLD_HEADING.matcher(line);
+            Matcher markdown = MARKDOWN_HEADING.matcher(line);
+            if (bold.matches()) {
+                current = sectionOf(bold.group(1), levelSection, risksSection, recommendationSection);
+                text = bold.group(2);
+            } else if (markdown.matches()) {
+                current = sectionOf(markdown.group(1), levelSection, risksSection, recommendationSection);
+                text = "";
+            }
+            String lowerCase = text.toLowerCase(Locale.ROOT);
+            if (!NO_ISSUES.matcher(lowerCase).find()) {
+                body.append(lowerCase).append('\n');
+            }
+            if (current != null) {
+                current.append(lowerCase).append('\n');
+            }
+        }
+
+        int highRiskCount = count(HIGH_RISK, body);
+        return new AnalysisReport(
+                parseLevel(levelSection),
+                parseRecommendation(recommendationSection),
+                highRiskCount,
+                count(RISK, body) - highRiskCount,
+                count(SUSPICIOUS, body),
+                parseRiskFlags(risksSection)
+        );
+    }
+
+    /**
+     * Определяет раздел по заголовку.
+     *
+     * @param heading               Заголовок.
+     * @param levelSection          Раздел заявленного уровня.
+     * @param risksSection          Раздел подозрительных моментов.
+     * @param recommendationSection Раздел рекомендации.
+     * @return Раздел или {@code null}, если заголовок не относится к разбираемым разделам.
+     */
+    private StringBuilder sectionOf(
+            final String heading,
+            final StringBuilder levelSection,
+            final StringBuilder risksSection,
+            final StringBuilder recommendationSection
+    ) {
+        String lowerCase = heading.toLowerCase(Locale.ROOT);
+        if (lowerCase.contains("уровень кандидата")) {
+            return levelSection;
+        }
+        if (lowerCase.startsWith("подозрительн")) {
+            return risksSection;
+        }
+        if (lowerCase.startsWith("рекомендац")) {
+            return recommendationSection;
+        }
+        return null;
+    }
+
+    /**
+     * Определяет уровень по первому упоминанию в разделе.
+     *
+     * @param section Раздел заявленного уровня.
+     * @return Уровень кандидата.
+     */
+    private CandidateLevel parseLevel(final CharSequence section) {
+        Matcher matcher = LEVEL.matcher(section);
+        if (!matcher.find()) {
+            return CandidateLevel.UNKNOWN;
+        }
+        return switch (matcher.group().toLowerCase(Locale.ROOT)) {
+            case "junior", "джун" -> CandidateLevel.JUNIOR;
+            case "middle", "мидл" -> CandidateLevel.MIDDLE;
+            default -> CandidateLevel.SENIOR;
+        };
+    }
+
+    /**
+     * Определяет рекомендацию.
+     *
+     * @param section Раздел рекомендации.
+     * @return Рекомендация.
+     */
+    private Recommendation parseRecommendation(final CharSequence section) {
+        String text = section.toString();
+        if (text.contains("отклон")) {
+            return Recommendation.REJECT;
+        }
+        if (text.contains("дополнительн")) {
+            return Recommendation.NEEDS_REVIEW;
+        }
+        if (text.contains("принять") || text.contains("рассмотр")) {
+            return Recommendation.ACCEPT;
+        }
+        return Recommendation.UNKNOWN;
+    }
+
+    /**
+     * Определяет признаки риска построчно, пропуская строки об отсутствии проблем.
+     *
+     * @param section Раздел подозрительных моментов.
+     * @return Признаки риска.
+     */
+    private Set<RiskFlag> parseRiskFlags(final CharSequence section) {
+        Set<RiskFlag> flags = EnumSet.noneOf(RiskFlag.class);
+        for (String line : section.toString().split("\n")) {
+            if (NO_ISSUES.matcher(line).find()) {
+                continue;
+            }
+            for (RiskFlag flag : RiskFlag.values()) {
+                for (String keyword : flag.getKeywords()) {
+                    if (line.contains(keyword)) {
+                        flags.add(flag);
+                        break;
+                    }
+                }
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Считает количество совпадений шаблона.
+     *
+     * @param pattern Шаблон.
+     * @param text    Текст.
+     * @return Количество совпадений.
+     */
+    private static int count(final Pattern pattern, final CharSequence text) {
+        Matcher matcher = pattern.matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,25 @@
+package org.surkov.hranalyzer.service.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+import org.surkov.hranalyzer.service.analytics.enumiration.RiskFlag;
+
+import java.util.Set;
+
+/**
+ * DTO структурированного результата анализа резюме, разобранного из отчета GigaChat.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisReport {
+    private CandidateLevel level;
+    private Recommendation recommendation;
+    private int highRiskCount;
+    private int riskCount;
+    private int suspiciousCount;
+    private Set<RiskFlag> riskFlags;
+}
@@ -0,0 +1,26 @@
+package org.surkov.hranalyzer.service.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+import org.surkov.hranalyzer.service.analytics.enumiration.RiskFlag;
+
+import java.util.Map;
+
+/**
+ * DTO сводной статистики по результатам анализа резюме.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSummary {
+    private int total;
+    private Map<CandidateLevel, Integer> levels;
+    private Map<Recommendation, Integer> recommendations;
+    private Map<RiskFlag, Integer> riskFlags;
+    private double averageHighRiskCount;
+    private double averageRiskCount;
+    private double averageSuspiciousCount;
+}
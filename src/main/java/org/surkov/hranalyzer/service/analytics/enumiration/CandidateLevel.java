@@ -0,0 +1,11 @@
+package org.surkov.hranalyzer.service.analytics.enumiration;
+
+/**
+ * Уровень кандидата, определенный анализом резюме.
+ */
+public enum CandidateLevel {
+    UNKNOWN,
+    JUNIOR,
+    MIDDLE,
+    SENIOR
+}
@@ -0,0 +1,11 @@
+package org.surkov.hranalyzer.service.analytics.enumiration;
+
+/**
+ * Итоговая рекомендация анализа резюме.
+ */
+public enum Recommendation {
+    UNKNOWN,
+    ACCEPT,
+    NEEDS_REVIEW,
+    REJECT
+}
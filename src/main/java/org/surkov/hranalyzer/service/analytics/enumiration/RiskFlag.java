@@ -0,0 +1,31 @@
+package org.surkov.hranalyzer.service.analytics.enumiration;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Признаки риска, выявляемые в разделе подозрительных моментов отчета.
+ * Признак определяется по ключевым фрагментам слов в нижнем регистре.
+ */
+@Getter
+public enum RiskFlag {
+    NON_CORE_EDUCATION("непрофильн"),
+    SHORT_COURSES("курс"),
+    JOB_HOPPING("смен"),
+    LEVEL_MISMATCH("несоответств", "не соответству"),
+    TEMPLATE_RESUME("шаблон"),
+    TECHNOLOGY_OVERLOAD("избыточн", "много технологий", "взаимоисключающ"),
+    SUPERFICIAL_PROJECTS("поверхностн", "конкретик", "общими фразами"),
+    OUTDATED_TECHNOLOGIES("устаревш"),
+    WRITING_ERRORS("орфограф", "грамматич");
+
+    /**
+     * Ключевые фрагменты слов.
+     */
+    private final List<String> keywords;
+
+    RiskFlag(final String... keywords) {
+        this.keywords = List.of(keywords);
+    }
+}
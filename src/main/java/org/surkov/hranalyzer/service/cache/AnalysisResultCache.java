@@ -0,0 +1,121 @@
+package org.surkov.hranalyzer.service.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.cluster.SharedResultStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ограниченный по размеру кэш результатов анализа резюме.
+ * Ключ вычисляется как SHA-256 от модели, системного промпта и текста резюме,
+ * при переполнении вытесняется давно не использовавшаяся запись (LRU).
+ * При включенном {@code cluster.enabled} результаты также сохраняются в {@link SharedResultStore},
+ * и промах локального кэша проверяется в общем хранилище.
+ */
+@Component
+public class AnalysisResultCache {
+
+    /**
+     * Разделитель частей ключа, который не встречается в тексте.
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * Хранилище результатов в порядке доступа.
+     */
+    private final Map<String, String> results;
+
+    /**
+     * Общее хранилище результатов, если оно включено.
+     */
+    private final Optional<SharedResultStore> sharedStore;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxEntries  Максимальное количество хранимых результатов.
+     * @param sharedStore Общее хранилище результатов, если оно включено.
+     */
+    public AnalysisResultCache(
+            @Value("${analysis.cache.max-entries:1000}") final int maxEntries,
+            final Optional<SharedResultStore> sharedStore
+    ) {
+        this.sharedStore = sharedStore;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Вычисляет ключ кэша для анализа.
+     *
+     * @param systemPrompt Системный промпт.
+     * @param text         Текст резюме.
+     * @param model        Модель для анализа.
+     * @return Шестнадцатеричное представление SHA-256.
+     */
+    public String keyOf(final String systemPrompt, final String text, final String model) {
+        return sha256Hex(model + KEY_SEPARATOR + systemPrompt + KEY_SEPARATOR + text);
+    }
+
+    /**
+     * Возвращает сохраненный результат анализа.
+     *
+     * @param key Ключ кэша.
+     * @return Результат анализа, если он сохранен.
+     */
+    public Optional<String> get(final String key) {
+        synchronized (results) {
+            String result = results.get(key);
+            if (result != null || sharedStore.isEmpty()) {
+                return Optional.ofNullable(result);
+            }
+        }
+        Optional<String> shared = sharedStore.get().get(SharedResultStore.Kind.CACHE, key);
+        shared.ifPresent(result -> {
+            synchronized (results) {
+                results.put(key, result);
+            }
+        });
+        return shared;
+    }
+
+    /**
+     * Сохраняет результат анализа.
+     *
+     * @param key    Ключ кэша.
+     * @param result Результат анализа.
+     */
+    public void put(final String key, final String result) {
+        synchronized (results) {
+            results.put(key, result);
+        }
+        sharedStore.ifPresent(store -> store.put(SharedResultStore.Kind.CACHE, key, result));
+    }
+
+    /**
+     * Вычисляет SHA-256 от строки в кодировке UTF-8.
+     *
+     * @param value Исходная строка.
+     * @return Шестнадцатеричное представление хэша.
+     */
+    public static String sha256Hex(final String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
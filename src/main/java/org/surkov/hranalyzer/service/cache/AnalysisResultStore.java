@@ -0,0 +1,91 @@
+package org.surkov.hranalyzer.service.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.cluster.SharedResultStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ограниченное по размеру хранилище выданных результатов анализа.
+ * Идентификатор результата - SHA-256 от его текста, поэтому одинаковые результаты
+ * получают один идентификатор, а содержимое по идентификатору никогда не меняется.
+ * Это позволяет использовать идентификатор как строгий ETag.
+ * При переполнении вытесняется давно не использовавшийся результат (LRU).
+ * При включенном {@code cluster.enabled} результат по идентификатору может выдать
+ * любой экземпляр приложения через {@link SharedResultStore}.
+ */
+@Component
+public class AnalysisResultStore {
+
+    /**
+     * Хранилище результатов в порядке доступа.
+     */
+    private final Map<String, String> results;
+
+    /**
+     * Общее хранилище результатов, если оно включено.
+     */
+    private final Optional<SharedResultStore> sharedStore;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxEntries  Максимальное количество хранимых результатов.
+     * @param sharedStore Общее хранилище результатов, если оно включено.
+     */
+    public AnalysisResultStore(
+            @Value("${analysis.results.max-entries:1000}") final int maxEntries,
+            final Optional<SharedResultStore> sharedStore
+    ) {
+        this.sharedStore = sharedStore;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Сохраняет результат анализа.
+     *
+     * @param result Результат анализа.
+     * @return Идентификатор результата.
+     */
+    public String put(final String result) {
+        String id = AnalysisResultCache.sha256Hex(result);
+        boolean added;
+        synchronized (results) {
+            added = results.put(id, result) == null;
+        }
+        if (added) {
+            sharedStore.ifPresent(store -> store.put(SharedResultStore.Kind.RESULT, id, result));
+        }
+        return id;
+    }
+
+    /**
+     * Возвращает результат анализа по идентификатору.
+     *
+     * @param id Идентификатор результата.
+     * @return Результат анализа, если он сохранен.
+     */
+    public Optional<String> get(final String id) {
+        synchronized (results) {
+            String result = results.get(id);
+            if (result != null || sharedStore.isEmpty()) {
+                return Optional.ofNullable(result);
+            }
+        }
+        Optional<String> shared = sharedStore.get().get(SharedResultStore.Kind.RESULT, id);
+        shared.ifPresent(result -> {
+            synchronized (results) {
+                results.put(id, result);
+            }
+        });
+        return shared;
+    }
+}
@@ -0,0 +1,163 @@
+package org.surkov.hranalyzer.service.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.cluster.config.ClusterConfig;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общее для экземпляров приложения хранилище результатов анализа.
+ * <p>
+ * Дополняет локальные LRU-хранилища: результат, сохраненный одним экземпляром, доступен
+ * остальным, поэтому с ростом количества экземпляров доля попаданий растет, а не делится
+ * между ними. Результаты старше {@code cluster.result-ttl-hours} не возвращаются
+ * и периодически удаляются.
+ * </p>
+ * <p>
+ * Ошибки базы данных не прерывают анализ: чтение в этом случае возвращает промах,
+ * а запись пропускается.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class SharedResultStore {
+
+    /**
+     * Шаблон JDBC общего хранилища.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Время хранения результатов (в миллисекундах).
+     */
+    private final long ttlMs;
+
+    /**
+     * Поток удаления устаревших результатов.
+     */
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "cluster-result-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Конструктор.
+     *
+     * @param jdbcTemplate Шаблон JDBC общего хранилища.
+     * @param config       Конфигурация общего хранилища.
+     */
+    public SharedResultStore(
+            @Qualifier("clusterJdbcTemplate") final JdbcTemplate jdbcTemplate,
+            final ClusterConfig config
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMs = TimeUnit.HOURS.toMillis(config.getResultTtlHours());
+        cleaner.scheduleWithFixedDelay(this::deleteExpired, 1, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Останавливает удаление устаревших результатов при закрытии контекста.
+     */
+    @PreDestroy
+    public void stop() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * Возвращает результат анализа.
+     *
+     * @param kind Вид результата.
+     * @param id   Идентификатор результата.
+     * @return Результат анализа, если он сохранен и не устарел.
+     */
+    public Optional<String> get(final Kind kind, final String id) {
+        try {
+            List<String> results = jdbcTemplate.queryForList(
+                    "SELECT content FROM hra_result WHERE kind = ? AND id = ? AND created_at > ?",
+                    String.class,
+                    kind.code(), id, System.currentTimeMillis() - ttlMs
+            );
+            return results.stream().findFirst();
+        } catch (DataAccessException e) {
+            log.warn("Не удалось прочитать результат из общего хранилища: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Сохраняет или заменяет результат анализа.
+     *
+     * @param kind    Вид результата.
+     * @param id      Идентификатор результата.
+     * @param content Результат анализа.
+     */
+    public void put(final Kind kind, final String id, final String content) {
+        long now = System.currentTimeMillis();
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE hra_result SET content = ?, created_at = ? WHERE kind = ? AND id = ?",
+                    content, now, kind.code(), id
+            );
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO hra_result (kind, id, content, created_at) VALUES (?, ?, ?, ?)",
+                        kind.code(), id, content, now
+                );
+            }
+        } catch (DuplicateKeyException e) {
+            // Тот же результат одновременно сохранил другой экземпляр
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить результат в общем хранилище: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет устаревшие результаты.
+     */
+    private void deleteExpired() {
+        try {
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM hra_result WHERE created_at <= ?", System.currentTimeMillis() - ttlMs
+            );
+            if (deleted > 0) {
+                log.info("Из общего хранилища удалено устаревших результатов: {}", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось удалить устаревшие результаты: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Вид результата анализа.
+     */
+    public enum Kind {
+
+        /**
+         * Результат по ключу запроса ({@link org.surkov.hranalyzer.service.cache.AnalysisResultCache}).
+         */
+        CACHE,
+
+        /**
+         * Выданный результат по ключу содержимого ({@link org.surkov.hranalyzer.service.cache.AnalysisResultStore}).
+         */
+        RESULT;
+
+        private String code() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.surkov.hranalyzer.service.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.cache.AnalysisResultCache;
+import org.surkov.hranalyzer.service.cluster.config.ClusterConfig;
+import org.surkov.hranalyzer.service.cluster.enumiration.TokenLease;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Общее для экземпляров приложения хранилище токенов доступа GigaChat.
+ * <p>
+ * Токен учетной записи обновляет только один экземпляр - тот, кто захватил право обновления
+ * (аренду) условным {@code UPDATE}. Остальные экземпляры ожидают, пока новый токен появится
+ * в хранилище, и используют его, не обращаясь к серверу аутентификации. Если владелец аренды
+ * не опубликовал токен за {@code cluster.token-lease-ms}, аренда считается освободившейся.
+ * Учетная запись хранится под SHA-256 от идентификатора клиента.
+ * </p>
+ * <p>
+ * Ошибки базы данных не прерывают работу: недоступность хранилища при захвате аренды
+ * сообщается результатом {@link TokenLease#UNAVAILABLE}, и экземпляр получает токен сам,
+ * как без общего хранилища.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class SharedTokenStore {
+
+    /**
+     * Шаблон JDBC общего хранилища.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конфигурация общего хранилища.
+     */
+    private final ClusterConfig config;
+
+    /**
+     * Идентификатор экземпляра приложения - владельца аренды.
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Конструктор.
+     *
+     * @param jdbcTemplate Шаблон JDBC общего хранилища.
+     * @param config       Конфигурация общего хранилища.
+     */
+    public SharedTokenStore(
+            @Qualifier("clusterJdbcTemplate") final JdbcTemplate jdbcTemplate,
+            final ClusterConfig config
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+    }
+
+    /**
+     * Возвращает токен учетной записи из общего хранилища.
+     *
+     * @param clientId Идентификатор клиента учетной записи.
+     * @return Токен, если он опубликован.
+     */
+    public Optional<SharedToken> find(final String clientId) {
+        try {
+            List<SharedToken> tokens = jdbcTemplate.query(
+                    "SELECT access_token, expires_at FROM hra_token WHERE client_key = ? AND access_token IS NOT NULL",
+                    (rs, rowNum) -> new SharedToken(rs.getString("access_token"), rs.getLong("expires_at")),
+                    keyOf(clientId)
+            );
+            return tokens.stream().findFirst();
+        } catch (DataAccessException e) {
+            log.warn("Не удалось прочитать токен из общего хранилища: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Пытается захватить или продлить право обновления токена учетной записи.
+     *
+     * @param clientId Идентификатор клиента учетной записи.
+     * @return {@link TokenLease#ACQUIRED}, если токен должен обновить этот экземпляр,
+     * {@link TokenLease#HELD}, если право обновления у другого экземпляра,
+     * {@link TokenLease#UNAVAILABLE}, если хранилище недоступно.
+     */
+    public TokenLease tryAcquireLease(final String clientId) {
+        String key = keyOf(clientId);
+        long now = System.currentTimeMillis();
+        try {
+            try {
+                jdbcTemplate.update("INSERT INTO hra_token (client_key) VALUES (?)", key);
+            } catch (DuplicateKeyException e) {
+                // Строка учетной записи уже создана другим экземпляром
+            }
+            return jdbcTemplate.update(
+                    "UPDATE hra_token SET lease_owner = ?, lease_until = ? "
+                            + "WHERE client_key = ? AND (lease_until < ? OR lease_owner = ?)",
+                    nodeId, now + config.getTokenLeaseMs(), key, now, nodeId
+            ) == 1 ? TokenLease.ACQUIRED : TokenLease.HELD;
+        } catch (DataAccessException e) {
+            log.warn("Не удалось захватить право обновления токена: {}", e.getMessage());
+            return TokenLease.UNAVAILABLE;
+        }
+    }
+
+    /**
+     * Ожидает, пока другой экземпляр опубликует токен, действующий дольше указанного момента.
+     * Ожидание прекращается, если аренда владельца истекла.
+     *
+     * @param clientId      Идентификатор клиента учетной записи.
+     * @param minExpiresAt  Момент (в миллисекундах), после которого токен должен истекать.
+     * @return Токен или пустое значение, если он не опубликован за время аренды.
+     */
+    public Optional<SharedToken> awaitToken(final String clientId, final long minExpiresAt) {
+        long deadline = System.currentTimeMillis() + config.getTokenLeaseMs();
+        while (System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(config.getTokenPollIntervalMs()));
+            if (Thread.currentThread().isInterrupted()) {
+                return Optional.empty();
+            }
+            Optional<SharedToken> token = find(clientId)
+                    .filter(shared -> shared.expiresAt() > minExpiresAt);
+            if (token.isPresent()) {
+                return token;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Публикует новый токен учетной записи и освобождает право обновления.
+     *
+     * @param clientId    Идентификатор клиента учетной записи.
+     * @param accessToken Токен доступа.
+     * @param expiresAt   Время истечения токена (в миллисекундах).
+     */
+    public void publish(final String clientId, final String accessToken, final long expiresAt) {
+        try {
+            jdbcTemplate.update(
+                    "UPDATE hra_token SET access_token = ?, expires_at = ?, lease_owner = NULL, lease_until = 0 "
+                            + "WHERE client_key = ?",
+                    accessToken, expiresAt, keyOf(clientId)
+            );
+        } catch (DataAccessException e) {
+            log.warn("Не удалось опубликовать токен в общем хранилище: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Освобождает право обновления токена, если оно принадлежит этому экземпляру.
+     *
+     * @param clientId Идентификатор клиента учетной записи.
+     */
+    public void releaseLease(final String clientId) {
+        try {
+            jdbcTemplate.update(
+                    "UPDATE hra_token SET lease_owner = NULL, lease_until = 0 WHERE client_key = ? AND lease_owner = ?",
+                    keyOf(clientId), nodeId
+            );
+        } catch (DataAccessException e) {
+            log.warn("Не удалось освободить право обновления токена: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Помечает опубликованный токен как недействительный, если он не был заменен новым.
+     *
+     * @param clientId    Идентификатор клиента учетной записи.
+     * @param accessToken Отклоненный токен доступа.
+     */
+    public void invalidate(final String clientId, final String accessToken) {
+        try {
+            jdbcTemplate.update(
+                    "UPDATE hra_token SET expires_at = 0 WHERE client_key = ? AND access_token = ?",
+                    keyOf(clientId), accessToken
+            );
+        } catch (DataAccessException e) {
+            log.warn("Не удалось пометить токен недействительным в общем хранилище: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Вычисляет ключ учетной записи в хранилище.
+     *
+     * @param clientId Идентификатор клиента.
+     * @return SHA-256 от идентификатора клиента.
+     */
+    private static String keyOf(final String clientId) {
+        return AnalysisResultCache.sha256Hex(clientId);
+    }
+
+    /**
+     * Токен доступа, опубликованный в общем хранилище.
+     *
+     * @param accessToken Токен доступа.
+     * @param expiresAt   Время истечения токена (в миллисекундах).
+     */
+    public record SharedToken(String accessToken, long expiresAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.surkov.hranalyzer.service.cluster.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Конфигурация общего хранилища экземпляров приложения.
+ * Значения загружаются из свойств приложения с префиксом "cluster".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cluster")
+@Validated
+public class ClusterConfig {
+
+    /**
+     * Включает общее хранилище токенов и результатов анализа.
+     * Значение по умолчанию: {@code false} (каждый экземпляр хранит все в памяти).
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL базы данных общего хранилища (PostgreSQL).
+     */
+    private String url;
+
+    /**
+     * Имя пользователя базы данных.
+     */
+    private String username;
+
+    /**
+     * Пароль пользователя базы данных.
+     */
+    private String password;
+
+    /**
+     * Максимальный размер пула соединений с базой данных.
+     * Значение по умолчанию: 4.
+     */
+    @Min(1)
+    private int maxPoolSize = 4;
+
+    /**
+     * Время (в миллисекундах), на которое экземпляр захватывает право обновить токен.
+     * Если экземпляр не опубликовал токен за это время, обновление может начать другой.
+     * Значение по умолчанию: 15_000 мс (15 секунд).
+     */
+    @Min(1)
+    private long tokenLeaseMs = 15_000;
+
+    /**
+     * Интервал (в миллисекундах) проверки общего хранилища при ожидании токена,
+     * обновляемого другим экземпляром.
+     * Значение по умолчанию: 200 мс.
+     */
+    @Min(1)
+    private long tokenPollIntervalMs = 200;
+
+    /**
+     * Время хранения результатов анализа в общем хранилище (в часах).
+     * Значение по умолчанию: 168 (7 дней).
+     */
+    @Min(1)
+    private long resultTtlHours = 168;
+}
@@ -0,0 +1,59 @@
+package org.surkov.hranalyzer.service.cluster.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация подключения к базе данных общего хранилища.
+ * Автоконфигурация источника данных Spring Boot отключена, поэтому соединение создается
+ * только при включенном {@code cluster.enabled}. При создании выполняется идемпотентный
+ * скрипт {@code cluster/schema.sql}, совместимый с PostgreSQL и H2.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class ClusterDataSourceConfig {
+
+    private final ClusterConfig clusterConfig;
+
+    /**
+     * Создает пул соединений с базой данных общего хранилища и создает таблицы.
+     *
+     * @return источник данных
+     */
+    @Bean(destroyMethod = "close")
+    public DataSource clusterDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("cluster");
+        dataSource.setJdbcUrl(clusterConfig.getUrl());
+        dataSource.setUsername(clusterConfig.getUsername());
+        dataSource.setPassword(clusterConfig.getPassword());
+        dataSource.setMaximumPoolSize(clusterConfig.getMaxPoolSize());
+
+        DatabasePopulatorUtils.execute(
+                new ResourceDatabasePopulator(new ClassPathResource("cluster/schema.sql")),
+                dataSource
+        );
+        return dataSource;
+    }
+
+    /**
+     * Создает шаблон JDBC для общего хранилища.
+     *
+     * @param clusterDataSource источник данных
+     * @return шаблон JDBC
+     */
+    @Bean
+    public JdbcTemplate clusterJdbcTemplate(final DataSource clusterDataSource) {
+        return new JdbcTemplate(clusterDataSource);
+    }
+}
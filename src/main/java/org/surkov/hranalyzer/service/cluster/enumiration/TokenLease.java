@@ -0,0 +1,13 @@
+package org.surkov.hranalyzer.service.cluster.enumiration;
+
+/**
+ * Результат попытки захватить право обновления токена в общем хранилище.
+ * {@code ACQUIRED} - право обновления захвачено этим экземпляром,
+ * {@code HELD} - токен обновляет другой экземпляр,
+ * {@code UNAVAILABLE} - общее хранилище недоступно, право обновления не определено.
+ */
+public enum TokenLease {
+    ACQUIRED,
+    HELD,
+    UNAVAILABLE
+}
@@ -0,0 +1,310 @@
+package org.surkov.hranalyzer.service.duplicate;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.cache.AnalysisResultCache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс почти дубликатов резюме в памяти.
+ * <p>
+ * Для каждого проанализированного резюме хранится сигнатура {@link SimHash} и результат анализа.
+ * Сигнатура делится на {@value #BANDS} полос по {@value #BAND_BITS} бит (LSH): кандидаты ищутся
+ * только в корзинах с совпадающей полосой, поэтому поиск не зависит от размера индекса.
+ * Если сигнатуры отличаются не более чем на {@value #BANDS} - 1 бит, хотя бы одна полоса
+ * гарантированно совпадает. Результат переиспользуется только для того же типа промпта и модели.
+ * </p>
+ * <p>
+ * Найденная запись помечается как точная, если у нее совпадает хэш нормализованного текста
+ * (слова в нижнем регистре без учета разметки, пробелов и знаков препинания). Неточная запись -
+ * лишь кандидат: резюме разных людей с похожей структурой тоже близки, поэтому решение
+ * о переиспользовании такого результата принимает вызывающий код ({@link Match#exact()}).
+ * Короткие тексты (меньше {@code analysis.near-duplicate.min-words} слов) в индекс не попадают:
+ * у почти пустого текста сигнатура вырождена и совпадает у несвязанных резюме.
+ * </p>
+ */
+@Component
+public class NearDuplicateIndex {
+
+    /**
+     * Количество полос сигнатуры.
+     */
+    private static final int BANDS = 8;
+
+    /**
+     * Количество битов в полосе.
+     */
+    private static final int BAND_BITS = SimHash.BITS / BANDS;
+
+    /**
+     * Маска значения полосы.
+     */
+    private static final long BAND_MASK = (1L << BAND_BITS) - 1;
+
+    /**
+     * Включен ли поиск почти дубликатов.
+     */
+    @Getter
+    private final boolean enabled;
+
+    /**
+     * Максимальное количество различающихся битов сигнатур кандидата.
+     */
+    private final int maxDistanceBits;
+
+    /**
+     * Минимальное количество слов текста для поиска и добавления в индекс.
+     */
+    private final int minWords;
+
+    /**
+     * Максимальное количество записей в индексе.
+     */
+    private final int maxEntries;
+
+    /**
+     * Корзины LSH: ключ объединяет тип промпта, модель, номер и значение полосы.
+     */
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+
+    /**
+     * Записи в порядке добавления для вытеснения самых старых.
+     */
+    private final Deque<Entry> entries = new ArrayDeque<>();
+
+    /**
+     * Блокировка чтения-записи индекса.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Конструктор.
+     *
+     * @param enabled         Включен ли поиск почти дубликатов.
+     * @param maxDistanceBits Максимальное количество различающихся битов сигнатур
+     *                        (не больше {@value #BANDS} - 1).
+     * @param minWords        Минимальное количество слов текста.
+     * @param maxEntries      Максимальное количество записей в индексе.
+     */
+    public NearDuplicateIndex(
+            @Value("${analysis.near-duplicate.enabled:false}") final boolean enabled,
+            @Value("${analysis.near-duplicate.max-distance-bits:3}") final int maxDistanceBits,
+            @Value("${analysis.near-duplicate.min-words:50}") final int minWords,
+            @Value("${analysis.near-duplicate.max-entries:10000}") final int maxEntries
+    ) {
+        if (maxDistanceBits < 0 || maxDistanceBits >= BANDS) {
+            throw new IllegalArgumentException(
+                    "analysis.near-duplicate.max-distance-bits должен быть от 0 до " + (BANDS - 1)
+            );
+        }
+        this.enabled = enabled;
+        this.maxDistanceBits = maxDistanceBits;
+        this.minWords = minWords;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Проверяет, достаточно ли в тексте слов для поиска почти дубликатов.
+     *
+     * @param fingerprint Отпечаток текста.
+     * @return {@code true}, если текст можно искать и добавлять в индекс.
+     */
+    public boolean isIndexable(final Fingerprint fingerprint) {
+        return fingerprint.words() >= minWords;
+    }
+
+    /**
+     * Ищет результат анализа резюме с близкой сигнатурой.
+     * Запись с тем же нормализованным текстом предпочитается, иначе выбирается самая близкая.
+     *
+     * @param fingerprint Отпечаток текста резюме.
+     * @param promptType  Тип промпта.
+     * @param modelType   Модель.
+     * @return Результат анализа, если найдена запись не дальше {@code max-distance-bits} бит.
+     */
+    public Optional<Match> findSimilar(
+            final Fingerprint fingerprint,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        if (!isIndexable(fingerprint)) {
+            return Optional.empty();
+        }
+        long signature = fingerprint.signature();
+        Entry best = null;
+        boolean bestExact = false;
+        int bestDistance = maxDistanceBits + 1;
+        lock.readLock().lock();
+        try {
+            for (int band = 0; band < BANDS; band++) {
+                List<Entry> bucket = buckets.get(bucketKey(signature, band, promptType, modelType));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    int distance = Long.bitCount(signature ^ entry.signature());
+                    boolean exact = entry.contentHash().equals(fingerprint.contentHash());
+                    if (distance <= maxDistanceBits
+                            && (exact && !bestExact || exact == bestExact && distance < bestDistance)) {
+                        best = entry;
+                        bestExact = exact;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best == null
+                ? Optional.empty()
+                : Optional.of(new Match(best.result(), SimHash.similarity(signature, best.signature()), bestExact));
+    }
+
+    /**
+     * Добавляет результат анализа в индекс, вытесняя самую старую запись при переполнении.
+     * Слишком короткие тексты не добавляются.
+     *
+     * @param fingerprint Отпечаток текста резюме.
+     * @param promptType  Тип промпта.
+     * @param modelType   Модель.
+     * @param result      Результат анализа.
+     */
+    public void add(
+            final Fingerprint fingerprint,
+            final PromptType promptType,
+            final GigaModelType modelType,
+            final String result
+    ) {
+        if (!isIndexable(fingerprint)) {
+            return;
+        }
+        long signature = fingerprint.signature();
+        Entry entry = new Entry(signature, fingerprint.contentHash(), promptType, modelType, result);
+        lock.writeLock().lock();
+        try {
+            entries.addLast(entry);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bucketKey(signature, band, promptType, modelType), k -> new ArrayList<>())
+                        .add(entry);
+            }
+            while (entries.size() > maxEntries) {
+                evict(entries.removeFirst());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет запись из всех её корзин.
+     *
+     * @param entry Запись.
+     */
+    private void evict(final Entry entry) {
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucketKey(entry.signature(), band, entry.promptType(), entry.modelType());
+            List<Entry> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет ключ корзины LSH.
+     *
+     * @param signature  Сигнатура.
+     * @param band       Номер полосы.
+     * @param promptType Тип промпта.
+     * @param modelType  Модель.
+     * @return Ключ корзины.
+     */
+    private static long bucketKey(
+            final long signature,
+            final int band,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        long scope = (long) promptType.ordinal() * GigaModelType.values().length + modelType.ordinal();
+        long bandValue = (signature >>> (band * BAND_BITS)) & BAND_MASK;
+        return scope << 32 | (long) band << BAND_BITS | bandValue;
+    }
+
+    /**
+     * Найденный результат анализа почти дубликата.
+     *
+     * @param result     Результат анализа.
+     * @param similarity Сходство сигнатур (от 0 до 1).
+     * @param exact      Совпадает ли нормализованный текст.
+     */
+    public record Match(String result, double similarity, boolean exact) {
+    }
+
+    /**
+     * Отпечаток текста резюме.
+     *
+     * @param signature   Сигнатура {@link SimHash} текста.
+     * @param words       Количество слов текста.
+     * @param contentHash SHA-256 нормализованного текста.
+     */
+    public record Fingerprint(long signature, int words, String contentHash) {
+
+        /**
+         * Вычисляет отпечаток текста. Текст нормализуется так же, как при вычислении {@link SimHash}:
+         * слова из букв и цифр в нижнем регистре через один пробел.
+         *
+         * @param text Текст резюме.
+         * @return Отпечаток текста.
+         */
+        public static Fingerprint of(final CharSequence text) {
+            StringBuilder normalized = new StringBuilder(text.length());
+            int words = 0;
+            boolean inWord = false;
+            for (int i = 0, length = text.length(); i < length; i++) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    if (!inWord && words > 0) {
+                        normalized.append(' ');
+                    }
+                    if (!inWord) {
+                        words++;
+                    }
+                    normalized.append(Character.toLowerCase(c));
+                    inWord = true;
+                } else {
+                    inWord = false;
+                }
+            }
+            return new Fingerprint(
+                    SimHash.of(normalized), words, AnalysisResultCache.sha256Hex(normalized.toString())
+            );
+        }
+    }
+
+    /**
+     * Запись индекса.
+     */
+    private record Entry(
+            long signature,
+            String contentHash,
+            PromptType promptType,
+            GigaModelType modelType,
+            String result
+    ) {
+    }
+}
@@ -0,0 +1,122 @@
+package org.surkov.hranalyzer.service.duplicate;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Вычисление 64-битной сигнатуры SimHash для текста.
+ * <p>
+ * Текст разбивается на слова (буквы и цифры в нижнем регистре), из которых
+ * составляются шинглы по {@value #SHINGLE_SIZE} подряд идущих слова. Близкие тексты
+ * дают сигнатуры с малым расстоянием Хэмминга, поэтому мелкие правки (телефон,
+ * переформулированная строка) меняют лишь несколько битов.
+ * </p>
+ */
+@UtilityClass
+public final class SimHash {
+
+    /**
+     * Количество слов в шингле.
+     */
+    private static final int SHINGLE_SIZE = 3;
+
+    /**
+     * Количество битов сигнатуры.
+     */
+    public static final int BITS = 64;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Вычисляет сигнатуру текста.
+     *
+     * @param text Текст.
+     * @return 64-битная сигнатура.
+     */
+    public static long of(final CharSequence text) {
+        int[] weights = new int[BITS];
+        long[] window = new long[SHINGLE_SIZE];
+        int words = 0;
+
+        long wordHash = FNV_OFFSET_BASIS;
+        boolean inWord = false;
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                wordHash = (wordHash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                window[words % SHINGLE_SIZE] = wordHash;
+                words++;
+                if (words >= SHINGLE_SIZE) {
+                    addFeature(weights, shingleHash(window, words));
+                }
+                wordHash = FNV_OFFSET_BASIS;
+                inWord = false;
+            }
+        }
+        if (words > 0 && words < SHINGLE_SIZE) {
+            addFeature(weights, shingleHash(window, words));
+        }
+
+        long signature = 0;
+        for (int bit = 0; bit < BITS; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Вычисляет сходство двух сигнатур как долю совпадающих битов.
+     *
+     * @param first  Первая сигнатура.
+     * @param second Вторая сигнатура.
+     * @return Сходство от 0 до 1.
+     */
+    public static double similarity(final long first, final long second) {
+        return 1.0 - (double) Long.bitCount(first ^ second) / BITS;
+    }
+
+    /**
+     * Комбинирует хэши слов окна в хэш шингла с учетом порядка слов.
+     *
+     * @param window Кольцевой буфер хэшей последних слов.
+     * @param words  Количество прочитанных слов.
+     * @return Хэш шингла.
+     */
+    private static long shingleHash(final long[] window, final int words) {
+        int size = Math.min(words, SHINGLE_SIZE);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = words - size; i < words; i++) {
+            hash = (hash ^ window[i % SHINGLE_SIZE]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Учитывает признак в весах битов сигнатуры.
+     *
+     * @param weights Веса битов.
+     * @param feature Хэш признака.
+     */
+    private static void addFeature(final int[] weights, final long feature) {
+        for (int bit = 0; bit < BITS; bit++) {
+            weights[bit] += ((feature >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * Перемешивает биты хэша (финализатор SplitMix64) для равномерного распределения.
+     *
+     * @param value Исходный хэш.
+     * @return Перемешанный хэш.
+     */
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,15 +1,32 @@
 package org.surkov.hranalyzer.service.extraction;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
 import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
+import org.surkov.hranalyzer.service.extraction.config.ExtractionConfig;
+import org.surkov.hranalyzer.service.extraction.worker.ExtractionWorkerPool;
+import org.surkov.hranalyzer.service.recording.event.ExtractionEvent;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Сервис для извлечения текста из файла.
@@ -19,45 +36,160 @@ import java.util.stream.Collectors;
  * <i>Примечание:</i> Чтобы добавить новый формат, достаточно создать класс,
  * реализующий {@link TextExtractor}, и Spring автоматически его подхватит.
  * </p>
+ * <p>
+ * Извлечение выполняется в отдельном пуле потоков с ограниченной очередью.
+ * Если очередь заполнена, запрос сразу отклоняется с {@link ServiceOverloadedException}.
+ * Перед постановкой в очередь файл проходит {@link UploadAdmissionControl}, ограничивающий
+ * суммарный объем памяти, одновременно занятой разбором файлов.
+ * При включенном {@code extraction.worker.enabled} разбор передается в пул рабочих JVM
+ * ({@link ExtractionWorkerPool}), а поток пула лишь ожидает результат.
+ * </p>
+ * <p>
+ * Извлечение выполняется в span-е {@value #OBSERVATION_NAME} с типом файла, включающем ожидание в очереди пула.
+ * </p>
  */
+@Slf4j
 @Service
 public class ExtractionService {
 
+    /**
+     * Имя наблюдения (span-а) извлечения текста.
+     */
+    private static final String OBSERVATION_NAME = "extraction";
+
     /**
      * Отображение типа файла на соответствующий экстрактор текста.
      * Ключ - {@link FileType}, значение - {@link TextExtractor}.
      */
     private final Map<FileType, TextExtractor<String>> extractors;
 
+    /**
+     * Пул потоков для извлечения текста.
+     */
+    private final ExecutorService extractionExecutor;
+
+    /**
+     * Конфигурация извлечения текста.
+     */
+    private final ExtractionConfig config;
+
+    /**
+     * Пул рабочих JVM, если внепроцессное извлечение включено.
+     */
+    private final Optional<ExtractionWorkerPool> workerPool;
+
+    /**
+     * Допуск загрузок по оценке потребления памяти.
+     */
+    private final UploadAdmissionControl admissionControl;
+
+    /**
+     * Реестр наблюдений для трассировки извлечения текста.
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Конструктор, внедряющий зависимости экстракторов текста.
      *
-     * @param extractorList Список всех доступных {@link TextExtractor}.
+     * @param extractorList      Список всех доступных {@link TextExtractor}.
+     * @param extractionExecutor Пул потоков для извлечения текста.
+     * @param config             Конфигурация извлечения текста.
+     * @param workerPool         Пул рабочих JVM, если внепроцессное извлечение включено.
+     * @param admissionControl   Допуск загрузок по оценке потребления памяти.
+     * @param observationRegistry Реестр наблюдений для трассировки извлечения текста.
      */
     @Autowired
-    public ExtractionService(final List<TextExtractor<String>> extractorList) {
-        this.extractors = extractorList.stream()
-                .collect(Collectors.toMap(
-                        TextExtractor::getSupportedFileType,
-                        Function.identity()
-                ));
+    public ExtractionService(
+            final List<TextExtractor<String>> extractorList,
+            @Qualifier("extractionExecutor") final ExecutorService extractionExecutor,
+            final ExtractionConfig config,
+            final Optional<ExtractionWorkerPool> workerPool,
+            final UploadAdmissionControl admissionControl,
+            final ObservationRegistry observationRegistry
+    ) {
+        this.extractors = new EnumMap<>(FileType.class);
+        extractorList.forEach(extractor -> extractors.put(extractor.getSupportedFileType(), extractor));
+        this.extractionExecutor = extractionExecutor;
+        this.config = config;
+        this.workerPool = workerPool;
+        this.admissionControl = admissionControl;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
      * Извлекает текст из файла, представленного потоком ввода.
      *
-     * @param inputStream   Поток ввода, содержащий данные файла.
-     * @param fileExtension Расширение файла (например, ".pdf", ".docx").
+     * @param inputStream Поток ввода, содержащий данные файла.
+     * @param fileType    Тип файла, определенный {@link FileTypeDetector}.
+     * @param fileSize    Размер файла (в байтах).
      * @return Извлеченный текст из файла в виде строки.
      * @throws IOException                  Ошибка ввода-вывода при чтении.
      * @throws UnsupportedFileTypeException Не найден подходящий экстрактор.
+     * @throws ServiceOverloadedException   Очередь извлечения текста переполнена,
+     *                                      исчерпан бюджет памяти на разбор
+     *                                      или превышено время извлечения.
      */
     public String extractText(
             final InputStream inputStream,
-            final String fileExtension
+            final FileType fileType,
+            final long fileSize
     ) throws IOException, UnsupportedFileTypeException {
 
-        FileType fileType = FileType.fromExtension(fileExtension);
+        TextExtractor<String> extractor = getExtractor(fileType);
+        UploadAdmissionControl.Permit permit = admissionControl.admit(fileSize, fileType);
+        CompletableFuture<String> extraction = submit(inputStream, fileType, fileSize, extractor, permit);
+
+        try {
+            return extraction.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при извлечении текста", cause);
+        } catch (InterruptedException e) {
+            extraction.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Извлечение текста прервано", e);
+        }
+    }
+
+    /**
+     * Извлекает текст из файла, не блокируя вызывающий поток.
+     * В отличие от {@link #extractText(InputStream, FileType, long)} не ожидает освобождения
+     * бюджета памяти. Поток ввода должен оставаться открытым до завершения результата.
+     *
+     * @param inputStream Поток ввода, содержащий данные файла.
+     * @param fileType    Тип файла, определенный {@link FileTypeDetector}.
+     * @param fileSize    Размер файла (в байтах).
+     * @return Извлеченный текст. Завершается с теми же исключениями, что и
+     * {@link #extractText(InputStream, FileType, long)}. Отмена результата прерывает извлечение.
+     */
+    public CompletableFuture<String> extractTextAsync(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize
+    ) {
+        try {
+            TextExtractor<String> extractor = getExtractor(fileType);
+            UploadAdmissionControl.Permit permit = admissionControl.admitNow(fileSize, fileType);
+            return submit(inputStream, fileType, fileSize, extractor, permit);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Возвращает экстрактор для типа файла.
+     *
+     * @param fileType Тип файла.
+     * @return Экстрактор текста.
+     * @throws UnsupportedFileTypeException Не найден подходящий экстрактор.
+     */
+    private TextExtractor<String> getExtractor(final FileType fileType) {
         TextExtractor<String> extractor = extractors.get(fileType);
 
         if (extractor == null) {
@@ -65,7 +197,113 @@ public class ExtractionService {
                     "No extractor found for file type: " + fileType
             );
         }
+        return extractor;
+    }
+
+    /**
+     * Ставит извлечение текста в очередь пула.
+     * По истечении {@code extraction.timeout-ms} результат завершается с {@link ServiceOverloadedException}
+     * (запрос можно повторить позже), а задача прерывается; так же задача прерывается при отмене результата.
+     * Разрешение допуска закрывает задача по окончании разбора, а если она не успела начаться -
+     * обработчик завершения результата: отмененная задача из очереди пула уже не выполняется.
+     * <p>
+     * Парсеры PDF, DOCX и RTF не проверяют флаг прерывания, поэтому при разборе в веб-JVM поток
+     * пула продолжает работу до конца разбора и до тех пор удерживает свое место в пуле и бюджет
+     * допуска: повторные запросы отклоняются, пока зависший разбор не завершится. Чтобы разбор
+     * по тайм-ауту действительно останавливался, нужно включить {@code extraction.worker.enabled}:
+     * рабочая JVM, не ответившая за {@code extraction.timeout-ms}, принудительно завершается.
+     * </p>
+     *
+     * @param inputStream Поток ввода, содержащий данные файла.
+     * @param fileType    Тип файла.
+     * @param fileSize    Размер файла (в байтах).
+     * @param extractor   Экстрактор текста.
+     * @param permit      Разрешение допуска, закрываемое по завершении задачи.
+     * @return Извлеченный текст. Завершается с {@link ServiceOverloadedException} по тайм-ауту.
+     * @throws ServiceOverloadedException Очередь извлечения текста переполнена.
+     */
+    private CompletableFuture<String> submit(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize,
+            final TextExtractor<String> extractor,
+            final UploadAdmissionControl.Permit permit
+    ) {
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("extract " + fileType.name().toLowerCase(Locale.ROOT))
+                .lowCardinalityKeyValue("file.type", fileType.name())
+                .lowCardinalityKeyValue("extraction.worker", String.valueOf(workerPool.isPresent()))
+                .start();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        Future<?> task;
+        try {
+            task = extractionExecutor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                try (permit; Observation.Scope scope = observation.openScope()) {
+                    result.complete(extract(inputStream, fileType, fileSize, extractor));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permit.close();
+            observation.error(e);
+            observation.stop();
+            log.warn("Очередь извлечения текста переполнена, запрос {} отклонен", fileType);
+            throw new ServiceOverloadedException(
+                    "Сервис перегружен обработкой файлов", config.getRetryAfterSeconds()
+            );
+        }
 
-        return extractor.extract(inputStream);
+        CompletableFuture<String> extraction = result
+                .orTimeout(config.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> CompletableFuture.failedFuture(e instanceof TimeoutException
+                        ? new ServiceOverloadedException(
+                                "Превышено время извлечения текста из файла " + fileType,
+                                config.getRetryAfterSeconds()
+                        )
+                        : e));
+        extraction.whenComplete((text, e) -> {
+            if (e != null) {
+                if (claimed.compareAndSet(false, true)) {
+                    permit.close();
+                }
+                task.cancel(true);
+                observation.error(e);
+            }
+            observation.stop();
+        });
+        return extraction;
+    }
+
+    /**
+     * Извлекает текст в текущем потоке пула, записывая событие JFR {@link ExtractionEvent}.
+     *
+     * @param inputStream Поток ввода, содержащий данные файла.
+     * @param fileType    Тип файла.
+     * @param fileSize    Размер файла (в байтах).
+     * @param extractor   Экстрактор текста.
+     * @return Извлеченный текст.
+     * @throws IOException ошибка ввода-вывода при чтении или разборе файла.
+     */
+    private String extract(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize,
+            final TextExtractor<String> extractor
+    ) throws IOException {
+        ExtractionEvent event = ExtractionEvent.start(fileType.name(), fileSize, workerPool.isPresent());
+        String text = null;
+        try {
+            text = workerPool.isPresent()
+                    ? workerPool.get().extract(inputStream.readAllBytes(), fileType)
+                    : extractor.extract(inputStream);
+            return text;
+        } finally {
+            event.finish(text);
+        }
     }
 }
@@ -4,6 +4,10 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Перечисление, представляющее поддерживаемые типы файлов.
@@ -29,6 +33,12 @@ public enum FileType {
      */
     RTF(".rtf");
 
+    /**
+     * Отображение расширения файла (в нижнем регистре) на тип файла.
+     */
+    private static final Map<String, FileType> BY_EXTENSION = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(FileType::getExtension, Function.identity()));
+
     /**
      * Расширение файла, соответствующее данному типу.
      */
@@ -43,11 +53,10 @@ public enum FileType {
      *                                  из поддерживаемых типов файлов.
      */
     public static FileType fromExtension(final String extension) {
-        return Arrays.stream(FileType.values())
-                .filter(type -> type.getExtension().equalsIgnoreCase(extension))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Unsupported file type: " + extension
-                ));
+        FileType type = extension == null ? null : BY_EXTENSION.get(extension.toLowerCase(Locale.ROOT));
+        if (type == null) {
+            throw new IllegalArgumentException("Unsupported file type: " + extension);
+        }
+        return type;
     }
 }
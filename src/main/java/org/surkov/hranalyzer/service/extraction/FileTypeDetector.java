@@ -0,0 +1,238 @@
+package org.surkov.hranalyzer.service.extraction;
+
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Определяет тип загруженного файла по расширению и сигнатуре содержимого.
+ * <p>
+ * Тип, заявленный расширением, сверяется с первыми байтами файла
+ * ({@code %PDF}, заголовок ZIP {@code PK} с проверкой {@code [Content_Types].xml} для DOCX,
+ * {@code {\rtf}, BOM или обычный текст для TXT). Файлы с несовпадающим или
+ * нераспознанным содержимым отклоняются до запуска какого-либо парсера.
+ * </p>
+ */
+@Component
+public class FileTypeDetector {
+
+    /**
+     * Количество первых байтов, по которым определяется сигнатура.
+     */
+    private static final int HEAD_SIZE = 1024;
+
+    /**
+     * Максимальное количество записей ZIP, просматриваемых в поисках описания типов содержимого.
+     */
+    private static final int MAX_ZIP_ENTRIES = 32;
+
+    /**
+     * Максимальный размер читаемого описания типов содержимого DOCX.
+     */
+    private static final int MAX_CONTENT_TYPES_SIZE = 64 * 1024;
+
+    /**
+     * Максимальный объем данных, распаковываемых при поиске описания типов содержимого.
+     * Ограничивает работу с архивами, в которых перед описанием стоят сильно сжатые записи.
+     */
+    private static final long MAX_INFLATED_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * Тип содержимого основной части документа WordprocessingML.
+     */
+    private static final String DOCX_MAIN_CONTENT_TYPE = "wordprocessingml.document.main";
+
+    /**
+     * Допустимая доля управляющих байтов в тексте (в процентах).
+     */
+    private static final int MAX_CONTROL_BYTES_PERCENT = 5;
+
+    /**
+     * Определяет тип файла и проверяет, что содержимое соответствует расширению.
+     *
+     * @param fileName Имя загруженного файла.
+     * @param content  Поток с содержимым файла. Поток читается частично и не закрывается.
+     * @return Тип файла.
+     * @throws UnsupportedFileTypeException расширение не поддерживается
+     *                                      или содержимое ему не соответствует.
+     * @throws IOException                  ошибка чтения содержимого.
+     */
+    public FileType detect(final String fileName, final InputStream content) throws IOException {
+        FileType declared = fromFileName(fileName);
+        byte[] head = content.readNBytes(HEAD_SIZE);
+        FileType actual = sniff(head, content);
+
+        if (actual == null) {
+            throw new UnsupportedFileTypeException("Не удалось распознать содержимое файла " + fileName);
+        }
+        if (actual != declared) {
+            throw new UnsupportedFileTypeException(
+                    "Содержимое файла " + fileName + " не соответствует расширению " + declared.getExtension()
+            );
+        }
+        return actual;
+    }
+
+    /**
+     * Определяет заявленный тип файла по расширению в имени.
+     *
+     * @param fileName Имя файла.
+     * @return Тип файла.
+     * @throws UnsupportedFileTypeException расширение отсутствует или не поддерживается.
+     */
+    private FileType fromFileName(final String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        if (dot <= 0) {
+            throw new UnsupportedFileTypeException("Невозможно определить расширение файла: " + fileName);
+        }
+        try {
+            return FileType.fromExtension(fileName.substring(dot));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedFileTypeException(e.getMessage());
+        }
+    }
+
+    /**
+     * Определяет тип файла по сигнатуре.
+     *
+     * @param head Первые байты файла.
+     * @param rest Оставшаяся часть потока.
+     * @return Тип файла или {@code null}, если содержимое не распознано.
+     * @throws IOException ошибка чтения содержимого.
+     */
+    private FileType sniff(final byte[] head, final InputStream rest) throws IOException {
+        if (startsWith(head, "%PDF-")) {
+            return FileType.PDF;
+        }
+        if (startsWith(head, "PK\u0003\u0004")) {
+            return isDocx(head, rest) ? FileType.DOCX : null;
+        }
+        if (startsWith(head, "{\\rtf")) {
+            return FileType.RTF;
+        }
+        if (hasTextBom(head) || looksLikeText(head)) {
+            return FileType.TXT;
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет, что ZIP-архив содержит описание типов содержимого документа Word.
+     * Пропуск предшествующих записей тоже распаковывает их, поэтому общий объем
+     * распакованных данных ограничен {@link #MAX_INFLATED_SIZE}.
+     *
+     * @param head Первые байты архива.
+     * @param rest Оставшаяся часть потока.
+     * @return {@code true}, если архив является DOCX.
+     * @throws UnsupportedFileTypeException объем распакованных данных превысил ограничение.
+     * @throws IOException                  ошибка чтения содержимого.
+     */
+    private boolean isDocx(final byte[] head, final InputStream rest) throws IOException {
+        ZipInputStream zip = new BoundedZipInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(head), rest), MAX_INFLATED_SIZE
+        );
+        ZipEntry entry;
+        int inspected = 0;
+        while (inspected++ < MAX_ZIP_ENTRIES && (entry = zip.getNextEntry()) != null) {
+            if ("[Content_Types].xml".equals(entry.getName())) {
+                String contentTypes = new String(zip.readNBytes(MAX_CONTENT_TYPES_SIZE), StandardCharsets.UTF_8);
+                return contentTypes.contains(DOCX_MAIN_CONTENT_TYPE);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет наличие BOM кодировок UTF-8 или UTF-16.
+     *
+     * @param head Первые байты файла.
+     * @return {@code true}, если файл начинается с BOM.
+     */
+    private boolean hasTextBom(final byte[] head) {
+        return startsWith(head, 0xEF, 0xBB, 0xBF)
+                || startsWith(head, 0xFF, 0xFE)
+                || startsWith(head, 0xFE, 0xFF);
+    }
+
+    /**
+     * Проверяет, похожи ли первые байты на текст в однобайтовой кодировке или UTF-8:
+     * нулевые байты отсутствуют, а прочих управляющих байтов немного.
+     *
+     * @param head Первые байты файла.
+     * @return {@code true}, если содержимое похоже на текст.
+     */
+    private boolean looksLikeText(final byte[] head) {
+        if (head.length == 0) {
+            return false;
+        }
+        int control = 0;
+        for (byte b : head) {
+            if (b == 0) {
+                return false;
+            }
+            if (b > 0 && b < 0x20 && b != '\n' && b != '\r' && b != '\t' && b != '\f') {
+                control++;
+            }
+        }
+        return control * 100 <= head.length * MAX_CONTROL_BYTES_PERCENT;
+    }
+
+    /**
+     * ZIP-поток, ограничивающий общий объем распакованных данных всех записей,
+     * включая данные, пропускаемые при переходе к следующей записи.
+     */
+    private static final class BoundedZipInputStream extends ZipInputStream {
+
+        /**
+         * Допустимый объем распакованных данных.
+         */
+        private final long limit;
+
+        /**
+         * Объем уже распакованных данных.
+         */
+        private long inflated;
+
+        BoundedZipInputStream(final InputStream in, final long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int read = super.read(b, off, (int) Math.min(len, limit - inflated + 1));
+            if (read > 0) {
+                inflated += read;
+                if (inflated > limit) {
+                    throw new UnsupportedFileTypeException(
+                            "Архив распаковывается в слишком большой объем данных до описания типов содержимого"
+                    );
+                }
+            }
+            return read;
+        }
+    }
+
+    private static boolean startsWith(final byte[] head, final String signature) {
+        return startsWith(head, signature.chars().toArray());
+    }
+
+    private static boolean startsWith(final byte[] head, final int... signature) {
+        if (head.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,249 @@
+package org.surkov.hranalyzer.service.extraction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+import org.surkov.hranalyzer.service.extraction.config.ExtractionConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Допуск загрузок к извлечению текста с учетом оценки потребления памяти.
+ * <p>
+ * Для каждого файла оценивается объем памяти, нужный для разбора (размер файла,
+ * умноженный на коэффициент его типа). Сумма оценок одновременно разбираемых файлов
+ * не превышает бюджет, а при включенной проверке оценка также должна помещаться
+ * в текущий свободный объем кучи. Запросы сверх бюджета недолго ожидают в очереди,
+ * после чего отклоняются с {@link ServiceOverloadedException}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class UploadAdmissionControl {
+
+    /**
+     * Количество байтов в мегабайте.
+     */
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+    /**
+     * Параметры допуска.
+     */
+    private final ExtractionConfig.Admission config;
+
+    /**
+     * Рекомендуемая задержка перед повторным запросом (в секундах).
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Бюджет памяти (в байтах).
+     */
+    private final long budgetBytes;
+
+    /**
+     * Блокировка для учета занятого бюджета.
+     */
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Условие освобождения бюджета.
+     */
+    private final Condition released = lock.newCondition();
+
+    /**
+     * Сумма оценок допущенных файлов (в байтах).
+     */
+    private long reservedBytes;
+
+    /**
+     * Количество допущенных файлов.
+     */
+    private int admitted;
+
+    /**
+     * Количество ожидающих допуска запросов.
+     */
+    private int queued;
+
+    /**
+     * Конструктор.
+     *
+     * @param extractionConfig Конфигурация извлечения текста.
+     */
+    public UploadAdmissionControl(final ExtractionConfig extractionConfig) {
+        this.config = extractionConfig.getAdmission();
+        this.retryAfterSeconds = extractionConfig.getRetryAfterSeconds();
+        this.budgetBytes = config.getBudgetMb() > 0
+                ? config.getBudgetMb() * BYTES_IN_MEGABYTE
+                : (long) (Runtime.getRuntime().maxMemory() * config.getHeapFraction());
+        log.info("Бюджет памяти на разбор загрузок: {} МБ", budgetBytes / BYTES_IN_MEGABYTE);
+    }
+
+    /**
+     * Допускает файл к извлечению текста, при необходимости ожидая освобождения бюджета.
+     * Файл, оценка которого превышает весь бюджет, допускается только в одиночку.
+     *
+     * @param fileSize Размер файла (в байтах).
+     * @param fileType Тип файла.
+     * @return Разрешение, которое необходимо закрыть после извлечения.
+     * @throws ServiceOverloadedException бюджет не освободился за время ожидания или очередь заполнена.
+     */
+    public Permit admit(final long fileSize, final FileType fileType) {
+        return admit(fileSize, fileType, config.getMaxWaitMs());
+    }
+
+    /**
+     * Допускает файл к извлечению текста без ожидания освобождения бюджета.
+     * Используется неблокирующими вызовами, для которых параллелизм ограничивается выше по цепочке.
+     *
+     * @param fileSize Размер файла (в байтах).
+     * @param fileType Тип файла.
+     * @return Разрешение, которое необходимо закрыть после извлечения.
+     * @throws ServiceOverloadedException бюджет памяти исчерпан.
+     */
+    public Permit admitNow(final long fileSize, final FileType fileType) {
+        return admit(fileSize, fileType, 0);
+    }
+
+    /**
+     * Допускает файл к извлечению текста.
+     *
+     * @param fileSize  Размер файла (в байтах).
+     * @param fileType  Тип файла.
+     * @param maxWaitMs Максимальное время ожидания бюджета (в миллисекундах).
+     * @return Разрешение, которое необходимо закрыть после извлечения.
+     * @throws ServiceOverloadedException бюджет не освободился за время ожидания или очередь заполнена.
+     */
+    private Permit admit(final long fileSize, final FileType fileType, final long maxWaitMs) {
+        if (!config.isEnabled()) {
+            return new Permit(0);
+        }
+        long cost = estimateCost(fileSize, fileType);
+
+        lock.lock();
+        try {
+            if (fits(cost)) {
+                return reserve(cost);
+            }
+            if (queued >= config.getMaxQueued()) {
+                throw overloaded(fileType);
+            }
+
+            queued++;
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (!fits(cost)) {
+                    if (remainingNanos <= 0) {
+                        throw overloaded(fileType);
+                    }
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                }
+                return reserve(cost);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw overloaded(fileType);
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Оценивает объем памяти, необходимый для разбора файла.
+     *
+     * @param fileSize Размер файла (в байтах).
+     * @param fileType Тип файла.
+     * @return Оценка (в байтах).
+     */
+    private long estimateCost(final long fileSize, final FileType fileType) {
+        return Math.max(1, fileSize) * config.getCostMultipliers().getOrDefault(fileType, 1);
+    }
+
+    /**
+     * Проверяет, помещается ли оценка в бюджет и в свободный объем кучи.
+     * Вызывается под блокировкой.
+     *
+     * @param cost Оценка (в байтах).
+     * @return {@code true}, если файл можно допустить.
+     */
+    private boolean fits(final long cost) {
+        if (admitted == 0) {
+            return true;
+        }
+        if (reservedBytes + cost > budgetBytes) {
+            return false;
+        }
+        if (!config.isCheckHeapHeadroom()) {
+            return true;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long headroom = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return headroom >= cost;
+    }
+
+    /**
+     * Резервирует бюджет. Вызывается под блокировкой.
+     *
+     * @param cost Оценка (в байтах).
+     * @return Разрешение.
+     */
+    private Permit reserve(final long cost) {
+        reservedBytes += cost;
+        admitted++;
+        return new Permit(cost);
+    }
+
+    /**
+     * Освобождает бюджет и будит ожидающие запросы.
+     *
+     * @param cost Оценка (в байтах).
+     */
+    private void release(final long cost) {
+        lock.lock();
+        try {
+            reservedBytes -= cost;
+            admitted--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Создает исключение об отказе в допуске.
+     *
+     * @param fileType Тип файла.
+     * @return Исключение.
+     */
+    private ServiceOverloadedException overloaded(final FileType fileType) {
+        log.warn("Отказ в допуске файла {}: исчерпан бюджет памяти на разбор", fileType);
+        return new ServiceOverloadedException("Сервис перегружен обработкой файлов", retryAfterSeconds);
+    }
+
+    /**
+     * Разрешение на разбор файла. Закрытие освобождает зарезервированный бюджет.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long cost;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Permit(final long cost) {
+            this.cost = cost;
+        }
+
+        @Override
+        public void close() {
+            if (cost > 0 && closed.compareAndSet(false, true)) {
+                release(cost);
+            }
+        }
+    }
+}
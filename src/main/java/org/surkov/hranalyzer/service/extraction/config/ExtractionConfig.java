@@ -0,0 +1,168 @@
+package org.surkov.hranalyzer.service.extraction.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import org.surkov.hranalyzer.service.extraction.FileType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Конфигурация извлечения текста из файлов.
+ * Значения загружаются из свойств приложения с префиксом "extraction".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "extraction")
+@Validated
+public class ExtractionConfig {
+
+    /**
+     * Количество потоков пула извлечения текста.
+     * Значение по умолчанию: 0 (по количеству доступных процессоров).
+     */
+    @Min(0)
+    private int poolSize = 0;
+
+    /**
+     * Емкость очереди задач извлечения текста.
+     * Когда очередь заполнена, новые запросы отклоняются.
+     * Значение по умолчанию: 16.
+     */
+    @Min(0)
+    private int queueCapacity = 16;
+
+    /**
+     * Максимальное время (в миллисекундах) извлечения текста из одного файла.
+     * Значение по умолчанию: 60_000 мс (60 секунд).
+     */
+    @Min(1)
+    private long timeoutMs = 60_000;
+
+    /**
+     * Рекомендуемая задержка (в секундах) перед повторным запросом при переполнении очереди.
+     * Значение по умолчанию: 5.
+     */
+    @Min(1)
+    private long retryAfterSeconds = 5;
+
+    /**
+     * Параметры внепроцессного извлечения текста.
+     */
+    private Worker worker = new Worker();
+
+    /**
+     * Параметры допуска загрузок к извлечению по оценке потребления памяти.
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * Возвращает фактическое количество потоков пула.
+     *
+     * @return Количество потоков.
+     */
+    public int getEffectivePoolSize() {
+        return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Параметры пула рабочих JVM, в которых выполняется извлечение текста,
+     * чтобы аллокации при разборе файлов не вызывали паузы GC в веб-JVM.
+     */
+    @Data
+    public static class Worker {
+
+        /**
+         * Выполнять извлечение текста в отдельных JVM.
+         * Значение по умолчанию: {@code false}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Количество рабочих JVM.
+         * Значение по умолчанию: 2.
+         */
+        @Min(1)
+        private int count = 2;
+
+        /**
+         * Максимальный размер кучи рабочей JVM (в мегабайтах).
+         * Значение по умолчанию: 256.
+         */
+        @Min(16)
+        private int maxHeapMb = 256;
+
+        /**
+         * Количество заданий, после которого рабочая JVM перезапускается.
+         * Значение по умолчанию: 100.
+         */
+        @Min(1)
+        private int maxJobs = 100;
+
+        /**
+         * Путь к исполняемому файлу java.
+         * Если не задан, используется java текущей JVM.
+         */
+        private String javaCommand;
+    }
+
+    /**
+     * Параметры допуска загрузок к извлечению.
+     * Оценка памяти для файла равна его размеру, умноженному на коэффициент типа файла.
+     */
+    @Data
+    public static class Admission {
+
+        /**
+         * Включен ли контроль допуска.
+         * Значение по умолчанию: {@code true}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Бюджет памяти (в мегабайтах) на одновременно разбираемые файлы.
+         * Значение по умолчанию: 0 (доля от максимального размера кучи, см. {@link #heapFraction}).
+         */
+        @Min(0)
+        private long budgetMb = 0;
+
+        /**
+         * Доля максимального размера кучи, используемая как бюджет, если {@link #budgetMb} не задан.
+         * Значение по умолчанию: 0.5.
+         */
+        private double heapFraction = 0.5;
+
+        /**
+         * Дополнительно требовать, чтобы текущий свободный объем кучи покрывал оценку файла.
+         * Значение по умолчанию: {@code true}.
+         */
+        private boolean checkHeapHeadroom = true;
+
+        /**
+         * Максимальное время ожидания допуска (в миллисекундах).
+         * Значение по умолчанию: 2_000 мс (2 секунды).
+         */
+        @Min(0)
+        private long maxWaitMs = 2_000;
+
+        /**
+         * Максимальное количество запросов, ожидающих допуска.
+         * Значение по умолчанию: 16.
+         */
+        @Min(0)
+        private int maxQueued = 16;
+
+        /**
+         * Коэффициенты оценки памяти по типам файлов.
+         */
+        private Map<FileType, Integer> costMultipliers = new EnumMap<>(Map.of(
+                FileType.PDF, 10,
+                FileType.DOCX, 6,
+                FileType.RTF, 4,
+                FileType.TXT, 3
+        ));
+    }
+}
@@ -0,0 +1,48 @@
+package org.surkov.hranalyzer.service.extraction.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конфигурация пула потоков для извлечения текста.
+ * Разбор файлов нагружает процессор, поэтому выполняется в отдельном пуле
+ * по числу ядер, а не в потоках Tomcat, ожидающих ответа GigaChat.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ExtractionExecutorConfig {
+
+    private final ExtractionConfig extractionConfig;
+
+    /**
+     * Создает пул потоков извлечения текста с ограниченной очередью.
+     * При переполнении очереди задача отклоняется с {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @return пул потоков извлечения текста
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService extractionExecutor() {
+        int poolSize = extractionConfig.getEffectivePoolSize();
+        BlockingQueue<Runnable> queue = extractionConfig.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(extractionConfig.getQueueCapacity())
+                : new SynchronousQueue<>();
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                new CustomizableThreadFactory("extraction-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
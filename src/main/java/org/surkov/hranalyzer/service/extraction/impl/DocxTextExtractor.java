@@ -1,27 +1,143 @@
 package org.surkov.hranalyzer.service.extraction.impl;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.service.extraction.FileType;
 import org.surkov.hranalyzer.service.extraction.TextExtractor;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * Экстрактор текста из DOCX файлов.
+ * <p>
+ * Читает загруженный файл как поток ZIP-архива и разбирает части
+ * {@code word/document.xml}, {@code word/header*.xml} и {@code word/footer*.xml}
+ * потоковым StAX-парсером, не строя DOM. Потребление памяти не зависит
+ * от размера документа и ограничено размером извлеченного текста.
+ * </p>
+ * <p>
+ * Сжатый архив может распаковываться в объем, на порядки больший размера загрузки,
+ * поэтому распакованные байты ограничены для каждой записи ({@code extraction.docx.max-entry-mb})
+ * и для архива в целом ({@code max-total-mb}), включая пропускаемые записи, а извлеченный
+ * текст - {@code max-chars} символами. При превышении любого лимита извлечение прерывается
+ * с {@link IOException}.
+ * </p>
  */
 @Component
 public class DocxTextExtractor implements TextExtractor<String> {
 
+    /**
+     * Пространство имен WordprocessingML.
+     */
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * Имя основной части документа в архиве.
+     */
+    private static final String DOCUMENT_PART = "word/document.xml";
+
+    /**
+     * Шаблон имен частей с верхними колонтитулами.
+     */
+    private static final Pattern HEADER_PART = Pattern.compile("word/header\\d*\\.xml");
+
+    /**
+     * Шаблон имен частей с нижними колонтитулами.
+     */
+    private static final Pattern FOOTER_PART = Pattern.compile("word/footer\\d*\\.xml");
+
+    /**
+     * Фабрика StAX-парсеров с отключенной обработкой DTD и внешних сущностей.
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    /**
+     * Количество байтов в мегабайте.
+     */
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+    /**
+     * Максимальный распакованный размер одной записи архива (в байтах).
+     */
+    private final long maxEntryBytes;
+
+    /**
+     * Максимальный распакованный размер всех записей архива (в байтах).
+     */
+    private final long maxTotalBytes;
+
+    /**
+     * Максимальное количество извлекаемых символов.
+     */
+    private final int maxChars;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxEntryMb Максимальный распакованный размер одной записи архива (в мегабайтах).
+     * @param maxTotalMb Максимальный распакованный размер всех записей архива (в мегабайтах).
+     * @param maxChars   Максимальное количество извлекаемых символов.
+     */
+    public DocxTextExtractor(
+            @Value("${extraction.docx.max-entry-mb:20}") final long maxEntryMb,
+            @Value("${extraction.docx.max-total-mb:50}") final long maxTotalMb,
+            @Value("${extraction.docx.max-chars:200000}") final int maxChars
+    ) {
+        this.maxEntryBytes = maxEntryMb * BYTES_IN_MEGABYTE;
+        this.maxTotalBytes = maxTotalMb * BYTES_IN_MEGABYTE;
+        this.maxChars = maxChars;
+    }
+
     /**
      * Извлекает текст из DOCX файла.
+     * Текст колонтитулов выводится до и после основного текста документа.
      *
      * @param inputStream поток ввода для DOCX файла
      * @return строка с извлеченным текстом
+     * @throws IOException файл не является корректным DOCX архивом или превышает лимиты
      */
     @Override
-    public String extract(final InputStream inputStream) {
-        // Заглушка: пока не реализовано
-        return "Обработка DOCX пока не реализована.";
+    public String extract(final InputStream inputStream) throws IOException {
+        StringBuilder headers = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        StringBuilder footers = new StringBuilder();
+        boolean documentFound = false;
+
+        ZipInputStream zip = new ZipInputStream(inputStream);
+        BoundedEntryStream part = new BoundedEntryStream(zip);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            part.startEntry(entry.getName());
+            String name = entry.getName();
+            int used = headers.length() + body.length() + footers.length();
+            if (DOCUMENT_PART.equals(name)) {
+                parsePart(part, body, body.length() + maxChars - used);
+                documentFound = true;
+            } else if (HEADER_PART.matcher(name).matches()) {
+                parsePart(part, headers, headers.length() + maxChars - used);
+            } else if (FOOTER_PART.matcher(name).matches()) {
+                parsePart(part, footers, footers.length() + maxChars - used);
+            }
+            // Оставшиеся данные записи распаковываются через счетчик, а не в closeEntry без ограничений
+            part.transferTo(OutputStream.nullOutputStream());
+            zip.closeEntry();
+        }
+
+        if (!documentFound) {
+            throw new IOException("DOCX не содержит " + DOCUMENT_PART);
+        }
+
+        return headers.append(body).append(footers).toString().strip();
     }
 
     /**
@@ -33,4 +149,196 @@ public class DocxTextExtractor implements TextExtractor<String> {
     public FileType getSupportedFileType() {
         return FileType.DOCX;
     }
+
+    /**
+     * Разбирает XML-часть документа и дописывает её текст в буфер.
+     * Абзацы разделяются переводом строки, ячейки таблицы - табуляцией,
+     * строки таблицы - переводом строки.
+     *
+     * @param part      Поток текущей записи архива.
+     * @param target    Буфер для текста.
+     * @param maxLength Максимальная длина буфера.
+     * @throws IOException ошибка чтения, некорректный XML или превышен лимит символов.
+     */
+    private void parsePart(final InputStream part, final StringBuilder target, final int maxLength)
+            throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(new NonClosingInputStream(part));
+            boolean inText = false;
+            int cellDepth = 0;
+            while (reader.hasNext()) {
+                if (target.length() > maxLength) {
+                    throw new IOException("Текст DOCX превышает " + maxChars + " символов");
+                }
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> target.append('\t');
+                        case "br", "cr" -> target.append('\n');
+                        case "tc" -> cellDepth++;
+                        default -> {
+                            // Остальные элементы разметки не содержат текста
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> target.append(cellDepth > 0 ? ' ' : '\n');
+                        case "tc" -> {
+                            cellDepth--;
+                            trimTrailingSpace(target);
+                            target.append('\t');
+                        }
+                        case "tr" -> {
+                            trimTrailingSpace(target);
+                            target.append('\n');
+                        }
+                        default -> {
+                            // Остальные элементы разметки не влияют на разделители
+                        }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE)) {
+                    target.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } catch (XMLStreamException e) {
+            // Превышение лимита распаковки приходит из потока записи, обернутым парсером
+            if (e.getNestedException() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Некорректная XML-разметка DOCX", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Ошибка закрытия парсера не влияет на извлеченный текст
+                }
+            }
+        }
+        if (target.length() > maxLength) {
+            throw new IOException("Текст DOCX превышает " + maxChars + " символов");
+        }
+    }
+
+    /**
+     * Удаляет завершающие пробелы и табуляции из буфера.
+     *
+     * @param target Буфер для текста.
+     */
+    private static void trimTrailingSpace(final StringBuilder target) {
+        int length = target.length();
+        while (length > 0 && (target.charAt(length - 1) == ' ' || target.charAt(length - 1) == '\t')) {
+            length--;
+        }
+        target.setLength(length);
+    }
+
+    /**
+     * Поток записи архива, который не закрывается парсером.
+     * Парсер JDK закрывает входной поток по окончании документа,
+     * что закрыло бы весь архив до чтения остальных записей.
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // Архив закрывает вызывающий код
+        }
+    }
+
+    /**
+     * Поток записей архива, считающий распакованные байты текущей записи и всего архива.
+     * Не закрывается парсером по той же причине, что и {@link NonClosingInputStream}.
+     */
+    private final class BoundedEntryStream extends FilterInputStream {
+
+        private String entryName;
+        private long entryBytes;
+        private long totalBytes;
+
+        private BoundedEntryStream(final ZipInputStream zip) {
+            super(zip);
+        }
+
+        /**
+         * Начинает отсчет байтов новой записи.
+         *
+         * @param name Имя записи.
+         */
+        private void startEntry(final String name) {
+            entryName = name;
+            entryBytes = 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // Архив закрывает вызывающий код
+        }
+
+        /**
+         * Учитывает прочитанные байты и проверяет лимиты.
+         *
+         * @param bytes Количество прочитанных байтов.
+         * @throws IOException превышен лимит распакованного размера.
+         */
+        private void count(final long bytes) throws IOException {
+            entryBytes += bytes;
+            totalBytes += bytes;
+            if (entryBytes > maxEntryBytes) {
+                throw new IOException("Запись DOCX " + entryName + " превышает "
+                        + maxEntryBytes / BYTES_IN_MEGABYTE + " МБ после распаковки");
+            }
+            if (totalBytes > maxTotalBytes) {
+                throw new IOException("Содержимое DOCX превышает "
+                        + maxTotalBytes / BYTES_IN_MEGABYTE + " МБ после распаковки");
+            }
+        }
+    }
+
+    /**
+     * Создает фабрику StAX-парсеров, защищенную от XXE.
+     *
+     * @return фабрика StAX-парсеров
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
 }
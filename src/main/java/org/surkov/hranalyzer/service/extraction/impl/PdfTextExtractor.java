@@ -5,6 +5,7 @@ import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.service.extraction.FileType;
 import org.surkov.hranalyzer.service.extraction.TextExtractor;
+import org.surkov.hranalyzer.service.recording.event.ExtractionEvent;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,6 +27,7 @@ public class PdfTextExtractor implements TextExtractor<String> {
     @Override
     public String extract(final InputStream inputStream) throws IOException {
         try (PDDocument document = PDDocument.load(inputStream)) {
+            ExtractionEvent.recordPages(document.getNumberOfPages());
             PDFTextStripper stripper = new PDFTextStripper();
             return stripper.getText(document);
         }
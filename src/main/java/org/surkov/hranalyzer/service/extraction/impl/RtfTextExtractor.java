@@ -4,24 +4,77 @@ import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.service.extraction.FileType;
 import org.surkov.hranalyzer.service.extraction.TextExtractor;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Экстрактор текста из RTF файлов.
+ * <p>
+ * Вместо {@code RTFEditorKit}, который строит полную модель документа и плохо
+ * работает с кириллическими кодовыми страницами, использует потоковый разбор:
+ * файл читается один раз, управляющие слова и группы обрабатываются конечным
+ * автоматом, а текст пишется в единственный буфер результата. Поддерживаются
+ * {@code \'hh}, {@code \\uN}, {@code \ansicpg} и кодировки шрифтов {@code \fcharset}.
+ * </p>
  */
 @Component
 public class RtfTextExtractor implements TextExtractor<String> {
 
+    /**
+     * Группы-назначения, содержимое которых не является текстом документа.
+     */
+    private static final Set<String> SKIPPED_DESTINATIONS = Set.of(
+            "author", "bkmkend", "bkmkstart", "colortbl", "colorschememapping", "comment",
+            "datafield", "datastore", "docvar", "filetbl", "fldinst", "generator",
+            "info", "latentstyles", "listoverridetable", "listtable", "mmathPr",
+            "nonshppict", "objdata", "object", "operator", "passwordhash", "pgdsctbl",
+            "pict", "private", "revtbl", "rsidtbl", "stylesheet", "themedata",
+            "title", "userprops", "wgrffmtfilter", "xmlnstbl"
+    );
+
+    /**
+     * Кодовые страницы Windows, соответствующие значениям {@code \fcharset}.
+     */
+    private static final Map<Integer, String> FONT_CHARSETS = Map.ofEntries(
+            Map.entry(128, "Shift_JIS"),
+            Map.entry(129, "x-windows-949"),
+            Map.entry(134, "GBK"),
+            Map.entry(136, "Big5"),
+            Map.entry(161, "windows-1253"),
+            Map.entry(162, "windows-1254"),
+            Map.entry(163, "windows-1258"),
+            Map.entry(177, "windows-1255"),
+            Map.entry(178, "windows-1256"),
+            Map.entry(186, "windows-1257"),
+            Map.entry(204, "windows-1251"),
+            Map.entry(222, "x-windows-874"),
+            Map.entry(238, "windows-1250")
+    );
+
+    /**
+     * Кодировка документа по умолчанию ({@code \ansi}).
+     */
+    private static final Charset DEFAULT_CHARSET = Charset.forName("windows-1252");
+
     /**
      * Извлекает текст из RTF файла.
      *
      * @param inputStream поток ввода для RTF файла
      * @return строка с извлеченным текстом
+     * @throws IOException ошибка чтения файла
      */
     @Override
-    public String extract(final InputStream inputStream) {
-        // Заглушка: пока не реализовано
-        return "Обработка RTF пока не реализована.";
+    public String extract(final InputStream inputStream) throws IOException {
+        return new RtfParser(inputStream).parse();
     }
 
     /**
@@ -33,4 +86,385 @@ public class RtfTextExtractor implements TextExtractor<String> {
     public FileType getSupportedFileType() {
         return FileType.RTF;
     }
+
+    /**
+     * Однопроходный разборщик RTF.
+     * Состояние групп хранится в массивах-стеках, байты в кодовой странице
+     * накапливаются в буфере и декодируются пакетами.
+     */
+    private static final class RtfParser {
+
+        private static final int READ_BUFFER_SIZE = 8192;
+        private static final int PENDING_BUFFER_SIZE = 256;
+        private static final int INITIAL_DEPTH = 32;
+        private static final int NO_FONT = -1;
+
+        private final InputStream in;
+        private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+        private int readPosition;
+        private int readLimit;
+        private int unread = -1;
+
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder word = new StringBuilder();
+        private final ByteBuffer pendingBytes = ByteBuffer.allocate(PENDING_BUFFER_SIZE);
+        private final CharBuffer decodedChars = CharBuffer.allocate(PENDING_BUFFER_SIZE);
+        private final Map<Charset, CharsetDecoder> decoders = new HashMap<>();
+        private final Map<Integer, Charset> fontCharsets = new HashMap<>();
+
+        private int depth;
+        private boolean[] skip = new boolean[INITIAL_DEPTH];
+        private boolean[] fontTable = new boolean[INITIAL_DEPTH];
+        private int[] unicodeSkip = new int[INITIAL_DEPTH];
+        private Charset[] charset = new Charset[INITIAL_DEPTH];
+
+        private Charset documentCharset = DEFAULT_CHARSET;
+        private CharsetDecoder activeDecoder;
+        private int defaultFont = NO_FONT;
+        private int fontBeingDefined = NO_FONT;
+        private int charsToSkip;
+
+        private RtfParser(final InputStream in) {
+            this.in = in;
+            unicodeSkip[0] = 1;
+            charset[0] = DEFAULT_CHARSET;
+        }
+
+        /**
+         * Разбирает весь поток.
+         *
+         * @return извлеченный текст
+         * @throws IOException ошибка чтения
+         */
+        private String parse() throws IOException {
+            int c;
+            while ((c = read()) != -1) {
+                switch (c) {
+                    case '{' -> pushGroup();
+                    case '}' -> popGroup();
+                    case '\\' -> readControl();
+                    case '\r', '\n' -> {
+                        // Переводы строк в исходнике RTF не являются текстом
+                    }
+                    default -> appendByte(c);
+                }
+            }
+            flushPending();
+            return text.toString().strip();
+        }
+
+        /**
+         * Читает управляющий символ или управляющее слово после обратной косой черты.
+         *
+         * @throws IOException ошибка чтения
+         */
+        private void readControl() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return;
+            }
+            if (isLetter(c)) {
+                readControlWord(c);
+                return;
+            }
+            switch (c) {
+                case '\'' -> appendByte(Character.digit(read(), 16) << 4 | Character.digit(read(), 16));
+                case '*' -> skip[depth] = true;
+                case '\\', '{', '}' -> appendByte(c);
+                case '~' -> appendChar(' ');
+                case '_' -> appendChar('-');
+                case '\r', '\n' -> appendChar('\n');
+                default -> {
+                    // Необязательный перенос и прочие управляющие символы не дают текста
+                }
+            }
+        }
+
+        /**
+         * Читает управляющее слово с необязательным числовым параметром и применяет его.
+         *
+         * @param first первая буква слова
+         * @throws IOException ошибка чтения
+         */
+        private void readControlWord(final int first) throws IOException {
+            word.setLength(0);
+            word.append((char) first);
+            int c = read();
+            while (isLetter(c)) {
+                word.append((char) c);
+                c = read();
+            }
+
+            boolean hasParameter = false;
+            boolean negative = false;
+            int parameter = 0;
+            if (c == '-') {
+                negative = true;
+                c = read();
+            }
+            while (c >= '0' && c <= '9') {
+                hasParameter = true;
+                parameter = parameter * 10 + (c - '0');
+                c = read();
+            }
+            if (negative) {
+                parameter = -parameter;
+            }
+            if (c != ' ' && c != -1) {
+                unread = c;
+            }
+
+            applyControlWord(word.toString(), hasParameter, parameter);
+        }
+
+        /**
+         * Применяет управляющее слово к состоянию разборщика.
+         *
+         * @param name         имя управляющего слова
+         * @param hasParameter {@code true}, если у слова есть числовой параметр
+         * @param parameter    числовой параметр
+         * @throws IOException ошибка чтения
+         */
+        private void applyControlWord(final String name, final boolean hasParameter, final int parameter)
+                throws IOException {
+            if (fontTable[depth]) {
+                applyFontTableWord(name, hasParameter, parameter);
+                return;
+            }
+            if ("bin".equals(name)) {
+                skipBytes(parameter);
+                return;
+            }
+            if ("fonttbl".equals(name)) {
+                skip[depth] = true;
+                fontTable[depth] = true;
+                return;
+            }
+            if (SKIPPED_DESTINATIONS.contains(name)) {
+                skip[depth] = true;
+                return;
+            }
+            switch (name) {
+                case "ansicpg" -> {
+                    documentCharset = charsetOf("windows-" + parameter, documentCharset);
+                    setCharset(documentCharset);
+                }
+                case "deff" -> defaultFont = parameter;
+                case "f" -> setCharset(fontCharsets.getOrDefault(parameter, documentCharset));
+                case "uc" -> unicodeSkip[depth] = parameter;
+                case "u" -> {
+                    appendChar((char) (parameter < 0 ? parameter + 0x10000 : parameter));
+                    charsToSkip = unicodeSkip[depth];
+                }
+                case "par", "line", "sect", "page", "row" -> appendChar('\n');
+                case "tab", "cell" -> appendChar('\t');
+                case "emdash" -> appendChar('—');
+                case "endash" -> appendChar('–');
+                case "bullet" -> appendChar('•');
+                case "lquote" -> appendChar('‘');
+                case "rquote" -> appendChar('’');
+                case "ldblquote" -> appendChar('“');
+                case "rdblquote" -> appendChar('”');
+                case "emspace", "enspace", "qmspace" -> appendChar(' ');
+                default -> {
+                    // Форматирование не влияет на извлекаемый текст
+                }
+            }
+        }
+
+        /**
+         * Обрабатывает управляющее слово внутри таблицы шрифтов.
+         *
+         * @param name         имя управляющего слова
+         * @param hasParameter {@code true}, если у слова есть числовой параметр
+         * @param parameter    числовой параметр
+         */
+        private void applyFontTableWord(final String name, final boolean hasParameter, final int parameter) {
+            if ("f".equals(name) && hasParameter) {
+                fontBeingDefined = parameter;
+            } else if ("fcharset".equals(name) && fontBeingDefined != NO_FONT) {
+                String charsetName = FONT_CHARSETS.get(parameter);
+                if (charsetName != null) {
+                    fontCharsets.put(fontBeingDefined, charsetOf(charsetName, documentCharset));
+                }
+            }
+        }
+
+        /**
+         * Открывает новую группу, наследуя состояние текущей.
+         */
+        private void pushGroup() {
+            flushPending();
+            if (depth + 1 == skip.length) {
+                int newLength = skip.length * 2;
+                skip = Arrays.copyOf(skip, newLength);
+                fontTable = Arrays.copyOf(fontTable, newLength);
+                unicodeSkip = Arrays.copyOf(unicodeSkip, newLength);
+                charset = Arrays.copyOf(charset, newLength);
+            }
+            depth++;
+            skip[depth] = skip[depth - 1];
+            fontTable[depth] = fontTable[depth - 1];
+            unicodeSkip[depth] = unicodeSkip[depth - 1];
+            charset[depth] = charset[depth - 1];
+        }
+
+        /**
+         * Закрывает текущую группу и восстанавливает состояние внешней.
+         */
+        private void popGroup() {
+            flushPending();
+            boolean closingFontTable = fontTable[depth] && (depth == 0 || !fontTable[depth - 1]);
+            if (depth > 0) {
+                depth--;
+            }
+            charsToSkip = 0;
+            if (closingFontTable && defaultFont != NO_FONT) {
+                setCharset(fontCharsets.getOrDefault(defaultFont, documentCharset));
+            }
+            activeDecoder = null;
+        }
+
+        /**
+         * Добавляет байт текста в кодовой странице текущей группы.
+         *
+         * @param b байт текста
+         */
+        private void appendByte(final int b) {
+            if (skip[depth] || b < 0) {
+                return;
+            }
+            if (charsToSkip > 0) {
+                charsToSkip--;
+                return;
+            }
+            if (b < 0x80 && pendingBytes.position() == 0) {
+                text.append((char) b);
+                return;
+            }
+            if (!pendingBytes.hasRemaining()) {
+                decodePending(false);
+            }
+            pendingBytes.put((byte) b);
+        }
+
+        /**
+         * Добавляет готовый символ в результат.
+         *
+         * @param c символ
+         */
+        private void appendChar(final char c) {
+            if (skip[depth]) {
+                return;
+            }
+            flushPending();
+            text.append(c);
+        }
+
+        /**
+         * Декодирует все накопленные байты.
+         */
+        private void flushPending() {
+            if (pendingBytes.position() > 0) {
+                decodePending(true);
+            }
+        }
+
+        /**
+         * Декодирует накопленные байты в кодовой странице текущей группы.
+         *
+         * @param endOfInput {@code true}, если байтов этой последовательности больше не будет
+         */
+        private void decodePending(final boolean endOfInput) {
+            CharsetDecoder decoder = activeDecoder != null ? activeDecoder : decoderFor(charset[depth]);
+            activeDecoder = endOfInput ? null : decoder;
+            pendingBytes.flip();
+            do {
+                decodedChars.clear();
+                decoder.decode(pendingBytes, decodedChars, endOfInput);
+                decodedChars.flip();
+                text.append(decodedChars);
+            } while (pendingBytes.hasRemaining() && endOfInput);
+            pendingBytes.compact();
+            if (endOfInput) {
+                decodedChars.clear();
+                decoder.flush(decodedChars);
+                decodedChars.flip();
+                text.append(decodedChars);
+                decoder.reset();
+                pendingBytes.clear();
+            }
+        }
+
+        /**
+         * Устанавливает кодовую страницу текущей группы.
+         *
+         * @param newCharset кодовая страница
+         */
+        private void setCharset(final Charset newCharset) {
+            if (!newCharset.equals(charset[depth])) {
+                flushPending();
+                charset[depth] = newCharset;
+            }
+        }
+
+        /**
+         * Возвращает декодер для кодовой страницы, создавая его при первом обращении.
+         *
+         * @param target кодовая страница
+         * @return декодер
+         */
+        private CharsetDecoder decoderFor(final Charset target) {
+            return decoders.computeIfAbsent(target, cs -> cs.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        }
+
+        /**
+         * Пропускает двоичные данные {@code \binN}.
+         *
+         * @param count количество байтов
+         * @throws IOException ошибка чтения
+         */
+        private void skipBytes(final int count) throws IOException {
+            for (int i = 0; i < count && read() != -1; i++) {
+                // Двоичные данные не содержат текста
+            }
+        }
+
+        /**
+         * Читает следующий байт из внутреннего буфера.
+         *
+         * @return байт или -1 в конце потока
+         * @throws IOException ошибка чтения
+         */
+        private int read() throws IOException {
+            if (unread != -1) {
+                int c = unread;
+                unread = -1;
+                return c;
+            }
+            if (readPosition == readLimit) {
+                readLimit = in.read(readBuffer, 0, readBuffer.length);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return -1;
+                }
+            }
+            return readBuffer[readPosition++] & 0xFF;
+        }
+
+        private static boolean isLetter(final int c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        private static Charset charsetOf(final String name, final Charset fallback) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+    }
 }
@@ -1,27 +1,100 @@
 package org.surkov.hranalyzer.service.extraction.impl;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.surkov.hranalyzer.service.extraction.FileType;
 import org.surkov.hranalyzer.service.extraction.TextExtractor;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Экстрактор текста из TXT файлов.
+ * <p>
+ * Декодирует поток по частям через {@link CharsetDecoder} с буферами фиксированного размера.
+ * Кодировка определяется по BOM (UTF-8, UTF-16LE, UTF-16BE), а при его отсутствии -
+ * по первому блоку данных: корректный UTF-8 читается как UTF-8, остальное - как windows-1251.
+ * Чтение прекращается, как только извлечено максимально допустимое количество символов,
+ * поэтому случайно загруженные многомегабайтные логи не материализуются целиком.
+ * </p>
  */
 @Component
 public class TxtTextExtractor implements TextExtractor<String> {
 
+    /**
+     * Размер буферов чтения и декодирования.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Кодировка для файлов без BOM, не являющихся корректным UTF-8.
+     */
+    private static final Charset WINDOWS_1251 = Charset.forName("windows-1251");
+
+    /**
+     * Максимальное количество извлекаемых символов.
+     */
+    private final int maxChars;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxChars Максимальное количество извлекаемых символов.
+     */
+    public TxtTextExtractor(@Value("${extraction.txt.max-chars:200000}") final int maxChars) {
+        this.maxChars = maxChars;
+    }
+
     /**
      * Извлекает текст из TXT файла.
      *
      * @param inputStream поток ввода для TXT файла
-     * @return строка с извлеченным текстом
+     * @return строка с извлеченным текстом, не длиннее установленного лимита
+     * @throws IOException ошибка чтения файла
      */
     @Override
-    public String extract(final InputStream inputStream) {
-        // Заглушка: пока не реализовано
-        return "Обработка TXT пока не реализована.";
+    public String extract(final InputStream inputStream) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        boolean endOfInput = !fill(inputStream, bytes);
+
+        bytes.flip();
+        Charset charset = detectCharset(bytes);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        StringBuilder text = new StringBuilder(Math.min(maxChars, BUFFER_SIZE));
+        while (true) {
+            decoder.decode(bytes, chars, endOfInput);
+            boolean drained = endOfInput && !bytes.hasRemaining();
+            if (drained) {
+                decoder.flush(chars);
+            }
+            chars.flip();
+            int take = Math.min(chars.remaining(), maxChars - text.length());
+            boolean truncated = take < chars.remaining();
+            if (truncated && take > 0 && Character.isHighSurrogate(chars.get(take - 1))) {
+                // Суррогатная пара не разрезается: символ целиком не входит в лимит
+                take--;
+            }
+            text.append(chars, 0, take);
+            chars.clear();
+
+            if (truncated || text.length() >= maxChars || drained) {
+                break;
+            }
+            bytes.compact();
+            endOfInput = !fill(inputStream, bytes);
+            bytes.flip();
+        }
+        return text.toString();
     }
 
     /**
@@ -33,4 +106,81 @@ public class TxtTextExtractor implements TextExtractor<String> {
     public FileType getSupportedFileType() {
         return FileType.TXT;
     }
+
+    /**
+     * Определяет кодировку по BOM или по содержимому первого блока.
+     * При наличии BOM позиция буфера сдвигается за него.
+     *
+     * @param bytes Первый блок данных (в режиме чтения).
+     * @return Кодировка текста.
+     */
+    private static Charset detectCharset(final ByteBuffer bytes) {
+        if (startsWith(bytes, 0xEF, 0xBB, 0xBF)) {
+            bytes.position(bytes.position() + 3);
+            return StandardCharsets.UTF_8;
+        }
+        if (startsWith(bytes, 0xFF, 0xFE)) {
+            bytes.position(bytes.position() + 2);
+            return StandardCharsets.UTF_16LE;
+        }
+        if (startsWith(bytes, 0xFE, 0xFF)) {
+            bytes.position(bytes.position() + 2);
+            return StandardCharsets.UTF_16BE;
+        }
+        return isValidUtf8(bytes) ? StandardCharsets.UTF_8 : WINDOWS_1251;
+    }
+
+    /**
+     * Проверяет, является ли блок корректным UTF-8.
+     * Незавершенная последовательность в конце блока не считается ошибкой.
+     *
+     * @param bytes Блок данных (в режиме чтения), позиция не изменяется.
+     * @return {@code true}, если блок корректен.
+     */
+    private static boolean isValidUtf8(final ByteBuffer bytes) {
+        CharsetDecoder strict = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer probe = bytes.duplicate();
+        CharBuffer sink = CharBuffer.allocate(probe.remaining());
+        return !strict.decode(probe, sink, false).isError();
+    }
+
+    /**
+     * Проверяет, начинается ли блок с указанных байтов.
+     *
+     * @param bytes  Блок данных (в режиме чтения).
+     * @param prefix Ожидаемые байты.
+     * @return {@code true}, если блок начинается с указанных байтов.
+     */
+    private static boolean startsWith(final ByteBuffer bytes, final int... prefix) {
+        if (bytes.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes.get(bytes.position() + i) & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Дочитывает поток в свободное место буфера.
+     *
+     * @param inputStream Поток ввода.
+     * @param bytes       Буфер (в режиме записи).
+     * @return {@code false}, если достигнут конец потока.
+     * @throws IOException ошибка чтения
+     */
+    private static boolean fill(final InputStream inputStream, final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            int read = inputStream.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            if (read == -1) {
+                return false;
+            }
+            bytes.position(bytes.position() + read);
+        }
+        return true;
+    }
 }
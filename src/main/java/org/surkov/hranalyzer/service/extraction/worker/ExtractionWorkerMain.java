@@ -0,0 +1,93 @@
+package org.surkov.hranalyzer.service.extraction.worker;
+
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.TextExtractor;
+import org.surkov.hranalyzer.service.extraction.impl.DocxTextExtractor;
+import org.surkov.hranalyzer.service.extraction.impl.PdfTextExtractor;
+import org.surkov.hranalyzer.service.extraction.impl.RtfTextExtractor;
+import org.surkov.hranalyzer.service.extraction.impl.TxtTextExtractor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Точка входа рабочей JVM для извлечения текста.
+ * Запускается {@link ExtractionWorkerPool} без контекста Spring и обрабатывает
+ * задания по {@link WorkerProtocol}, пока не получит команду завершения или конец ввода.
+ */
+public final class ExtractionWorkerMain {
+
+    private ExtractionWorkerMain() {
+    }
+
+    /**
+     * Запускает цикл обработки заданий.
+     *
+     * @param args максимальное количество символов для TXT, максимальный распакованный размер
+     *             записи и архива DOCX (в мегабайтах), максимальное количество символов для DOCX
+     * @throws IOException ошибка обмена с родительской JVM
+     */
+    public static void main(final String[] args) throws IOException {
+        int txtMaxChars = Integer.parseInt(args[0]);
+        long docxMaxEntryMb = Long.parseLong(args[1]);
+        long docxMaxTotalMb = Long.parseLong(args[2]);
+        int docxMaxChars = Integer.parseInt(args[3]);
+        Map<FileType, TextExtractor<String>> extractors = new EnumMap<>(FileType.class);
+        List.of(
+                new PdfTextExtractor(),
+                new DocxTextExtractor(docxMaxEntryMb, docxMaxTotalMb, docxMaxChars),
+                new RtfTextExtractor(),
+                new TxtTextExtractor(txtMaxChars)
+        ).forEach(extractor -> extractors.put(extractor.getSupportedFileType(), extractor));
+
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out))
+        );
+        // Стандартный вывод занят протоколом, поэтому любой вывод библиотек уходит в stderr
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true, StandardCharsets.UTF_8));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+
+        while (true) {
+            int fileTypeOrdinal;
+            try {
+                fileTypeOrdinal = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            if (fileTypeOrdinal == WorkerProtocol.SHUTDOWN) {
+                return;
+            }
+            byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+
+            byte status;
+            String payload;
+            try {
+                FileType fileType = FileType.values()[fileTypeOrdinal];
+                payload = extractors.get(fileType).extract(new ByteArrayInputStream(content));
+                status = WorkerProtocol.STATUS_OK;
+            } catch (Exception e) {
+                payload = e.getClass().getSimpleName() + ": " + e.getMessage();
+                status = WorkerProtocol.STATUS_ERROR;
+            }
+
+            byte[] response = payload.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(status);
+            out.writeInt(response.length);
+            out.write(response);
+            out.flush();
+        }
+    }
+}
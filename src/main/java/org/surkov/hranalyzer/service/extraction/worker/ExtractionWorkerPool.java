@@ -0,0 +1,312 @@
+package org.surkov.hranalyzer.service.extraction.worker;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.config.ExtractionConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Пул рабочих JVM для извлечения текста вне веб-JVM.
+ * <p>
+ * Каждая рабочая JVM запускается с собственным ограничением кучи и обменивается
+ * с веб-JVM по {@link WorkerProtocol} через каналы стандартного ввода-вывода.
+ * Рабочая JVM перезапускается после заданного количества заданий,
+ * после ошибки обмена и принудительно завершается при превышении времени задания.
+ * Благодаря этому размер кучи и паузы GC веб-JVM не зависят от загружаемых файлов.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "extraction.worker", name = "enabled", havingValue = "true")
+public class ExtractionWorkerPool {
+
+    /**
+     * Класс запуска исполняемого jar Spring Boot, позволяющий указать другой main-класс.
+     */
+    private static final String BOOT_PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    /**
+     * Конфигурация извлечения текста.
+     */
+    private final ExtractionConfig config;
+
+    /**
+     * Аргументы рабочей JVM с лимитами экстракторов в порядке, ожидаемом {@link ExtractionWorkerMain}.
+     */
+    private final List<String> extractorArguments;
+
+    /**
+     * Свободные рабочие JVM. {@link Worker#NOT_STARTED} означает слот, для которого процесс еще не запущен.
+     */
+    private final BlockingQueue<Worker> idleWorkers;
+
+    /**
+     * Планировщик принудительного завершения зависших рабочих JVM.
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "extraction-worker-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Конструктор.
+     *
+     * @param config         Конфигурация извлечения текста.
+     * @param txtMaxChars    Максимальное количество символов, извлекаемых из TXT.
+     * @param docxMaxEntryMb Максимальный распакованный размер записи DOCX (в мегабайтах).
+     * @param docxMaxTotalMb Максимальный распакованный размер архива DOCX (в мегабайтах).
+     * @param docxMaxChars   Максимальное количество символов, извлекаемых из DOCX.
+     */
+    public ExtractionWorkerPool(
+            final ExtractionConfig config,
+            @Value("${extraction.txt.max-chars:200000}") final int txtMaxChars,
+            @Value("${extraction.docx.max-entry-mb:20}") final long docxMaxEntryMb,
+            @Value("${extraction.docx.max-total-mb:50}") final long docxMaxTotalMb,
+            @Value("${extraction.docx.max-chars:200000}") final int docxMaxChars
+    ) {
+        this.config = config;
+        this.extractorArguments = List.of(
+                String.valueOf(txtMaxChars),
+                String.valueOf(docxMaxEntryMb),
+                String.valueOf(docxMaxTotalMb),
+                String.valueOf(docxMaxChars)
+        );
+        int count = config.getWorker().getCount();
+        this.idleWorkers = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            idleWorkers.add(Worker.NOT_STARTED);
+        }
+    }
+
+    /**
+     * Извлекает текст из файла в рабочей JVM.
+     *
+     * @param content  Содержимое файла.
+     * @param fileType Тип файла.
+     * @return Извлеченный текст.
+     * @throws ServiceOverloadedException превышено время задания или нет свободной рабочей JVM.
+     * @throws IOException                ошибка извлечения или сбой рабочей JVM.
+     */
+    public String extract(final byte[] content, final FileType fileType) throws IOException {
+        Worker worker = takeWorker();
+        boolean reusable = false;
+        try {
+            if (worker == Worker.NOT_STARTED) {
+                worker = startWorker();
+            }
+            String text = worker.extract(
+                    content, fileType, config.getTimeoutMs(), config.getRetryAfterSeconds(), watchdog
+            );
+            reusable = worker.jobs < config.getWorker().getMaxJobs();
+            return text;
+        } finally {
+            if (reusable) {
+                idleWorkers.add(worker);
+            } else {
+                worker.destroy();
+                idleWorkers.add(Worker.NOT_STARTED);
+            }
+        }
+    }
+
+    /**
+     * Завершает все рабочие JVM при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        List<Worker> workers = new ArrayList<>();
+        idleWorkers.drainTo(workers);
+        workers.forEach(Worker::destroy);
+    }
+
+    /**
+     * Ожидает свободную рабочую JVM.
+     *
+     * @return Рабочая JVM или {@link Worker#NOT_STARTED}.
+     * @throws ServiceOverloadedException свободная рабочая JVM не появилась за время задания.
+     * @throws IOException                ожидание прервано.
+     */
+    private Worker takeWorker() throws IOException {
+        try {
+            Worker worker = idleWorkers.poll(config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            if (worker == null) {
+                throw new ServiceOverloadedException(
+                        "Нет свободной рабочей JVM для извлечения текста", config.getRetryAfterSeconds()
+                );
+            }
+            return worker;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ожидание рабочей JVM прервано", e);
+        }
+    }
+
+    /**
+     * Запускает новую рабочую JVM.
+     *
+     * @return Рабочая JVM.
+     * @throws IOException не удалось запустить процесс.
+     */
+    private Worker startWorker() throws IOException {
+        Process process = new ProcessBuilder(buildCommand())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        log.info("Запущена рабочая JVM извлечения текста, pid={}", process.pid());
+        return new Worker(process);
+    }
+
+    /**
+     * Формирует команду запуска рабочей JVM.
+     * Если приложение запущено из исполняемого jar Spring Boot, классы приложения
+     * недоступны через {@code -cp}, поэтому main-класс передается загрузчику Spring Boot.
+     *
+     * @return Команда запуска.
+     */
+    private List<String> buildCommand() {
+        ExtractionConfig.Worker workerConfig = config.getWorker();
+        String java = workerConfig.getJavaCommand() != null
+                ? workerConfig.getJavaCommand()
+                : Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        boolean bootJar = ExtractionWorkerMain.class.getClassLoader() != ClassLoader.getSystemClassLoader()
+                && classPath.endsWith(".jar")
+                && !classPath.contains(File.pathSeparator);
+
+        List<String> command = new ArrayList<>(List.of(
+                java,
+                "-Xmx" + workerConfig.getMaxHeapMb() + "m",
+                "-XX:+UseSerialGC",
+                "-XX:+ExitOnOutOfMemoryError",
+                "-cp", classPath
+        ));
+        if (bootJar) {
+            command.add("-Dloader.main=" + ExtractionWorkerMain.class.getName());
+            command.add(BOOT_PROPERTIES_LAUNCHER);
+        } else {
+            command.add(ExtractionWorkerMain.class.getName());
+        }
+        command.addAll(extractorArguments);
+        return command;
+    }
+
+    /**
+     * Рабочая JVM и каналы обмена с ней.
+     */
+    private static final class Worker {
+
+        /**
+         * Маркер слота пула, для которого процесс еще не запущен.
+         */
+        private static final Worker NOT_STARTED = new Worker(null);
+
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private int jobs;
+
+        private Worker(final Process process) {
+            this.process = process;
+            this.out = process == null ? null
+                    : new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.in = process == null ? null
+                    : new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        /**
+         * Отправляет задание и ожидает ответ.
+         * По истечении времени процесс принудительно завершается, что прерывает чтение ответа.
+         *
+         * @param content   Содержимое файла.
+         * @param fileType  Тип файла.
+         * @param timeoutMs         Максимальное время задания (в миллисекундах).
+         * @param retryAfterSeconds Рекомендуемая задержка перед повтором после тайм-аута (в секундах).
+         * @param watchdog          Планировщик принудительного завершения.
+         * @return Извлеченный текст.
+         * @throws ServiceOverloadedException превышено время задания.
+         * @throws IOException                ошибка извлечения или обмена.
+         */
+        private String extract(
+                final byte[] content,
+                final FileType fileType,
+                final long timeoutMs,
+                final long retryAfterSeconds,
+                final ScheduledExecutorService watchdog
+        ) throws IOException {
+            jobs++;
+            AtomicBoolean killed = new AtomicBoolean(false);
+            ScheduledFuture<?> kill = watchdog.schedule(() -> {
+                killed.set(true);
+                log.warn("Рабочая JVM pid={} превысила время задания и будет завершена", process.pid());
+                process.destroyForcibly();
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            byte status;
+            byte[] payload;
+            try {
+                out.writeInt(fileType.ordinal());
+                out.writeInt(content.length);
+                out.write(content);
+                out.flush();
+
+                status = in.readByte();
+                payload = new byte[in.readInt()];
+                in.readFully(payload);
+            } catch (IOException e) {
+                jobs = Integer.MAX_VALUE;
+                if (killed.get()) {
+                    throw new ServiceOverloadedException(
+                            "Превышено время извлечения текста из файла " + fileType, retryAfterSeconds
+                    );
+                }
+                throw e;
+            } finally {
+                kill.cancel(false);
+            }
+
+            String text = new String(payload, StandardCharsets.UTF_8);
+            if (status != WorkerProtocol.STATUS_OK) {
+                throw new IOException("Ошибка извлечения текста в рабочей JVM: " + text);
+            }
+            return text;
+        }
+
+        /**
+         * Завершает процесс рабочей JVM.
+         */
+        private void destroy() {
+            if (process == null) {
+                return;
+            }
+            try {
+                out.writeInt(WorkerProtocol.SHUTDOWN);
+                out.flush();
+            } catch (IOException ignored) {
+                // Процесс уже завершился
+            }
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.surkov.hranalyzer.service.extraction.worker;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Протокол обмена с рабочей JVM через стандартные потоки ввода-вывода.
+ * <p>
+ * Запрос: {@code int} порядковый номер {@link org.surkov.hranalyzer.service.extraction.FileType}
+ * (или {@link #SHUTDOWN}), {@code int} длина содержимого, байты файла.
+ * Ответ: {@code byte} статус ({@link #STATUS_OK} или {@link #STATUS_ERROR}),
+ * {@code int} длина, байты текста или сообщения об ошибке в UTF-8.
+ * </p>
+ */
+@UtilityClass
+final class WorkerProtocol {
+
+    /**
+     * Команда завершения рабочей JVM.
+     */
+    static final int SHUTDOWN = -1;
+
+    /**
+     * Текст успешно извлечен.
+     */
+    static final byte STATUS_OK = 0;
+
+    /**
+     * Извлечение завершилось ошибкой.
+     */
+    static final byte STATUS_ERROR = 1;
+}
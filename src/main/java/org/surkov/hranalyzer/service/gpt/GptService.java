@@ -1,36 +1,169 @@
 package org.surkov.hranalyzer.service.gpt;
 
+import io.micrometer.context.ContextSnapshot;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.surkov.hranalyzer.giga_chat.GigaChatDialog;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.service.cache.AnalysisResultCache;
 import org.surkov.hranalyzer.util.JsonExtractor;
+import org.surkov.hranalyzer.util.TenantContext;
+import org.surkov.hranalyzer.util.TraceContext;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Сервис для анализа резюме с помощью Giga Chat.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GptService {
 
     private final GigaChatDialog gigaChatDialog;
     private final JsonExtractor jsonExtractor;
+    private final AnalysisResultCache resultCache;
+    private final GigaChatResilienceConfig resilienceConfig;
+    private final LongResumeSummarizer longResumeSummarizer;
 
     /**
      * Анализирует текст резюме с помощью Giga Chat.
+     * Если модель временно недоступна и включен резервный режим,
+     * возвращает ранее полученный результат для того же запроса.
+     * Длинное резюме предварительно сжимается {@link LongResumeSummarizer}.
      *
      * @param systemPrompt Cистемный промпта для анализа резюме.
      * @param text         Текст резюме для анализа.
      * @param model    Модель для анализа резюме.
      * @return строка с результатом анализа
-     * @throws IOException произошла ошибка при обработке ответа
+     * @throws IOException                  произошла ошибка при обработке ответа
+     * @throws GigaChatUnavailableException модель недоступна и сохраненного результата нет
      */
     public String analyzeResume(
             final String systemPrompt,
             final String text,
             final String model) throws IOException {
-        String response = gigaChatDialog.getResponse(systemPrompt, text, model);
-        return jsonExtractor.extractTextFromMessage(response);
+        String cacheKey = resultCache.keyOf(systemPrompt, text, model);
+        try {
+            String userText = longResumeSummarizer.isLong(text) ? longResumeSummarizer.condense(text) : text;
+            String response = gigaChatDialog.getResponse(systemPrompt, userText, model);
+            String result = jsonExtractor.extractTextFromMessage(response);
+            resultCache.put(cacheKey, result);
+            return result;
+        } catch (GigaChatUnavailableException e) {
+            return fallbackToCache(cacheKey, e);
+        }
+    }
+
+    /**
+     * Анализирует текст резюме с помощью Giga Chat, не блокируя вызывающий поток
+     * на время ожидания ответа. Резервный режим работает так же, как в
+     * {@link #analyzeResume(String, String, String)}.
+     *
+     * @param systemPrompt Cистемный промпта для анализа резюме.
+     * @param text         Текст резюме для анализа.
+     * @param model        Модель для анализа резюме.
+     * @return результат анализа
+     */
+    public CompletableFuture<String> analyzeResumeAsync(
+            final String systemPrompt,
+            final String text,
+            final String model) {
+        String cacheKey = resultCache.keyOf(systemPrompt, text, model);
+        return requestAsync(systemPrompt, text, model)
+                .thenApply(response -> {
+                    try {
+                        String result = jsonExtractor.extractTextFromMessage(response);
+                        resultCache.put(cacheKey, result);
+                        return result;
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof GigaChatUnavailableException unavailable) {
+                        return fallbackToCache(cacheKey, unavailable);
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                });
+    }
+
+    /**
+     * Выполняет запрос к GigaChat асинхронно, предварительно сжимая длинное резюме.
+     * Итоговый запрос после сжатия выполняется от имени пользователя, начавшего анализ,
+     * и в его контексте трассировки.
+     * Отмена результата отменяет ожидание сжатия и итоговый запрос.
+     *
+     * @param systemPrompt Cистемный промпта для анализа резюме.
+     * @param text         Текст резюме для анализа.
+     * @param model        Модель для анализа резюме.
+     * @return ответ GigaChat
+     */
+    private CompletableFuture<String> requestAsync(
+            final String systemPrompt,
+            final String text,
+            final String model) {
+        if (!longResumeSummarizer.isLong(text)) {
+            return gigaChatDialog.getResponseAsync(systemPrompt, text, model);
+        }
+
+        String tenant = TenantContext.current();
+        ContextSnapshot trace = TraceContext.capture();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<String> condensation = longResumeSummarizer.condenseAsync(text);
+        condensation.whenComplete((condensed, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause()
+                        : e);
+                return;
+            }
+            CompletableFuture<String> response = TraceContext.supplyIn(trace, () -> TenantContext.supplyAs(
+                    tenant, () -> gigaChatDialog.getResponseAsync(systemPrompt, condensed, model)
+            ));
+            response.whenComplete((body, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(body);
+                }
+            });
+            result.whenComplete((body, error) -> {
+                if (result.isCancelled()) {
+                    response.cancel(true);
+                }
+            });
+        });
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                condensation.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Возвращает сохраненный результат, если модель недоступна и включен резервный режим.
+     *
+     * @param cacheKey Ключ кэша.
+     * @param e        Исключение о недоступности модели.
+     * @return сохраненный результат анализа
+     * @throws GigaChatUnavailableException резервный режим выключен или сохраненного результата нет
+     */
+    private String fallbackToCache(final String cacheKey, final GigaChatUnavailableException e) {
+        Optional<String> cached = resilienceConfig.isFallbackToCache()
+                ? resultCache.get(cacheKey)
+                : Optional.empty();
+        if (cached.isEmpty()) {
+            throw e;
+        }
+        log.warn("GigaChat недоступен ({}), возвращаем сохраненный результат", e.getMessage());
+        return cached.get();
     }
 }
@@ -0,0 +1,199 @@
+package org.surkov.hranalyzer.service.gpt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.GigaChatDialog;
+import org.surkov.hranalyzer.giga_chat.utils.SystemPrompt;
+import org.surkov.hranalyzer.service.cache.AnalysisResultCache;
+import org.surkov.hranalyzer.service.gpt.config.LongResumeConfig;
+import org.surkov.hranalyzer.util.JsonExtractor;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Сжатие длинных резюме перед анализом (map-reduce).
+ * <p>
+ * Резюме длиннее {@code analysis.long-resume.threshold-chars} делится {@link TextChunker} на фрагменты
+ * по границам разделов, фрагменты параллельно сжимаются легкой моделью промптом
+ * {@link SystemPrompt#CHUNK_SUMMARY_PROMPT}, а конспекты объединяются в исходном порядке.
+ * Итоговый анализ полным системным промптом выполняется уже по конспектам, поэтому не упирается
+ * в контекст модели, а общее время определяется самым долгим фрагментом и одним итоговым запросом.
+ * </p>
+ * <p>
+ * Конспекты последних резюме хранятся, поэтому анализ одного резюме несколькими промптами и моделями
+ * сжимает его один раз, в том числе при одновременных запросах.
+ * </p>
+ */
+@Slf4j
+@Component
+public class LongResumeSummarizer {
+
+    /**
+     * Вступление к конспектам, передаваемое модели итогового анализа.
+     */
+    private static final String CONDENSED_PREFACE = """
+            Резюме слишком длинное, поэтому передано в виде конспектов его фрагментов в исходном порядке.
+            Проанализируй резюме целиком по этим конспектам.
+            """;
+
+    private final GigaChatDialog gigaChatDialog;
+    private final JsonExtractor jsonExtractor;
+    private final LongResumeConfig config;
+
+    /**
+     * Сжатия резюме по SHA-256 текста в порядке доступа.
+     */
+    private final Map<String, CompletableFuture<String>> condensations;
+
+    /**
+     * Конструктор.
+     *
+     * @param gigaChatDialog Компонент для взаимодействия с GigaChat.
+     * @param jsonExtractor  Экстрактор текста из ответа GigaChat.
+     * @param config         Конфигурация анализа длинных резюме.
+     */
+    public LongResumeSummarizer(
+            final GigaChatDialog gigaChatDialog,
+            final JsonExtractor jsonExtractor,
+            final LongResumeConfig config
+    ) {
+        this.gigaChatDialog = gigaChatDialog;
+        this.jsonExtractor = jsonExtractor;
+        this.config = config;
+        this.condensations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompletableFuture<String>> eldest) {
+                return size() > config.getCacheEntries();
+            }
+        };
+    }
+
+    /**
+     * Проверяет, нужно ли сжимать резюме перед анализом.
+     *
+     * @param text Текст резюме.
+     * @return {@code true}, если резюме анализируется по фрагментам.
+     */
+    public boolean isLong(final String text) {
+        return config.isEnabled() && text.length() > config.getThresholdChars();
+    }
+
+    /**
+     * Сжимает резюме, ожидая завершения всех фрагментов.
+     *
+     * @param text Текст резюме.
+     * @return Конспекты фрагментов для итогового анализа.
+     * @throws IOException произошла ошибка при обработке ответа.
+     */
+    public String condense(final String text) throws IOException {
+        try {
+            return condenseAsync(text).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при сжатии резюме", cause);
+        }
+    }
+
+    /**
+     * Сжимает резюме, не блокируя вызывающий поток. Фрагменты сжимаются параллельно
+     * от имени текущего пользователя. Ошибка одного фрагмента отменяет остальные.
+     *
+     * @param text Текст резюме.
+     * @return Конспекты фрагментов для итогового анализа.
+     */
+    public CompletableFuture<String> condenseAsync(final String text) {
+        String key = AnalysisResultCache.sha256Hex(text);
+        CompletableFuture<String> condensation;
+        synchronized (condensations) {
+            condensation = condensations.get(key);
+            if (condensation != null) {
+                return condensation.copy();
+            }
+            condensation = new CompletableFuture<>();
+            condensations.put(key, condensation);
+        }
+
+        CompletableFuture<String> result = condensation;
+        summarizeChunks(text).whenComplete((condensed, e) -> {
+            if (e != null) {
+                synchronized (condensations) {
+                    condensations.remove(key, result);
+                }
+                result.completeExceptionally(e);
+            } else {
+                result.complete(condensed);
+            }
+        });
+        return result.copy();
+    }
+
+    /**
+     * Делит резюме на фрагменты и параллельно сжимает их.
+     *
+     * @param text Текст резюме.
+     * @return Объединенные конспекты фрагментов.
+     */
+    private CompletableFuture<String> summarizeChunks(final String text) {
+        int chunkMaxChars = Math.max(
+                config.getChunkMaxChars(),
+                (text.length() + config.getMaxChunks() - 1) / config.getMaxChunks()
+        );
+        List<String> chunks = TextChunker.split(text, chunkMaxChars);
+        while (chunks.size() > config.getMaxChunks()) {
+            chunkMaxChars += Math.max(1, chunkMaxChars / 4);
+            chunks = TextChunker.split(text, chunkMaxChars);
+        }
+        log.info("Резюме длиной {} символов сжимается по {} фрагментам", text.length(), chunks.size());
+
+        String model = config.getSummaryModel().getModelName();
+        List<CompletableFuture<String>> calls = chunks.stream()
+                .map(chunk -> gigaChatDialog.getResponseAsync(SystemPrompt.CHUNK_SUMMARY_PROMPT, chunk, model))
+                .toList();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        List<CompletableFuture<String>> summaries = calls.stream()
+                .map(call -> call.thenApply(this::extractSummary))
+                .toList();
+        summaries.forEach(summary -> summary.whenComplete((value, e) -> {
+            if (e != null && result.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                    ? e.getCause()
+                    : e)) {
+                calls.forEach(call -> call.cancel(true));
+            }
+        }));
+        CompletableFuture.allOf(summaries.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            StringBuilder condensed = new StringBuilder(CONDENSED_PREFACE);
+            for (int i = 0; i < summaries.size(); i++) {
+                condensed.append("\n### Фрагмент ").append(i + 1).append(" из ").append(summaries.size())
+                        .append('\n').append(summaries.get(i).join().strip()).append('\n');
+            }
+            result.complete(condensed.toString());
+        });
+        return result;
+    }
+
+    /**
+     * Извлекает текст конспекта из ответа GigaChat.
+     *
+     * @param response Ответ GigaChat.
+     * @return Конспект фрагмента.
+     */
+    private String extractSummary(final String response) {
+        try {
+            return jsonExtractor.extractTextFromMessage(response);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
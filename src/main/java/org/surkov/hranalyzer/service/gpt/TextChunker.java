@@ -0,0 +1,101 @@
+package org.surkov.hranalyzer.service.gpt;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Разбиение текста резюме на фрагменты ограниченной длины.
+ * <p>
+ * Границы фрагментов по возможности совпадают с границами разделов и абзацев (пустыми строками),
+ * абзац длиннее фрагмента делится по строкам, а строка длиннее фрагмента - по словам.
+ * Соседние абзацы объединяются, пока фрагмент не превышает заданную длину.
+ * </p>
+ */
+@UtilityClass
+public final class TextChunker {
+
+    /**
+     * Граница абзацев: одна или несколько пустых строк.
+     */
+    private static final Pattern PARAGRAPH_BOUNDARY = Pattern.compile("\\n\\s*\\n");
+
+    /**
+     * Разбивает текст на фрагменты.
+     *
+     * @param text     Текст.
+     * @param maxChars Максимальная длина фрагмента (в символах).
+     * @return Фрагменты в исходном порядке.
+     */
+    public static List<String> split(final String text, final int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (String paragraph : PARAGRAPH_BOUNDARY.split(text.strip())) {
+            for (String piece : fit(paragraph.strip(), maxChars)) {
+                if (!chunk.isEmpty() && chunk.length() + 2 + piece.length() > maxChars) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                }
+                if (!chunk.isEmpty()) {
+                    chunk.append("\n\n");
+                }
+                chunk.append(piece);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * Делит абзац на части не длиннее фрагмента: сначала по строкам, затем по пробелам.
+     *
+     * @param paragraph Абзац.
+     * @param maxChars  Максимальная длина части (в символах).
+     * @return Части абзаца.
+     */
+    private static List<String> fit(final String paragraph, final int maxChars) {
+        List<String> pieces = new ArrayList<>();
+        if (paragraph.isEmpty()) {
+            return pieces;
+        }
+        if (paragraph.length() <= maxChars) {
+            pieces.add(paragraph);
+            return pieces;
+        }
+
+        StringBuilder piece = new StringBuilder();
+        for (String line : paragraph.split("\\n")) {
+            int start = 0;
+            while (start < line.length()) {
+                int end = Math.min(line.length(), start + maxChars);
+                if (end < line.length()) {
+                    int space = line.lastIndexOf(' ', end);
+                    if (space > start) {
+                        end = space;
+                    }
+                }
+                String part = line.substring(start, end).strip();
+                start = end;
+                if (part.isEmpty()) {
+                    continue;
+                }
+                if (!piece.isEmpty() && piece.length() + 1 + part.length() > maxChars) {
+                    pieces.add(piece.toString());
+                    piece.setLength(0);
+                }
+                if (!piece.isEmpty()) {
+                    piece.append('\n');
+                }
+                piece.append(part);
+            }
+        }
+        if (!piece.isEmpty()) {
+            pieces.add(piece.toString());
+        }
+        return pieces;
+    }
+}
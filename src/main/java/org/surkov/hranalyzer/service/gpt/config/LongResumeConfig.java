@@ -0,0 +1,62 @@
+package org.surkov.hranalyzer.service.gpt.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+
+/**
+ * Конфигурация анализа длинных резюме.
+ * Значения загружаются из свойств приложения с префиксом "analysis.long-resume".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "analysis.long-resume")
+@Validated
+public class LongResumeConfig {
+
+    /**
+     * Включает сжатие длинных резюме по фрагментам перед анализом.
+     * Значение по умолчанию: {@code true}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Длина текста резюме (в символах), начиная с которой резюме анализируется по фрагментам.
+     * Значение по умолчанию: 12_000.
+     */
+    @Min(1)
+    private int thresholdChars = 12_000;
+
+    /**
+     * Максимальная длина фрагмента (в символах).
+     * Значение по умолчанию: 4_000.
+     */
+    @Min(1)
+    private int chunkMaxChars = 4_000;
+
+    /**
+     * Максимальное количество фрагментов. Если текст не помещается, фрагменты укрупняются.
+     * Значение по умолчанию: 8.
+     */
+    @Min(1)
+    private int maxChunks = 8;
+
+    /**
+     * Модель для сжатия фрагментов.
+     * Значение по умолчанию: {@link GigaModelType#GIGA_MODEL_LITE}.
+     */
+    @NotNull
+    private GigaModelType summaryModel = GigaModelType.GIGA_MODEL_LITE;
+
+    /**
+     * Количество резюме, для которых хранятся готовые конспекты.
+     * Позволяет не сжимать одно резюме повторно при анализе несколькими промптами и моделями.
+     * Значение по умолчанию: 64.
+     */
+    @Min(0)
+    private int cacheEntries = 64;
+}
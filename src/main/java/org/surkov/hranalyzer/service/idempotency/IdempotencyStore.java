@@ -0,0 +1,250 @@
+package org.surkov.hranalyzer.service.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.exception.IdempotencyKeyInProgressException;
+import org.surkov.hranalyzer.exception.IdempotencyKeyMismatchException;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ограниченное по размеру хранилище выполняющихся и завершенных запросов с ключом идемпотентности.
+ * <p>
+ * Первый запрос с ключом становится владельцем выполнения, повторные запросы с тем же ключом
+ * ожидают его результат, не запуская новое извлечение текста и обращение к GigaChat.
+ * Успешный результат хранится {@code analysis.idempotency.ttl-seconds}. Неуспешное выполнение
+ * удаляется из хранилища, чтобы повтор после ошибки (например, перегрузки) мог выполниться заново.
+ * При переполнении вытесняется давно не использовавшийся завершенный ключ (LRU). Выполняющиеся
+ * запросы не вытесняются, иначе повтор запустил бы второе выполнение того же запроса: если все ключи
+ * заняты выполняющимися запросами, новый ключ отклоняется с {@link ServiceOverloadedException}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Выполнения по ключу в порядке доступа.
+     */
+    private final Map<String, Execution> executions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Максимальное количество хранимых ключей.
+     */
+    private final int maxEntries;
+
+    /**
+     * Время хранения завершенного результата (в миллисекундах).
+     */
+    private final long ttlMs;
+
+    /**
+     * Максимальное время ожидания выполняющегося запроса (в миллисекундах).
+     */
+    private final long waitTimeoutMs;
+
+    /**
+     * Рекомендуемая задержка перед повтором, если исходный запрос еще выполняется (в секундах).
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxEntries    Максимальное количество хранимых ключей.
+     * @param ttlSeconds    Время хранения завершенного результата (в секундах).
+     * @param waitTimeoutMs Максимальное время ожидания выполняющегося запроса (в миллисекундах).
+     * @param retryAfterSeconds Рекомендуемая задержка перед повтором, если исходный запрос
+     *                          еще выполняется (в секундах).
+     */
+    public IdempotencyStore(
+            @Value("${analysis.idempotency.max-entries:1000}") final int maxEntries,
+            @Value("${analysis.idempotency.ttl-seconds:86400}") final long ttlSeconds,
+            @Value("${analysis.idempotency.wait-timeout-ms:120000}") final long waitTimeoutMs,
+            @Value("${analysis.idempotency.retry-after-seconds:5}") final long retryAfterSeconds
+    ) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Выполняет действие не более одного раза для ключа.
+     * Если выполнение с ключом уже идет или завершилось, ожидает и возвращает его результат.
+     *
+     * @param key         Ключ идемпотентности с учетом пользователя.
+     * @param fingerprint Отпечаток параметров запроса.
+     * @param action      Действие.
+     * @param <T>         Тип результата действия.
+     * @return Результат действия.
+     * @throws IOException                        ошибка ввода-вывода при выполнении действия.
+     * @throws IdempotencyKeyMismatchException    ключ уже использован с другими параметрами.
+     * @throws IdempotencyKeyInProgressException  выполнение с ключом не завершилось за время ожидания.
+     * @throws ServiceOverloadedException         хранилище заполнено выполняющимися запросами.
+     */
+    public <T> T execute(
+            final String key,
+            final String fingerprint,
+            final Action<T> action
+    ) throws IOException {
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing;
+        synchronized (executions) {
+            existing = executions.get(key);
+            if (existing != null && existing.isExpired(ttlMs)) {
+                executions.remove(key);
+                existing = null;
+            }
+            if (existing == null) {
+                if (executions.size() >= maxEntries && !evictCompleted()) {
+                    throw new ServiceOverloadedException(
+                            "Слишком много выполняющихся запросов с ключом идемпотентности",
+                            retryAfterSeconds
+                    );
+                }
+                executions.put(key, execution);
+            }
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyMismatchException(
+                        "Ключ идемпотентности уже использован для другого запроса"
+                );
+            }
+            log.info("Повторный запрос с ключом идемпотентности присоединен к исходному выполнению");
+            @SuppressWarnings("unchecked")
+            T result = (T) await(existing.result());
+            return result;
+        }
+
+        try {
+            T result = action.run();
+            execution.completedAt = System.currentTimeMillis();
+            execution.result().complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            synchronized (executions) {
+                executions.remove(key, execution);
+            }
+            execution.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Вытесняет давно не использовавшееся завершенное выполнение.
+     * Вызывается под блокировкой {@link #executions}.
+     *
+     * @return {@code true}, если выполнение вытеснено.
+     */
+    private boolean evictCompleted() {
+        Iterator<Execution> iterator = executions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isCompleted()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ожидает результат выполнения.
+     *
+     * @param result Результат выполнения.
+     * @return Результат.
+     * @throws IOException исходное выполнение завершилось ошибкой ввода-вывода.
+     */
+    private Object await(final CompletableFuture<Object> result) throws IOException {
+        try {
+            return result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка исходного выполнения запроса", cause);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(
+                    "Запрос с этим ключом идемпотентности еще выполняется",
+                    retryAfterSeconds
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ожидание исходного выполнения прервано", e);
+        }
+    }
+
+    /**
+     * Действие, выполняемое не более одного раза для ключа.
+     *
+     * @param <T> Тип результата.
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+
+        /**
+         * Выполняет действие.
+         *
+         * @return Результат.
+         * @throws IOException ошибка ввода-вывода.
+         */
+        T run() throws IOException;
+    }
+
+    /**
+     * Выполнение запроса с ключом идемпотентности.
+     */
+    private static final class Execution {
+
+        /**
+         * Отпечаток параметров запроса, с которым ключ использован впервые.
+         */
+        private final String fingerprint;
+
+        /**
+         * Результат выполнения, который ожидают повторные запросы.
+         */
+        private final CompletableFuture<Object> result;
+
+        /**
+         * Время успешного завершения (мс с начала эпохи) или 0, пока запрос выполняется.
+         */
+        private volatile long completedAt;
+
+        private Execution(final String fingerprint, final CompletableFuture<Object> result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+
+        private String fingerprint() {
+            return fingerprint;
+        }
+
+        private CompletableFuture<Object> result() {
+            return result;
+        }
+
+        private boolean isCompleted() {
+            return completedAt > 0;
+        }
+
+        private boolean isExpired(final long ttlMs) {
+            return completedAt > 0 && System.currentTimeMillis() - completedAt > ttlMs;
+        }
+    }
+}
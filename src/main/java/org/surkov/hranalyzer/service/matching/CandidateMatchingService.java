@@ -0,0 +1,288 @@
+package org.surkov.hranalyzer.service.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analysis.ResumeAnalysisService;
+import org.surkov.hranalyzer.service.extraction.ExtractionService;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.matching.config.MatchingConfig;
+import org.surkov.hranalyzer.service.matching.dto.CandidateInfo;
+import org.surkov.hranalyzer.service.matching.dto.CandidateMatch;
+import org.surkov.hranalyzer.util.TenantContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подбор кандидатов под вакансию.
+ * <p>
+ * Текст резюме векторизуется {@link EmbeddingClient} и добавляется в индекс {@link HnswIndex}.
+ * Описание вакансии векторизуется так же, и ближайшие резюме находятся без обращения
+ * к модели анализа. Полный анализ GigaChat при необходимости выполняется только для шорт-листа.
+ * </p>
+ * <p>
+ * Каждый пользователь API ({@link TenantContext#current()}) работает со своим индексом:
+ * кандидаты одной команды не попадают в поиск и очистку другой, лимит
+ * {@code matching.max-candidates} действует для каждого индекса отдельно.
+ * Граф и кандидаты индекса изменяются под одной блокировкой, поэтому поиск не видит
+ * узел без кандидата, а очистка не оставляет кандидатов без узлов.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CandidateMatchingService {
+
+    /**
+     * Сервис для извлечения текста из файла.
+     */
+    private final ExtractionService extractionService;
+
+    /**
+     * Клиент векторизации текста.
+     */
+    private final EmbeddingClient embeddingClient;
+
+    /**
+     * Сервис для анализа резюме.
+     */
+    private final ResumeAnalysisService resumeAnalysisService;
+
+    /**
+     * Конфигурация подбора кандидатов.
+     */
+    private final MatchingConfig config;
+
+    /**
+     * Индексы кандидатов по пользователю API.
+     */
+    private final Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор.
+     *
+     * @param extractionService     Сервис для извлечения текста из файла.
+     * @param embeddingClient       Клиент векторизации текста.
+     * @param resumeAnalysisService Сервис для анализа резюме.
+     * @param config                Конфигурация подбора кандидатов.
+     */
+    public CandidateMatchingService(
+            final ExtractionService extractionService,
+            final EmbeddingClient embeddingClient,
+            final ResumeAnalysisService resumeAnalysisService,
+            final MatchingConfig config
+    ) {
+        this.extractionService = extractionService;
+        this.embeddingClient = embeddingClient;
+        this.resumeAnalysisService = resumeAnalysisService;
+        this.config = config;
+    }
+
+    /**
+     * Добавляет резюме в индекс подбора текущего пользователя.
+     *
+     * @param inputStream Поток ввода, содержащий данные резюме.
+     * @param fileType    Тип файла резюме.
+     * @param fileSize    Размер файла резюме (в байтах).
+     * @param fileName    Имя файла резюме.
+     * @return Добавленный кандидат.
+     * @throws IOException           ошибка ввода-вывода при чтении данных из потока.
+     * @throws IllegalStateException индекс кандидатов заполнен.
+     */
+    public CandidateInfo addCandidate(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize,
+            final String fileName
+    ) throws IOException {
+        String resumeText = extractionService.extractText(inputStream, fileType, fileSize);
+        float[] embedding = embeddingClient.embed(List.of(truncate(resumeText))).get(0);
+
+        Candidate candidate = new Candidate(UUID.randomUUID().toString(), fileName, resumeText);
+        TenantIndex tenantIndex = currentIndex();
+        int size;
+        tenantIndex.lock.writeLock().lock();
+        try {
+            tenantIndex.candidates.put(tenantIndex.index.add(embedding), candidate);
+            size = tenantIndex.candidates.size();
+        } finally {
+            tenantIndex.lock.writeLock().unlock();
+        }
+        log.info("Кандидат {} добавлен в индекс подбора, всего: {}", fileName, size);
+        return new CandidateInfo(candidate.id(), candidate.fileName());
+    }
+
+    /**
+     * Находит резюме, наиболее близкие к описанию вакансии.
+     *
+     * @param vacancy Описание вакансии.
+     * @param topK    Количество кандидатов.
+     * @return Кандидаты в порядке убывания близости.
+     */
+    public List<CandidateMatch> findTopCandidates(final String vacancy, final int topK) {
+        return search(vacancy, topK).stream()
+                .map(found -> new CandidateMatch(
+                        found.candidate().id(), found.candidate().fileName(), found.similarity(), null, null, null
+                ))
+                .toList();
+    }
+
+    /**
+     * Находит резюме, наиболее близкие к описанию вакансии,
+     * и параллельно выполняет их полный анализ в GigaChat.
+     *
+     * @param vacancy    Описание вакансии.
+     * @param topK       Количество кандидатов.
+     * @param promptType Тип системного промпта для анализа резюме.
+     * @param modelType  Модель для анализа резюме.
+     * @return Кандидаты с результатами анализа в порядке убывания близости.
+     */
+    public List<CandidateMatch> shortlist(
+            final String vacancy,
+            final int topK,
+            final PromptType promptType,
+            final GigaModelType modelType
+    ) {
+        List<CompletableFuture<CandidateMatch>> calls = new ArrayList<>();
+        for (Found found : search(vacancy, topK)) {
+            Candidate candidate = found.candidate();
+            calls.add(resumeAnalysisService.analyzeTextAsync(candidate.text(), promptType, modelType)
+                    .handle((outcome, e) -> {
+                        if (e == null) {
+                            return new CandidateMatch(candidate.id(), candidate.fileName(), found.similarity(),
+                                    outcome.getResult(), outcome.getSource(), null);
+                        }
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null
+                                ? e.getCause()
+                                : e;
+                        log.warn("Ошибка анализа кандидата {}: {}", candidate.fileName(), cause.getMessage());
+                        return new CandidateMatch(
+                                candidate.id(), candidate.fileName(), found.similarity(), null, null, cause.getMessage()
+                        );
+                    }));
+        }
+        return calls.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Удаляет всех кандидатов из индекса подбора текущего пользователя.
+     */
+    public void clear() {
+        TenantIndex tenantIndex = currentIndex();
+        tenantIndex.lock.writeLock().lock();
+        try {
+            tenantIndex.index.clear();
+            tenantIndex.candidates.clear();
+        } finally {
+            tenantIndex.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет ближайших кандидатов.
+     *
+     * @param vacancy Описание вакансии.
+     * @param topK    Количество кандидатов.
+     * @return Найденные кандидаты.
+     * @throws IllegalArgumentException количество кандидатов вне допустимого диапазона.
+     */
+    private List<Found> search(final String vacancy, final int topK) {
+        if (topK < 1 || topK > config.getMaxTopK()) {
+            throw new IllegalArgumentException("Количество кандидатов должно быть от 1 до " + config.getMaxTopK());
+        }
+        float[] query = embeddingClient.embed(List.of(truncate(vacancy))).get(0);
+        TenantIndex tenantIndex = currentIndex();
+        List<Found> found = new ArrayList<>(topK);
+        tenantIndex.lock.readLock().lock();
+        try {
+            for (HnswIndex.Neighbor neighbor
+                    : tenantIndex.index.search(query, topK, config.getHnsw().getEfSearch())) {
+                found.add(new Found(tenantIndex.candidates.get(neighbor.id()), neighbor.similarity()));
+            }
+        } finally {
+            tenantIndex.lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Возвращает индекс подбора текущего пользователя, создавая его при первом обращении.
+     *
+     * @return Индекс пользователя.
+     */
+    private TenantIndex currentIndex() {
+        return indexes.computeIfAbsent(TenantContext.current(), tenant -> new TenantIndex(new HnswIndex(
+                config.getHnsw().getMaxConnections(),
+                config.getHnsw().getEfConstruction(),
+                config.getMaxCandidates()
+        )));
+    }
+
+    /**
+     * Обрезает текст до допустимой длины входа векторизации.
+     *
+     * @param text Текст.
+     * @return Обрезанный текст.
+     */
+    private String truncate(final String text) {
+        int maxChars = config.getEmbedding().getMaxInputChars();
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+
+    /**
+     * Кандидат в индексе подбора.
+     *
+     * @param id       Идентификатор кандидата.
+     * @param fileName Имя файла резюме.
+     * @param text     Текст резюме.
+     */
+    private record Candidate(String id, String fileName, String text) {
+    }
+
+    /**
+     * Индекс подбора одного пользователя.
+     */
+    private static final class TenantIndex {
+
+        /**
+         * Индекс векторов резюме.
+         */
+        private final HnswIndex index;
+
+        /**
+         * Кандидаты по идентификатору узла индекса.
+         */
+        private final Map<Integer, Candidate> candidates = new HashMap<>();
+
+        /**
+         * Блокировка, под которой изменяются индекс и кандидаты вместе.
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private TenantIndex(final HnswIndex index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Найденный кандидат.
+     *
+     * @param candidate  Кандидат.
+     * @param similarity Косинусная близость к вакансии.
+     */
+    private record Found(Candidate candidate, double similarity) {
+    }
+}
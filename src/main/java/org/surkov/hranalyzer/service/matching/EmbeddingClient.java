@@ -0,0 +1,22 @@
+package org.surkov.hranalyzer.service.matching;
+
+import java.util.List;
+
+/**
+ * Клиент получения векторных представлений текста.
+ *
+ * <p>
+ * Реализация выбирается свойством {@code matching.embedding.provider}.
+ * </p>
+ */
+public interface EmbeddingClient {
+
+    /**
+     * Получает векторные представления текстов.
+     * Все векторы одного клиента имеют одинаковую размерность.
+     *
+     * @param texts Тексты.
+     * @return Векторы в порядке текстов.
+     */
+    List<float[]> embed(List<String> texts);
+}
@@ -0,0 +1,416 @@
+package org.surkov.hranalyzer.service.matching;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс приближенного поиска ближайших соседей HNSW (Hierarchical Navigable Small World)
+ * по косинусной близости.
+ * <p>
+ * Векторы нормализуются при добавлении, расстоянием служит {@code 1 - cos}.
+ * Каждый узел попадает на случайное количество уровней графа; поиск спускается жадно
+ * с верхнего разреженного уровня и завершается поиском по списку из {@code ef} кандидатов
+ * на нулевом уровне. Соседи узла отбираются эвристикой, сохраняющей связи в разных направлениях.
+ * Добавление выполняется под блокировкой записи, поиск - под блокировкой чтения.
+ * </p>
+ */
+public class HnswIndex {
+
+    /**
+     * Максимальное количество связей узла на верхних уровнях.
+     */
+    private final int maxConnections;
+
+    /**
+     * Максимальное количество связей узла на нулевом уровне.
+     */
+    private final int maxConnectionsLevel0;
+
+    /**
+     * Размер списка кандидатов при вставке.
+     */
+    private final int efConstruction;
+
+    /**
+     * Множитель распределения уровней узлов.
+     */
+    private final double levelMultiplier;
+
+    /**
+     * Максимальное количество узлов.
+     */
+    private final int capacity;
+
+    /**
+     * Узлы графа. Индекс в списке является идентификатором узла.
+     */
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Генератор уровней узлов.
+     */
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    /**
+     * Блокировка графа.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Размерность векторов, определяется первым добавленным вектором.
+     */
+    private int dimensions = -1;
+
+    /**
+     * Точка входа - узел верхнего уровня.
+     */
+    private int entryPoint = -1;
+
+    /**
+     * Верхний уровень графа.
+     */
+    private int topLevel = -1;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxConnections Максимальное количество связей узла на верхних уровнях.
+     * @param efConstruction Размер списка кандидатов при вставке.
+     * @param capacity       Максимальное количество узлов.
+     */
+    public HnswIndex(final int maxConnections, final int efConstruction, final int capacity) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLevel0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Добавляет вектор в индекс.
+     *
+     * @param vector Вектор.
+     * @return Идентификатор узла.
+     * @throws IllegalArgumentException вектор нулевой или его размерность отличается от размерности индекса.
+     * @throws IllegalStateException    индекс заполнен.
+     */
+    public int add(final float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (nodes.size() >= capacity) {
+                throw new IllegalStateException("Индекс кандидатов заполнен: " + capacity);
+            }
+            if (dimensions < 0) {
+                dimensions = normalized.length;
+            } else if (dimensions != normalized.length) {
+                throw new IllegalArgumentException(
+                        "Размерность вектора " + normalized.length + " не совпадает с размерностью индекса " + dimensions
+                );
+            }
+
+            int id = nodes.size();
+            int level = randomLevel();
+            Node node = new Node(normalized, level, maxConnections, maxConnectionsLevel0);
+            nodes.add(node);
+            if (entryPoint < 0) {
+                entryPoint = id;
+                topLevel = level;
+                return id;
+            }
+
+            int current = entryPoint;
+            for (int l = topLevel; l > level; l--) {
+                current = searchLayer(normalized, current, 1, l).get(0).id();
+            }
+            for (int l = Math.min(level, topLevel); l >= 0; l--) {
+                List<Scored> candidates = searchLayer(normalized, current, efConstruction, l);
+                int maxLinks = l == 0 ? maxConnectionsLevel0 : maxConnections;
+                for (Scored neighbor : selectNeighbors(candidates, maxConnections)) {
+                    node.addLink(l, neighbor.id());
+                    connect(neighbor.id(), id, l, maxLinks);
+                }
+                current = candidates.get(0).id();
+            }
+            if (level > topLevel) {
+                topLevel = level;
+                entryPoint = id;
+            }
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Находит ближайшие к запросу векторы.
+     *
+     * @param query    Вектор запроса.
+     * @param k        Количество результатов.
+     * @param efSearch Размер списка кандидатов при поиске.
+     * @return Найденные узлы в порядке убывания близости.
+     */
+    public List<Neighbor> search(final float[] query, final int k, final int efSearch) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            if (dimensions != normalized.length) {
+                throw new IllegalArgumentException(
+                        "Размерность вектора " + normalized.length + " не совпадает с размерностью индекса " + dimensions
+                );
+            }
+
+            int current = entryPoint;
+            for (int l = topLevel; l > 0; l--) {
+                current = searchLayer(normalized, current, 1, l).get(0).id();
+            }
+            List<Scored> found = searchLayer(normalized, current, Math.max(efSearch, k), 0);
+            List<Neighbor> neighbors = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < k && i < found.size(); i++) {
+                neighbors.add(new Neighbor(found.get(i).id(), 1 - found.get(i).distance()));
+            }
+            return neighbors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество узлов.
+     *
+     * @return Количество узлов.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет все узлы.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            dimensions = -1;
+            entryPoint = -1;
+            topLevel = -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет ближайшие узлы на одном уровне графа.
+     *
+     * @param query Нормализованный вектор запроса.
+     * @param entry Узел, с которого начинается поиск.
+     * @param ef    Размер списка кандидатов.
+     * @param level Уровень графа.
+     * @return Найденные узлы в порядке возрастания расстояния.
+     */
+    private List<Scored> searchLayer(final float[] query, final int entry, final int ef, final int level) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::distance));
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::distance).reversed());
+
+        Scored start = new Scored(entry, distance(query, nodes.get(entry).vector));
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Scored closest = candidates.poll();
+            if (closest.distance() > results.peek().distance()) {
+                break;
+            }
+            Node node = nodes.get(closest.id());
+            for (int i = 0; i < node.linkCounts[level]; i++) {
+                int neighbor = node.links[level][i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float neighborDistance = distance(query, nodes.get(neighbor).vector);
+                if (results.size() < ef || neighborDistance < results.peek().distance()) {
+                    Scored scored = new Scored(neighbor, neighborDistance);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::distance));
+        return sorted;
+    }
+
+    /**
+     * Отбирает соседей эвристикой HNSW: кандидат пропускается, если он ближе к уже отобранному
+     * соседу, чем к базовому узлу. Оставшиеся места заполняются ближайшими пропущенными кандидатами.
+     *
+     * @param candidates Кандидаты в порядке возрастания расстояния до базового узла.
+     * @param max        Максимальное количество соседей.
+     * @return Отобранные соседи.
+     */
+    private List<Scored> selectNeighbors(final List<Scored> candidates, final int max) {
+        List<Scored> selected = new ArrayList<>(max);
+        List<Scored> skipped = new ArrayList<>();
+        for (Scored candidate : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.id()).vector;
+            boolean diverse = true;
+            for (Scored chosen : selected) {
+                if (distance(vector, nodes.get(chosen.id()).vector) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                skipped.add(candidate);
+            }
+        }
+        for (int i = 0; i < skipped.size() && selected.size() < max; i++) {
+            selected.add(skipped.get(i));
+        }
+        return selected;
+    }
+
+    /**
+     * Добавляет обратную связь от соседа к новому узлу.
+     * Если у соседа не осталось свободных связей, его соседи отбираются заново.
+     *
+     * @param id       Идентификатор соседа.
+     * @param newId    Идентификатор нового узла.
+     * @param level    Уровень графа.
+     * @param maxLinks Максимальное количество связей на уровне.
+     */
+    private void connect(final int id, final int newId, final int level, final int maxLinks) {
+        Node node = nodes.get(id);
+        if (node.linkCounts[level] < maxLinks) {
+            node.addLink(level, newId);
+            return;
+        }
+
+        List<Scored> candidates = new ArrayList<>(maxLinks + 1);
+        candidates.add(new Scored(newId, distance(node.vector, nodes.get(newId).vector)));
+        for (int i = 0; i < node.linkCounts[level]; i++) {
+            int neighbor = node.links[level][i];
+            candidates.add(new Scored(neighbor, distance(node.vector, nodes.get(neighbor).vector)));
+        }
+        candidates.sort(Comparator.comparingDouble(Scored::distance));
+
+        node.linkCounts[level] = 0;
+        for (Scored neighbor : selectNeighbors(candidates, maxLinks)) {
+            node.addLink(level, neighbor.id());
+        }
+    }
+
+    /**
+     * Выбирает уровень нового узла по экспоненциальному распределению.
+     *
+     * @return Уровень.
+     */
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    /**
+     * Косинусное расстояние между нормализованными векторами.
+     *
+     * @param a Первый вектор.
+     * @param b Второй вектор.
+     * @return Расстояние от 0 до 2.
+     */
+    private static float distance(final float[] a, final float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+
+    /**
+     * Нормализует вектор к единичной длине.
+     *
+     * @param vector Вектор.
+     * @return Новый нормализованный вектор.
+     * @throws IllegalArgumentException вектор нулевой.
+     */
+    private static float[] normalize(final float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            throw new IllegalArgumentException("Нулевой вектор не может быть проиндексирован");
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * Найденный узел.
+     *
+     * @param id         Идентификатор узла.
+     * @param similarity Косинусная близость к запросу.
+     */
+    public record Neighbor(int id, double similarity) {
+    }
+
+    /**
+     * Узел с расстоянием до текущего запроса.
+     *
+     * @param id       Идентификатор узла.
+     * @param distance Расстояние.
+     */
+    private record Scored(int id, float distance) {
+    }
+
+    /**
+     * Узел графа: вектор и списки связей по уровням.
+     */
+    private static final class Node {
+
+        private final float[] vector;
+        private final int[][] links;
+        private final int[] linkCounts;
+
+        private Node(final float[] vector, final int level, final int maxConnections, final int maxConnectionsLevel0) {
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[l == 0 ? maxConnectionsLevel0 : maxConnections];
+            }
+            this.linkCounts = new int[level + 1];
+        }
+
+        private void addLink(final int level, final int id) {
+            links[level][linkCounts[level]++] = id;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.surkov.hranalyzer.service.matching.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Конфигурация подбора кандидатов под вакансию.
+ * Значения загружаются из свойств приложения с префиксом "matching".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "matching")
+@Validated
+public class MatchingConfig {
+
+    /**
+     * Максимальное количество кандидатов в индексе.
+     * Значение по умолчанию: 10_000.
+     */
+    @Min(1)
+    private int maxCandidates = 10_000;
+
+    /**
+     * Максимальное количество кандидатов, возвращаемых одним запросом.
+     * Значение по умолчанию: 100.
+     */
+    @Min(1)
+    private int maxTopK = 100;
+
+    /**
+     * Параметры векторизации текста.
+     */
+    private Embedding embedding = new Embedding();
+
+    /**
+     * Параметры индекса HNSW.
+     */
+    private Hnsw hnsw = new Hnsw();
+
+    /**
+     * Параметры векторизации текста.
+     */
+    @Data
+    public static class Embedding {
+
+        /**
+         * Источник векторов: {@code gigachat} (API GigaChat) или {@code local} (локальное хэширование слов).
+         * Значение по умолчанию: {@code gigachat}.
+         */
+        @NotBlank
+        private String provider = "gigachat";
+
+        /**
+         * Модель векторизации GigaChat.
+         * Значение по умолчанию: {@code Embeddings}.
+         */
+        @NotBlank
+        private String model = "Embeddings";
+
+        /**
+         * Количество текстов в одном запросе векторизации.
+         * Значение по умолчанию: 16.
+         */
+        @Min(1)
+        private int batchSize = 16;
+
+        /**
+         * Максимальное количество символов текста, передаваемых на векторизацию.
+         * Значение по умолчанию: 2_000.
+         */
+        @Min(1)
+        private int maxInputChars = 2_000;
+
+        /**
+         * Размерность векторов локальной векторизации.
+         * Значение по умолчанию: 512.
+         */
+        @Min(1)
+        private int localDimensions = 512;
+    }
+
+    /**
+     * Параметры индекса HNSW.
+     */
+    @Data
+    public static class Hnsw {
+
+        /**
+         * Максимальное количество связей узла на верхних уровнях (на нулевом уровне вдвое больше).
+         * Значение по умолчанию: 16.
+         */
+        @Min(2)
+        private int maxConnections = 16;
+
+        /**
+         * Размер списка кандидатов при вставке.
+         * Значение по умолчанию: 200.
+         */
+        @Min(1)
+        private int efConstruction = 200;
+
+        /**
+         * Размер списка кандидатов при поиске.
+         * Значение по умолчанию: 64.
+         */
+        @Min(1)
+        private int efSearch = 64;
+    }
+}
@@ -0,0 +1,16 @@
+package org.surkov.hranalyzer.service.matching.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO кандидата, добавленного в индекс подбора.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateInfo {
+    private String candidateId;
+    private String fileName;
+}
@@ -0,0 +1,22 @@
+package org.surkov.hranalyzer.service.matching.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analysis.enumiration.AnalysisSource;
+
+/**
+ * DTO кандидата, подобранного под вакансию.
+ * Поля {@code analysis}, {@code source} и {@code error} заполняются, только если запрошен полный анализ шорт-листа.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateMatch {
+    private String candidateId;
+    private String fileName;
+    private double similarity;
+    private String analysis;
+    private AnalysisSource source;
+    private String error;
+}
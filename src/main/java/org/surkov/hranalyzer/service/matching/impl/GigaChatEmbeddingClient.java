@@ -0,0 +1,42 @@
+package org.surkov.hranalyzer.service.matching.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.GigaChatApiClient;
+import org.surkov.hranalyzer.service.matching.EmbeddingClient;
+import org.surkov.hranalyzer.service.matching.config.MatchingConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Векторизация текста через API GigaChat.
+ * Тексты отправляются пачками по {@code matching.embedding.batch-size}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "matching.embedding", name = "provider", havingValue = "gigachat", matchIfMissing = true)
+public class GigaChatEmbeddingClient implements EmbeddingClient {
+
+    /**
+     * Клиент для выполнения запросов к GigaChat API.
+     */
+    private final GigaChatApiClient apiClient;
+
+    /**
+     * Конфигурация подбора кандидатов.
+     */
+    private final MatchingConfig config;
+
+    @Override
+    public List<float[]> embed(final List<String> texts) {
+        int batchSize = config.getEmbedding().getBatchSize();
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += batchSize) {
+            List<String> batch = texts.subList(from, Math.min(texts.size(), from + batchSize));
+            embeddings.addAll(apiClient.getEmbeddings(batch, config.getEmbedding().getModel()));
+        }
+        return embeddings;
+    }
+}
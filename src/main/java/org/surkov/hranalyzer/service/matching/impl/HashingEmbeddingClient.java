@@ -0,0 +1,85 @@
+package org.surkov.hranalyzer.service.matching.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.service.matching.EmbeddingClient;
+import org.surkov.hranalyzer.service.matching.config.MatchingConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Локальная векторизация текста хэшированием слов и пар соседних слов.
+ * <p>
+ * Не требует обращения к GigaChat и подходит для разработки и тестов:
+ * близость векторов отражает пересечение словаря, а не смысл текста.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "matching.embedding", name = "provider", havingValue = "local")
+public class HashingEmbeddingClient implements EmbeddingClient {
+
+    /**
+     * Размерность векторов.
+     */
+    private final int dimensions;
+
+    /**
+     * Конструктор.
+     *
+     * @param config Конфигурация подбора кандидатов.
+     */
+    public HashingEmbeddingClient(final MatchingConfig config) {
+        this.dimensions = config.getEmbedding().getLocalDimensions();
+    }
+
+    @Override
+    public List<float[]> embed(final List<String> texts) {
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            embeddings.add(embed(text));
+        }
+        return embeddings;
+    }
+
+    /**
+     * Векторизует один текст.
+     *
+     * @param text Текст.
+     * @return Вектор.
+     */
+    private float[] embed(final String text) {
+        float[] vector = new float[dimensions];
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int previous = 0;
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean wordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int word = lowerCase.substring(start, i).hashCode();
+                add(vector, word);
+                if (previous != 0) {
+                    add(vector, 31 * previous + word);
+                }
+                previous = word;
+                start = -1;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Добавляет признак в вектор: индекс и знак определяются хэшем.
+     *
+     * @param vector Вектор.
+     * @param hash   Хэш признака.
+     */
+    private void add(final float[] vector, final int hash) {
+        int mixed = hash * 0x9E3779B9;
+        mixed ^= mixed >>> 16;
+        vector[Math.floorMod(mixed, dimensions)] += (mixed & 0x8000) == 0 ? 1 : -1;
+    }
+}
@@ -0,0 +1,194 @@
+package org.surkov.hranalyzer.service.prescreen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Автомат Ахо-Корасик для поиска множества строк за один проход по тексту.
+ * <p>
+ * Переходы каждого узла хранятся отсортированными массивами символов и целевых узлов,
+ * поэтому поиск не создает объектов. Поиск не зависит от регистра и учитывает только вхождения
+ * целыми словами: соседние с вхождением символы не должны быть буквами, цифрами, {@code +} или {@code #}
+ * (так "java" не находится в "javascript", "c" - в "c++" и "c#", а "c++" находится в "c++, java").
+ * </p>
+ * <p>
+ * Автомат неизменяем после построения и потокобезопасен.
+ * </p>
+ */
+final class AhoCorasick {
+
+    private static final int ROOT = 0;
+    private static final int NO_PATTERN = -1;
+    private static final int[] NO_PATTERNS = new int[0];
+
+    /**
+     * Символы переходов каждого узла в порядке возрастания.
+     */
+    private final char[][] transitionChars;
+
+    /**
+     * Целевые узлы переходов каждого узла.
+     */
+    private final int[][] transitionTargets;
+
+    /**
+     * Суффиксная ссылка каждого узла.
+     */
+    private final int[] failure;
+
+    /**
+     * Ближайший по суффиксным ссылкам узел, в котором заканчивается строка, или -1.
+     */
+    private final int[] outputLink;
+
+    /**
+     * Номера строк, заканчивающихся в узле. Одинаковые строки (например, один синоним
+     * у двух технологий) заканчиваются в одном узле, поэтому номеров может быть несколько.
+     */
+    private final int[][] patternsAt;
+
+    /**
+     * Длины строк.
+     */
+    private final int[] patternLengths;
+
+    /**
+     * Строит автомат.
+     *
+     * @param patterns Строки для поиска. Номер строки в списке передается при вхождении.
+     */
+    AhoCorasick(final List<String> patterns) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> patternsOfNode = new ArrayList<>();
+        children.add(new TreeMap<>());
+        patternsOfNode.add(new ArrayList<>(1));
+        patternLengths = new int[patterns.size()];
+
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id).toLowerCase(Locale.ROOT);
+            patternLengths[id] = pattern.length();
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(pattern.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    patternsOfNode.add(new ArrayList<>(1));
+                }
+                node = next;
+            }
+            patternsOfNode.get(node).add(id);
+        }
+
+        int size = children.size();
+        transitionChars = new char[size][];
+        transitionTargets = new int[size][];
+        patternsAt = new int[size][];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> nodeChildren = children.get(node);
+            transitionChars[node] = new char[nodeChildren.size()];
+            transitionTargets[node] = new int[nodeChildren.size()];
+            int i = 0;
+            for (var child : nodeChildren.entrySet()) {
+                transitionChars[node][i] = child.getKey();
+                transitionTargets[node][i] = child.getValue();
+                i++;
+            }
+            List<Integer> ids = patternsOfNode.get(node);
+            patternsAt[node] = ids.isEmpty()
+                    ? NO_PATTERNS
+                    : ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        failure = new int[size];
+        outputLink = new int[size];
+        Arrays.fill(outputLink, NO_PATTERN);
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[ROOT]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < transitionChars[node].length; i++) {
+                char c = transitionChars[node][i];
+                int child = transitionTargets[node][i];
+                int fallback = failure[node];
+                while (fallback != ROOT && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = next(fallback, c);
+                failure[child] = target >= 0 && target != child ? target : ROOT;
+                outputLink[child] = patternsAt[failure[child]].length > 0
+                        ? failure[child]
+                        : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Находит вхождения строк целыми словами.
+     * Одна строка может быть найдена несколько раз.
+     *
+     * @param text    Текст.
+     * @param onMatch Получатель номера найденной строки.
+     */
+    void scan(final CharSequence text, final IntConsumer onMatch) {
+        int node = ROOT;
+        for (int position = 0; position < text.length(); position++) {
+            char c = Character.toLowerCase(text.charAt(position));
+            int target = next(node, c);
+            while (target < 0 && node != ROOT) {
+                node = failure[node];
+                target = next(node, c);
+            }
+            node = Math.max(target, ROOT);
+
+            for (int match = patternsAt[node].length > 0 ? node : outputLink[node];
+                 match != NO_PATTERN;
+                 match = outputLink[match]) {
+                int[] ids = patternsAt[match];
+                int start = position - patternLengths[ids[0]] + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, position + 1)) {
+                    for (int id : ids) {
+                        onMatch.accept(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает переход из узла по символу.
+     *
+     * @param node Узел.
+     * @param c    Символ.
+     * @return Целевой узел или -1, если перехода нет.
+     */
+    private int next(final int node, final char c) {
+        int index = Arrays.binarySearch(transitionChars[node], c);
+        return index >= 0 ? transitionTargets[node][index] : -1;
+    }
+
+    /**
+     * Проверяет, что позиция находится вне слова.
+     *
+     * @param text     Текст.
+     * @param position Позиция.
+     * @return {@code true}, если позиция вне текста или символ в ней не входит в слово.
+     */
+    private static boolean isBoundary(final CharSequence text, final int position) {
+        if (position < 0 || position >= text.length()) {
+            return true;
+        }
+        char c = text.charAt(position);
+        return !Character.isLetterOrDigit(c) && c != '+' && c != '#';
+    }
+}
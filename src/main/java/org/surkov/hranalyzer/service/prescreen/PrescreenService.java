@@ -0,0 +1,207 @@
+package org.surkov.hranalyzer.service.prescreen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.extraction.ExtractionService;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.prescreen.config.PrescreenConfig;
+import org.surkov.hranalyzer.service.prescreen.dto.PrescreenResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Предварительный отбор резюме по словарю технологий без обращения к GigaChat.
+ * <p>
+ * Словарь {@code analysis.prescreen.skills} при запуске собирается в автомат Ахо-Корасик,
+ * и извлеченный текст просматривается им за один проход. Оценка релевантности - сумма весов
+ * найденных технологий, отнесенная к {@code saturation-weight} и ограниченная единицей;
+ * резюме без ключевых технологий получает 0. Уровень оценивается по количеству найденных
+ * технологий, характерных для уровня.
+ * </p>
+ * <p>
+ * При включенном {@code analysis.prescreen.gate-enabled} резюме с оценкой ниже
+ * {@code min-score} не отправляются в GigaChat.
+ * </p>
+ */
+@Slf4j
+@Service
+public class PrescreenService {
+
+    private final PrescreenConfig config;
+    private final ExtractionService extractionService;
+
+    /**
+     * Автомат поиска всех вариантов написания технологий.
+     */
+    private final AhoCorasick automaton;
+
+    /**
+     * Номер технологии словаря для каждого варианта написания в автомате.
+     */
+    private final int[] skillOfPattern;
+
+    /**
+     * Признак наличия ключевых технологий в словаре.
+     */
+    private final boolean hasCoreSkills;
+
+    /**
+     * Конструктор.
+     *
+     * @param config            Конфигурация предварительного отбора.
+     * @param extractionService Сервис извлечения текста.
+     */
+    public PrescreenService(final PrescreenConfig config, final ExtractionService extractionService) {
+        this.config = config;
+        this.extractionService = extractionService;
+
+        List<String> patterns = new ArrayList<>();
+        List<Integer> skillIds = new ArrayList<>();
+        for (int id = 0; id < config.getSkills().size(); id++) {
+            PrescreenConfig.Skill skill = config.getSkills().get(id);
+            patterns.add(skill.getName());
+            skillIds.add(id);
+            for (String alias : skill.getAliases()) {
+                patterns.add(alias);
+                skillIds.add(id);
+            }
+        }
+        this.automaton = new AhoCorasick(patterns);
+        this.skillOfPattern = skillIds.stream().mapToInt(Integer::intValue).toArray();
+        this.hasCoreSkills = config.getSkills().stream().anyMatch(PrescreenConfig.Skill::isCore);
+        log.info("Словарь предварительного отбора: {} технологий, {} вариантов написания",
+                config.getSkills().size(), patterns.size());
+    }
+
+    /**
+     * Проверяет, включен ли отсев нерелевантных резюме перед анализом.
+     *
+     * @return {@code true}, если отсев включен.
+     */
+    public boolean isGateEnabled() {
+        return config.isGateEnabled();
+    }
+
+    /**
+     * Извлекает текст резюме и выполняет предварительный отбор.
+     *
+     * @param inputStream Поток ввода, содержащий данные резюме.
+     * @param fileType    Тип файла резюме.
+     * @param fileSize    Размер файла резюме (в байтах).
+     * @return Результат предварительного отбора.
+     * @throws IOException ошибка ввода-вывода при чтении данных из потока.
+     */
+    public PrescreenResult prescreen(
+            final InputStream inputStream,
+            final FileType fileType,
+            final long fileSize
+    ) throws IOException {
+        return prescreen(extractionService.extractText(inputStream, fileType, fileSize));
+    }
+
+    /**
+     * Выполняет предварительный отбор извлеченного текста резюме.
+     *
+     * @param text Текст резюме.
+     * @return Результат предварительного отбора.
+     */
+    public PrescreenResult prescreen(final String text) {
+        long started = System.nanoTime();
+        List<PrescreenConfig.Skill> skills = config.getSkills();
+        BitSet found = new BitSet(skills.size());
+        automaton.scan(text, pattern -> found.set(skillOfPattern[pattern]));
+
+        double weight = 0;
+        boolean coreFound = false;
+        int[] levelCounts = new int[CandidateLevel.values().length];
+        List<String> names = new ArrayList<>(found.cardinality());
+        for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+            PrescreenConfig.Skill skill = skills.get(id);
+            weight += skill.getWeight();
+            coreFound |= skill.isCore();
+            levelCounts[skill.getLevel().ordinal()]++;
+            names.add(skill.getName());
+        }
+
+        double score = hasCoreSkills && !coreFound
+                ? 0
+                : Math.min(1, weight / config.getSaturationWeight());
+        return new PrescreenResult(
+                score,
+                score >= config.getMinScore(),
+                estimateLevel(levelCounts, found.isEmpty()),
+                names,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started)
+        );
+    }
+
+    /**
+     * Проверяет резюме перед анализом, если отсев включен.
+     *
+     * @param text Текст резюме.
+     * @return Отчет об отклонении резюме, если оно не прошло отбор.
+     */
+    public Optional<String> reject(final String text) {
+        if (!config.isGateEnabled()) {
+            return Optional.empty();
+        }
+        PrescreenResult result = prescreen(text);
+        if (result.isPassed()) {
+            return Optional.empty();
+        }
+        log.info("Резюме отклонено предварительным отбором (оценка {}), GigaChat не вызывается",
+                String.format(Locale.ROOT, "%.2f", result.getScore()));
+        return Optional.of(rejectionReport(result));
+    }
+
+    /**
+     * Оценивает уровень кандидата: старший уровень, для которого найдено достаточно
+     * технологий этого или более высокого уровня.
+     *
+     * @param levelCounts Количество найденных технологий по уровням.
+     * @param nothing     Признак того, что технологии не найдены.
+     * @return Уровень кандидата.
+     */
+    private CandidateLevel estimateLevel(final int[] levelCounts, final boolean nothing) {
+        if (nothing) {
+            return CandidateLevel.UNKNOWN;
+        }
+        int atOrAbove = 0;
+        CandidateLevel[] levels = CandidateLevel.values();
+        for (int i = levels.length - 1; i > CandidateLevel.JUNIOR.ordinal(); i--) {
+            atOrAbove += levelCounts[i];
+            if (atOrAbove >= config.getLevelMinSkills()) {
+                return levels[i];
+            }
+        }
+        return CandidateLevel.JUNIOR;
+    }
+
+    /**
+     * Формирует отчет об отклонении в формате отчета анализа, чтобы его разбирал
+     * {@link org.surkov.hranalyzer.service.analytics.AnalysisReportParser}.
+     *
+     * @param result Результат предварительного отбора.
+     * @return Отчет.
+     */
+    private String rejectionReport(final PrescreenResult result) {
+        return "- **Заявленный уровень кандидата:** "
+                + (result.getLevel() == CandidateLevel.UNKNOWN ? "не определен" : result.getLevel().name())
+                + " (оценка по технологиям)\n"
+                + "- **Стек технологий и проекты:** "
+                + (result.getSkills().isEmpty() ? "технологии из словаря не найдены" : String.join(", ", result.getSkills()))
+                + "\n"
+                + "- **Предварительный отбор:** резюме не соответствует профилю вакансии (оценка релевантности "
+                + String.format(Locale.ROOT, "%.2f", result.getScore()) + " при пороге "
+                + String.format(Locale.ROOT, "%.2f", config.getMinScore()) + "), анализ GigaChat не выполнялся\n"
+                + "- **Рекомендация:** отклонить\n";
+    }
+}
@@ -0,0 +1,101 @@
+package org.surkov.hranalyzer.service.prescreen.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфигурация предварительного отбора резюме по словарю технологий.
+ * Значения загружаются из свойств приложения с префиксом "analysis.prescreen".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "analysis.prescreen")
+@Validated
+public class PrescreenConfig {
+
+    /**
+     * Включает отсев нерелевантных резюме перед анализом: резюме с оценкой ниже
+     * {@link #minScore} не отправляются в GigaChat.
+     * Значение по умолчанию: {@code false}.
+     */
+    private boolean gateEnabled = false;
+
+    /**
+     * Минимальная оценка релевантности резюме от 0 до 1.
+     * Значение по умолчанию: 0.3.
+     */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double minScore = 0.3;
+
+    /**
+     * Сумма весов найденных технологий, при которой оценка релевантности равна 1.
+     * Значение по умолчанию: 10.
+     */
+    @DecimalMin(value = "0.0", inclusive = false)
+    private double saturationWeight = 10;
+
+    /**
+     * Количество технологий уровня, достаточное для оценки кандидата этим уровнем.
+     * Значение по умолчанию: 2.
+     */
+    @Min(1)
+    private int levelMinSkills = 2;
+
+    /**
+     * Словарь технологий.
+     */
+    @Valid
+    private List<Skill> skills = new ArrayList<>();
+
+    /**
+     * Технология словаря.
+     */
+    @Data
+    public static class Skill {
+
+        /**
+         * Название технологии.
+         */
+        @NotBlank
+        private String name;
+
+        /**
+         * Варианты написания в резюме. Название технологии проверяется всегда.
+         */
+        private List<String> aliases = new ArrayList<>();
+
+        /**
+         * Вес технологии в оценке релевантности.
+         * Значение по умолчанию: 1.
+         */
+        @DecimalMin("0.0")
+        private double weight = 1;
+
+        /**
+         * Признак ключевой технологии. Если в словаре есть ключевые технологии,
+         * резюме без них получает нулевую оценку.
+         * Значение по умолчанию: {@code false}.
+         */
+        private boolean core = false;
+
+        /**
+         * Уровень кандидата, для которого характерна технология.
+         * Значение по умолчанию: {@link CandidateLevel#JUNIOR}.
+         */
+        @NotNull
+        private CandidateLevel level = CandidateLevel.JUNIOR;
+    }
+}
@@ -0,0 +1,22 @@
+package org.surkov.hranalyzer.service.prescreen.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+
+import java.util.List;
+
+/**
+ * DTO результата предварительного отбора резюме по словарю технологий.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrescreenResult {
+    private double score;
+    private boolean passed;
+    private CandidateLevel level;
+    private List<String> skills;
+    private long elapsedMicros;
+}
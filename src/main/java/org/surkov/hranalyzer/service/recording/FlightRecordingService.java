@@ -0,0 +1,186 @@
+package org.surkov.hranalyzer.service.recording;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.surkov.hranalyzer.exception.RecordingInProgressException;
+import org.surkov.hranalyzer.service.recording.config.FlightRecordingConfig;
+import org.surkov.hranalyzer.service.recording.dto.RecordingStatus;
+import org.surkov.hranalyzer.service.recording.event.ExtractionEvent;
+import org.surkov.hranalyzer.service.recording.event.GigaChatCallEvent;
+import org.surkov.hranalyzer.service.recording.event.TokenRefreshEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Запись Java Flight Recorder по запросу администратора.
+ * <p>
+ * Одновременно выполняется не более одной записи. Запись ограничена по длительности
+ * ({@code diagnostics.recording.max-duration-seconds}) и объему на диске ({@code max-size-mb})
+ * и останавливается сама. Данные последней записи доступны для выгрузки до начала следующей.
+ * Помимо событий JVM из настроек {@code settings} записываются события приложения:
+ * {@link ExtractionEvent}, {@link TokenRefreshEvent} и {@link GigaChatCallEvent}.
+ * События с переменными окружения, системными свойствами и аргументами JVM ({@code jdk.JVMInformation})
+ * отключаются независимо от настроек: в них находятся ключи GigaChat и пароли, переданные также
+ * через {@code -D}, а файл записи выгружается за пределы сервиса.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightRecordingService {
+
+    /**
+     * Количество байтов в мегабайте.
+     */
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+    /**
+     * Конфигурация записи.
+     */
+    private final FlightRecordingConfig config;
+
+    /**
+     * Последняя запись или {@code null}, если записей не было.
+     */
+    private Recording recording;
+
+    /**
+     * Начинает запись.
+     *
+     * @param durationSeconds Длительность записи (в секундах) или {@code null} для длительности по умолчанию.
+     * @return Состояние начатой записи.
+     * @throws RecordingInProgressException предыдущая запись еще выполняется.
+     * @throws IOException                  не удалось прочитать настройки JFR.
+     */
+    public synchronized RecordingStatus start(final Long durationSeconds) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingInProgressException("Запись уже выполняется", remainingSeconds(recording));
+        }
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+
+        long seconds = Math.min(
+                durationSeconds == null ? config.getDefaultDurationSeconds() : Math.max(1, durationSeconds),
+                config.getMaxDurationSeconds()
+        );
+        Recording started = new Recording(loadSettings());
+        started.setName("hranalyzer");
+        started.setToDisk(true);
+        started.setMaxSize(config.getMaxSizeMb() * BYTES_IN_MEGABYTE);
+        started.setDuration(Duration.ofSeconds(seconds));
+        started.enable(ExtractionEvent.class);
+        started.enable(TokenRefreshEvent.class);
+        started.enable(GigaChatCallEvent.class);
+        started.disable("jdk.InitialEnvironmentVariable");
+        started.disable("jdk.InitialSystemProperty");
+        started.disable("jdk.JVMInformation");
+        started.start();
+        recording = started;
+        log.info("Начата запись JFR {} на {} с (настройки {})", started.getId(), seconds, config.getSettings());
+        return statusOf(started);
+    }
+
+    /**
+     * Возвращает состояние последней записи.
+     *
+     * @return Состояние записи или пустое значение, если записей не было.
+     */
+    public synchronized Optional<RecordingStatus> status() {
+        return Optional.ofNullable(recording).map(this::statusOf);
+    }
+
+    /**
+     * Выгружает данные последней записи во временный файл. Выполняющаяся запись не прерывается.
+     * Файл должен удалить вызывающий.
+     *
+     * @return Путь к файлу записи или пустое значение, если записей не было.
+     * @throws IOException ошибка записи файла.
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Path file = Files.createTempFile("hranalyzer-" + recording.getId() + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        log.info("Запись JFR {} выгружена ({} байт)", recording.getId(), Files.size(file));
+        return Optional.of(file);
+    }
+
+    /**
+     * Закрывает последнюю запись при остановке приложения.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Загружает настройки JFR по имени или из файла.
+     *
+     * @return Настройки.
+     * @throws IOException настройки не найдены или некорректны.
+     */
+    private Configuration loadSettings() throws IOException {
+        String settings = config.getSettings();
+        try {
+            return settings.endsWith(".jfc")
+                    ? Configuration.create(Path.of(settings))
+                    : Configuration.getConfiguration(settings);
+        } catch (ParseException e) {
+            throw new IOException("Некорректные настройки JFR: " + settings, e);
+        }
+    }
+
+    /**
+     * Формирует состояние записи.
+     *
+     * @param target Запись.
+     * @return Состояние записи.
+     */
+    private RecordingStatus statusOf(final Recording target) {
+        Duration duration = target.getDuration();
+        return new RecordingStatus(
+                target.getId(),
+                target.getState().name(),
+                target.getStartTime(),
+                duration == null ? 0 : duration.toSeconds(),
+                target.getSize()
+        );
+    }
+
+    /**
+     * Оценивает время до окончания выполняющейся записи.
+     *
+     * @param target Запись.
+     * @return Время до окончания (в секундах), не менее 1.
+     */
+    private static long remainingSeconds(final Recording target) {
+        Instant startTime = target.getStartTime();
+        Duration duration = target.getDuration();
+        if (startTime == null || duration == null) {
+            return 1;
+        }
+        return Math.max(1, Duration.between(Instant.now(), startTime.plus(duration)).toSeconds());
+    }
+}
@@ -0,0 +1,48 @@
+package org.surkov.hranalyzer.service.recording.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Конфигурация записи Java Flight Recorder по запросу администратора.
+ * Значения загружаются из свойств приложения с префиксом "diagnostics.recording".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "diagnostics.recording")
+@Validated
+public class FlightRecordingConfig {
+
+    /**
+     * Настройки JFR: {@code default} (накладные расходы около 1%) или {@code profile}
+     * (подробнее, около 2%), либо путь к файлу настроек .jfc.
+     * Значение по умолчанию: {@code default}.
+     */
+    @NotBlank
+    private String settings = "default";
+
+    /**
+     * Длительность записи, если она не указана в запросе (в секундах).
+     * Значение по умолчанию: 60.
+     */
+    @Min(1)
+    private long defaultDurationSeconds = 60;
+
+    /**
+     * Максимальная длительность записи (в секундах). Запрошенная длительность ограничивается этим значением.
+     * Значение по умолчанию: 600.
+     */
+    @Min(1)
+    private long maxDurationSeconds = 600;
+
+    /**
+     * Максимальный объем данных записи на диске (в мегабайтах). Более старые данные вытесняются.
+     * Значение по умолчанию: 100.
+     */
+    @Min(1)
+    private long maxSizeMb = 100;
+}
@@ -0,0 +1,21 @@
+package org.surkov.hranalyzer.service.recording.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO состояния записи Java Flight Recorder.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingStatus {
+    private long id;
+    private String state;
+    private Instant startTime;
+    private long durationSeconds;
+    private long sizeBytes;
+}
@@ -0,0 +1,100 @@
+package org.surkov.hranalyzer.service.recording.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR: извлечение текста из одного файла.
+ * Длительность события - время разбора файла без ожидания в очереди пула.
+ * <p>
+ * Количество страниц сообщает экстрактор вызовом {@link #recordPages(int)} в потоке разбора;
+ * если экстрактор его не знает (не PDF или разбор в рабочей JVM), оно равно 0.
+ * </p>
+ */
+@Name("hranalyzer.Extraction")
+@Label("Resume Text Extraction")
+@Category({"HrAnalyzer", "Extraction"})
+@Description("Разбор файла резюме и извлечение текста")
+@StackTrace(false)
+public final class ExtractionEvent extends jdk.jfr.Event {
+
+    /**
+     * Событие, записываемое в текущем потоке разбора.
+     */
+    private static final ThreadLocal<ExtractionEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("File Type")
+    private String fileType;
+
+    @Label("File Size")
+    @DataAmount
+    private long fileSize;
+
+    @Label("Pages")
+    private int pages;
+
+    @Label("Text Length")
+    @Description("Количество символов извлеченного текста")
+    private int textLength;
+
+    @Label("Worker JVM")
+    @Description("Разбор выполнен в рабочей JVM")
+    private boolean worker;
+
+    @Label("Success")
+    private boolean success;
+
+    /**
+     * Начинает событие в текущем потоке.
+     *
+     * @param fileType Тип файла.
+     * @param fileSize Размер файла (в байтах).
+     * @param worker   Признак разбора в рабочей JVM.
+     * @return Событие.
+     */
+    public static ExtractionEvent start(final String fileType, final long fileSize, final boolean worker) {
+        ExtractionEvent event = new ExtractionEvent();
+        if (event.isEnabled()) {
+            event.fileType = fileType;
+            event.fileSize = fileSize;
+            event.worker = worker;
+            CURRENT.set(event);
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Сообщает количество страниц файла, разбираемого в текущем потоке.
+     *
+     * @param pages Количество страниц.
+     */
+    public static void recordPages(final int pages) {
+        ExtractionEvent event = CURRENT.get();
+        if (event != null) {
+            event.pages = pages;
+        }
+    }
+
+    /**
+     * Завершает событие и записывает его, если оно превысило порог записи.
+     *
+     * @param text Извлеченный текст или {@code null} при ошибке.
+     */
+    public void finish(final String text) {
+        if (!isEnabled()) {
+            return;
+        }
+        CURRENT.remove();
+        end();
+        if (shouldCommit()) {
+            success = text != null;
+            textLength = text == null ? 0 : text.length();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.surkov.hranalyzer.service.recording.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR: HTTP-вызов GigaChat API.
+ * Длительность события - время от отправки запроса, включая установку соединения,
+ * до получения заголовков ответа.
+ */
+@Name("hranalyzer.GigaChatCall")
+@Label("GigaChat Call")
+@Category({"HrAnalyzer", "GigaChat"})
+@Description("HTTP-вызов GigaChat API")
+@StackTrace(false)
+public final class GigaChatCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("Операция API: chat, embeddings или token")
+    public String operation;
+
+    @Label("Model")
+    public String model;
+
+    @Label("RqUID")
+    public String rqUid;
+
+    @Label("Status")
+    @Description("Код ответа HTTP или 0, если ответ не получен")
+    public int status;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    @Description("Размер тела ответа по заголовку Content-Length или -1, если он неизвестен")
+    public long responseBytes;
+}
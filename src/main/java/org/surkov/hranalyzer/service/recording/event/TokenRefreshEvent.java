@@ -0,0 +1,30 @@
+package org.surkov.hranalyzer.service.recording.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR: обновление токена доступа GigaChat или ожидание его обновления другим потоком.
+ * Длительность события - время, на которое запрос к API был задержан получением токена.
+ */
+@Name("hranalyzer.TokenRefresh")
+@Label("GigaChat Token Refresh")
+@Category({"HrAnalyzer", "GigaChat"})
+@Description("Обновление токена доступа GigaChat или ожидание его обновления")
+@StackTrace(false)
+public final class TokenRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Client")
+    @Description("Маскированный идентификатор клиента учетной записи")
+    public String client;
+
+    @Label("Waited")
+    @Description("Поток ожидал обновления, выполняемого другим потоком")
+    public boolean waited;
+
+    @Label("Success")
+    public boolean success;
+}
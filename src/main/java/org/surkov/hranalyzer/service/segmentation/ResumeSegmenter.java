@@ -0,0 +1,184 @@
+package org.surkov.hranalyzer.service.segmentation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.giga_chat.enumiration.ResumeSection;
+import org.surkov.hranalyzer.service.segmentation.dto.SegmentedResume;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Разделение извлеченного текста резюме на разделы и отбор разделов, нужных промпту.
+ * <p>
+ * Заголовки всех разделов на русском и английском языках собраны в одно заранее скомпилированное
+ * регулярное выражение с именованной группой на раздел, поэтому текст просматривается за один проход.
+ * Заголовком считается отдельная строка из названия раздела, возможно с маркером списка
+ * и коротким пояснением после двоеточия или тире (например, "Опыт работы — 6 лет").
+ * Текст до первого заголовка и раздел желаемой должности считаются шапкой и передаются всегда.
+ * </p>
+ * <p>
+ * Каждый {@link PromptType} объявляет нужные ему разделы, остальные не передаются в GigaChat.
+ * Короткие резюме и резюме без распознанных разделов опыта и навыков передаются целиком.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ResumeSegmenter {
+
+    /**
+     * Имя группы заголовков шапки резюме.
+     */
+    private static final String HEADER_GROUP = "HEADER";
+
+    /**
+     * Заголовки, продолжающие шапку резюме.
+     */
+    private static final List<String> HEADER_HEADINGS = List.of(
+            "желаемая должность и зарплата", "желаемая должность", "objective", "desired position"
+    );
+
+    /**
+     * Выражение для поиска заголовков всех разделов.
+     */
+    private static final Pattern HEADING = compileHeadingPattern();
+
+    /**
+     * Признак включенного отбора разделов.
+     */
+    private final boolean enabled;
+
+    /**
+     * Длина текста (в символах), начиная с которой разделы отбираются.
+     */
+    private final int minChars;
+
+    /**
+     * Конструктор.
+     *
+     * @param enabled  Признак включенного отбора разделов.
+     * @param minChars Длина текста (в символах), начиная с которой разделы отбираются.
+     */
+    public ResumeSegmenter(
+            @Value("${analysis.segmentation.enabled:true}") final boolean enabled,
+            @Value("${analysis.segmentation.min-chars:2000}") final int minChars
+    ) {
+        this.enabled = enabled;
+        this.minChars = minChars;
+    }
+
+    /**
+     * Делит текст резюме на разделы.
+     *
+     * @param text Текст резюме.
+     * @return Разделенное резюме.
+     */
+    public SegmentedResume segment(final String text) {
+        List<SegmentedResume.Segment> segments = new ArrayList<>();
+        ResumeSection current = null;
+        int start = 0;
+        Matcher matcher = HEADING.matcher(text);
+        while (matcher.find()) {
+            if (matcher.start() > start) {
+                segments.add(new SegmentedResume.Segment(current, start, matcher.start()));
+            }
+            current = sectionOf(matcher);
+            start = matcher.start();
+        }
+        if (text.length() > start) {
+            segments.add(new SegmentedResume.Segment(current, start, text.length()));
+        }
+        return new SegmentedResume(text, segments);
+    }
+
+    /**
+     * Возвращает текст резюме, который нужно передать промпту.
+     * Если часть разделов исключена, перед текстом добавляется пояснение с исходным объемом резюме,
+     * чтобы модель не считала резюме коротким.
+     *
+     * @param text       Текст резюме.
+     * @param promptType Тип системного промпта.
+     * @return Текст разделов, нужных промпту, или исходный текст.
+     */
+    public String select(final String text, final PromptType promptType) {
+        if (!enabled || text.length() < minChars) {
+            return text;
+        }
+        SegmentedResume resume = segment(text);
+        Set<ResumeSection> found = resume.getSections();
+        if (!found.contains(ResumeSection.EXPERIENCE) && !found.contains(ResumeSection.SKILLS)) {
+            return text;
+        }
+
+        Set<ResumeSection> omitted = EnumSet.noneOf(ResumeSection.class);
+        omitted.addAll(found);
+        omitted.removeAll(promptType.getSections());
+        if (omitted.isEmpty()) {
+            return text;
+        }
+
+        String selected = resume.select(promptType.getSections());
+        log.debug("Для промпта {} исключены разделы {}: {} из {} символов",
+                promptType, omitted, selected.length(), text.length());
+        return "[Из резюме исключены разделы, не нужные для анализа: "
+                + omitted.stream().map(ResumeSection::getTitle).collect(Collectors.joining(", "))
+                + ". Объем исходного резюме: " + text.length() + " символов.]\n\n"
+                + selected;
+    }
+
+    /**
+     * Определяет раздел по найденному заголовку.
+     *
+     * @param matcher Результат поиска заголовка.
+     * @return Раздел или {@code null} для шапки резюме.
+     */
+    private static ResumeSection sectionOf(final Matcher matcher) {
+        for (ResumeSection section : ResumeSection.values()) {
+            if (matcher.start(section.name()) >= 0) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Компилирует выражение для поиска заголовков: строка из маркера списка, заголовка
+     * и необязательного короткого пояснения. Более длинные заголовки проверяются первыми.
+     *
+     * @return Скомпилированное выражение.
+     */
+    private static Pattern compileHeadingPattern() {
+        String groups = Stream.concat(
+                        Stream.of(group(HEADER_GROUP, HEADER_HEADINGS)),
+                        Stream.of(ResumeSection.values()).map(section -> group(section.name(), section.getHeadings()))
+                )
+                .collect(Collectors.joining("|"));
+        return Pattern.compile(
+                "^[ \\t]*(?:[#*•▪\\-–—]+|\\d{1,2}[.)])?[ \\t]*(?:" + groups + ")[ \\t]*(?::[^\\n]{0,200}|[—–\\-][^\\n]{0,60})?[ \\t]*$",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.MULTILINE
+        );
+    }
+
+    /**
+     * Формирует именованную группу из вариантов заголовка.
+     *
+     * @param name     Имя группы.
+     * @param headings Варианты заголовка.
+     * @return Группа регулярного выражения.
+     */
+    private static String group(final String name, final List<String> headings) {
+        return "(?<" + name + ">" + headings.stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|")) + ")";
+    }
+}
@@ -0,0 +1,78 @@
+package org.surkov.hranalyzer.service.segmentation.dto;
+
+import lombok.Getter;
+import org.surkov.hranalyzer.giga_chat.enumiration.ResumeSection;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Текст резюме, разделенный на разделы.
+ * Разделы хранятся границами в исходном тексте в порядке следования.
+ */
+@Getter
+public class SegmentedResume {
+
+    /**
+     * Исходный текст резюме.
+     */
+    private final String text;
+
+    /**
+     * Разделы в порядке следования. Первым идет шапка резюме, если она есть.
+     */
+    private final List<Segment> segments;
+
+    /**
+     * Конструктор.
+     *
+     * @param text     Исходный текст резюме.
+     * @param segments Разделы в порядке следования.
+     */
+    public SegmentedResume(final String text, final List<Segment> segments) {
+        this.text = text;
+        this.segments = List.copyOf(segments);
+    }
+
+    /**
+     * Возвращает разделы, найденные в резюме.
+     *
+     * @return Найденные разделы без шапки.
+     */
+    public Set<ResumeSection> getSections() {
+        Set<ResumeSection> sections = EnumSet.noneOf(ResumeSection.class);
+        for (Segment segment : segments) {
+            if (segment.section() != null) {
+                sections.add(segment.section());
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Собирает текст из шапки и указанных разделов в исходном порядке.
+     *
+     * @param sections Разделы.
+     * @return Текст выбранных разделов.
+     */
+    public String select(final Set<ResumeSection> sections) {
+        StringBuilder selected = new StringBuilder(text.length());
+        for (Segment segment : segments) {
+            if (segment.section() == null || sections.contains(segment.section())) {
+                selected.append(text, segment.start(), segment.end());
+            }
+        }
+        return selected.toString().strip();
+    }
+
+    /**
+     * Раздел резюме.
+     *
+     * @param section Раздел или {@code null} для шапки резюме (имя, желаемая должность).
+     * @param start   Начало раздела в тексте, включая заголовок.
+     * @param end     Конец раздела в тексте (не включительно).
+     */
+    public record Segment(ResumeSection section, int start, int end) {
+    }
+}
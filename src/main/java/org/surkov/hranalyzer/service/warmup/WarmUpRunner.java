@@ -0,0 +1,202 @@
+package org.surkov.hranalyzer.service.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.surkov.hranalyzer.giga_chat.dto.GigaChatMessage;
+import org.surkov.hranalyzer.giga_chat.dto.GigaChatRequest;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analytics.AnalysisReportParser;
+import org.surkov.hranalyzer.service.extraction.FileType;
+import org.surkov.hranalyzer.service.extraction.FileTypeDetector;
+import org.surkov.hranalyzer.service.extraction.TextExtractor;
+import org.surkov.hranalyzer.service.warmup.config.WarmUpConfig;
+import org.surkov.hranalyzer.util.JsonExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев горячих путей обработки резюме при запуске приложения.
+ * <p>
+ * Прогоняет образцы документов из {@code classpath:warmup/} через определение типа файла
+ * и каждый {@link TextExtractor}, а также выполняет сериализацию запроса {@link GigaChatRequest},
+ * разбор ответа GigaChat и разбор отчета. Так загрузка классов PDFBox, инициализация шрифтов
+ * и создание сериализаторов Jackson происходят до первого пользовательского запроса.
+ * </p>
+ * <p>
+ * Выполняется как {@link ApplicationRunner}, то есть до публикации состояния готовности
+ * к приему трафика. Ошибки прогрева не прерывают запуск, а только логируются.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+
+    /**
+     * Каталог образцов документов в classpath.
+     */
+    private static final String SAMPLES_LOCATION = "warmup/sample";
+
+    /**
+     * Образец ответа GigaChat.
+     */
+    private static final String SAMPLE_RESPONSE = """
+            {"choices":[{"message":{"role":"assistant","content":"- **Заявленный уровень кандидата:** Middle\\n\
+            - **Подозрительные моменты:**\\n  - Непрофильное образование (риск)\\n\
+            - **Рекомендация:** Требуется дополнительное собеседование"},"index":0,"finish_reason":"stop"}],\
+            "created":0,"model":"GigaChat","object":"chat.completion",\
+            "usage":{"prompt_tokens":1,"completion_tokens":1,"total_tokens":2}}""";
+
+    /**
+     * Конфигурация прогрева.
+     */
+    private final WarmUpConfig config;
+
+    /**
+     * Все доступные экстракторы текста.
+     */
+    private final List<TextExtractor<String>> extractors;
+
+    /**
+     * Определение типа файла по содержимому.
+     */
+    private final FileTypeDetector fileTypeDetector;
+
+    /**
+     * Объект для сериализации и десериализации JSON.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Экстрактор текста из JSON ответа GigaChat.
+     */
+    private final JsonExtractor jsonExtractor;
+
+    /**
+     * Разбор отчета GigaChat.
+     */
+    private final AnalysisReportParser reportParser;
+
+    /**
+     * Выполняет прогрев и логирует его длительность.
+     *
+     * @param args Аргументы запуска приложения.
+     */
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Map<FileType, Long> firstRunMs = new EnumMap<>(FileType.class);
+        for (TextExtractor<String> extractor : extractors) {
+            FileType fileType = extractor.getSupportedFileType();
+            byte[] sample = loadSample(fileType);
+            if (sample == null) {
+                continue;
+            }
+            for (int i = 0; i < config.getIterations(); i++) {
+                long iterationStarted = System.nanoTime();
+                try {
+                    warmUpExtractor(extractor, fileType, sample);
+                } catch (Exception e) {
+                    log.warn("Ошибка прогрева экстрактора {}: {}", fileType, e.getMessage());
+                    break;
+                }
+                firstRunMs.putIfAbsent(fileType, elapsedMs(iterationStarted));
+            }
+        }
+
+        long jsonStarted = System.nanoTime();
+        for (int i = 0; i < config.getIterations(); i++) {
+            try {
+                warmUpJson();
+            } catch (Exception e) {
+                log.warn("Ошибка прогрева JSON-сериализации: {}", e.getMessage());
+                break;
+            }
+        }
+        long jsonMs = elapsedMs(jsonStarted);
+
+        log.info("Прогрев завершен за {} мс (первый прогон экстракторов, мс: {}; JSON: {} мс)",
+                elapsedMs(started), firstRunMs, jsonMs);
+    }
+
+    /**
+     * Прогоняет образец через определение типа файла и экстрактор.
+     *
+     * @param extractor Экстрактор текста.
+     * @param fileType  Тип файла.
+     * @param sample    Содержимое образца.
+     * @throws IOException ошибка разбора образца.
+     */
+    private void warmUpExtractor(
+            final TextExtractor<String> extractor,
+            final FileType fileType,
+            final byte[] sample
+    ) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(sample)) {
+            fileTypeDetector.detect("sample" + fileType.getExtension(), in);
+        }
+        try (InputStream in = new ByteArrayInputStream(sample)) {
+            extractor.extract(in);
+        }
+    }
+
+    /**
+     * Выполняет сериализацию запроса к GigaChat и разбор ответа.
+     *
+     * @throws IOException ошибка сериализации.
+     */
+    private void warmUpJson() throws IOException {
+        GigaChatMessage systemMessage = new GigaChatMessage();
+        systemMessage.setRole("system");
+        systemMessage.setContent(PromptType.values()[0].getSystemPrompt());
+
+        GigaChatMessage userMessage = new GigaChatMessage();
+        userMessage.setRole("user");
+        userMessage.setContent("Java-разработчик, опыт 3 года");
+
+        GigaChatRequest request = new GigaChatRequest();
+        request.setModel(GigaModelType.values()[0].getModelName());
+        request.setMessages(List.of(systemMessage, userMessage));
+        request.setStream(false);
+
+        objectMapper.writeValueAsString(request);
+        objectMapper.writeValueAsString(Map.of("model", "Embeddings", "input", List.of("Java")));
+        reportParser.parse(jsonExtractor.extractTextFromMessage(SAMPLE_RESPONSE));
+    }
+
+    /**
+     * Загружает образец документа для типа файла.
+     *
+     * @param fileType Тип файла.
+     * @return Содержимое образца или {@code null}, если образец не найден.
+     */
+    private byte[] loadSample(final FileType fileType) {
+        ClassPathResource resource = new ClassPathResource(SAMPLES_LOCATION + fileType.getExtension());
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("Образец для прогрева {} не найден: {}", fileType, resource.getPath());
+            return null;
+        }
+    }
+
+    private static long elapsedMs(final long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
@@ -0,0 +1,32 @@
+package org.surkov.hranalyzer.service.warmup.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Конфигурация прогрева приложения перед приемом трафика.
+ * Значения загружаются из свойств приложения с префиксом "warmup".
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "warmup")
+@Validated
+public class WarmUpConfig {
+
+    /**
+     * Выполнять ли прогрев при запуске.
+     * Значение по умолчанию: {@code true}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Количество прогонов образцов через экстракторы и JSON-сериализацию.
+     * Первый прогон загружает классы и шрифты, последующие дают JIT-компилятору профиль.
+     * Значение по умолчанию: 3.
+     */
+    @Min(1)
+    private int iterations = 3;
+}
@@ -0,0 +1,66 @@
+package org.surkov.hranalyzer.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * Текущий арендатор (пользователь API), от имени которого выполняются вызовы GigaChat.
+ * <p>
+ * В потоке обработки HTTP-запроса арендатор берется из контекста безопасности.
+ * При переходе выполнения в другие потоки (пул извлечения текста, потоки HTTP-клиента)
+ * арендатор нужно захватить вызовом {@link #current()} и передать через {@link #supplyAs(String, Supplier)}.
+ * </p>
+ */
+public final class TenantContext {
+
+    /**
+     * Арендатор для вызовов вне HTTP-запросов.
+     */
+    public static final String SYSTEM = "system";
+
+    /**
+     * Арендатор, явно заданный для текущего потока.
+     */
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Возвращает текущего арендатора.
+     *
+     * @return Имя арендатора.
+     */
+    public static String current() {
+        String tenant = TENANT.get();
+        if (tenant != null) {
+            return tenant;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? SYSTEM : authentication.getName();
+    }
+
+    /**
+     * Выполняет действие от имени арендатора.
+     *
+     * @param tenant Имя арендатора.
+     * @param action Действие.
+     * @param <T>    Тип результата.
+     * @return Результат действия.
+     */
+    public static <T> T supplyAs(final String tenant, final Supplier<T> action) {
+        String previous = TENANT.get();
+        TENANT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                TENANT.remove();
+            } else {
+                TENANT.set(previous);
+            }
+        }
+    }
+}
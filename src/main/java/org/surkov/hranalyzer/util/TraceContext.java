@@ -0,0 +1,50 @@
+package org.surkov.hranalyzer.util;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Контекст трассировки (текущий span), который нужно сохранить при переходе выполнения в другие потоки.
+ * <p>
+ * Продолжения {@link java.util.concurrent.CompletableFuture} выполняются в том потоке, который завершил
+ * предыдущий этап: в пуле извлечения текста, в потоке HTTP-клиента или в потоке чужого запроса,
+ * освободившего разрешение GigaChat. Чтобы span-ы и идентификаторы трассировки в логах (MDC) относились
+ * к исходному запросу, контекст нужно захватить вызовом {@link #capture()} и восстановить через
+ * {@link #supplyIn(ContextSnapshot, Supplier)}.
+ * </p>
+ */
+public final class TraceContext {
+
+    /**
+     * Фабрика снимков контекста по всем зарегистрированным thread-local значениям.
+     */
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private TraceContext() {
+    }
+
+    /**
+     * Захватывает контекст трассировки текущего потока.
+     *
+     * @return Снимок контекста.
+     */
+    public static ContextSnapshot capture() {
+        return SNAPSHOTS.captureAll();
+    }
+
+    /**
+     * Выполняет действие в захваченном контексте трассировки.
+     *
+     * @param snapshot Снимок контекста.
+     * @param action   Действие.
+     * @param <T>      Тип результата.
+     * @return Результат действия.
+     */
+    public static <T> T supplyIn(final ContextSnapshot snapshot, final Supplier<T> action) {
+        try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+            return action.get();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Общее хранилище экземпляров приложения. Скрипт выполняется при каждом запуске.
+
+-- Токены доступа GigaChat и право на их обновление.
+CREATE TABLE IF NOT EXISTS hra_token (
+    client_key   VARCHAR(64) PRIMARY KEY,
+    access_token VARCHAR(8192),
+    expires_at   BIGINT      NOT NULL DEFAULT 0,
+    lease_owner  VARCHAR(64),
+    lease_until  BIGINT      NOT NULL DEFAULT 0
+);
+
+-- Результаты анализа: kind = 'cache' (ключ от запроса) или 'result' (ключ от содержимого).
+CREATE TABLE IF NOT EXISTS hra_result (
+    kind       VARCHAR(16) NOT NULL,
+    id         VARCHAR(64) NOT NULL,
+    content    TEXT        NOT NULL,
+    created_at BIGINT      NOT NULL,
+    PRIMARY KEY (kind, id)
+);
+
+CREATE INDEX IF NOT EXISTS hra_result_created_at ON hra_result (created_at);
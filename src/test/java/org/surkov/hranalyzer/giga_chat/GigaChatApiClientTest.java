@@ -0,0 +1,44 @@
+package org.surkov.hranalyzer.giga_chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GigaChatApiClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void embeddingsArePlacedByIndexOrArrayOrder() throws Exception {
+        List<float[]> byIndex = GigaChatApiClient.toEmbeddings(json("""
+                [{"index": 1, "embedding": [2.0]}, {"index": 0, "embedding": [1.0]}]"""), 2);
+        assertArrayEquals(new float[]{1.0f}, byIndex.get(0));
+        assertArrayEquals(new float[]{2.0f}, byIndex.get(1));
+
+        List<float[]> byOrder = GigaChatApiClient.toEmbeddings(json("""
+                [{"embedding": [1.0]}, {"embedding": [2.0]}]"""), 2);
+        assertArrayEquals(new float[]{2.0f}, byOrder.get(1), "Без индекса - порядок массива");
+    }
+
+    @Test
+    void invalidEmbeddingIndexIsRejected() {
+        assertThrows(ApiRequestException.class, () -> GigaChatApiClient.toEmbeddings(json("""
+                [{"index": 0, "embedding": [1.0]}, {"index": 0, "embedding": [2.0]}]"""), 2), "Повтор индекса");
+        assertThrows(ApiRequestException.class, () -> GigaChatApiClient.toEmbeddings(json("""
+                [{"index": 0, "embedding": [1.0]}, {"index": 2, "embedding": [2.0]}]"""), 2), "Вне диапазона");
+        assertThrows(ApiRequestException.class, () -> GigaChatApiClient.toEmbeddings(json("""
+                [{"index": "a", "embedding": [1.0]}]"""), 1), "Не число");
+        assertThrows(ApiRequestException.class, () -> GigaChatApiClient.toEmbeddings(json("""
+                [{"index": 0, "embedding": [1.0]}]"""), 2), "Векторов меньше текстов");
+    }
+
+    private JsonNode json(final String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,69 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final GigaChatResilienceConfig config = config();
+    private final CircuitBreaker breaker = new CircuitBreaker("GigaChat", config);
+
+    @Test
+    void closedOpensHalfOpensAndClosesAgain() {
+        breaker.onResult(10, true);
+        breaker.onResult(10, true);
+        breaker.onResult(10, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "Вызовов меньше минимума");
+
+        breaker.onResult(10, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "Доля ошибок 50%");
+        assertFalse(breaker.tryAcquirePermission(), "Разомкнутый выключатель отклоняет вызовы");
+        assertTrue(breaker.getRemainingOpenMs() > 0);
+
+        config.setOpenStateDurationMs(0);
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission(), "Пробных вызовов не больше разрешенного");
+
+        breaker.onResult(10, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(10, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "Все пробные вызовы успешны");
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(0, breaker.getRemainingOpenMs());
+    }
+
+    @Test
+    void slowCallsOpenAndFailedProbeReopens() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(config.getSlowCallDurationMs(), false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "Все вызовы медленные");
+
+        config.setOpenStateDurationMs(0);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.releasePermission();
+        assertTrue(breaker.tryAcquirePermission(), "Возвращенное разрешение выдается снова");
+
+        breaker.onResult(10, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "Ошибка пробного вызова");
+    }
+
+    private static GigaChatResilienceConfig config() {
+        GigaChatResilienceConfig config = new GigaChatResilienceConfig();
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallDurationMs(1_000);
+        config.setSlowCallRateThreshold(100);
+        config.setOpenStateDurationMs(60_000);
+        config.setPermittedCallsInHalfOpenState(2);
+        return config;
+    }
+}
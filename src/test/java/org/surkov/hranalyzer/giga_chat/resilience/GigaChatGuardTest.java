@@ -0,0 +1,78 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.config.ApiUsersConfig;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.giga_chat.exception.RateLimitedException;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GigaChatGuardTest {
+
+    private static final GigaModelType MODEL = GigaModelType.GIGA_MODEL_LITE;
+
+    private final GigaChatResilienceConfig config = config();
+    private final GigaChatGuard guard = new GigaChatGuard(config, new ApiUsersConfig());
+
+    @Test
+    void clientErrorsDoNotOpenBreaker() {
+        for (int i = 0; i < 4; i++) {
+            fail(new ApiRequestException("Ошибка при обработке запроса к GigaChat API",
+                    new ApiRequestException("Bad Request. Код ответа: 400", 400)));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState(MODEL), "Ошибки 4xx не считаются сбоем");
+
+        fail(new ApiRequestException("Internal Server Error. Код ответа: 500", 500));
+        fail(new RateLimitedException("Too Many Requests", 1));
+        fail(new IllegalStateException(new SocketTimeoutException("timeout")));
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState(MODEL), "5xx, 429 и тайм-ауты считаются сбоем");
+    }
+
+    @Test
+    void queuedCallDoesNotHoldHalfOpenProbe() {
+        for (int i = 0; i < 4; i++) {
+            fail(new ApiRequestException("Internal Server Error. Код ответа: 500", 500));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState(MODEL));
+        assertThrows(GigaChatUnavailableException.class, () -> guard.acquire(MODEL),
+                "Разомкнутый выключатель отклоняет вызов без очереди");
+
+        config.setOpenStateDurationMs(0);
+        GigaChatGuard.Permit probe = guard.acquire(MODEL);
+        CompletableFuture<GigaChatGuard.Permit> queued = guard.acquireAsync(MODEL);
+        assertFalse(queued.isDone(), "Второй вызов ждет слот лимита");
+
+        probe.complete(null);
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState(MODEL), "Пробный вызов успешен");
+        assertTrue(queued.isDone() && !queued.isCompletedExceptionally(),
+                "Вызов из очереди не занимал разрешение пробного вызова");
+        queued.join().complete(null);
+    }
+
+    private void fail(final RuntimeException error) {
+        assertThrows(RuntimeException.class, () -> guard.execute(MODEL, () -> {
+            throw error;
+        }));
+    }
+
+    private static GigaChatResilienceConfig config() {
+        GigaChatResilienceConfig config = new GigaChatResilienceConfig();
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenStateDurationMs(60_000);
+        config.setPermittedCallsInHalfOpenState(1);
+        config.setMaxConcurrentCalls(1);
+        config.setMaxWaitMs(5_000);
+        return config;
+    }
+}
@@ -0,0 +1,105 @@
+package org.surkov.hranalyzer.giga_chat.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedFairBulkheadTest {
+
+    private static final long MAX_WAIT_MS = 60_000;
+
+    private final WeightedFairBulkhead bulkhead = new WeightedFairBulkhead("GigaChat", 1);
+
+    @Test
+    void slotsAreSharedInProportionToWeights() {
+        WeightedFairBulkhead.Quota heavy = new WeightedFairBulkhead.Quota(2, 0, 100);
+        WeightedFairBulkhead.Quota light = new WeightedFairBulkhead.Quota(1, 0, 100);
+        assertTrue(bulkhead.acquire("holder", light, MAX_WAIT_MS).isDone());
+
+        Map<CompletableFuture<Void>, String> waiters = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            waiters.put(bulkhead.acquire("heavy", heavy, MAX_WAIT_MS), "heavy");
+        }
+        for (int i = 0; i < 6; i++) {
+            waiters.put(bulkhead.acquire("light", light, MAX_WAIT_MS), "light");
+        }
+
+        List<String> order = new ArrayList<>();
+        String running = "holder";
+        for (int i = 0; i < 6; i++) {
+            bulkhead.release(running);
+            List<String> granted = waiters.entrySet().stream()
+                    .filter(entry -> entry.getKey().isDone())
+                    .map(Map.Entry::getValue)
+                    .toList();
+            assertEquals(1, granted.size(), "Слот один, поэтому освобождение допускает один вызов");
+            running = granted.get(0);
+            order.add(running);
+            waiters.entrySet().removeIf(entry -> entry.getKey().isDone());
+        }
+
+        assertEquals(4, order.stream().filter("heavy"::equals).count(), "Вес 2 получает вдвое больше слотов");
+        assertEquals(2, order.stream().filter("light"::equals).count(), "Вес 1 не голодает");
+    }
+
+    @Test
+    void timedOutBurstDoesNotReduceLaterShare() {
+        WeightedFairBulkhead.Quota quota = new WeightedFairBulkhead.Quota(1, 0, 100);
+        assertTrue(bulkhead.acquire("bulk", quota, MAX_WAIT_MS).isDone());
+
+        List<CompletableFuture<Void>> burst = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            burst.add(bulkhead.acquire("bulk", quota, 1));
+        }
+        burst.forEach(future -> assertThrows(CompletionException.class, future::join));
+
+        Map<CompletableFuture<Void>, String> waiters = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            waiters.put(bulkhead.acquire("interactive", quota, MAX_WAIT_MS), "interactive");
+            waiters.put(bulkhead.acquire("bulk", quota, MAX_WAIT_MS), "bulk");
+        }
+
+        List<String> order = new ArrayList<>();
+        String running = "bulk";
+        for (int i = 0; i < 4; i++) {
+            bulkhead.release(running);
+            running = waiters.entrySet().stream()
+                    .filter(entry -> entry.getKey().isDone())
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow();
+            order.add(running);
+            waiters.entrySet().removeIf(entry -> entry.getKey().isDone());
+        }
+
+        assertTrue(order.contains("bulk"),
+                "Вызовы, не дождавшиеся слота, не сдвигают очередь арендатора: " + order);
+    }
+
+    @Test
+    void cancelledWaiterLeavesTenantQueue() {
+        WeightedFairBulkhead.Quota quota = new WeightedFairBulkhead.Quota(1, 0, 1);
+        assertTrue(bulkhead.acquire("holder", quota, MAX_WAIT_MS).isDone());
+
+        CompletableFuture<Void> cancelled = bulkhead.acquire("tenant", quota, MAX_WAIT_MS);
+        assertTrue(bulkhead.acquire("tenant", quota, MAX_WAIT_MS).isCompletedExceptionally(),
+                "Очередь арендатора заполнена");
+
+        cancelled.cancel(false);
+        CompletableFuture<Void> next = bulkhead.acquire("tenant", quota, MAX_WAIT_MS);
+        assertFalse(next.isDone(), "Отмененный вызов освободил место в очереди");
+
+        bulkhead.release("holder");
+        assertTrue(next.isDone() && !next.isCompletedExceptionally(), "Слот получает следующий вызов, а не отмененный");
+    }
+}
@@ -0,0 +1,44 @@
+package org.surkov.hranalyzer.service.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+import org.surkov.hranalyzer.service.analytics.dto.AnalysisReport;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalysisColumnStoreTest {
+
+    private static final AnalysisReport REPORT =
+            new AnalysisReport(CandidateLevel.MIDDLE, Recommendation.ACCEPT, 0, 0, 0, Set.of());
+
+    private final AnalysisColumnStore store = new AnalysisColumnStore(2, 1);
+
+    @Test
+    void vacancyCodeIsReusedAfterItsRowsAreOverwritten() {
+        add("Java");
+        add("Python");
+        assertEquals(1, total("Java"));
+        assertEquals(0, total("Python"), "Словарь заполнен, строка сохранена без вакансии");
+        assertEquals(2, total(null));
+
+        add("Python");
+        assertEquals(0, total("Java"), "Единственная строка вакансии перезаписана");
+        assertEquals(1, total("Python"), "Код освобожденной вакансии выдан новой");
+
+        add("Python");
+        assertEquals(2, total("Python"));
+    }
+
+    private void add(final String vacancy) {
+        store.add(REPORT, PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, vacancy);
+    }
+
+    private int total(final String vacancy) {
+        return store.summarize(vacancy, null, null).getTotal();
+    }
+}
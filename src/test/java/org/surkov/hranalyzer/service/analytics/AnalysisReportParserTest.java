@@ -0,0 +1,53 @@
+package org.surkov.hranalyzer.service.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.service.analytics.dto.AnalysisReport;
+import org.surkov.hranalyzer.service.analytics.enumiration.CandidateLevel;
+import org.surkov.hranalyzer.service.analytics.enumiration.Recommendation;
+import org.surkov.hranalyzer.service.analytics.enumiration.RiskFlag;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalysisReportParserTest {
+
+    private final AnalysisReportParser parser = new AnalysisReportParser();
+
+    @Test
+    void countsRisksAndFlags() {
+        AnalysisReport report = parser.parse("""
+                - **Уровень кандидата:** Middle
+                - **Образование:** Непрофильное образование — высокий риск.
+                - **Подозрительные моменты:**
+                  - Частая смена работы — риск.
+                  - Описание проектов подозрительно общими фразами.
+                - **Рекомендация:** Требуется дополнительная проверка.
+                """);
+
+        assertEquals(CandidateLevel.MIDDLE, report.getLevel());
+        assertEquals(Recommendation.NEEDS_REVIEW, report.getRecommendation());
+        assertEquals(1, report.getHighRiskCount());
+        assertEquals(1, report.getRiskCount());
+        assertEquals(1, report.getSuspiciousCount());
+        assertEquals(Set.of(RiskFlag.JOB_HOPPING, RiskFlag.SUPERFICIAL_PROJECTS), report.getRiskFlags());
+    }
+
+    @Test
+    void negatedPhrasingsAreNotCounted() {
+        AnalysisReport report = parser.parse("""
+                - **Уровень кандидата:** Senior
+                - **Образование:** Риски не выявлены.
+                - **Опыт работы:** Рисков нет
+                - **Навыки:** Высокий риск не обнаружен, подозрительных несоответствий не найдено.
+                - **Подозрительные моменты:** Подозрительные моменты отсутствуют.
+                - **Рекомендация:** Рекомендуется принять.
+                """);
+
+        assertEquals(0, report.getHighRiskCount(), "Высокий риск не обнаружен");
+        assertEquals(0, report.getRiskCount(), "Риски не выявлены, рисков нет");
+        assertEquals(0, report.getSuspiciousCount(), "Подозрительные моменты отсутствуют");
+        assertEquals(Set.of(), report.getRiskFlags());
+        assertEquals(Recommendation.ACCEPT, report.getRecommendation());
+    }
+}
@@ -0,0 +1,111 @@
+package org.surkov.hranalyzer.service.cluster;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.surkov.hranalyzer.giga_chat.HttpClientWrapper;
+import org.surkov.hranalyzer.giga_chat.TokenManager;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatConfig;
+import org.surkov.hranalyzer.service.cache.AnalysisResultStore;
+import org.surkov.hranalyzer.service.cluster.config.ClusterConfig;
+import org.surkov.hranalyzer.service.cluster.enumiration.TokenLease;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@SpringBootTest(properties = {
+        "cluster.enabled=true",
+        "cluster.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+        "cluster.username=sa",
+        "cluster.password=",
+        "cluster.token-lease-ms=300",
+        "cluster.token-poll-interval-ms=20"
+})
+class SharedStoreTest {
+
+    @Autowired
+    @Qualifier("clusterJdbcTemplate")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClusterConfig clusterConfig;
+
+    @Autowired
+    private SharedResultStore sharedResultStore;
+
+    @Autowired
+    private GigaChatConfig gigaChatConfig;
+
+    @Test
+    void onlyOneNodeRefreshesTokenAndOthersReuseIt() {
+        SharedTokenStore first = new SharedTokenStore(jdbcTemplate, clusterConfig);
+        SharedTokenStore second = new SharedTokenStore(jdbcTemplate, clusterConfig);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        assertEquals(TokenLease.ACQUIRED, first.tryAcquireLease("client"));
+        assertEquals(TokenLease.HELD, second.tryAcquireLease("client"));
+
+        first.publish("client", "token-1", expiresAt);
+        Optional<SharedTokenStore.SharedToken> shared = second.awaitToken("client", expiresAt - 1);
+        assertEquals(Optional.of(new SharedTokenStore.SharedToken("token-1", expiresAt)), shared);
+
+        second.invalidate("client", "token-1");
+        assertEquals(0, second.find("client").orElseThrow().expiresAt());
+        assertEquals(TokenLease.ACQUIRED, second.tryAcquireLease("client"));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() {
+        SharedTokenStore first = new SharedTokenStore(jdbcTemplate, clusterConfig);
+        SharedTokenStore second = new SharedTokenStore(jdbcTemplate, clusterConfig);
+
+        assertEquals(TokenLease.ACQUIRED, first.tryAcquireLease("stale"));
+        assertTrue(second.awaitToken("stale", 0).isEmpty());
+        assertEquals(TokenLease.ACQUIRED, second.tryAcquireLease("stale"));
+    }
+
+    @Test
+    void managerWaitsForSlowLeaseHolderInsteadOfRefreshingItself() {
+        SharedTokenStore holder = new SharedTokenStore(jdbcTemplate, clusterConfig);
+        HttpClientWrapper httpClientWrapper = mock(HttpClientWrapper.class);
+        TokenManager waiting = new TokenManager(gigaChatConfig, httpClientWrapper,
+                Optional.of(new SharedTokenStore(jdbcTemplate, clusterConfig)), ObservationRegistry.NOOP);
+        long expiresAt = System.currentTimeMillis() + 600_000;
+
+        assertEquals(TokenLease.ACQUIRED, holder.tryAcquireLease("slow"));
+        CompletableFuture<Void> slowRefresh = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 5; i++) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(150));
+                holder.tryAcquireLease("slow");
+            }
+            holder.publish("slow", "token-1", expiresAt);
+        });
+
+        String accessToken = waiting.getAccessToken(new GigaChatConfig.Credential("slow", "secret", 0));
+
+        assertEquals("token-1", accessToken, "Токен получен от владельца аренды после нескольких периодов");
+        verifyNoInteractions(httpClientWrapper);
+        slowRefresh.join();
+    }
+
+    @Test
+    void resultIsVisibleToOtherNodes() {
+        AnalysisResultStore first = new AnalysisResultStore(10, Optional.of(sharedResultStore));
+        AnalysisResultStore second = new AnalysisResultStore(10, Optional.of(sharedResultStore));
+
+        String id = first.put("Результат анализа");
+
+        assertEquals(Optional.of("Результат анализа"), second.get(id));
+        assertTrue(new AnalysisResultStore(10, Optional.empty()).get(id).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package org.surkov.hranalyzer.service.duplicate;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.giga_chat.enumiration.GigaModelType;
+import org.surkov.hranalyzer.giga_chat.enumiration.PromptType;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateIndexTest {
+
+    private static final String RESUME = IntStream.range(0, 80)
+            .mapToObj(i -> "навык" + i)
+            .collect(Collectors.joining(" "));
+
+    private final NearDuplicateIndex index = new NearDuplicateIndex(true, 3, 50, 100);
+
+    @Test
+    void reusesResultOfSameNormalizedText() {
+        index.add(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "анализ");
+
+        Optional<NearDuplicateIndex.Match> match = index.findSimilar(
+                NearDuplicateIndex.Fingerprint.of("  " + RESUME.toUpperCase().replace(" ", ",\n") + "."),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE);
+
+        assertEquals("анализ", match.orElseThrow().result());
+        assertTrue(match.get().exact(), "Нормализованный текст совпадает");
+        assertEquals(1.0, match.get().similarity());
+        assertTrue(index.findSimilar(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_PRO).isEmpty(), "Другая модель");
+    }
+
+    @Test
+    void flagsCloseTextAsInexactCandidate() {
+        index.add(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "анализ");
+
+        NearDuplicateIndex.Fingerprint edited = NearDuplicateIndex.Fingerprint.of(RESUME + " телефон");
+        NearDuplicateIndex.Match match = index.findSimilar(
+                edited, PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE).orElseThrow();
+
+        assertEquals("анализ", match.result());
+        assertFalse(match.exact(), "Текст отличается, результат - только кандидат");
+        assertTrue(match.similarity() < 1.0 && match.similarity() >= 1.0 - 3.0 / 64,
+                "Сходство в пределах max-distance-bits: " + match.similarity());
+    }
+
+    @Test
+    void prefersExactMatchOverCloserCandidate() {
+        index.add(NearDuplicateIndex.Fingerprint.of(RESUME + " телефон"),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "другой анализ");
+        index.add(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "анализ");
+
+        NearDuplicateIndex.Match match = index.findSimilar(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE).orElseThrow();
+
+        assertEquals("анализ", match.result());
+        assertTrue(match.exact());
+    }
+
+    @Test
+    void ignoresDistantText() {
+        index.add(NearDuplicateIndex.Fingerprint.of(RESUME),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "анализ");
+
+        String other = IntStream.range(0, 80).mapToObj(i -> "опыт" + i).collect(Collectors.joining(" "));
+        assertTrue(index.findSimilar(NearDuplicateIndex.Fingerprint.of(other),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE).isEmpty(), "Другое резюме");
+    }
+
+    @Test
+    void skipsShortTexts() {
+        index.add(NearDuplicateIndex.Fingerprint.of(""),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "пусто");
+        index.add(NearDuplicateIndex.Fingerprint.of("Java разработчик"),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE, "коротко");
+
+        assertTrue(index.findSimilar(NearDuplicateIndex.Fingerprint.of("  "),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE).isEmpty());
+        assertTrue(index.findSimilar(NearDuplicateIndex.Fingerprint.of("Java разработчик"),
+                PromptType.BASE_ANALYSIS, GigaModelType.GIGA_MODEL_LITE).isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package org.surkov.hranalyzer.service.extraction;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+import org.surkov.hranalyzer.service.extraction.config.ExtractionConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractionServiceTest {
+
+    private static final long KB = 1024;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1)
+    );
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void releasesBudgetOfQueuedTaskThatTimedOut() throws Exception {
+        ExtractionConfig config = new ExtractionConfig();
+        config.setPoolSize(1);
+        config.setQueueCapacity(1);
+        config.setTimeoutMs(200);
+        config.getAdmission().setBudgetMb(1);
+        config.getAdmission().setCheckHeapHeadroom(false);
+        config.getAdmission().setCostMultipliers(Map.of(FileType.TXT, 1));
+        UploadAdmissionControl admission = new UploadAdmissionControl(config);
+
+        TextExtractor<String> blocking = new TextExtractor<>() {
+            @Override
+            public String extract(final InputStream inputStream) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("interrupted", e);
+                }
+                return "";
+            }
+
+            @Override
+            public FileType getSupportedFileType() {
+                return FileType.TXT;
+            }
+        };
+        ExtractionService service = new ExtractionService(
+                List.of(blocking), executor, config, Optional.empty(), admission, ObservationRegistry.NOOP
+        );
+
+        CompletableFuture<String> running = service.extractTextAsync(input(), FileType.TXT, 300 * KB);
+        CompletableFuture<String> queued = service.extractTextAsync(input(), FileType.TXT, 300 * KB);
+        assertEquals(1, executor.getQueue().size(), "вторая задача должна ожидать в очереди");
+
+        CompletionException timeout = assertThrows(CompletionException.class, queued::join);
+        ServiceOverloadedException overloaded = assertInstanceOf(ServiceOverloadedException.class, timeout.getCause(),
+                "тайм-аут извлечения должен отвечать 503, а не ошибкой файла");
+        assertEquals(config.getRetryAfterSeconds(), overloaded.getRetryAfterSeconds());
+        assertThrows(CompletionException.class, running::join);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        boolean admitted = false;
+        while (!admitted && System.nanoTime() < deadline) {
+            try {
+                admission.admitNow(1024 * KB, FileType.TXT).close();
+                admitted = true;
+            } catch (RuntimeException e) {
+                Thread.sleep(10);
+            }
+        }
+        assertTrue(admitted, "бюджет памяти должен освободиться после тайм-аута задачи в очереди");
+    }
+
+    private static InputStream input() {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+}
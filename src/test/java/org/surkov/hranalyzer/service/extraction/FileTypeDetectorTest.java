@@ -0,0 +1,89 @@
+package org.surkov.hranalyzer.service.extraction;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.exception.UnsupportedFileTypeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileTypeDetectorTest {
+
+    private static final byte[] PDF = "%PDF-1.7\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] RTF = "{\\rtf1\\ansi Java}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TXT = "Иван Петров\nJava, Spring".getBytes(StandardCharsets.UTF_8);
+
+    private final FileTypeDetector detector = new FileTypeDetector();
+
+    @Test
+    void contentMatchingExtensionIsAccepted() throws IOException {
+        assertEquals(FileType.PDF, detect("resume.PDF", PDF));
+        assertEquals(FileType.RTF, detect("resume.rtf", RTF));
+        assertEquals(FileType.TXT, detect("resume.txt", TXT));
+        assertEquals(FileType.DOCX, detect("resume.docx", zip("[Content_Types].xml",
+                "<Types><Override PartName=\"/word/document.xml\" ContentType=\"application/"
+                        + "vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/></Types>")));
+    }
+
+    @Test
+    void contentNotMatchingExtensionIsRejected() {
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume.docx", PDF), "PDF под видом DOCX");
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume.txt", PDF), "PDF под видом TXT");
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume.pdf", RTF), "RTF под видом PDF");
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume.exe", TXT), "Неподдерживаемое расширение");
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume", TXT), "Нет расширения");
+        assertThrows(UnsupportedFileTypeException.class,
+                () -> detect("resume.txt", new byte[]{0x7F, 'E', 'L', 'F', 0, 0}), "Двоичные данные под видом TXT");
+    }
+
+    @Test
+    void plainZipIsNotDocx() {
+        assertThrows(UnsupportedFileTypeException.class,
+                () -> detect("resume.docx", zip("resume.txt", "Java")), "Архив без описания типов");
+        assertThrows(UnsupportedFileTypeException.class,
+                () -> detect("resume.docx", zip("[Content_Types].xml",
+                        "<Types><Default Extension=\"xml\" ContentType=\"application/xml\"/></Types>")),
+                "Архив другого формата Office Open XML");
+    }
+
+    @Test
+    void highlyCompressedEntryBeforeContentTypesIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("bomb.bin"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 64; i++) {
+                zip.write(zeros);
+            }
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write(("<Types><Override ContentType=\"application/"
+                    + "vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/></Types>")
+                    .getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        assertThrows(UnsupportedFileTypeException.class, () -> detect("resume.docx", bytes.toByteArray()),
+                "64 МБ нулей перед описанием типов");
+    }
+
+    private FileType detect(final String fileName, final byte[] content) throws IOException {
+        return detector.detect(fileName, new ByteArrayInputStream(content));
+    }
+
+    private static byte[] zip(final String entryName, final String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+}
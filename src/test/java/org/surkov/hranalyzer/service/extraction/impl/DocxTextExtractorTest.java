@@ -0,0 +1,104 @@
+package org.surkov.hranalyzer.service.extraction.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocxTextExtractorTest {
+
+    private static final String W = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+
+    private final DocxTextExtractor extractor = new DocxTextExtractor(1, 2, 1000);
+
+    @Test
+    void headersGoBeforeBodyAndFootersAfterRegardlessOfEntryOrder() throws IOException {
+        Map<String, byte[]> parts = new LinkedHashMap<>();
+        parts.put("word/footer1.xml", xml("<w:ftr " + W + ">" + paragraph("Подвал") + "</w:ftr>"));
+        parts.put("word/document.xml", xml("<w:document " + W + "><w:body>"
+                + paragraph("Иван Петров") + "<w:p><w:r><w:t>Java</w:t><w:tab/><w:t>Spring</w:t></w:r></w:p>"
+                + "</w:body></w:document>"));
+        parts.put("word/header1.xml", xml("<w:hdr " + W + ">" + paragraph("Шапка") + "</w:hdr>"));
+
+        assertEquals("Шапка\nИван Петров\nJava\tSpring\nПодвал", extractor.extract(docx(parts)));
+    }
+
+    @Test
+    void tableCellsAreSeparatedByTabsAndRowsByNewLines() throws IOException {
+        String table = "<w:tbl>"
+                + "<w:tr><w:tc>" + paragraph("Навык") + "</w:tc><w:tc>" + paragraph("Уровень") + "</w:tc></w:tr>"
+                + "<w:tr><w:tc>" + paragraph("Java") + paragraph("Kotlin") + "</w:tc><w:tc>" + paragraph("Senior")
+                + "</w:tc></w:tr>"
+                + "</w:tbl>";
+        Map<String, byte[]> parts = Map.of("word/document.xml", xml("<w:document " + W + "><w:body>"
+                + table + paragraph("Конец") + "</w:body></w:document>"));
+
+        assertEquals("Навык\tУровень\nJava Kotlin\tSenior\nКонец", extractor.extract(docx(parts)));
+    }
+
+    @Test
+    void malformedArchivesAreRejected() {
+        assertThrows(IOException.class, () -> extractor.extract(
+                new ByteArrayInputStream("не архив".getBytes(StandardCharsets.UTF_8))), "Не ZIP");
+        assertThrows(IOException.class, () -> extractor.extract(
+                docx(Map.of("word/styles.xml", xml("<w:styles " + W + "/>")))), "Нет document.xml");
+        assertThrows(IOException.class, () -> extractor.extract(
+                docx(Map.of("word/document.xml", xml("<w:document " + W + "><w:body><w:p>")))), "Обрыв XML");
+    }
+
+    @Test
+    void oversizedArchivesAreRejected() throws IOException {
+        String longText = "а".repeat(600_000);
+        DocxTextExtractor unlimitedChars = new DocxTextExtractor(1, 2, Integer.MAX_VALUE / 2);
+        IOException entry = assertThrows(IOException.class, () -> unlimitedChars.extract(docx(Map.of(
+                "word/document.xml", xml("<w:document " + W + "><w:body>" + paragraph(longText)
+                        + "</w:body></w:document>")))));
+        assertTrue(entry.getMessage().contains("word/document.xml"), entry.getMessage());
+
+        byte[] zeros = new byte[900 * 1024];
+        Map<String, byte[]> bomb = new LinkedHashMap<>();
+        bomb.put("word/document.xml", xml("<w:document " + W + "><w:body>" + paragraph("Текст")
+                + "</w:body></w:document>"));
+        bomb.put("word/media/image1.bin", zeros);
+        bomb.put("word/media/image2.bin", zeros);
+        bomb.put("word/media/image3.bin", zeros);
+        byte[] archive = docx(bomb).readAllBytes();
+        assertTrue(archive.length < 64 * 1024, "Архив должен сжиматься");
+        assertThrows(IOException.class, () -> extractor.extract(new ByteArrayInputStream(archive)),
+                "Пропускаемые записи тоже учитываются в общем лимите");
+
+        assertThrows(IOException.class, () -> extractor.extract(docx(Map.of(
+                "word/document.xml", xml("<w:document " + W + "><w:body>" + paragraph("б".repeat(1001))
+                        + "</w:body></w:document>")))), "Лимит символов");
+    }
+
+    private static String paragraph(final String text) {
+        return "<w:p><w:r><w:t>" + text + "</w:t></w:r></w:p>";
+    }
+
+    private static byte[] xml(final String content) {
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + content).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream docx(final Map<String, byte[]> parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue());
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
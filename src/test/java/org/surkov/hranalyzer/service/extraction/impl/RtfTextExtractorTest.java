@@ -0,0 +1,43 @@
+package org.surkov.hranalyzer.service.extraction.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RtfTextExtractorTest {
+
+    private final RtfTextExtractor extractor = new RtfTextExtractor();
+
+    @Test
+    void unicodeEscapesSkipFallbackCharacters() throws IOException {
+        assertEquals("Пр", extract("{\\rtf1\\ansi\\u1055?\\u1088 ?}"), "По умолчанию \\uc1");
+        assertEquals("Пр", extract("{\\rtf1\\ansi\\uc2\\u1055??\\u1088\\'cf\\'f0}"), "\\uc2, замена из \\'hh");
+        assertEquals("Пx", extract("{\\rtf1\\ansi\\uc0\\u1055 x}"), "\\uc0 ничего не пропускает");
+        assertEquals("Пab", extract("{\\rtf1\\ansi{\\uc2\\u1055 ??}ab}"), "\\ucN действует только в группе");
+    }
+
+    @Test
+    void hexEscapesAreDecodedInDocumentAndFontCodePages() throws IOException {
+        assertEquals("Привет", extract("{\\rtf1\\ansi\\ansicpg1251 \\'cf\\'f0\\'e8\\'e2\\'e5\\'f2}"));
+        assertEquals("Java Привет", extract("{\\rtf1\\ansi\\deff0{\\fonttbl{\\f0\\fcharset0 Arial;}"
+                + "{\\f1\\fcharset204 Arial Cyr;}}Java {\\f1 \\'cf\\'f0\\'e8\\'e2\\'e5\\'f2}}"));
+    }
+
+    @Test
+    void ignoredDestinationsDoNotProduceText() throws IOException {
+        String rtf = "{\\rtf1\\ansi{\\fonttbl{\\f0 Arial;}}{\\colortbl;\\red0\\green0\\blue0;}"
+                + "{\\stylesheet{\\s0 Normal;}}{\\info{\\author Автор}{\\title Заголовок}}"
+                + "{\\*\\generator Riched20;}{\\*\\unknown неизвестное назначение}"
+                + "{\\pict\\bin4 {{}}}Experience\\par Java\\tab Spring}";
+
+        assertEquals("Experience\nJava\tSpring", extract(rtf));
+    }
+
+    private String extract(final String rtf) throws IOException {
+        return extractor.extract(new ByteArrayInputStream(rtf.getBytes(StandardCharsets.UTF_8)));
+    }
+}
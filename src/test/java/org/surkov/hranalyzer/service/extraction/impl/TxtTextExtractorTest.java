@@ -0,0 +1,62 @@
+package org.surkov.hranalyzer.service.extraction.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TxtTextExtractorTest {
+
+    private static final String RESUME = "Иван Петров\nJava, Spring";
+
+    private final TxtTextExtractor extractor = new TxtTextExtractor(1000);
+
+    @Test
+    void byteOrderMarkSelectsEncodingAndIsNotExtracted() throws IOException {
+        assertEquals(RESUME, extract(extractor, concat(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF},
+                RESUME.getBytes(StandardCharsets.UTF_8))), "UTF-8 с BOM");
+        assertEquals(RESUME, extract(extractor, concat(new byte[]{(byte) 0xFF, (byte) 0xFE},
+                RESUME.getBytes(StandardCharsets.UTF_16LE))), "UTF-16LE с BOM");
+        assertEquals(RESUME, extract(extractor, concat(new byte[]{(byte) 0xFE, (byte) 0xFF},
+                RESUME.getBytes(StandardCharsets.UTF_16BE))), "UTF-16BE с BOM");
+    }
+
+    @Test
+    void textWithoutBomIsReadAsUtf8OrWindows1251() throws IOException {
+        assertEquals(RESUME, extract(extractor, RESUME.getBytes(StandardCharsets.UTF_8)), "UTF-8 без BOM");
+        assertEquals(RESUME, extract(extractor, RESUME.getBytes(Charset.forName("windows-1251"))),
+                "Некорректный UTF-8 читается как windows-1251");
+    }
+
+    @Test
+    void textIsTruncatedToMaxChars() throws IOException {
+        byte[] log = "строка журнала\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+
+        String text = extract(new TxtTextExtractor(100), log);
+
+        assertEquals(100, text.length());
+        assertEquals("строка журнала\n".repeat(6) + "строка жур", text);
+    }
+
+    @Test
+    void truncationDoesNotSplitSurrogatePair() throws IOException {
+        String text = extract(new TxtTextExtractor(4), "abc😀def".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("abc", text, "Символ вне BMP не помещается в лимит целиком");
+    }
+
+    private static String extract(final TxtTextExtractor extractor, final byte[] content) throws IOException {
+        return extractor.extract(new ByteArrayInputStream(content));
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package org.surkov.hranalyzer.service.gpt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.giga_chat.GigaChatDialog;
+import org.surkov.hranalyzer.giga_chat.config.GigaChatResilienceConfig;
+import org.surkov.hranalyzer.giga_chat.exception.ApiRequestException;
+import org.surkov.hranalyzer.giga_chat.exception.GigaChatUnavailableException;
+import org.surkov.hranalyzer.service.cache.AnalysisResultCache;
+import org.surkov.hranalyzer.util.JsonExtractor;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GptServiceTest {
+
+    private static final String PROMPT = "промпт";
+    private static final String RESUME = "резюме";
+    private static final String MODEL = "GigaChat";
+
+    private final GigaChatDialog dialog = mock(GigaChatDialog.class);
+    private final GigaChatResilienceConfig resilienceConfig = new GigaChatResilienceConfig();
+    private final GptService service = new GptService(
+            dialog,
+            new JsonExtractor(new ObjectMapper()),
+            new AnalysisResultCache(10, Optional.empty()),
+            resilienceConfig,
+            mock(LongResumeSummarizer.class)
+    );
+
+    @Test
+    void cachedResultIsReturnedOnlyWhenModelIsUnavailable() throws IOException {
+        when(dialog.getResponse(anyString(), anyString(), anyString())).thenReturn(response("анализ"));
+        assertEquals("анализ", service.analyzeResume(PROMPT, RESUME, MODEL));
+
+        doThrow(new GigaChatUnavailableException("выключатель разомкнут", 30))
+                .when(dialog).getResponse(anyString(), anyString(), anyString());
+        assertEquals("анализ", service.analyzeResume(PROMPT, RESUME, MODEL), "Модель недоступна");
+        assertThrows(GigaChatUnavailableException.class,
+                () -> service.analyzeResume(PROMPT, "другое резюме", MODEL), "Сохраненного результата нет");
+
+        doThrow(new ApiRequestException("ошибка 400"))
+                .when(dialog).getResponse(anyString(), anyString(), anyString());
+        assertThrows(ApiRequestException.class,
+                () -> service.analyzeResume(PROMPT, RESUME, MODEL), "Прочие ошибки не маскируются кэшем");
+    }
+
+    @Test
+    void asyncAnalysisFallsBackOnlyOnUnavailability() {
+        when(dialog.getResponseAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(response("анализ")));
+        assertEquals("анализ", service.analyzeResumeAsync(PROMPT, RESUME, MODEL).join());
+
+        when(dialog.getResponseAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new GigaChatUnavailableException("лимит", 1)));
+        assertEquals("анализ", service.analyzeResumeAsync(PROMPT, RESUME, MODEL).join());
+
+        when(dialog.getResponseAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new ApiRequestException("ошибка 400")));
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.analyzeResumeAsync(PROMPT, RESUME, MODEL).join());
+        assertInstanceOf(ApiRequestException.class, e.getCause());
+    }
+
+    @Test
+    void fallbackCanBeDisabled() throws IOException {
+        when(dialog.getResponse(anyString(), anyString(), anyString())).thenReturn(response("анализ"));
+        service.analyzeResume(PROMPT, RESUME, MODEL);
+        resilienceConfig.setFallbackToCache(false);
+
+        doThrow(new GigaChatUnavailableException("выключатель разомкнут", 30))
+                .when(dialog).getResponse(anyString(), anyString(), anyString());
+        assertThrows(GigaChatUnavailableException.class, () -> service.analyzeResume(PROMPT, RESUME, MODEL));
+    }
+
+    private static String response(final String content) {
+        return "{\"choices\":[{\"message\":{\"content\":\"" + content + "\"}}]}";
+    }
+}
@@ -0,0 +1,75 @@
+package org.surkov.hranalyzer.service.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.surkov.hranalyzer.exception.ServiceOverloadedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(2, 3600, 5_000, 7);
+
+    @Test
+    void inFlightExecutionsAreNotEvicted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> execute("a", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "результат a";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("результат b", store.execute("b", "fp", () -> "результат b"));
+        assertEquals("результат c", store.execute("c", "fp", () -> "результат c"),
+                "Завершенный ключ b должен быть вытеснен вместо выполняющегося a");
+
+        ServiceOverloadedException full = assertThrows(ServiceOverloadedException.class, () -> {
+            CountDownLatch second = new CountDownLatch(1);
+            CompletableFuture.runAsync(() -> execute("d", () -> {
+                second.countDown();
+                await(release);
+                return "результат d";
+            }));
+            assertTrue(second.await(5, TimeUnit.SECONDS));
+            store.execute("e", "fp", () -> "результат e");
+        });
+        assertEquals(7, full.getRetryAfterSeconds());
+
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(() -> execute("a", () -> {
+            runs.incrementAndGet();
+            return "повторное выполнение";
+        }));
+        release.countDown();
+        assertEquals("результат a", inFlight.get(5, TimeUnit.SECONDS));
+        assertEquals("результат a", retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get(), "Повтор должен присоединиться к исходному выполнению");
+    }
+
+    private String execute(final String key, final IdempotencyStore.Action<String> action) {
+        try {
+            return store.execute(key, "fp", action);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.surkov.hranalyzer.service.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int VECTORS = 2000;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(7);
+        float[][] vectors = new float[VECTORS][];
+        HnswIndex index = new HnswIndex(16, 200, VECTORS);
+        for (int i = 0; i < VECTORS; i++) {
+            vectors[i] = randomVector(random);
+            assertEquals(i, index.add(vectors[i]));
+        }
+
+        int hits = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = randomVector(random);
+            Set<Integer> expected = bruteForce(vectors, query);
+            List<HnswIndex.Neighbor> found = index.search(query, K, 64);
+            assertEquals(K, found.size());
+            for (HnswIndex.Neighbor neighbor : found) {
+                if (expected.contains(neighbor.id())) {
+                    hits++;
+                }
+            }
+        }
+        double recall = (double) hits / (QUERIES * K);
+        assertTrue(recall >= 0.95, "recall@" + K + " = " + recall);
+    }
+
+    @Test
+    void searchReturnsNeighborsInDescendingSimilarity() {
+        HnswIndex index = new HnswIndex(4, 20, 10);
+        index.add(new float[]{1, 0});
+        index.add(new float[]{0, 1});
+        index.add(new float[]{1, 1});
+
+        List<HnswIndex.Neighbor> found = index.search(new float[]{2, 0.1f}, 3, 10);
+
+        assertEquals(List.of(0, 2, 1), found.stream().map(HnswIndex.Neighbor::id).toList());
+        assertEquals(1.0, found.get(0).similarity(), 0.01);
+    }
+
+    private static Set<Integer> bruteForce(final float[][] vectors, final float[] query) {
+        return IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> -cosine(vectors[i], query)))
+                .limit(K)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static double cosine(final float[] a, final float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    private static float[] randomVector(final Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,44 @@
+package org.surkov.hranalyzer.service.prescreen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AhoCorasickTest {
+
+    private static List<Integer> scan(final List<String> patterns, final String text) {
+        List<Integer> found = new ArrayList<>();
+        new AhoCorasick(patterns).scan(text, found::add);
+        return found;
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        List<String> patterns = List.of("java", "c++", "c");
+
+        assertEquals(List.of(), scan(patterns, "JavaScript, TypeScript"), "java внутри javascript");
+        assertEquals(List.of(0), scan(patterns, "Опыт: Java."), "Регистр и знаки препинания");
+        assertEquals(List.of(2, 1, 0), scan(patterns, "c, c++, java"), "c++ рядом с запятой");
+        assertEquals(List.of(1), scan(patterns, "C++"), "c внутри c++");
+        assertEquals(List.of(), scan(patterns, "java8 cpp"), "Цифра продолжает слово");
+    }
+
+    @Test
+    void findsOverlappingPatterns() {
+        List<String> patterns = List.of("spring boot", "boot", "spring", "spring boot admin");
+
+        List<Integer> found = scan(patterns, "spring boot admin");
+
+        assertEquals(List.of(2, 0, 1, 3), found);
+    }
+
+    @Test
+    void reportsSameAliasForEveryPattern() {
+        List<String> patterns = List.of("postgres", "PG", "pg", "greenplum");
+
+        assertEquals(List.of(1, 2), scan(patterns, "БД: pg"), "Один синоним у двух технологий");
+    }
+}